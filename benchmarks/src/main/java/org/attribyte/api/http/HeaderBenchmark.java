@@ -0,0 +1,126 @@
+/*
+ * Copyright 2026 Attribyte Labs, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ *
+ */
+
+package org.attribyte.api.http;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for creating immutable header maps from the generic maps accepted by builders,
+ * and for case-insensitive lookup.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HeaderBenchmark {
+
+   @Setup
+   public void setup() {
+      stringHeaders = Maps.newHashMap();
+      stringHeaders.put("Content-Type", "application/json; charset=utf-8");
+      stringHeaders.put("Content-Length", "18342");
+      stringHeaders.put("Cache-Control", "private, max-age=0");
+      stringHeaders.put("Date", "Fri, 16 Oct 2026 12:00:00 GMT");
+      stringHeaders.put("Server", "Jetty(12.1.6)");
+      stringHeaders.put("Vary", "Accept-Encoding");
+      stringHeaders.put("X-Request-Id", "6f1c1a9e-1f0c-4c4e-9d1c-3c8e4b1f2a7d");
+      stringHeaders.put("Connection", "keep-alive");
+
+      multiValueHeaders = Maps.newHashMap();
+      stringHeaders.forEach((name, value) -> multiValueHeaders.put(name, ImmutableList.of(value, value)));
+
+      headerHeaders = Maps.newHashMap();
+      stringHeaders.forEach((name, value) -> headerHeaders.put(name.toLowerCase(), new Header(name, value)));
+
+      headerMap = HeaderMap.copyOf(stringHeaders);
+      response = new ResponseBuilder(200).addHeaders(stringHeaders).create();
+   }
+
+   @Benchmark
+   public Header getExactCase() {
+      return headerMap.get("Content-Type");
+   }
+
+   @Benchmark
+   public Header getLowerCase() {
+      return headerMap.get("content-type");
+   }
+
+   @Benchmark
+   public Header getMissing() {
+      return headerMap.get("X-Missing-Header");
+   }
+
+   @Benchmark
+   public ImmutableMap<String, Header> createImmutableMapFromStrings() {
+      return Header.createImmutableMap(stringHeaders);
+   }
+
+   @Benchmark
+   public ImmutableMap<String, Header> createImmutableMapFromCollections() {
+      return Header.createImmutableMap(multiValueHeaders);
+   }
+
+   @Benchmark
+   public ImmutableMap<String, Header> createImmutableMapFromHeaders() {
+      return Header.createImmutableMap(headerHeaders);
+   }
+
+   @Benchmark
+   public Response createResponse() {
+      return new ResponseBuilder(200).addHeaders(stringHeaders).create();
+   }
+
+   @Benchmark
+   public Request createRequest() {
+      return new GetRequestBuilder(URI).addHeaders(stringHeaders).create();
+   }
+
+   @Benchmark
+   public String getResponseHeaderValue() {
+      return response.getHeaderValue("Content-Type");
+   }
+
+   @Benchmark
+   public String getResponseHeaderValueUnknownName() {
+      return response.getHeaderValue("X-Request-Id");
+   }
+
+   private static final java.net.URI URI = java.net.URI.create("http://localhost:8080/test");
+
+   private Map<String, String> stringHeaders;
+   private Map<String, Object> multiValueHeaders;
+   private Map<String, Header> headerHeaders;
+   private HeaderMap headerMap;
+   private Response response;
+}
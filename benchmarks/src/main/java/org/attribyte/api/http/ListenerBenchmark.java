@@ -0,0 +1,99 @@
+/*
+ * Copyright 2026 Attribyte Labs, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ *
+ */
+
+package org.attribyte.api.http;
+
+import com.google.common.collect.ImmutableList;
+import org.attribyte.api.http.impl.jetty.Listener;
+import org.attribyte.api.http.impl.jetty.ListenerChain;
+import org.attribyte.api.http.impl.jetty.StatsListener;
+import org.eclipse.jetty.client.HttpClient;
+import org.eclipse.jetty.client.Request;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for registering the per-request listener with a Jetty request.
+ * <p>
+ *    Compares registering the listener for each request event separately, as the client did,
+ *    with registering it once for all request events, and registering an additional listener separately
+ *    with combining both in a single {@code ListenerChain}. Run with {@code -prof gc} to compare allocation.
+ * </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ListenerBenchmark {
+
+   @Setup
+   public void setup() {
+      httpClient = new HttpClient();
+      uri = URI.create("http://localhost:8080/ok");
+   }
+
+   @Benchmark
+   public Request eventListeners() {
+      StatsListener listener = new StatsListener();
+      return httpClient.newRequest(uri)
+              .onRequestQueued(listener)
+              .onRequestBegin(listener)
+              .onRequestHeaders(listener)
+              .onRequestCommit(listener)
+              .onRequestContent(listener)
+              .onRequestSuccess(listener)
+              .onRequestFailure(listener);
+   }
+
+   @Benchmark
+   public Request requestListener() {
+      StatsListener listener = new StatsListener();
+      return httpClient.newRequest(uri)
+              .onRequestListener(listener);
+   }
+
+   @Benchmark
+   public Request requestListeners() {
+      StatsListener listener = new StatsListener();
+      return httpClient.newRequest(uri)
+              .onRequestListener(listener)
+              .onRequestListener(extraListener);
+   }
+
+   @Benchmark
+   public Request listenerChain() {
+      StatsListener listener = new StatsListener();
+      ImmutableList<Listener> listeners = ImmutableList.of(listener, extraListener);
+      return httpClient.newRequest(uri)
+              .onRequestListener(new ListenerChain(ImmutableList.copyOf(listeners), ImmutableList.copyOf(listeners)));
+   }
+
+   private HttpClient httpClient;
+   private final Listener extraListener = new StatsListener();
+   private URI uri;
+}
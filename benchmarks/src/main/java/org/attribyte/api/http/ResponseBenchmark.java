@@ -0,0 +1,88 @@
+/*
+ * Copyright 2026 Attribyte Labs, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ *
+ */
+
+package org.attribyte.api.http;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for building responses the way the client implementations do.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseBenchmark {
+
+   /**
+    * Response headers, as (name, value) pairs, in the order a server might send them.
+    */
+   static final String[] HEADERS = new String[] {
+           "Date", "Fri, 16 Oct 2026 12:00:00 GMT",
+           "Content-Type", "application/json; charset=utf-8",
+           "Content-Length", "18342",
+           "Connection", "keep-alive",
+           "Cache-Control", "private, max-age=0",
+           "Vary", "Accept-Encoding",
+           "Vary", "Origin",
+           "Set-Cookie", "a=1; Path=/; HttpOnly",
+           "Set-Cookie", "b=2; Path=/; HttpOnly",
+           "X-Request-Id", "6f1c1a9e-1f0c-4c4e-9d1c-3c8e4b1f2a7d",
+           "Server", "Jetty(12.1.6)"
+   };
+
+   @Setup
+   public void setup() {
+      response = addHeaders().create();
+   }
+
+   @Benchmark
+   public ResponseBuilder addHeader() {
+      return addHeaders();
+   }
+
+   @Benchmark
+   public Response create() {
+      return addHeaders().create();
+   }
+
+   @Benchmark
+   public String getHeaderValue() {
+      return response.getHeaderValue("Content-Type");
+   }
+
+   private static ResponseBuilder addHeaders() {
+      ResponseBuilder builder = new ResponseBuilder(200);
+      for(int i = 0; i < HEADERS.length; i += 2) {
+         builder.addHeader(HEADERS[i], HEADERS[i + 1]);
+      }
+      return builder;
+   }
+
+   private Response response;
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2026 Attribyte Labs, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ *
+ */
+
+package org.attribyte.api.http;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
+
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Parsed {@code Cache-Control} directives and the HTTP date parsing required for caching (RFC 9111).
+ */
+final class CacheControl {
+
+   /**
+    * No directives.
+    */
+   static final CacheControl EMPTY = new CacheControl(ImmutableMap.of());
+
+   private CacheControl(final ImmutableMap<String, String> directives) {
+      this.directives = directives;
+   }
+
+   /**
+    * Parses the {@code Cache-Control} header values.
+    * <p>
+    *    Directive names are case-insensitive. Quoted values are unquoted.
+    *    If a directive appears more than once, the first is retained.
+    * </p>
+    * @param values The header values.
+    * @return The directives.
+    */
+   static CacheControl parse(final List<String> values) {
+      if(values == null || values.isEmpty()) {
+         return EMPTY;
+      }
+      final Map<String, String> directives = Maps.newLinkedHashMap();
+      for(String value : values) {
+         int pos = 0;
+         final int len = value.length();
+         while(pos < len) {
+            int end = pos;
+            boolean quoted = false;
+            while(end < len) {
+               final char ch = value.charAt(end);
+               if(ch == '"') {
+                  quoted = !quoted;
+               } else if(ch == ',' && !quoted) {
+                  break;
+               }
+               end++;
+            }
+            final String directive = value.substring(pos, end).trim();
+            pos = end + 1;
+            if(directive.isEmpty()) {
+               continue;
+            }
+            final int eq = directive.indexOf('=');
+            final String name = (eq > 0 ? directive.substring(0, eq) : directive).trim().toLowerCase(Locale.ROOT);
+            String directiveValue = eq > 0 ? directive.substring(eq + 1).trim() : "";
+            if(directiveValue.length() > 1 && directiveValue.startsWith("\"") && directiveValue.endsWith("\"")) {
+               directiveValue = directiveValue.substring(1, directiveValue.length() - 1);
+            }
+            directives.putIfAbsent(name, directiveValue);
+         }
+      }
+      return directives.isEmpty() ? EMPTY : new CacheControl(ImmutableMap.copyOf(directives));
+   }
+
+   /**
+    * Is a directive present?
+    * @param name The lower-case directive name.
+    * @return Is the directive present?
+    */
+   boolean has(final String name) {
+      return directives.containsKey(name);
+   }
+
+   /**
+    * Gets a directive value in seconds, for example, {@code max-age}.
+    * @param name The lower-case directive name.
+    * @return The value in seconds or {@code -1} if the directive is missing or invalid.
+    */
+   long seconds(final String name) {
+      final String value = directives.get(name);
+      if(value == null || value.isEmpty()) {
+         return -1L;
+      }
+      try {
+         final long seconds = Long.parseLong(value);
+         return seconds >= 0L ? seconds : -1L;
+      } catch(NumberFormatException nfe) {
+         return value.chars().allMatch(Character::isDigit) ? Integer.MAX_VALUE : -1L; //Overflow
+      }
+   }
+
+   /**
+    * Parses an HTTP date.
+    * @param value The date value.
+    * @return The time in milliseconds, or {@code -1} if the value is missing or invalid.
+    */
+   static long parseDate(final String value) {
+      if(value == null || value.isEmpty()) {
+         return -1L;
+      }
+      try {
+         return ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+      } catch(DateTimeParseException de) {
+         return -1L;
+      }
+   }
+
+   @Override
+   public String toString() {
+      return directives.toString();
+   }
+
+   /**
+    * The directives, by lower-case name. Directives without a value have an empty value.
+    */
+   private final ImmutableMap<String, String> directives;
+}
@@ -0,0 +1,416 @@
+/*
+ * Copyright 2026 Attribyte Labs, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ *
+ */
+
+package org.attribyte.api.http;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Maps;
+
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * A response stored in a {@link ResponseCache} with the information required to compute its age and freshness (RFC 9111).
+ */
+public final class CachedResponse {
+
+   /**
+    * Creates a cached response for a request.
+    * @param request The request.
+    * @param response The response.
+    * @param requestTime The time the request was sent in milliseconds.
+    * @param responseTime The time the response was received in milliseconds.
+    * @return The cached response.
+    */
+   public static CachedResponse create(final Request request, final Response response,
+                                       final long requestTime, final long responseTime) {
+      final ImmutableList<String> vary = varyHeaderNames(response);
+      if(vary.isEmpty()) {
+         return new CachedResponse(response, ImmutableMap.of(), requestTime, responseTime);
+      }
+      final Map<String, String> varyHeaders = Maps.newLinkedHashMap();
+      for(String name : vary) {
+         varyHeaders.put(name, String.join(",", request.getHeaderValueList(name)));
+      }
+      return new CachedResponse(response, varyHeaders, requestTime, responseTime);
+   }
+
+   /**
+    * Creates a cached response.
+    * @param response The response.
+    * @param varyHeaders The values of the request headers named by {@code Vary}, by lower-case name.
+    * @param requestTime The time the request was sent in milliseconds.
+    * @param responseTime The time the response was received in milliseconds.
+    */
+   public CachedResponse(final Response response, final Map<String, String> varyHeaders,
+                         final long requestTime, final long responseTime) {
+      this.response = response;
+      this.varyHeaders = varyHeaders != null ? ImmutableMap.copyOf(varyHeaders) : ImmutableMap.of();
+      this.requestTime = requestTime;
+      this.responseTime = responseTime;
+
+      final long date = CacheControl.parseDate(response.getHeaderValue("Date"));
+      final long dateValue = date > 0L ? date : responseTime;
+      final long apparentAge = Math.max(0L, responseTime - dateValue);
+      final long correctedAgeValue = seconds(response.getHeaderValue("Age")) * 1000L + (responseTime - requestTime);
+      this.correctedInitialAge = Math.max(apparentAge, correctedAgeValue);
+
+      final CacheControl cacheControl = CacheControl.parse(response.getHeaderValueList("Cache-Control"));
+      this.noCache = cacheControl.has("no-cache");
+      this.mustRevalidate = cacheControl.has("must-revalidate") || cacheControl.has("proxy-revalidate");
+      this.freshnessLifetime = freshnessLifetime(response, cacheControl, dateValue);
+      this.etag = response.getHeaderValue("ETag");
+      this.lastModified = response.getHeaderValue("Last-Modified");
+      this.hitResponse = withCacheStatus(response, CacheStatus.HIT);
+   }
+
+   /**
+    * Computes the freshness lifetime of a response.
+    * <p>
+    *    Uses {@code max-age}, then {@code Expires}. If neither is present and the status is cacheable by default,
+    *    the heuristic lifetime is 10% of the time since {@code Last-Modified}, up to one day.
+    * </p>
+    */
+   private static long freshnessLifetime(final Response response, final CacheControl cacheControl, final long dateValue) {
+      final long maxAge = cacheControl.seconds("max-age");
+      if(maxAge >= 0L) {
+         return maxAge * 1000L;
+      }
+
+      final String expiresValue = response.getHeaderValue("Expires");
+      if(expiresValue != null) {
+         final long expires = CacheControl.parseDate(expiresValue);
+         return expires > 0L ? Math.max(0L, expires - dateValue) : 0L; //Invalid dates are in the past.
+      }
+
+      final long lastModified = CacheControl.parseDate(response.getHeaderValue("Last-Modified"));
+      if(lastModified > 0L && HEURISTICALLY_CACHEABLE.contains(response.statusCode)) {
+         return Math.min(MAX_HEURISTIC_LIFETIME_MILLIS, Math.max(0L, dateValue - lastModified) / 10L);
+      }
+      return 0L;
+   }
+
+   /**
+    * Gets the lower-case names of the request headers that select this response.
+    * @param response The response.
+    * @return The header names. Contains {@code *} if the response can't be selected by request headers.
+    */
+   static ImmutableList<String> varyHeaderNames(final Response response) {
+      final ImmutableList<String> values = response.getHeaderValueList("Vary");
+      if(values == null || values.isEmpty()) {
+         return ImmutableList.of();
+      }
+      final ImmutableList.Builder<String> names = ImmutableList.builder();
+      for(String value : values) {
+         for(String name : listSplitter.split(value)) {
+            names.add(name.toLowerCase(Locale.ROOT));
+         }
+      }
+      return names.build();
+   }
+
+   /**
+    * Gets the age of the response.
+    * @param now The current time in milliseconds.
+    * @return The age in milliseconds.
+    */
+   public long age(final long now) {
+      return correctedInitialAge + Math.max(0L, now - responseTime);
+   }
+
+   /**
+    * Is the response fresh, so it may be used without revalidation?
+    * @param now The current time in milliseconds.
+    * @return Is the response fresh?
+    */
+   public boolean isFresh(final long now) {
+      return !noCache && freshnessLifetime > age(now);
+   }
+
+   /**
+    * May the response be used without revalidation for a request?
+    * <p>
+    *    The request {@code max-age} limits the age, {@code min-fresh} requires the response to stay fresh
+    *    for the time given, and {@code max-stale} accepts a stale response, unless the response
+    *    has {@code must-revalidate}.
+    * </p>
+    * @param now The current time in milliseconds.
+    * @param requestCacheControl The request {@code Cache-Control} directives.
+    * @return May the response be used?
+    */
+   boolean isFresh(final long now, final CacheControl requestCacheControl) {
+      if(noCache) {
+         return false;
+      }
+      final long age = age(now);
+      final long maxAge = requestCacheControl.seconds("max-age");
+      if(maxAge >= 0L && age > maxAge * 1000L) {
+         return false;
+      }
+      final long remaining = freshnessLifetime - age;
+      if(remaining > 0L) {
+         final long minFresh = requestCacheControl.seconds("min-fresh");
+         return minFresh < 0L || remaining >= minFresh * 1000L;
+      }
+      if(mustRevalidate || !requestCacheControl.has("max-stale")) {
+         return false;
+      }
+      final long maxStale = requestCacheControl.seconds("max-stale");
+      return maxStale < 0L || -remaining <= maxStale * 1000L;
+   }
+
+   /**
+    * Does the response have a validator ({@code ETag} or {@code Last-Modified}) so it may be revalidated?
+    * @return Does the response have a validator?
+    */
+   public boolean hasValidator() {
+      return etag != null || lastModified != null;
+   }
+
+   /**
+    * Can this response be used for a request, according to the response {@code Vary} header?
+    * @param request The request.
+    * @return Does the response match the request?
+    */
+   public boolean matches(final Request request) {
+      for(Map.Entry<String, String> header : varyHeaders.entrySet()) {
+         if(!header.getValue().equals(String.join(",", request.getHeaderValueList(header.getKey())))) {
+            return false;
+         }
+      }
+      return true;
+   }
+
+   /**
+    * Adds conditional headers that validate this response to a request.
+    * @param request The request.
+    * @return The conditional request.
+    */
+   public Request conditionalRequest(final Request request) {
+      final ImmutableList.Builder<Header> headers = ImmutableList.builder();
+      if(etag != null) {
+         headers.add(new Header("If-None-Match", etag));
+      }
+      if(lastModified != null) {
+         headers.add(new Header("If-Modified-Since", lastModified));
+      }
+      return request.addHeaders(headers.build());
+   }
+
+   /**
+    * Creates the cached response updated by a {@code 304} (not modified) response to a conditional request.
+    * <p>
+    *    Headers in the {@code 304} response replace stored headers, except those that describe the body.
+    * </p>
+    * @param notModified The {@code 304} response.
+    * @param requestTime The time the conditional request was sent in milliseconds.
+    * @param responseTime The time the {@code 304} response was received in milliseconds.
+    * @return The updated cached response.
+    */
+   public CachedResponse revalidated(final Response notModified, final long requestTime, final long responseTime) {
+      final HeaderMap.Builder headers = new HeaderMap.Builder(response.headers.size() + notModified.headers.size())
+              .putAll(response.headers);
+      for(Header header : notModified.getHeaders()) {
+         if(!BODY_HEADERS.contains(HeaderMap.lowerCaseName(header.name))) {
+            headers.put(header);
+         }
+      }
+      return new CachedResponse(copy(response, headers.buildImmutableMap(), response.attributes, null),
+              varyHeaders, requestTime, responseTime);
+   }
+
+   /**
+    * Gets the number of body bytes held in memory for this response.
+    * @return The number of bytes.
+    */
+   public long weight() {
+      return response instanceof BodyResponse && ((BodyResponse)response).body != null ?
+              ((BodyResponse)response).body.size() : 0L;
+   }
+
+   /**
+    * Creates a copy of a response with the {@code cacheStatus} attribute set.
+    * <p>
+    *    The body and headers are shared with the original response, not copied.
+    *    A pooled response is copied as a pooled response that returns the original buffers when closed.
+    * </p>
+    * @param response The response.
+    * @param status The cache status.
+    * @return The response with the attribute set.
+    */
+   static Response withCacheStatus(final Response response, final CacheStatus status) {
+      final Map<String, Object> attributes = Maps.newHashMapWithExpectedSize(response.attributes.size() + 1);
+      attributes.putAll(response.attributes);
+      attributes.put(CACHE_STATUS_ATTRIBUTE, status);
+      return copy(response, response.headers, attributes, status == CacheStatus.HIT ? null : response.stats);
+   }
+
+   /**
+    * Creates a copy of a response with new headers, attributes and stats, sharing the body.
+    */
+   private static Response copy(final Response response, final ImmutableMap<String, Header> headers,
+                                final Map<String, Object> attributes, final Stats stats) {
+      if(response instanceof PooledBodyResponse) {
+         final PooledBodyResponse pooled = (PooledBodyResponse)response;
+         return new PooledBodyResponse(response.statusCode, headers, pooled.body,
+                 attributes, stats, response.cookies, pooled::close);
+      } else if(response instanceof BodyResponse) {
+         return new BodyResponse(response.statusCode, headers, ((BodyResponse)response).body,
+                 attributes, stats, response.cookies);
+      } else if(response instanceof StreamedResponse) {
+         return new StreamedResponse(response.statusCode, headers, ((StreamedResponse)response).body,
+                 attributes, stats, response.cookies);
+      } else {
+         return new Response(response.statusCode, headers, attributes, stats, response.cookies);
+      }
+   }
+
+   private static long seconds(final String value) {
+      if(value == null) {
+         return 0L;
+      }
+      try {
+         return Math.max(0L, Long.parseLong(value.trim()));
+      } catch(NumberFormatException nfe) {
+         return 0L;
+      }
+   }
+
+   @Override
+   public String toString() {
+      return MoreObjects.toStringHelper(this)
+              .add("statusCode", response.statusCode)
+              .add("varyHeaders", varyHeaders)
+              .add("requestTime", requestTime)
+              .add("responseTime", responseTime)
+              .add("freshnessLifetime", freshnessLifetime)
+              .add("etag", etag)
+              .add("lastModified", lastModified)
+              .toString();
+   }
+
+   /**
+    * Identifies how a response was produced by a caching client.
+    */
+   public enum CacheStatus {
+
+      /**
+       * A fresh response from the cache.
+       */
+      HIT,
+
+      /**
+       * A response from the origin server, or a {@code 504} response when an {@code only-if-cached}
+       * request could not be answered by the cache.
+       */
+      MISS,
+
+      /**
+       * A cached response validated by the origin server.
+       */
+      REVALIDATED,
+
+      /**
+       * The request was sent to the origin server without using the cache.
+       */
+      BYPASS
+   }
+
+   /**
+    * The response attribute that holds the {@link CacheStatus}.
+    */
+   public static final String CACHE_STATUS_ATTRIBUTE = "cacheStatus";
+
+   /**
+    * Statuses that may be cached without explicit freshness information.
+    */
+   static final ImmutableSet<Integer> HEURISTICALLY_CACHEABLE =
+           ImmutableSet.of(200, 203, 204, 300, 301, 308, 404, 405, 410, 414, 501);
+
+   /**
+    * Headers (lower-case) that are not updated by a {@code 304} response.
+    */
+   private static final ImmutableSet<String> BODY_HEADERS =
+           ImmutableSet.of("content-length", "content-encoding", "content-type", "content-range", "transfer-encoding");
+
+   /**
+    * The maximum heuristic freshness lifetime.
+    */
+   private static final long MAX_HEURISTIC_LIFETIME_MILLIS = 24L * 3600L * 1000L;
+
+   /**
+    * Splits comma-separated header values.
+    */
+   private static final Splitter listSplitter = Splitter.on(',').trimResults().omitEmptyStrings();
+
+   /**
+    * The stored response.
+    */
+   public final Response response;
+
+   /**
+    * The values of the request headers named by the response {@code Vary} header, by lower-case name.
+    */
+   public final ImmutableMap<String, String> varyHeaders;
+
+   /**
+    * The time the request was sent in milliseconds.
+    */
+   public final long requestTime;
+
+   /**
+    * The time the response was received in milliseconds.
+    */
+   public final long responseTime;
+
+   /**
+    * The freshness lifetime in milliseconds.
+    */
+   public final long freshnessLifetime;
+
+   /**
+    * The age of the response when it was received in milliseconds.
+    */
+   private final long correctedInitialAge;
+
+   /**
+    * Does the response require revalidation for every use?
+    */
+   private final boolean noCache;
+
+   /**
+    * May the response never be used when stale?
+    */
+   private final boolean mustRevalidate;
+
+   /**
+    * The entity tag, if any.
+    */
+   private final String etag;
+
+   /**
+    * The last modified date, if any.
+    */
+   private final String lastModified;
+
+   /**
+    * The response returned for a cache hit.
+    */
+   final Response hitResponse;
+}
@@ -0,0 +1,260 @@
+/*
+ * Copyright 2026 Attribyte Labs, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ *
+ */
+
+package org.attribyte.api.http;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.collect.ImmutableList;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * An async client that caches responses to {@code GET} requests (RFC 9111).
+ * <p>
+ *    Fresh responses, according to {@code Cache-Control}, {@code Expires} or heuristically from
+ *    {@code Last-Modified}, are returned without sending the request. Stale responses with an {@code ETag} or
+ *    {@code Last-Modified} validator are revalidated with a conditional request. The request {@code max-age},
+ *    {@code min-fresh} and {@code max-stale} directives are honoured, and an {@code only-if-cached} request
+ *    without a usable cached response gets a {@code 504} response. Responses are
+ *    selected by the request headers named in {@code Vary}. One response is stored for each URI, so
+ *    a request with different {@code Vary} header values replaces it.
+ * </p>
+ * <p>
+ *    Every {@code GET} response has the {@link CachedResponse#CACHE_STATUS_ATTRIBUTE} attribute.
+ *    Cache hits return the same response instance, without stats, until the entry changes.
+ *    This is a private cache: responses marked {@code private} or requested with {@code Authorization}
+ *    are stored, so a client should not be shared by different users. Streamed and pooled response bodies
+ *    are never stored. Pooled responses are returned as pooled responses that must be closed.
+ * </p>
+ */
+public class CachingClient extends ForwardingAsyncClient {
+
+   /**
+    * Creates a caching client with a memory cache.
+    * @param delegate The client that sends requests.
+    * @param maxBytes The maximum number of bytes held in memory.
+    */
+   public CachingClient(final AsyncClient delegate, final long maxBytes) {
+      this(delegate, new MemoryResponseCache(maxBytes));
+   }
+
+   /**
+    * Creates a caching client.
+    * @param delegate The client that sends requests.
+    * @param cache The response cache.
+    */
+   public CachingClient(final AsyncClient delegate, final ResponseCache cache) {
+      super(delegate);
+      this.cache = cache;
+   }
+
+   @Override
+   public CompletableFuture<Response> completableSend(final Request request, final RequestOptions options) {
+
+      if(request.method != Request.Method.GET) {
+         if(!UNSAFE_METHODS.contains(request.method)) {
+            return delegate.completableSend(request, options);
+         }
+         final String key = key(request);
+         return delegate.completableSend(request, options).thenApply(response -> {
+            if(response.statusCode < 400) {
+               cache.remove(key);
+            }
+            return response;
+         });
+      }
+
+      final CacheControl requestCacheControl = CacheControl.parse(request.getHeaderValueList("Cache-Control"));
+      final boolean onlyIfCached = requestCacheControl.has("only-if-cached");
+      if(!isCacheable(request, requestCacheControl)) {
+         if(onlyIfCached) {
+            return CompletableFuture.completedFuture(gatewayTimeout());
+         }
+         bypasses.increment();
+         return delegate.completableSend(request, options)
+                 .thenApply(response -> CachedResponse.withCacheStatus(response, CachedResponse.CacheStatus.BYPASS));
+      }
+
+      final String key = key(request);
+      final long requestTime = System.currentTimeMillis();
+      final CachedResponse cached = cache.get(key);
+      if(cached != null && cached.matches(request)) {
+         final boolean noCache = requestCacheControl.has("no-cache") ||
+                 requestCacheControl == CacheControl.EMPTY && request.getHeaderValueList("Pragma").contains("no-cache");
+         if(!noCache && cached.isFresh(requestTime, requestCacheControl)) {
+            hits.increment();
+            return CompletableFuture.completedFuture(cached.hitResponse);
+         } else if(cached.hasValidator() && !onlyIfCached) {
+            return delegate.completableSend(cached.conditionalRequest(request), options).thenApply(response -> {
+               if(response.statusCode == 304) {
+                  revalidations.increment();
+                  final CachedResponse revalidated = cached.revalidated(response, requestTime, System.currentTimeMillis());
+                  release(response);
+                  cache.put(key, revalidated);
+                  return CachedResponse.withCacheStatus(revalidated.response, CachedResponse.CacheStatus.REVALIDATED);
+               } else {
+                  misses.increment();
+                  return store(key, request, response, requestTime);
+               }
+            });
+         }
+      }
+
+      if(onlyIfCached) {
+         return CompletableFuture.completedFuture(gatewayTimeout());
+      }
+
+      misses.increment();
+      return delegate.completableSend(request, options).thenApply(response -> store(key, request, response, requestTime));
+   }
+
+   /**
+    * Creates the {@code 504} response for an {@code only-if-cached} request without a usable cached response.
+    */
+   private static Response gatewayTimeout() {
+      return new ResponseBuilder(504)
+              .addAttribute(CachedResponse.CACHE_STATUS_ATTRIBUTE, CachedResponse.CacheStatus.MISS)
+              .create();
+   }
+
+   /**
+    * Stores a response, if allowed, and returns it with the cache status.
+    */
+   private Response store(final String key, final Request request, final Response response, final long requestTime) {
+      if(isStorable(response)) {
+         final CachedResponse cached = CachedResponse.create(request, response, requestTime, System.currentTimeMillis());
+         cache.put(key, cached);
+      } else {
+         cache.remove(key);
+      }
+      return CachedResponse.withCacheStatus(response, CachedResponse.CacheStatus.MISS);
+   }
+
+   /**
+    * May the cache be used for a {@code GET} request?
+    * <p>
+    *    Requests with {@code no-store}, a {@code Range}, or their own conditional headers
+    *    are sent without using the cache.
+    * </p>
+    */
+   private static boolean isCacheable(final Request request, final CacheControl cacheControl) {
+      return !cacheControl.has("no-store") &&
+              request.getHeader("Range") == null &&
+              request.getHeader("If-None-Match") == null &&
+              request.getHeader("If-Modified-Since") == null;
+   }
+
+   /**
+    * May a response be stored?
+    * <p>
+    *    The response must be complete and in memory, must not have {@code no-store} or {@code Vary: *}, and
+    *    must have explicit freshness, a status that is cacheable by default, or a validator.
+    * </p>
+    */
+   static boolean isStorable(final Response response) {
+      if(!(response instanceof BodyResponse) || response instanceof PooledBodyResponse) {
+         return false;
+      }
+      final int status = response.statusCode;
+      if(status < 200 || status == 206 || status == 304) {
+         return false;
+      }
+      final CacheControl cacheControl = CacheControl.parse(response.getHeaderValueList("Cache-Control"));
+      if(cacheControl.has("no-store") || CachedResponse.varyHeaderNames(response).contains("*")) {
+         return false;
+      }
+      return cacheControl.has("max-age") ||
+              response.getHeaderValue("Expires") != null ||
+              CachedResponse.HEURISTICALLY_CACHEABLE.contains(status) &&
+                      (response.getHeaderValue("ETag") != null || response.getHeaderValue("Last-Modified") != null);
+   }
+
+   /**
+    * Creates the cache key for a request.
+    * @param request The request.
+    * @return The key.
+    */
+   protected String key(final Request request) {
+      return request.uri.toString();
+   }
+
+   /**
+    * Gets the number of requests answered by the cache without contacting the origin server.
+    * @return The number of hits.
+    */
+   public long hits() {
+      return hits.sum();
+   }
+
+   /**
+    * Gets the number of requests sent to the origin server that were not answered with {@code 304}.
+    * @return The number of misses.
+    */
+   public long misses() {
+      return misses.sum();
+   }
+
+   /**
+    * Gets the number of cached responses validated with a {@code 304} response.
+    * @return The number of revalidations.
+    */
+   public long revalidations() {
+      return revalidations.sum();
+   }
+
+   /**
+    * Gets the number of requests that did not use the cache.
+    * @return The number of bypassed requests.
+    */
+   public long bypasses() {
+      return bypasses.sum();
+   }
+
+   /**
+    * Gets the response cache.
+    * @return The cache.
+    */
+   public ResponseCache cache() {
+      return cache;
+   }
+
+   @Override
+   public String toString() {
+      return MoreObjects.toStringHelper(this)
+              .add("hits", hits())
+              .add("misses", misses())
+              .add("revalidations", revalidations())
+              .add("bypasses", bypasses())
+              .add("cache", cache)
+              .toString();
+   }
+
+   /**
+    * Methods that invalidate cached responses for their URI when they succeed.
+    */
+   private static final ImmutableList<Request.Method> UNSAFE_METHODS =
+           ImmutableList.of(Request.Method.POST, Request.Method.PUT, Request.Method.DELETE, Request.Method.PATCH);
+
+   /**
+    * The response cache.
+    */
+   private final ResponseCache cache;
+
+   private final LongAdder hits = new LongAdder();
+   private final LongAdder misses = new LongAdder();
+   private final LongAdder revalidations = new LongAdder();
+   private final LongAdder bypasses = new LongAdder();
+}
@@ -0,0 +1,269 @@
+/*
+ * Copyright 2026 Attribyte Labs, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ *
+ */
+
+package org.attribyte.api.http;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+import java.net.URI;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A point-in-time snapshot of connection pool and request queue metrics for a client.
+ * <p>
+ *    Counts a client implementation can't report are {@code -1}.
+ *    Recorded stats for a destination, for example rejected requests and queue wait time, are
+ *    discarded when the destination has had no requests for {@link #DESTINATION_EXPIRY_MILLIS}.
+ * </p>
+ */
+public class ClientMetrics {
+
+   /**
+    * The time after which recorded stats for a destination without requests are discarded.
+    */
+   public static final long DESTINATION_EXPIRY_MILLIS = TimeUnit.MINUTES.toMillis(10L);
+
+   /**
+    * Creates client metrics.
+    * @param destinations The metrics for each destination.
+    */
+   public ClientMetrics(final Collection<Destination> destinations) {
+      this.destinations = ImmutableList.copyOf(destinations);
+      int activeConnections = 0;
+      int idleConnections = 0;
+      int queuedRequests = 0;
+      long rejectedRequests = 0L;
+      LatencyHistogram.Snapshot queueWaitTime = LatencyHistogram.Snapshot.EMPTY;
+      for(Destination destination : this.destinations) {
+         activeConnections = sum(activeConnections, destination.activeConnections);
+         idleConnections = sum(idleConnections, destination.idleConnections);
+         queuedRequests = sum(queuedRequests, destination.queuedRequests);
+         rejectedRequests += destination.rejectedRequests;
+         queueWaitTime = queueWaitTime.merge(destination.queueWaitTime);
+      }
+      this.activeConnections = activeConnections;
+      this.idleConnections = idleConnections;
+      this.queuedRequests = queuedRequests;
+      this.rejectedRequests = rejectedRequests;
+      this.queueWaitTime = queueWaitTime;
+   }
+
+   private static int sum(final int total, final int count) {
+      return total < 0 || count < 0 ? -1 : total + count;
+   }
+
+   /**
+    * Gets the metrics for a destination.
+    * @param key The destination key.
+    * @return The metrics, or {@code null} if the client has no metrics for the destination.
+    * @see #destinationKey(String, String, int)
+    */
+   public Destination getDestination(final String key) {
+      for(Destination destination : destinations) {
+         if(destination.key.equals(key)) {
+            return destination;
+         }
+      }
+      return null;
+   }
+
+   /**
+    * Creates a flat map of metric names to values.
+    * <p>
+    *    Totals are named, for example, {@code active-connections}. Destination metrics are prefixed
+    *    with the destination key, for example {@code http://localhost:8080.active-connections}.
+    *    Queue wait time percentiles are in microseconds. The map may be used to register gauges with
+    *    a metrics library without this library depending on it.
+    * </p>
+    * @return The map of metrics.
+    */
+   public Map<String, Number> toMap() {
+      ImmutableMap.Builder<String, Number> builder = ImmutableMap.builder();
+      addMetrics("", activeConnections, idleConnections, -1, queuedRequests, rejectedRequests, queueWaitTime, builder);
+      for(Destination destination : destinations) {
+         addMetrics(destination.key + ".", destination.activeConnections, destination.idleConnections,
+                 destination.maxConnections, destination.queuedRequests, destination.rejectedRequests,
+                 destination.queueWaitTime, builder);
+      }
+      return builder.buildKeepingLast();
+   }
+
+   private static void addMetrics(final String prefix,
+                                  final int activeConnections, final int idleConnections, final int maxConnections,
+                                  final int queuedRequests, final long rejectedRequests,
+                                  final LatencyHistogram.Snapshot queueWaitTime,
+                                  final ImmutableMap.Builder<String, Number> builder) {
+      builder.put(prefix + "active-connections", activeConnections);
+      builder.put(prefix + "idle-connections", idleConnections);
+      if(maxConnections >= 0) {
+         builder.put(prefix + "max-connections", maxConnections);
+      }
+      builder.put(prefix + "queued-requests", queuedRequests);
+      builder.put(prefix + "rejected-requests", rejectedRequests);
+      builder.put(prefix + "queue-wait-count", queueWaitTime.count);
+      builder.put(prefix + "queue-wait-p50", queueWaitTime.percentile(50.0, TimeUnit.MICROSECONDS));
+      builder.put(prefix + "queue-wait-p90", queueWaitTime.percentile(90.0, TimeUnit.MICROSECONDS));
+      builder.put(prefix + "queue-wait-p99", queueWaitTime.percentile(99.0, TimeUnit.MICROSECONDS));
+      builder.put(prefix + "queue-wait-p999", queueWaitTime.percentile(99.9, TimeUnit.MICROSECONDS));
+      builder.put(prefix + "queue-wait-max", TimeUnit.NANOSECONDS.toMicros(queueWaitTime.max));
+   }
+
+   @Override
+   public String toString() {
+      return MoreObjects.toStringHelper(this)
+              .add("activeConnections", activeConnections)
+              .add("idleConnections", idleConnections)
+              .add("queuedRequests", queuedRequests)
+              .add("rejectedRequests", rejectedRequests)
+              .add("queueWaitTime", queueWaitTime)
+              .add("destinations", destinations)
+              .toString();
+   }
+
+   /**
+    * Creates the key that identifies a destination.
+    * @param scheme The scheme.
+    * @param host The host.
+    * @param port The port, or {@code -1} for the scheme default.
+    * @return The key, for example {@code https://example.com:443}.
+    */
+   public static String destinationKey(final String scheme, final String host, final int port) {
+      final String normalizedScheme = scheme != null ? scheme.toLowerCase(Locale.ROOT) : "http";
+      final int normalizedPort = port > 0 ? port : normalizedScheme.equals("https") ? 443 : 80;
+      return normalizedScheme + "://" + (host != null ? host.toLowerCase(Locale.ROOT) : "") + ":" + normalizedPort;
+   }
+
+   /**
+    * Creates the key that identifies the destination for a URI.
+    * @param uri The URI.
+    * @return The key.
+    */
+   public static String destinationKey(final URI uri) {
+      return destinationKey(uri.getScheme(), uri.getHost(), uri.getPort());
+   }
+
+   /**
+    * Metrics for a single destination (scheme, host and port).
+    */
+   public static class Destination {
+
+      /**
+       * Creates destination metrics.
+       * @param key The destination key.
+       * @param activeConnections The number of connections in use.
+       * @param idleConnections The number of idle connections.
+       * @param maxConnections The maximum number of connections.
+       * @param queuedRequests The number of requests waiting for a connection.
+       * @param rejectedRequests The number of requests rejected because the queue was full.
+       * @param queueWaitTime The time requests waited for a connection.
+       */
+      public Destination(final String key,
+                         final int activeConnections, final int idleConnections, final int maxConnections,
+                         final int queuedRequests, final long rejectedRequests,
+                         final LatencyHistogram.Snapshot queueWaitTime) {
+         this.key = key;
+         this.activeConnections = activeConnections;
+         this.idleConnections = idleConnections;
+         this.maxConnections = maxConnections;
+         this.queuedRequests = queuedRequests;
+         this.rejectedRequests = rejectedRequests;
+         this.queueWaitTime = queueWaitTime != null ? queueWaitTime : LatencyHistogram.Snapshot.EMPTY;
+      }
+
+      @Override
+      public String toString() {
+         return MoreObjects.toStringHelper(this)
+                 .add("key", key)
+                 .add("activeConnections", activeConnections)
+                 .add("idleConnections", idleConnections)
+                 .add("maxConnections", maxConnections)
+                 .add("queuedRequests", queuedRequests)
+                 .add("rejectedRequests", rejectedRequests)
+                 .add("queueWaitTime", queueWaitTime)
+                 .toString();
+      }
+
+      /**
+       * The destination key.
+       * @see #destinationKey(String, String, int)
+       */
+      public final String key;
+
+      /**
+       * The number of connections in use, or {@code -1} if unknown.
+       */
+      public final int activeConnections;
+
+      /**
+       * The number of idle connections, or {@code -1} if unknown.
+       */
+      public final int idleConnections;
+
+      /**
+       * The maximum number of connections, or {@code -1} if unknown.
+       */
+      public final int maxConnections;
+
+      /**
+       * The number of requests waiting for a connection, or {@code -1} if unknown.
+       */
+      public final int queuedRequests;
+
+      /**
+       * The number of requests rejected because the queue was full.
+       */
+      public final long rejectedRequests;
+
+      /**
+       * The time requests waited for a connection.
+       */
+      public final LatencyHistogram.Snapshot queueWaitTime;
+   }
+
+   /**
+    * The metrics for each destination.
+    */
+   public final ImmutableList<Destination> destinations;
+
+   /**
+    * The total number of connections in use, or {@code -1} if unknown.
+    */
+   public final int activeConnections;
+
+   /**
+    * The total number of idle connections, or {@code -1} if unknown.
+    */
+   public final int idleConnections;
+
+   /**
+    * The total number of requests waiting for a connection, or {@code -1} if unknown.
+    */
+   public final int queuedRequests;
+
+   /**
+    * The total number of requests rejected because a queue was full.
+    */
+   public final long rejectedRequests;
+
+   /**
+    * The time requests waited for a connection, for all destinations.
+    */
+   public final LatencyHistogram.Snapshot queueWaitTime;
+}
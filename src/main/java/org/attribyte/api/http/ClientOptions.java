@@ -20,6 +20,7 @@ import org.attribyte.api.InitializationException;
 import org.attribyte.util.InitUtil;
 
 import java.net.CookieStore;
+import java.util.Locale;
 import java.util.Properties;
 
 /**
@@ -32,6 +33,70 @@ public class ClientOptions {
     */
    public static final ClientOptions IMPLEMENTATION_DEFAULT = new ClientOptions();
 
+   /**
+    * The executor used by the client to run asynchronous tasks.
+    */
+   public enum ExecutorType {
+
+      /**
+       * A cached pool of platform threads with no upper bound.
+       */
+      CACHED,
+
+      /**
+       * A pool with a fixed maximum number of named platform threads.
+       */
+      BOUNDED,
+
+      /**
+       * A new virtual thread for each task. Requires Java 21+. With earlier versions, a bounded pool is used.
+       */
+      VIRTUAL
+   }
+
+   /**
+    * The HTTP protocol used by the client.
+    */
+   public enum Protocol {
+
+      /**
+       * HTTP/1.1 only.
+       */
+      HTTP_1_1,
+
+      /**
+       * HTTP/2 negotiated with ALPN for secure connections, falling back to HTTP/1.1.
+       * Clear-text connections use HTTP/1.1.
+       */
+      HTTP_2,
+
+      /**
+       * HTTP/2 for all connections, with prior knowledge ({@code h2c}) for clear-text connections.
+       * Secure connections prefer HTTP/2 with ALPN, falling back to HTTP/1.1.
+       */
+      H2C;
+
+      /**
+       * Gets a protocol from a string like {@code http/1.1}, {@code h2}, or {@code h2c}.
+       * @param str The string.
+       * @return The protocol.
+       * @throws IllegalArgumentException if the string does not name a protocol.
+       */
+      public static Protocol fromString(final String str) {
+         String normalized = str.trim().toUpperCase(Locale.ROOT).replace('/', '_').replace('.', '_').replace('-', '_');
+         switch(normalized) {
+            case "H2":
+            case "HTTP2":
+               return HTTP_2;
+            case "HTTP1":
+            case "HTTP_1":
+               return HTTP_1_1;
+            default:
+               return Protocol.valueOf(normalized);
+         }
+      }
+   }
+
    /**
     * The user agent ({@code 'AttribyteHttp/1.0'}).
     */
@@ -97,6 +162,27 @@ public class ClientOptions {
     */
    public final CookieStore cookieStore;
 
+   /**
+    * The executor used to run asynchronous tasks ({@code CACHED}).
+    */
+   public final ExecutorType executorType;
+
+   /**
+    * The maximum number of threads when the executor is {@code BOUNDED} (64).
+    */
+   public final int executorThreads;
+
+   /**
+    * The HTTP protocol ({@code HTTP_1_1}).
+    */
+   public final Protocol protocol;
+
+   /**
+    * The maximum number of concurrent streams on a multiplexed (HTTP/2) connection. If {@code 0},
+    * the limit advertised by the server is used (0).
+    */
+   public final int maxConcurrentStreams;
+
    /**
     * Arbitrary, implementation-specific properties.
     */
@@ -117,6 +203,10 @@ public class ClientOptions {
               .add("requestBufferSize", requestBufferSize)
               .add("responseBufferSize", responseBufferSize)
               .add("trustAllCertificates", trustAllCertificates)
+              .add("executorType", executorType)
+              .add("executorThreads", executorThreads)
+              .add("protocol", protocol)
+              .add("maxConcurrentStreams", maxConcurrentStreams)
               .toString();
    }
 
@@ -196,6 +286,10 @@ public class ClientOptions {
    static final String[] REQUEST_BUFFER_SIZE = new String[]{"requestBufferSize", "4096"};
    static final String[] RESPONSE_BUFFER_SIZE = new String[]{"responseBufferSize", "16384"};
    static final String[] TRUST_ALL_CERTIFICATES = new String[] {"trustAllCertificates", "false"};
+   static final String[] EXECUTOR_TYPE = new String[] {"executorType", "cached"};
+   static final String[] EXECUTOR_THREADS = new String[] {"executorThreads", "64"};
+   static final String[] PROTOCOL = new String[] {"protocol", "http/1.1"};
+   static final String[] MAX_CONCURRENT_STREAMS = new String[] {"maxConcurrentStreams", "0"};
 
    /**
     * Creates options from properties.
@@ -219,6 +313,20 @@ public class ClientOptions {
       this.trustAllCertificates = init.getProperty(TRUST_ALL_CERTIFICATES[KEY], TRUST_ALL_CERTIFICATES[DEFAULT_VALUE]).equalsIgnoreCase("true");
       this.props = init.getProperties();
       this.cookieStore = null;
+      String executorTypeStr = init.getProperty(EXECUTOR_TYPE[KEY], EXECUTOR_TYPE[DEFAULT_VALUE]);
+      try {
+         this.executorType = ExecutorType.valueOf(executorTypeStr.trim().toUpperCase(Locale.ROOT));
+      } catch(IllegalArgumentException iae) {
+         throw new InitializationException("Invalid '" + EXECUTOR_TYPE[KEY] + "': " + executorTypeStr);
+      }
+      this.executorThreads = init.getIntProperty(EXECUTOR_THREADS[KEY], Integer.parseInt(EXECUTOR_THREADS[DEFAULT_VALUE]));
+      String protocolStr = init.getProperty(PROTOCOL[KEY], PROTOCOL[DEFAULT_VALUE]);
+      try {
+         this.protocol = Protocol.fromString(protocolStr);
+      } catch(IllegalArgumentException iae) {
+         throw new InitializationException("Invalid '" + PROTOCOL[KEY] + "': " + protocolStr);
+      }
+      this.maxConcurrentStreams = init.getIntProperty(MAX_CONCURRENT_STREAMS[KEY], Integer.parseInt(MAX_CONCURRENT_STREAMS[DEFAULT_VALUE]));
 
    }
 
@@ -231,6 +339,10 @@ public class ClientOptions {
                  final int requestBufferSize, final int responseBufferSize,
                  final boolean trustAllCertificates,
                  final CookieStore cookieStore,
+                 final ExecutorType executorType,
+                 final int executorThreads,
+                 final Protocol protocol,
+                 final int maxConcurrentStreams,
                  final Properties props) {
       this.userAgent = userAgent;
       this.connectionTimeoutMillis = connectionTimeoutMillis;
@@ -245,6 +357,10 @@ public class ClientOptions {
       this.responseBufferSize = responseBufferSize;
       this.trustAllCertificates = trustAllCertificates;
       this.cookieStore = cookieStore;
+      this.executorType = executorType;
+      this.executorThreads = executorThreads;
+      this.protocol = protocol;
+      this.maxConcurrentStreams = maxConcurrentStreams;
       this.props = props;
    }
 
@@ -261,8 +377,12 @@ public class ClientOptions {
       this.requestBufferSize = 0;
       this.responseBufferSize = 0;
       this.trustAllCertificates = false;
-      this.props = null;
+      this.props = new Properties();
       this.cookieStore = null;
+      this.executorType = ExecutorType.CACHED;
+      this.executorThreads = 0;
+      this.protocol = Protocol.HTTP_1_1;
+      this.maxConcurrentStreams = 0;
    }
 
    /**
@@ -293,6 +413,10 @@ public class ClientOptions {
          this.responseBufferSize = options.responseBufferSize;
          this.trustAllCertificates = options.trustAllCertificates;
          this.cookieStore = options.cookieStore;
+         this.executorType = options.executorType;
+         this.executorThreads = options.executorThreads;
+         this.protocol = options.protocol;
+         this.maxConcurrentStreams = options.maxConcurrentStreams;
       }
 
       /**
@@ -547,6 +671,78 @@ public class ClientOptions {
          return this;
       }
 
+      /**
+       * Gets the executor type.
+       * @return The executor type.
+       */
+      public ExecutorType getExecutorType() {
+         return executorType;
+      }
+
+      /**
+       * Sets the executor type.
+       * @param executorType The executor type.
+       * @return A self-reference.
+       */
+      public Builder setExecutorType(final ExecutorType executorType) {
+         this.executorType = executorType;
+         return this;
+      }
+
+      /**
+       * Gets the maximum number of threads for a bounded executor.
+       * @return The number of threads.
+       */
+      public int getExecutorThreads() {
+         return executorThreads;
+      }
+
+      /**
+       * Sets the maximum number of threads for a bounded executor.
+       * @param executorThreads The number of threads.
+       * @return A self-reference.
+       */
+      public Builder setExecutorThreads(final int executorThreads) {
+         this.executorThreads = executorThreads;
+         return this;
+      }
+
+      /**
+       * Gets the protocol.
+       * @return The protocol.
+       */
+      public Protocol getProtocol() {
+         return protocol;
+      }
+
+      /**
+       * Sets the protocol.
+       * @param protocol The protocol.
+       * @return A self-reference.
+       */
+      public Builder setProtocol(final Protocol protocol) {
+         this.protocol = protocol;
+         return this;
+      }
+
+      /**
+       * Gets the maximum number of concurrent streams on a multiplexed connection.
+       * @return The number of streams, or {@code 0} if the server limit is used.
+       */
+      public int getMaxConcurrentStreams() {
+         return maxConcurrentStreams;
+      }
+
+      /**
+       * Sets the maximum number of concurrent streams on a multiplexed connection.
+       * @param maxConcurrentStreams The number of streams, or {@code 0} to use the server limit.
+       * @return A self-reference.
+       */
+      public Builder setMaxConcurrentStreams(final int maxConcurrentStreams) {
+         this.maxConcurrentStreams = maxConcurrentStreams;
+         return this;
+      }
+
       /**
        * Creates the options.
        * @return The options.
@@ -556,7 +752,8 @@ public class ClientOptions {
                  proxyHost, proxyPort,
                  followRedirects,
                  maxConnectionsPerDestination, maxConnectionsTotal,
-                 requestBufferSize, responseBufferSize, trustAllCertificates, cookieStore, props);
+                 requestBufferSize, responseBufferSize, trustAllCertificates, cookieStore,
+                 executorType, executorThreads, protocol, maxConcurrentStreams, props);
       }
 
       /**
@@ -583,5 +780,9 @@ public class ClientOptions {
       boolean trustAllCertificates = false;
       Properties props = new Properties();
       CookieStore cookieStore;
+      ExecutorType executorType = ExecutorType.valueOf(EXECUTOR_TYPE[DEFAULT_VALUE].toUpperCase(Locale.ROOT));
+      int executorThreads = Integer.parseInt(EXECUTOR_THREADS[DEFAULT_VALUE]);
+      Protocol protocol = Protocol.fromString(PROTOCOL[DEFAULT_VALUE]);
+      int maxConcurrentStreams = Integer.parseInt(MAX_CONCURRENT_STREAMS[DEFAULT_VALUE]);
    }
 }
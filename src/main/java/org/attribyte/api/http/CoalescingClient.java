@@ -0,0 +1,248 @@
+/*
+ * Copyright 2026 Attribyte Labs, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ *
+ */
+
+package org.attribyte.api.http;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSortedSet;
+import com.google.common.collect.Maps;
+import com.google.protobuf.UnsafeByteOperations;
+
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * An async client that sends only one of concurrent, identical {@code GET} requests.
+ * <p>
+ *    Requests are identical if they have the same URI, the same values for a configured set of
+ *    headers (like those a server names in {@code Vary}), and the same options instance. The
+ *    {@code Authorization} and {@code Cookie} headers are always part of the key, so responses are
+ *    never shared between different credentials. While a request is in-flight, identical requests wait for
+ *    its response instead of being sent. Every waiter receives the same immutable {@code Response}, so the body
+ *    is shared, not copied. Each caller gets its own future, so cancelling or timing out one does not affect the others.
+ * </p>
+ * <p>
+ *    A pooled response is returned to the caller that sent the request, which must close it. Waiters receive
+ *    a copy of the body on the heap. The delegate should not return streamed bodies.
+ * </p>
+ */
+public class CoalescingClient extends ForwardingAsyncClient {
+
+   /**
+    * Creates a coalescing client that distinguishes requests by URI and credentials.
+    * @param delegate The client that sends requests.
+    */
+   public CoalescingClient(final AsyncClient delegate) {
+      this(delegate, ImmutableList.of());
+   }
+
+   /**
+    * Creates a coalescing client.
+    * @param delegate The client that sends requests.
+    * @param keyHeaders The names of request headers that, with the URI and credentials, distinguish requests.
+    */
+   public CoalescingClient(final AsyncClient delegate, final Collection<String> keyHeaders) {
+      super(delegate);
+      ImmutableSortedSet.Builder<String> names = ImmutableSortedSet.naturalOrder();
+      names.addAll(CREDENTIAL_HEADERS);
+      for(String name : keyHeaders) {
+         names.add(name.toLowerCase(Locale.ROOT));
+      }
+      this.keyHeaders = names.build().asList();
+   }
+
+   @Override
+   public CompletableFuture<Response> completableSend(final Request request, final RequestOptions options) {
+      if(request.method != Request.Method.GET) {
+         return delegate.completableSend(request, options);
+      }
+
+      final Key key = new Key(key(request), options);
+      final InFlight sending = new InFlight();
+      final InFlight inFlightRequest = inFlight.compute(key, (k, existing) -> {
+         if(existing != null) {
+            existing.waiters++;
+            return existing;
+         }
+         return sending;
+      });
+      if(inFlightRequest != sending) {
+         coalesced.increment();
+         return inFlightRequest.response.copy();
+      }
+
+      sent.increment();
+      final CompletableFuture<Response> response = new CompletableFuture<>();
+      try {
+         delegate.completableSend(request, options).whenComplete((result, throwable) -> {
+            inFlight.remove(key, sending);
+            if(throwable != null) {
+               final Throwable failure = unwrap(throwable);
+               sending.response.completeExceptionally(failure);
+               response.completeExceptionally(failure);
+            } else {
+               //No waiters are added after the request is removed.
+               sending.response.complete(sending.waiters > 0 ? shared(result) : result);
+               if(!response.complete(result)) {
+                  release(result);
+               }
+            }
+         });
+      } catch(RuntimeException re) {
+         inFlight.remove(key, sending);
+         sending.response.completeExceptionally(re);
+         response.completeExceptionally(re);
+      }
+      return response;
+   }
+
+   /**
+    * Creates the string that identifies a request from its URI and the key headers it has.
+    * <p>
+    *    Keys for requests with different credentials must be different.
+    * </p>
+    * @param request The request.
+    * @return The key.
+    */
+   protected String key(final Request request) {
+      StringBuilder buf = null;
+      for(String name : keyHeaders) {
+         final ImmutableList<String> values = request.getHeaderValueList(name);
+         if(!values.isEmpty()) {
+            if(buf == null) {
+               buf = new StringBuilder(request.uri.toString());
+            }
+            buf.append('\n').append(name).append(':').append(String.join(",", values));
+         }
+      }
+      return buf != null ? buf.toString() : request.uri.toString();
+   }
+
+   /**
+    * Gets a response that is safe to share with waiters, copying a pooled body to the heap.
+    */
+   private static Response shared(final Response response) {
+      if(response instanceof PooledBodyResponse) {
+         final PooledBodyResponse pooled = (PooledBodyResponse)response;
+         return new BodyResponse(response.statusCode, response.headers,
+                 pooled.body != null ? UnsafeByteOperations.unsafeWrap(pooled.body.toByteArray()) : null,
+                 response.attributes, response.stats, response.cookies);
+      }
+      return response;
+   }
+
+   /**
+    * Gets the number of requests that waited for an identical in-flight request instead of being sent.
+    * @return The number of coalesced requests.
+    */
+   public long coalesced() {
+      return coalesced.sum();
+   }
+
+   /**
+    * Gets the number of {@code GET} requests sent.
+    * @return The number of requests sent.
+    */
+   public long sent() {
+      return sent.sum();
+   }
+
+   /**
+    * Gets the number of distinct requests in-flight.
+    * @return The number of requests.
+    */
+   public int inFlight() {
+      return inFlight.size();
+   }
+
+   @Override
+   public String toString() {
+      return MoreObjects.toStringHelper(this)
+              .add("keyHeaders", keyHeaders)
+              .add("sent", sent())
+              .add("coalesced", coalesced())
+              .add("inFlight", inFlight())
+              .toString();
+   }
+
+   /**
+    * Identifies identical requests.
+    */
+   private static final class Key {
+
+      Key(final String request, final RequestOptions options) {
+         this.request = request;
+         this.options = options;
+      }
+
+      @Override
+      public boolean equals(final Object o) {
+         if(this == o) {
+            return true;
+         } else if(!(o instanceof Key)) {
+            return false;
+         }
+         final Key other = (Key)o;
+         return options == other.options && request.equals(other.request);
+      }
+
+      @Override
+      public int hashCode() {
+         return Objects.hash(request, System.identityHashCode(options));
+      }
+
+      private final String request;
+      private final RequestOptions options;
+   }
+
+   /**
+    * A request that is in-flight.
+    */
+   private static final class InFlight {
+
+      /**
+       * The response for waiters.
+       */
+      final CompletableFuture<Response> response = new CompletableFuture<>();
+
+      /**
+       * The number of waiters. Changed only while the request is in the in-flight map.
+       */
+      int waiters;
+   }
+
+   /**
+    * Headers that hold credentials, always part of the key.
+    */
+   private static final ImmutableList<String> CREDENTIAL_HEADERS = ImmutableList.of("authorization", "cookie");
+
+   /**
+    * The lower-case names of headers that distinguish requests, sorted.
+    */
+   private final ImmutableList<String> keyHeaders;
+
+   /**
+    * In-flight requests.
+    */
+   private final ConcurrentMap<Key, InFlight> inFlight = Maps.newConcurrentMap();
+
+   private final LongAdder coalesced = new LongAdder();
+   private final LongAdder sent = new LongAdder();
+}
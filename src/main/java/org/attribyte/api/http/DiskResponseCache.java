@@ -0,0 +1,1269 @@
+/*
+ * Copyright 2026 Attribyte Labs, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ *
+ */
+
+package org.attribyte.api.http;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.google.common.hash.Hashing;
+import com.google.common.io.ByteSource;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.protobuf.ByteString;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.CRC32;
+
+/**
+ * A response cache that stores responses on disk and survives restarts.
+ * <p>
+ *    Responses are appended to segment files. A memory-mapped hash index locates the latest record for
+ *    each key. Responses are returned as {@code StreamedResponse}, with the body read from the segment
+ *    file only when it is consumed, so bodies are never held on the heap by the cache.
+ * </p>
+ * <p>
+ *    When a segment is full, a new one is started. When the cache exceeds its maximum size, the oldest segment
+ *    is dropped. Segments that are mostly replaced or removed responses are compacted in the background by
+ *    copying their live records to the current segment. A compacted or dropped segment is closed one compaction
+ *    interval after it is retired, so bodies returned before must be read before then. Removals are copied
+ *    forward while an older segment may still hold a record for the key.
+ * </p>
+ * <p>
+ *    Space for a record is reserved while the cache is locked, but the body is written without holding the lock,
+ *    so a slow streamed body does not delay other operations. If the same key is stored concurrently,
+ *    the last reservation wins.
+ * </p>
+ * <p>
+ *    The index is marked clean when the cache is closed. If the process ends without closing the cache,
+ *    the index is rebuilt from the segments on the next start, and a partially written record at the end of
+ *    a segment is discarded.
+ * </p>
+ */
+public class DiskResponseCache implements ResponseCache, Closeable {
+
+   /**
+    * Opens a cache with 64 MB segments (or smaller for small caches), compacted every minute.
+    * @param directory The directory that holds the cache files. Created if it does not exist.
+    * @param maxBytes The maximum size of the cache files.
+    * @throws IOException if the cache can't be opened.
+    */
+   public DiskResponseCache(final Path directory, final long maxBytes) throws IOException {
+      this(directory, maxBytes, DEFAULT_SEGMENT_BYTES, TimeUnit.MINUTES.toMillis(1L));
+   }
+
+   /**
+    * Opens a cache.
+    * @param directory The directory that holds the cache files. Created if it does not exist.
+    * @param maxBytes The maximum size of the cache files.
+    * @param maxSegmentBytes The maximum size of a segment. Limited to a quarter of the maximum size.
+    * @param compactionIntervalMillis The time between background compactions, or {@code 0} to compact only
+    * when {@link #compact()} is called.
+    * @throws IOException if the cache can't be opened.
+    */
+   public DiskResponseCache(final Path directory, final long maxBytes,
+                            final long maxSegmentBytes, final long compactionIntervalMillis) throws IOException {
+      if(maxBytes < 1L) {
+         throw new IllegalArgumentException("The 'maxBytes' must be > 0");
+      }
+      this.directory = directory;
+      this.maxBytes = maxBytes;
+      this.maxSegmentBytes = Math.max(MIN_SEGMENT_BYTES, Math.min(maxSegmentBytes, maxBytes / 4L));
+      Files.createDirectories(directory);
+      open();
+      if(compactionIntervalMillis > 0L) {
+         this.compactionScheduler = Executors.newSingleThreadScheduledExecutor(
+                 new ThreadFactoryBuilder().setNameFormat("disk-cache-compaction-%d").setDaemon(true).build());
+         this.compactionScheduler.scheduleWithFixedDelay(this::compactQuietly,
+                 compactionIntervalMillis, compactionIntervalMillis, TimeUnit.MILLISECONDS);
+      } else {
+         this.compactionScheduler = null;
+      }
+   }
+
+   @Override
+   public CachedResponse get(final String key) {
+      final Segment segment;
+      final long offset;
+      synchronized(this) {
+         if(closed) {
+            return null;
+         }
+         try {
+            final int slot = findSlot(key, hash(key));
+            if(slot < 0) {
+               return null;
+            }
+            segment = segments.get(slotSegment(slot));
+            offset = slotOffset(slot);
+         } catch(IOException ioe) {
+            errors.increment();
+            return null;
+         }
+      }
+
+      try {
+         return readResponse(segment, offset);
+      } catch(IOException ioe) {
+         errors.increment();
+         return null;
+      }
+   }
+
+   @Override
+   public void put(final String key, final CachedResponse response) {
+      final byte[] metadata;
+      final Response body;
+      final long bodyLength;
+      try {
+         metadata = encodeMetadata(key, response);
+         body = withBodySize(response.response);
+         bodyLength = bodyLength(body);
+      } catch(IOException ioe) {
+         errors.increment();
+         return;
+      }
+
+      final long length = recordLength(metadata.length, bodyLength);
+      final Segment segment;
+      final long offset;
+      final long reservation;
+      synchronized(this) {
+         if(closed) {
+            return;
+         }
+         try {
+            segment = writableSegment();
+         } catch(IOException ioe) {
+            errors.increment();
+            return;
+         }
+         offset = segment.size;
+         try {
+            writeHeader(segment, offset, PUT_RECORD, metadata.length, bodyLength);
+         } catch(IOException ioe) {
+            errors.increment();
+            truncate(segment, offset);
+            return;
+         }
+         segment.size += length;
+         segment.writers++;
+         reservation = ++reservationCount;
+         reservations.put(key, reservation);
+      }
+
+      boolean written = false;
+      try {
+         writeRecord(segment, offset, metadata, body, bodyLength);
+         written = true;
+      } catch(IOException ioe) {
+         errors.increment();
+      }
+
+      synchronized(this) {
+         segment.writers--;
+         final boolean latest = reservations.remove(key, reservation);
+         if(!written) {
+            abort(segment, offset);
+         } else if(latest && !closed && segments.get(segment.id) == segment) {
+            try {
+               setSlot(key, hash(key), segment, offset, length);
+               evict();
+            } catch(IOException ioe) {
+               errors.increment();
+            }
+         }
+      }
+   }
+
+   @Override
+   public void remove(final String key) {
+      synchronized(this) {
+         if(closed) {
+            return;
+         }
+         Segment segment = null;
+         long offset = 0L;
+         try {
+            final int slot = findSlot(key, hash(key));
+            final boolean pending = reservations.remove(key) != null;
+            if(slot >= 0 || pending) {
+               if(slot >= 0) {
+                  removeSlot(slot);
+               }
+               segment = writableSegment();
+               offset = segment.size;
+               append(segment, REMOVE_RECORD, encodeKey(key));
+            }
+         } catch(IOException ioe) {
+            errors.increment();
+            truncate(segment, offset);
+         }
+      }
+   }
+
+   /**
+    * Copies the live records from segments that are mostly replaced or removed responses to the
+    * current segment, then retires them. Closes segments retired by the previous compaction.
+    * <p>
+    *    Space for the copies is reserved while the cache is locked, but the records are copied without
+    *    holding the lock. The index is then pointed at each copy if it still refers to the original record.
+    *    Segments that are being written, or that have a record for a key that is being stored, are
+    *    compacted later.
+    * </p>
+    * @throws IOException on write error.
+    */
+   public void compact() throws IOException {
+      final List<Segment> candidates = Lists.newArrayList();
+      synchronized(this) {
+         if(closed || compacting) {
+            return;
+         }
+         compacting = true;
+         try {
+            closeRetired();
+         } catch(IOException ioe) {
+            compacting = false;
+            throw ioe;
+         }
+         for(Segment segment : segments.values()) {
+            if(segment != activeSegment && segment.writers == 0 && segment.liveBytes < segment.size * COMPACTION_THRESHOLD) {
+               candidates.add(segment);
+            }
+         }
+      }
+
+      try {
+         for(Segment segment : candidates) {
+            compact(segment);
+         }
+      } finally {
+         synchronized(this) {
+            compacting = false;
+         }
+      }
+   }
+
+   /**
+    * Copies the live records in a segment to the current segment and retires it. Removals are copied if the
+    * key is not in the index and an older segment remains, so recovery does not restore a removed response.
+    * <p>
+    *    Records are never appended to a segment that is not current, so it is read without the lock.
+    * </p>
+    */
+   private void compact(final Segment segment) throws IOException {
+      final List<Record> records = readRecords(segment);
+      final List<Record> copies = Lists.newArrayList();
+      final Segment target;
+      final long start;
+      synchronized(this) {
+         if(closed || segments.get(segment.id) != segment || segment.writers > 0) {
+            return;
+         }
+         for(Record record : records) {
+            if(reservations.containsKey(record.key)) {
+               return;
+            }
+         }
+
+         final Set<Long> liveOffsets = Sets.newHashSet();
+         for(int slot = 0; slot < capacity; slot++) {
+            if(slotState(slot) == LIVE && slotSegment(slot) == segment.id) {
+               liveOffsets.add(slotOffset(slot));
+            }
+         }
+         final boolean olderSegment = segments.firstKey() < segment.id;
+         for(Record record : records) {
+            if(record.type == PUT_RECORD ? liveOffsets.contains(record.offset) :
+                    olderSegment && findSlot(record.key, hash(record.key)) < 0) {
+               copies.add(record);
+            }
+         }
+
+         if(copies.isEmpty()) {
+            retire(segment);
+            compactions.increment();
+            return;
+         }
+
+         target = writableSegment();
+         start = target.size;
+         long offset = start;
+         try {
+            for(Record record : copies) {
+               writeHeader(target, offset, record.type, record.metadataLength, record.bodyLength);
+               offset += record.length;
+            }
+         } catch(IOException ioe) {
+            truncate(target, start);
+            throw ioe;
+         }
+         target.size = offset;
+         target.writers++;
+      }
+
+      boolean written = false;
+      try {
+         long offset = start;
+         for(Record record : copies) {
+            transfer(segment, record.offset, record.length, target, offset);
+            offset += record.length;
+         }
+         written = true;
+      } catch(IOException ioe) {
+         errors.increment();
+      }
+
+      synchronized(this) {
+         target.writers--;
+         if(closed) {
+            return;
+         }
+         final Map<Long, Long> copiedOffsets = Maps.newHashMapWithExpectedSize(copies.size());
+         long offset = start;
+         for(Record record : copies) {
+            if(record.type == PUT_RECORD) {
+               copiedOffsets.put(record.offset, offset);
+            } else if(!written) {
+               abort(target, offset);
+            }
+            offset += record.length;
+         }
+
+         boolean retained = false;
+         if(written && segments.get(segment.id) == segment && segments.get(target.id) == target) {
+            for(int slot = 0; slot < capacity; slot++) {
+               if(slotState(slot) == LIVE && slotSegment(slot) == segment.id) {
+                  final Long copyOffset = copiedOffsets.remove(slotOffset(slot));
+                  if(copyOffset != null) {
+                     final long length = slotLength(slot);
+                     segment.liveBytes -= length;
+                     target.liveBytes += length;
+                     writeSlot(slot, slotHash(slot), target.id, copyOffset, length);
+                  } else {
+                     retained = true;
+                  }
+               }
+            }
+            if(!retained) {
+               retire(segment);
+               compactions.increment();
+            }
+         }
+
+         for(long copyOffset : copiedOffsets.values()) { //Replaced or removed while copying
+            abort(target, copyOffset);
+         }
+      }
+   }
+
+   /**
+    * Reads the headers and keys of the responses and removals in a segment.
+    */
+   private static List<Record> readRecords(final Segment segment) throws IOException {
+      final List<Record> records = Lists.newArrayList();
+      long offset = 0L;
+      while(offset + RECORD_HEADER_BYTES <= segment.size) {
+         final ByteBuffer header = readFully(segment, offset, RECORD_HEADER_BYTES);
+         final long length = recordLength(header);
+         if(length < 0L) {
+            break;
+         }
+         final byte type = header.get(4);
+         if(type == PUT_RECORD || type == REMOVE_RECORD) {
+            final int metadataLength = header.getInt(5);
+            final String key = decodeKey(readFully(segment, offset + RECORD_HEADER_BYTES, metadataLength));
+            records.add(new Record(offset, length, type, key, metadataLength, header.getLong(9)));
+         }
+         offset += length;
+      }
+      return records;
+   }
+
+   private void compactQuietly() {
+      try {
+         compact();
+      } catch(IOException | RuntimeException e) {
+         errors.increment();
+      }
+   }
+
+   /**
+    * Gets the number of cached responses.
+    * @return The number of responses.
+    */
+   public synchronized int size() {
+      return count;
+   }
+
+   /**
+    * Gets the total size of the segment files.
+    * @return The size in bytes.
+    */
+   public synchronized long diskBytes() {
+      long size = 0L;
+      for(Segment segment : segments.values()) {
+         size += segment.size;
+      }
+      return size;
+   }
+
+   /**
+    * Gets the number of segments compacted.
+    * @return The number of compactions.
+    */
+   public long compactions() {
+      return compactions.sum();
+   }
+
+   /**
+    * Gets the number of I/O errors. Failed reads are reported as a missing response and
+    * failed writes are discarded.
+    * @return The number of errors.
+    */
+   public long errors() {
+      return errors.sum();
+   }
+
+   /**
+    * Closes the cache, marking the index as clean so it is used when the cache is opened again.
+    * @throws IOException on close error.
+    */
+   @Override
+   public void close() throws IOException {
+      if(compactionScheduler != null) {
+         compactionScheduler.shutdownNow();
+      }
+      synchronized(this) {
+         if(closed) {
+            return;
+         }
+         closed = true;
+         for(Segment segment : segments.values()) {
+            segment.channel.force(false);
+            segment.channel.close();
+         }
+         for(Segment segment : Iterables.concat(retiring, retired)) {
+            segment.channel.close();
+         }
+         retiring.clear();
+         retired.clear();
+         index.putInt(CLEAN_OFFSET, 1);
+         index.force();
+         indexChannel.close();
+      }
+   }
+
+   @Override
+   public String toString() {
+      return MoreObjects.toStringHelper(this)
+              .add("directory", directory)
+              .add("maxBytes", maxBytes)
+              .add("size", size())
+              .add("diskBytes", diskBytes())
+              .add("compactions", compactions())
+              .add("errors", errors())
+              .toString();
+   }
+
+   /* Opening and recovery */
+
+   /**
+    * Opens the segments and the index, rebuilding the index if it was not closed cleanly.
+    */
+   private void open() throws IOException {
+      try(DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + SEGMENT_SUFFIX)) {
+         for(Path file : files) {
+            final String name = file.getFileName().toString();
+            try {
+               final int id = Integer.parseInt(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+               segments.put(id, new Segment(id, file));
+            } catch(NumberFormatException nfe) {
+               //Not a segment
+            }
+         }
+      }
+
+      final Path indexFile = directory.resolve(INDEX_FILE);
+      boolean clean = false;
+      if(Files.exists(indexFile)) {
+         mapIndex(indexFile, -1);
+         clean = index.getInt(0) == INDEX_MAGIC && index.getInt(CLEAN_OFFSET) == 1 && indexMatchesSegments();
+      }
+
+      if(!clean) {
+         if(indexChannel != null) {
+            indexChannel.close();
+         }
+         Files.deleteIfExists(indexFile);
+         mapIndex(indexFile, MIN_CAPACITY);
+         for(Segment segment : segments.values()) {
+            recover(segment);
+         }
+      } else {
+         for(int slot = 0; slot < capacity; slot++) {
+            if(slotState(slot) == LIVE) {
+               segments.get(slotSegment(slot)).liveBytes += slotLength(slot);
+               count++;
+            } else if(slotState(slot) == DELETED) {
+               deleted++;
+            }
+         }
+      }
+
+      activeSegment = segments.isEmpty() ? null : segments.lastEntry().getValue();
+      index.putInt(CLEAN_OFFSET, 0);
+      index.force();
+   }
+
+   /**
+    * Verifies that every live index slot refers to a record within a segment.
+    */
+   private boolean indexMatchesSegments() {
+      for(int slot = 0; slot < capacity; slot++) {
+         if(slotState(slot) == LIVE) {
+            final Segment segment = segments.get(slotSegment(slot));
+            if(segment == null || slotOffset(slot) + slotLength(slot) > segment.size) {
+               return false;
+            }
+         }
+      }
+      return true;
+   }
+
+   /**
+    * Adds the records in a segment to the index, truncating the segment at the first incomplete record.
+    * Records that were not completely written before a later record are skipped.
+    */
+   private void recover(final Segment segment) throws IOException {
+      long offset = 0L;
+      while(offset < segment.size) {
+         final long length = offset + RECORD_HEADER_BYTES <= segment.size ?
+                 recordLength(readFully(segment, offset, RECORD_HEADER_BYTES)) : -1L;
+         if(length < 0L || offset + length > segment.size) {
+            segment.channel.truncate(offset);
+            segment.size = offset;
+            break;
+         }
+         final ByteBuffer header = readFully(segment, offset, RECORD_HEADER_BYTES);
+         final byte type = header.get(4);
+         if((type == PUT_RECORD || type == REMOVE_RECORD) && isValidRecord(segment, offset, length)) {
+            final String key = decodeKey(readFully(segment, offset + RECORD_HEADER_BYTES, header.getInt(5)));
+            final long hash = hash(key);
+            if(type == PUT_RECORD) {
+               setSlot(key, hash, segment, offset, length);
+            } else {
+               final int slot = findSlot(key, hash);
+               if(slot >= 0) {
+                  removeSlot(slot);
+               }
+            }
+         }
+         offset += length;
+      }
+   }
+
+   /**
+    * Gets the length of a record from its header.
+    * @return The record length, or {@code -1} if the header is invalid.
+    */
+   private static long recordLength(final ByteBuffer header) {
+      final int metadataLength = header.getInt(5);
+      final long bodyLength = header.getLong(9);
+      if(header.getInt(0) != RECORD_MAGIC || metadataLength < 0 || bodyLength < 0L) {
+         return -1L;
+      }
+      return recordLength(metadataLength, bodyLength);
+   }
+
+   private static long recordLength(final int metadataLength, final long bodyLength) {
+      return RECORD_HEADER_BYTES + metadataLength + bodyLength + 4L;
+   }
+
+   /**
+    * Verifies the checksum of the record at an offset.
+    */
+   private static boolean isValidRecord(final Segment segment, final long offset, final long length) throws IOException {
+      final CRC32 crc = new CRC32();
+      final ByteBuffer buf = ByteBuffer.allocate(COPY_BUFFER_BYTES);
+      long position = offset + RECORD_HEADER_BYTES;
+      final long end = offset + length - 4L;
+      while(position < end) {
+         buf.clear().limit((int)Math.min(buf.capacity(), end - position));
+         final int read = segment.channel.read(buf, position);
+         if(read < 0) {
+            return false;
+         }
+         buf.flip();
+         crc.update(buf);
+         position += read;
+      }
+      return readFully(segment, end, 4).getInt(0) == (int)crc.getValue();
+   }
+
+   /* Records */
+
+   /**
+    * Appends a record without a body to a segment.
+    */
+   private static void append(final Segment segment, final byte type, final byte[] metadata) throws IOException {
+      final long offset = segment.size;
+      writeHeader(segment, offset, type, metadata.length, 0L);
+      segment.size += recordLength(metadata.length, 0L);
+      writeRecord(segment, offset, metadata, null, 0L);
+   }
+
+   /**
+    * Writes the header of a record. The header is written when space for the record is reserved, so
+    * recovery can skip a record that is not completely written.
+    */
+   private static void writeHeader(final Segment segment, final long offset, final byte type,
+                                   final int metadataLength, final long bodyLength) throws IOException {
+      final ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER_BYTES);
+      header.putInt(RECORD_MAGIC).put(type).putInt(metadataLength).putLong(bodyLength).flip();
+      writeFully(segment, header, offset);
+   }
+
+   /**
+    * Writes the metadata, body and checksum of a record after its header.
+    * @throws IOException on write error or if the body does not have the expected length.
+    */
+   private static void writeRecord(final Segment segment, final long offset, final byte[] metadata,
+                                   final Response response, final long bodyLength) throws IOException {
+      final CRC32 crc = new CRC32();
+      crc.update(metadata);
+      long position = offset + RECORD_HEADER_BYTES;
+      position += writeFully(segment, ByteBuffer.wrap(metadata), position);
+
+      final long end = position + bodyLength;
+      if(response instanceof BodyResponse && ((BodyResponse)response).body != null) {
+         for(ByteBuffer buf : ((BodyResponse)response).body.asReadOnlyByteBufferList()) {
+            crc.update(buf.duplicate());
+            position += writeFully(segment, buf, position);
+         }
+      } else if(response instanceof StreamedResponse && ((StreamedResponse)response).body != null) {
+         try(InputStream is = ((StreamedResponse)response).body.openStream()) {
+            final byte[] buf = new byte[COPY_BUFFER_BYTES];
+            int read;
+            while(position < end && (read = is.read(buf, 0, (int)Math.min(buf.length, end - position))) != -1) {
+               crc.update(buf, 0, read);
+               position += writeFully(segment, ByteBuffer.wrap(buf, 0, read), position);
+            }
+            if(is.read() != -1) {
+               throw new IOException("The body is longer than its size");
+            }
+         }
+      }
+      if(position != end) {
+         throw new EOFException("The body is shorter than its size");
+      }
+      writeFully(segment, ByteBuffer.allocate(4).putInt(0, (int)crc.getValue()), position);
+   }
+
+   /**
+    * Marks a reserved record that could not be written, so it is skipped by recovery.
+    */
+   private void abort(final Segment segment, final long offset) {
+      try {
+         writeFully(segment, ByteBuffer.wrap(new byte[] {ABORTED_RECORD}), offset + 4);
+      } catch(IOException ioe) {
+         errors.increment();
+      }
+   }
+
+   /**
+    * Gets a response with a body of known size, reading a streamed body of unknown size into memory.
+    */
+   private static Response withBodySize(final Response response) throws IOException {
+      if(response instanceof StreamedResponse && ((StreamedResponse)response).body != null &&
+              !((StreamedResponse)response).body.sizeIfKnown().isPresent()) {
+         return new BodyResponse(response.statusCode, response.headers, response.getBody(), null, null, null);
+      }
+      return response;
+   }
+
+   private static long bodyLength(final Response response) {
+      if(response instanceof BodyResponse && ((BodyResponse)response).body != null) {
+         return ((BodyResponse)response).body.size();
+      } else if(response instanceof StreamedResponse && ((StreamedResponse)response).body != null) {
+         return ((StreamedResponse)response).body.sizeIfKnown().get();
+      } else {
+         return 0L;
+      }
+   }
+
+   /**
+    * Copies a record from one segment to space reserved in another.
+    */
+   private static void transfer(final Segment from, final long offset, final long length,
+                                final Segment to, final long position) throws IOException {
+      long transferred = 0L;
+      while(transferred < length) {
+         final long count = from.channel.transferTo(offset + transferred, length - transferred, to.channel.position(position + transferred));
+         if(count <= 0L) {
+            throw new EOFException("Unexpected end of segment " + from.path);
+         }
+         transferred += count;
+      }
+   }
+
+   /**
+    * Reads the response in the record at an offset.
+    */
+   private CachedResponse readResponse(final Segment segment, final long offset) throws IOException {
+      final ByteBuffer header = readFully(segment, offset, RECORD_HEADER_BYTES);
+      final int metadataLength = header.getInt(5);
+      final long bodyLength = header.getLong(9);
+      final ByteBuffer metadata = readFully(segment, offset + RECORD_HEADER_BYTES, metadataLength);
+      final DataInputStream in = new DataInputStream(
+              new ByteArrayInputStream(metadata.array(), metadata.arrayOffset(), metadataLength));
+      in.readUTF(); //Key
+      final long requestTime = in.readLong();
+      final long responseTime = in.readLong();
+      final int statusCode = in.readInt();
+      final int varyCount = in.readUnsignedShort();
+      final Map<String, String> varyHeaders = Maps.newLinkedHashMapWithExpectedSize(varyCount);
+      for(int i = 0; i < varyCount; i++) {
+         varyHeaders.put(in.readUTF(), in.readUTF());
+      }
+      final int headerCount = in.readUnsignedShort();
+      final HeaderMap.Builder headers = new HeaderMap.Builder(headerCount);
+      for(int i = 0; i < headerCount; i++) {
+         final String name = in.readUTF();
+         final int valueCount = in.readUnsignedShort();
+         final List<String> values = Lists.newArrayListWithCapacity(valueCount);
+         for(int j = 0; j < valueCount; j++) {
+            values.add(in.readUTF());
+         }
+         headers.put(new Header(name, values));
+      }
+      final ByteSource body = new SegmentByteSource(segment, offset + RECORD_HEADER_BYTES + metadataLength, bodyLength);
+      final Response response = new StreamedResponse(statusCode, headers.buildImmutableMap(), body, null, null, null);
+      return new CachedResponse(response, varyHeaders, requestTime, responseTime);
+   }
+
+   private static byte[] encodeMetadata(final String key, final CachedResponse cached) throws IOException {
+      final ByteArrayOutputStream bytes = new ByteArrayOutputStream(512);
+      final DataOutputStream out = new DataOutputStream(bytes);
+      final Response response = cached.response;
+      out.writeUTF(key);
+      out.writeLong(cached.requestTime);
+      out.writeLong(cached.responseTime);
+      out.writeInt(response.statusCode);
+      out.writeShort(cached.varyHeaders.size());
+      for(Map.Entry<String, String> header : cached.varyHeaders.entrySet()) {
+         out.writeUTF(header.getKey());
+         out.writeUTF(header.getValue());
+      }
+      final Collection<Header> headers = response.getHeaders();
+      out.writeShort(headers.size());
+      for(Header header : headers) {
+         out.writeUTF(header.name);
+         out.writeShort(header.values.size());
+         for(String value : header.values) {
+            out.writeUTF(value);
+         }
+      }
+      out.flush();
+      return bytes.toByteArray();
+   }
+
+   private static byte[] encodeKey(final String key) throws IOException {
+      final ByteArrayOutputStream bytes = new ByteArrayOutputStream(key.length() + 2);
+      final DataOutputStream out = new DataOutputStream(bytes);
+      out.writeUTF(key);
+      out.flush();
+      return bytes.toByteArray();
+   }
+
+   private static String decodeKey(final ByteBuffer metadata) throws IOException {
+      return new DataInputStream(new ByteArrayInputStream(metadata.array(), metadata.arrayOffset(), metadata.limit())).readUTF();
+   }
+
+   /**
+    * Reads the key of the record at an offset.
+    */
+   private String readKey(final Segment segment, final long offset) throws IOException {
+      final int metadataLength = readFully(segment, offset, RECORD_HEADER_BYTES).getInt(5);
+      return decodeKey(readFully(segment, offset + RECORD_HEADER_BYTES, metadataLength));
+   }
+
+   private static ByteBuffer readFully(final Segment segment, final long offset, final int length) throws IOException {
+      final ByteBuffer buf = ByteBuffer.allocate(length);
+      while(buf.hasRemaining()) {
+         if(segment.channel.read(buf, offset + buf.position()) < 0) {
+            throw new EOFException("Unexpected end of segment " + segment.path);
+         }
+      }
+      return buf.flip();
+   }
+
+   private static int writeFully(final Segment segment, final ByteBuffer buf, final long position) throws IOException {
+      final int length = buf.remaining();
+      int written = 0;
+      while(buf.hasRemaining()) {
+         written += segment.channel.write(buf, position + written);
+      }
+      return length;
+   }
+
+   /* Segments */
+
+   /**
+    * Gets the segment records are appended to, starting a new segment if the current segment is full.
+    */
+   private Segment writableSegment() throws IOException {
+      if(activeSegment == null || activeSegment.size >= maxSegmentBytes) {
+         final int id = segments.isEmpty() ? 1 : segments.lastKey() + 1;
+         activeSegment = new Segment(id, directory.resolve(String.format("%010d%s", id, SEGMENT_SUFFIX)));
+         segments.put(id, activeSegment);
+      }
+      return activeSegment;
+   }
+
+   /**
+    * Drops the oldest segments until the cache is within its maximum size.
+    */
+   private void evict() throws IOException {
+      while(segments.size() > 1 && diskBytes() > maxBytes) {
+         final Segment oldest = segments.firstEntry().getValue();
+         for(int slot = 0; slot < capacity; slot++) {
+            if(slotState(slot) == LIVE && slotSegment(slot) == oldest.id) {
+               removeSlot(slot);
+            }
+         }
+         retire(oldest);
+      }
+   }
+
+   /**
+    * Removes a segment from the cache and deletes its file. The segment remains open
+    * until the next compaction, so bodies that have already been returned may still be read.
+    */
+   private void retire(final Segment segment) throws IOException {
+      segments.remove(segment.id);
+      Files.deleteIfExists(segment.path);
+      retired.add(segment);
+   }
+
+   private void closeRetired() throws IOException {
+      final List<Segment> closing = ImmutableList.copyOf(retiring);
+      retiring.clear();
+      retiring.addAll(retired);
+      retired.clear();
+      for(Segment segment : closing) {
+         segment.channel.close();
+      }
+   }
+
+   private void truncate(final Segment segment, final long offset) {
+      if(segment != null) {
+         try {
+            segment.channel.truncate(offset);
+            segment.size = offset;
+         } catch(IOException ioe) {
+            errors.increment();
+         }
+      }
+   }
+
+   /* Index */
+
+   private static long hash(final String key) {
+      return Hashing.murmur3_128().hashString(key, StandardCharsets.UTF_8).asLong();
+   }
+
+   /**
+    * Maps the index file.
+    * @param indexFile The file.
+    * @param newCapacity The capacity of a new index, or {@code -1} to map an existing index.
+    */
+   private void mapIndex(final Path indexFile, final int newCapacity) throws IOException {
+      indexChannel = FileChannel.open(indexFile,
+              StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+      if(newCapacity < 0) {
+         final long size = indexChannel.size();
+         final MappedByteBuffer existing = indexChannel.map(FileChannel.MapMode.READ_WRITE, 0L, Math.max(size, INDEX_HEADER_BYTES));
+         final int existingCapacity = existing.getInt(8);
+         if(size < INDEX_HEADER_BYTES || existing.getInt(0) != INDEX_MAGIC ||
+                 existingCapacity < MIN_CAPACITY || Integer.bitCount(existingCapacity) != 1 ||
+                 size != INDEX_HEADER_BYTES + (long)existingCapacity * SLOT_BYTES) {
+            index = existing;
+            capacity = 0;
+            existing.putInt(0, 0);
+            return;
+         }
+         index = indexChannel.map(FileChannel.MapMode.READ_WRITE, 0L, size);
+         capacity = existingCapacity;
+      } else {
+         index = indexChannel.map(FileChannel.MapMode.READ_WRITE, 0L, INDEX_HEADER_BYTES + (long)newCapacity * SLOT_BYTES);
+         index.putInt(0, INDEX_MAGIC);
+         index.putInt(4, INDEX_VERSION);
+         index.putInt(8, newCapacity);
+         capacity = newCapacity;
+      }
+   }
+
+   /**
+    * Finds the slot for a key.
+    * @return The slot, or {@code -1} if the key is not in the index.
+    */
+   private int findSlot(final String key, final long hash) throws IOException {
+      final int mask = capacity - 1;
+      for(int slot = (int)(hash ^ (hash >>> 32)) & mask, probes = 0; probes < capacity; slot = (slot + 1) & mask, probes++) {
+         final int state = slotState(slot);
+         if(state == EMPTY) {
+            return -1;
+         } else if(state == LIVE && slotHash(slot) == hash && key.equals(readKey(segments.get(slotSegment(slot)), slotOffset(slot)))) {
+            return slot;
+         }
+      }
+      return -1;
+   }
+
+   /**
+    * Points the slot for a key at a record, adding the key to the index if required.
+    */
+   private void setSlot(final String key, final long hash, final Segment segment,
+                        final long offset, final long length) throws IOException {
+      final int existing = findSlot(key, hash);
+      if(existing >= 0) {
+         final Segment replaced = segments.get(slotSegment(existing));
+         if(replaced != null) {
+            replaced.liveBytes -= slotLength(existing);
+         }
+         writeSlot(existing, hash, segment.id, offset, length);
+      } else {
+         if((count + deleted + 1) * 2 > capacity) {
+            resizeIndex(count * 4 > capacity ? capacity * 2 : capacity);
+         }
+         final int mask = capacity - 1;
+         int slot = (int)(hash ^ (hash >>> 32)) & mask;
+         while(slotState(slot) == LIVE) {
+            slot = (slot + 1) & mask;
+         }
+         if(slotState(slot) == DELETED) {
+            deleted--;
+         }
+         writeSlot(slot, hash, segment.id, offset, length);
+         count++;
+      }
+      segment.liveBytes += length;
+   }
+
+   private void removeSlot(final int slot) {
+      final Segment segment = segments.get(slotSegment(slot));
+      if(segment != null) {
+         segment.liveBytes -= slotLength(slot);
+      }
+      index.putInt(slotPosition(slot) + 8, DELETED);
+      count--;
+      deleted++;
+   }
+
+   /**
+    * Rehashes the live slots into a new index file, then replaces the current index.
+    */
+   private void resizeIndex(final int newCapacity) throws IOException {
+      final Path indexFile = directory.resolve(INDEX_FILE);
+      final Path newIndexFile = directory.resolve(INDEX_FILE + ".tmp");
+      Files.deleteIfExists(newIndexFile);
+      final MappedByteBuffer oldIndex = index;
+      final int oldCapacity = capacity;
+      final FileChannel oldIndexChannel = indexChannel;
+      mapIndex(newIndexFile, newCapacity);
+      final int mask = newCapacity - 1;
+      for(int oldSlot = 0; oldSlot < oldCapacity; oldSlot++) {
+         final int position = INDEX_HEADER_BYTES + oldSlot * SLOT_BYTES;
+         if(oldIndex.getInt(position + 8) == LIVE) {
+            final long hash = oldIndex.getLong(position);
+            int slot = (int)(hash ^ (hash >>> 32)) & mask;
+            while(slotState(slot) != EMPTY) {
+               slot = (slot + 1) & mask;
+            }
+            writeSlot(slot, hash, oldIndex.getInt(position + 12), oldIndex.getLong(position + 16), oldIndex.getLong(position + 24));
+         }
+      }
+      deleted = 0;
+      index.force();
+      oldIndexChannel.close();
+      Files.move(newIndexFile, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+   }
+
+   private void writeSlot(final int slot, final long hash, final int segmentId, final long offset, final long length) {
+      final int position = slotPosition(slot);
+      index.putLong(position, hash);
+      index.putInt(position + 12, segmentId);
+      index.putLong(position + 16, offset);
+      index.putLong(position + 24, length);
+      index.putInt(position + 8, LIVE);
+   }
+
+   private static int slotPosition(final int slot) {
+      return INDEX_HEADER_BYTES + slot * SLOT_BYTES;
+   }
+
+   private long slotHash(final int slot) {
+      return index.getLong(slotPosition(slot));
+   }
+
+   private int slotState(final int slot) {
+      return index.getInt(slotPosition(slot) + 8);
+   }
+
+   private int slotSegment(final int slot) {
+      return index.getInt(slotPosition(slot) + 12);
+   }
+
+   private long slotOffset(final int slot) {
+      return index.getLong(slotPosition(slot) + 16);
+   }
+
+   private long slotLength(final int slot) {
+      return index.getLong(slotPosition(slot) + 24);
+   }
+
+   /**
+    * A segment file.
+    */
+   private static final class Segment {
+
+      Segment(final int id, final Path path) throws IOException {
+         this.id = id;
+         this.path = path;
+         this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+         this.size = channel.size();
+      }
+
+      final int id;
+      final Path path;
+      final FileChannel channel;
+
+      /**
+       * The size of the segment, where the next record is appended.
+       */
+      long size;
+
+      /**
+       * The number of bytes in records referenced by the index.
+       */
+      long liveBytes;
+
+      /**
+       * The number of records reserved, but not yet written.
+       */
+      int writers;
+   }
+
+   /**
+    * The header and key of a record in a segment.
+    */
+   private static final class Record {
+
+      Record(final long offset, final long length, final byte type, final String key,
+             final int metadataLength, final long bodyLength) {
+         this.offset = offset;
+         this.length = length;
+         this.type = type;
+         this.key = key;
+         this.metadataLength = metadataLength;
+         this.bodyLength = bodyLength;
+      }
+
+      final long offset;
+      final long length;
+      final byte type;
+      final String key;
+      final int metadataLength;
+      final long bodyLength;
+   }
+
+   /**
+    * A response body in a segment.
+    */
+   private static final class SegmentByteSource extends ByteSource {
+
+      SegmentByteSource(final Segment segment, final long offset, final long length) {
+         this.segment = segment;
+         this.offset = offset;
+         this.length = length;
+      }
+
+      @Override
+      public InputStream openStream() {
+         return new InputStream() {
+
+            @Override
+            public int read() throws IOException {
+               final byte[] b = new byte[1];
+               return read(b, 0, 1) == 1 ? b[0] & 0xFF : -1;
+            }
+
+            @Override
+            public int read(final byte[] b, final int off, final int len) throws IOException {
+               if(position >= length) {
+                  return -1;
+               }
+               final int read = segment.channel.read(ByteBuffer.wrap(b, off, (int)Math.min(len, length - position)), offset + position);
+               if(read < 0) {
+                  throw new EOFException("Unexpected end of segment " + segment.path);
+               }
+               position += read;
+               return read;
+            }
+
+            @Override
+            public long skip(final long n) {
+               final long skipped = Math.max(0L, Math.min(n, length - position));
+               position += skipped;
+               return skipped;
+            }
+
+            @Override
+            public int available() {
+               return (int)Math.min(Integer.MAX_VALUE, length - position);
+            }
+
+            private long position;
+         };
+      }
+
+      @Override
+      public Optional<Long> sizeIfKnown() {
+         return Optional.of(length);
+      }
+
+      @Override
+      public long size() {
+         return length;
+      }
+
+      @Override
+      public boolean isEmpty() {
+         return length == 0L;
+      }
+
+      private final Segment segment;
+      private final long offset;
+      private final long length;
+   }
+
+   /*
+      Record layout:
+      int magic, byte type, int metadata length, long body length, metadata, body, int CRC32 of metadata and body.
+    */
+   private static final int RECORD_MAGIC = 0x48434152;
+   private static final int RECORD_HEADER_BYTES = 17;
+   private static final byte PUT_RECORD = 1;
+   private static final byte REMOVE_RECORD = 2;
+   private static final byte ABORTED_RECORD = 0;
+
+   /*
+      Index layout:
+      int magic, int version, int capacity, int clean flag, padded to 64 bytes, followed by slots:
+      long key hash, int state, int segment id, long record offset, long record length.
+    */
+   private static final int INDEX_MAGIC = 0x48434958;
+   private static final int INDEX_VERSION = 1;
+   private static final int INDEX_HEADER_BYTES = 64;
+   private static final int CLEAN_OFFSET = 12;
+   private static final int SLOT_BYTES = 32;
+   private static final int MIN_CAPACITY = 1024;
+   private static final int EMPTY = 0;
+   private static final int LIVE = 1;
+   private static final int DELETED = 2;
+
+   private static final String INDEX_FILE = "index.dat";
+   private static final String SEGMENT_SUFFIX = ".seg";
+   private static final long DEFAULT_SEGMENT_BYTES = 64L * 1024L * 1024L;
+   private static final long MIN_SEGMENT_BYTES = 64L * 1024L;
+   private static final int COPY_BUFFER_BYTES = 64 * 1024;
+
+   /**
+    * Segments with less than this fraction of live records are compacted.
+    */
+   private static final double COMPACTION_THRESHOLD = 0.5;
+
+   private final Path directory;
+   private final long maxBytes;
+   private final long maxSegmentBytes;
+   private final ScheduledExecutorService compactionScheduler;
+
+   /**
+    * Open segments by id, oldest first.
+    */
+   private final TreeMap<Integer, Segment> segments = new TreeMap<>();
+
+   /**
+    * Segments retired since the last compaction.
+    */
+   private final List<Segment> retired = Lists.newArrayList();
+
+   /**
+    * Segments retired before the last compaction, closed by the next.
+    */
+   private final List<Segment> retiring = Lists.newArrayList();
+
+   /**
+    * The latest reservation for each key with a record that is being written.
+    */
+   private final Map<String, Long> reservations = Maps.newHashMap();
+
+   private long reservationCount;
+
+   private Segment activeSegment;
+   private FileChannel indexChannel;
+   private MappedByteBuffer index;
+   private int capacity;
+   private int count;
+   private int deleted;
+   private boolean closed;
+
+   /**
+    * Is a compaction copying records?
+    */
+   private boolean compacting;
+
+   private final LongAdder compactions = new LongAdder();
+   private final LongAdder errors = new LongAdder();
+}
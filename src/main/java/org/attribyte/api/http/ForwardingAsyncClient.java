@@ -0,0 +1,136 @@
+/*
+ * Copyright 2026 Attribyte Labs, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ *
+ */
+
+package org.attribyte.api.http;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
+import org.attribyte.api.InitializationException;
+import org.attribyte.api.Logger;
+
+import java.io.IOException;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * An async client that forwards all requests to another client.
+ * <p>
+ *    Decorators override {@link #completableSend(Request, RequestOptions)}. The other send methods,
+ *    including synchronous {@code send}, are implemented with it.
+ * </p>
+ */
+public abstract class ForwardingAsyncClient implements AsyncClient {
+
+   /**
+    * Creates a forwarding client.
+    * @param delegate The client requests are forwarded to.
+    */
+   protected ForwardingAsyncClient(final AsyncClient delegate) {
+      this.delegate = delegate;
+   }
+
+   @Override
+   public void init(final String prefix, final Properties props, final Logger logger) throws InitializationException {
+      delegate.init(prefix, props, logger);
+   }
+
+   @Override
+   public Response send(final Request request) throws IOException {
+      return send(request, RequestOptions.DEFAULT);
+   }
+
+   @Override
+   public Response send(final Request request, final RequestOptions options) throws IOException {
+      try {
+         return completableSend(request, options).get();
+      } catch(ExecutionException e) {
+         if(e.getCause() instanceof IOException) {
+            throw (IOException)e.getCause();
+         } else {
+            throw new IOException(e.getCause() != null ? e.getCause() : e);
+         }
+      } catch(InterruptedException ie) {
+         Thread.currentThread().interrupt();
+         throw new IOException(ie);
+      }
+   }
+
+   @Override
+   public ListenableFuture<Response> asyncSend(final Request request) {
+      return asyncSend(request, RequestOptions.DEFAULT);
+   }
+
+   @Override
+   public ListenableFuture<Response> asyncSend(final Request request, final RequestOptions options) {
+      final SettableFuture<Response> fut = SettableFuture.create();
+      final CompletableFuture<Response> response = completableSend(request, options);
+      fut.addListener(() -> {
+         if(fut.isCancelled()) {
+            response.cancel(true);
+         }
+      }, MoreExecutors.directExecutor());
+      response.whenComplete((value, throwable) -> {
+         if(throwable != null) {
+            fut.setException(unwrap(throwable));
+         } else if(!fut.set(value)) { //Cancelled
+            release(value);
+         }
+      });
+      return fut;
+   }
+
+   @Override
+   public CompletableFuture<Response> completableSend(final Request request) {
+      return completableSend(request, RequestOptions.DEFAULT);
+   }
+
+   @Override
+   public CompletableFuture<Response> completableSend(final Request request, final RequestOptions options) {
+      return delegate.completableSend(request, options);
+   }
+
+   @Override
+   public void shutdown() throws Exception {
+      delegate.shutdown();
+   }
+
+   /**
+    * Removes the {@code CompletionException} dependent stages wrap failures with.
+    * @param throwable The failure.
+    * @return The cause of the failure.
+    */
+   protected static Throwable unwrap(final Throwable throwable) {
+      return throwable instanceof CompletionException && throwable.getCause() != null ?
+              throwable.getCause() : throwable;
+   }
+
+   /**
+    * Returns pooled buffers for a response that is discarded.
+    * @param response The response.
+    */
+   protected static void release(final Response response) {
+      if(response instanceof PooledBodyResponse) {
+         ((PooledBodyResponse)response).close();
+      }
+   }
+
+   /**
+    * The client requests are forwarded to.
+    */
+   protected final AsyncClient delegate;
+}
@@ -45,9 +45,9 @@ public class HeadRequestBuilder extends RequestBuilderWithParameters {
     */
    public HeadRequestBuilder(final String uri, final boolean caseSensitiveParameters) throws InvalidURIException {
       super(uri, caseSensitiveParameters);
-      String qs = this.uri.getQuery();
+      String qs = this.uri.getRawQuery();
       if(qs != null) {
-         this.parameters.putAll(Request.parseParameters(qs, caseSensitiveParameters));
+         this.parameters.putAll(QueryString.parse(qs).toParameterMap(caseSensitiveParameters));
       }
    }
 
@@ -58,9 +58,9 @@ public class HeadRequestBuilder extends RequestBuilderWithParameters {
     */
    public HeadRequestBuilder(final URI uri, final boolean caseSensitiveParameters) {
       super(uri, caseSensitiveParameters);
-      String qs = this.uri.getQuery();
+      String qs = this.uri.getRawQuery();
       if(qs != null) {
-         this.parameters.putAll(Request.parseParameters(qs, caseSensitiveParameters));
+         this.parameters.putAll(QueryString.parse(qs).toParameterMap(caseSensitiveParameters));
       }
    }
 
@@ -74,9 +74,9 @@ public class HeadRequestBuilder extends RequestBuilderWithParameters {
     */
    public HeadRequestBuilder(final String uri) throws InvalidURIException {
       super(uri, true);
-      String qs = this.uri.getQuery();
+      String qs = this.uri.getRawQuery();
       if(qs != null) {
-         this.parameters.putAll(Request.parseParameters(qs, caseSensitiveParameters));
+         this.parameters.putAll(QueryString.parse(qs).toParameterMap(caseSensitiveParameters));
       }
    }
 
@@ -89,9 +89,9 @@ public class HeadRequestBuilder extends RequestBuilderWithParameters {
     */
    public HeadRequestBuilder(final URI uri) {
       super(uri, true);
-      String qs = this.uri.getQuery();
+      String qs = this.uri.getRawQuery();
       if(qs != null) {
-         this.parameters.putAll(Request.parseParameters(qs, caseSensitiveParameters));
+         this.parameters.putAll(QueryString.parse(qs).toParameterMap(caseSensitiveParameters));
       }
    }
 
@@ -39,6 +39,11 @@ public final class Header {
     */
    public static final String CONTENT_TYPE = "Content-Type";
 
+   /**
+    * The content length header.
+    */
+   public static final String CONTENT_LENGTH = "Content-Length";
+
    /**
     * Compare headers by name. Safe for use by many threads.
     */
@@ -181,15 +186,52 @@ public final class Header {
    }
 
    /**
-    * Creates an immutable map of headers from a generic map.
+    * Creates an immutable map of headers, keyed by lower-case name, from a generic map.
+    * <p>
+    *    An immutable map that already has lower-case keys and header values is returned as-is.
+    *    If keys differ only by case, the last is retained.
+    * </p>
     * @param inputHeaders The input header map.
-    * @return The mutable map.
+    * @return The immutable map.
     */
+   @SuppressWarnings("unchecked")
    static final ImmutableMap<String, Header> createImmutableMap(final Map<?,?> inputHeaders) {
-      if(inputHeaders == null) {
+      if(inputHeaders == null || inputHeaders.isEmpty()) {
          return ImmutableMap.of();
+      } else if(inputHeaders instanceof HeaderMap) {
+         return ((HeaderMap)inputHeaders).toImmutableMap();
+      } else if(inputHeaders instanceof ImmutableMap && isLowerCaseHeaderMap(inputHeaders)) {
+         return (ImmutableMap<String, Header>)inputHeaders;
+      }
+      ImmutableMap.Builder<String, Header> builder = ImmutableMap.builderWithExpectedSize(inputHeaders.size());
+      for(final Map.Entry<?,?> curr : inputHeaders.entrySet()) {
+         String key = curr.getKey().toString();
+         builder.put(HeaderMap.lowerCaseName(key), toHeader(key, curr.getValue()));
+      }
+      return builder.buildKeepingLast();
+   }
+
+   /**
+    * Gets a header from a map keyed by lower-case name, ignoring the case of the name.
+    * @param headers The headers.
+    * @param name The header name.
+    * @return The header or {@code null} if none.
+    */
+   static final Header get(final ImmutableMap<String, Header> headers, final String name) {
+      return name == null || headers.isEmpty() ? null : headers.get(HeaderMap.lowerCaseName(name));
+   }
+
+   private static boolean isLowerCaseHeaderMap(final Map<?,?> inputHeaders) {
+      for(final Map.Entry<?,?> curr : inputHeaders.entrySet()) {
+         if(!(curr.getKey() instanceof String) || !(curr.getValue() instanceof Header)) {
+            return false;
+         }
+         String key = (String)curr.getKey();
+         if(HeaderMap.lowerCaseName(key) != key) {
+            return false;
+         }
       }
-      return ImmutableMap.copyOf(createMap(inputHeaders, Maps.newHashMapWithExpectedSize(inputHeaders.size())));
+      return true;
    }
 
    /**
@@ -204,36 +246,57 @@ public final class Header {
     * @param outputMap The map to fill.
     * @return The new header map.
     */
-   @SuppressWarnings("unchecked")
    static final Map<String, Header> createMap(final Map<?,?> inputHeaders, final Map<String, Header> outputMap) {
 
       if(inputHeaders == null) return Maps.newHashMap();
       for(final Map.Entry<?,?> curr : inputHeaders.entrySet()) {
-         Object key = curr.getKey();
-         String keyStr = key.toString().intern();
-         String lcKey = keyStr.intern();
-         Object value = curr.getValue();
-         if(value instanceof Header) {
-            outputMap.put(lcKey, (Header)value);
-         } else if(value instanceof Collection) {
-            Collection<?> c = (Collection)value;
-            List<String> values = Lists.newArrayListWithExpectedSize(c.size());
-            for(Object o : c) {
-               if(o != null) {
-                  values.add(o.toString());
-               }
-            }
-            outputMap.put(lcKey, new Header(keyStr, values));
-         } else if(value instanceof String[]) {
-            outputMap.put(lcKey, new Header(keyStr, (String[])value));
-         } else {
-            outputMap.put(lcKey, new Header(keyStr, value != null ? value.toString() : null));
-         }
+         String key = curr.getKey().toString();
+         outputMap.put(HeaderMap.lowerCaseName(key), toHeader(key, curr.getValue()));
       }
 
       return outputMap;
    }
 
+   /**
+    * Adds headers from a generic map to a header map builder.
+    * @param inputHeaders The input header map.
+    * @param builder The builder.
+    * @return The builder.
+    * @see #createMap(Map, Map)
+    */
+   static final HeaderMap.Builder createMap(final Map<?,?> inputHeaders, final HeaderMap.Builder builder) {
+      for(final Map.Entry<?,?> curr : inputHeaders.entrySet()) {
+         String key = curr.getKey().toString();
+         builder.put(key, toHeader(key, curr.getValue()));
+      }
+      return builder;
+   }
+
+   /**
+    * Creates a header from a generic map value.
+    * @param name The header name.
+    * @param value The value.
+    * @return The header.
+    */
+   private static Header toHeader(final String name, final Object value) {
+      if(value instanceof Header) {
+         return (Header)value;
+      } else if(value instanceof Collection) {
+         Collection<?> c = (Collection<?>)value;
+         List<String> values = Lists.newArrayListWithExpectedSize(c.size());
+         for(Object o : c) {
+            if(o != null) {
+               values.add(o.toString());
+            }
+         }
+         return new Header(name, values);
+      } else if(value instanceof String[]) {
+         return new Header(name, (String[])value);
+      } else {
+         return new Header(name, value != null ? value.toString() : null);
+      }
+   }
+
    @Override
    public String toString() {
       return NamedValues.toString(name, values);
@@ -0,0 +1,479 @@
+/*
+ * Copyright 2026 Attribyte Labs, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ *
+ */
+package org.attribyte.api.http;
+
+import com.google.common.collect.ImmutableMap;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An immutable map of headers with case-insensitive lookup.
+ * <p>
+ *    Keys are header names with ASCII letters lower-cased, and iteration follows insertion order.
+ *    Lookup with a key in any case hashes and compares the name with ASCII case-folding,
+ *    so {@code get} never allocates.
+ * </p>
+ */
+public final class HeaderMap extends AbstractMap<String, Header> {
+
+   /**
+    * An empty map.
+    */
+   public static final HeaderMap EMPTY = new HeaderMap(new String[0], new Header[0], new int[0], new int[1], 0);
+
+   /**
+    * Creates a header map from a generic map.
+    * <p>
+    *   Map values may be {@code Header}, {@code String[]}, or {@code Collection<String>}.
+    *   If value is none of these, {@code toString} is called
+    *   to create <em>a single value</em>. If keys differ only by case, the last is retained.
+    * </p>
+    * @param inputHeaders The input header map. May be {@code null}.
+    * @return The header map.
+    */
+   public static HeaderMap copyOf(final Map<?, ?> inputHeaders) {
+      if(inputHeaders == null || inputHeaders.isEmpty()) {
+         return EMPTY;
+      } else if(inputHeaders instanceof HeaderMap) {
+         return (HeaderMap)inputHeaders;
+      } else {
+         return Header.createMap(inputHeaders, new Builder(inputHeaders.size())).build();
+      }
+   }
+
+   /**
+    * Gets a header by name, ignoring case.
+    * @param key The header name.
+    * @return The header or {@code null} if none.
+    */
+   @Override
+   public Header get(final Object key) {
+      if(!(key instanceof String) || size == 0) {
+         return null;
+      }
+      final String name = (String)key;
+      final int hash = hash(name);
+      int slot = hash & (table.length - 1);
+      int entry;
+      while((entry = table[slot]) != 0) {
+         int index = entry - 1;
+         if(hashes[index] == hash && equalsIgnoreCase(names[index], name)) {
+            return headers[index];
+         }
+         slot = (slot + 1) & (table.length - 1);
+      }
+      return null;
+   }
+
+   @Override
+   public boolean containsKey(final Object key) {
+      return get(key) != null;
+   }
+
+   @Override
+   public int size() {
+      return size;
+   }
+
+   @Override
+   public boolean isEmpty() {
+      return size == 0;
+   }
+
+   @Override
+   public Collection<Header> values() {
+      return Collections.unmodifiableList(Arrays.asList(headers).subList(0, size));
+   }
+
+   @Override
+   public Set<Entry<String, Header>> entrySet() {
+      return new AbstractSet<Entry<String, Header>>() {
+         @Override
+         public Iterator<Entry<String, Header>> iterator() {
+            return new Iterator<Entry<String, Header>>() {
+               @Override
+               public boolean hasNext() {
+                  return index < size;
+               }
+
+               @Override
+               public Entry<String, Header> next() {
+                  if(index >= size) {
+                     throw new java.util.NoSuchElementException();
+                  }
+                  Entry<String, Header> entry = new SimpleImmutableEntry<>(names[index], headers[index]);
+                  index++;
+                  return entry;
+               }
+
+               private int index;
+            };
+         }
+
+         @Override
+         public int size() {
+            return size;
+         }
+      };
+   }
+
+   /**
+    * Gets an immutable copy of this map, with the same lower-case keys and iteration order.
+    * <p>
+    *    The copy is created when first requested, then shared. Lookup in the copy does not ignore case.
+    * </p>
+    * @return The immutable map.
+    */
+   public ImmutableMap<String, Header> toImmutableMap() {
+      ImmutableMap<String, Header> immutableMap = this.immutableMap;
+      if(immutableMap == null) {
+         ImmutableMap.Builder<String, Header> builder = ImmutableMap.builderWithExpectedSize(size);
+         for(int i = 0; i < size; i++) {
+            builder.put(names[i], headers[i]);
+         }
+         this.immutableMap = immutableMap = builder.build();
+      }
+      return immutableMap;
+   }
+
+   /**
+    * Gets the lower-case form of a header name.
+    * <p>
+    *    Names that are already lower-case are returned as-is and well-known names
+    *    return a shared constant, so neither allocates.
+    * </p>
+    * @param name The header name.
+    * @return The lower-case name.
+    */
+   public static String lowerCaseName(final String name) {
+      if(isLowerCase(name)) {
+         return name;
+      }
+      final int hash = hash(name);
+      int slot = hash & (WELL_KNOWN_TABLE.length - 1);
+      String candidate;
+      while((candidate = WELL_KNOWN_TABLE[slot]) != null) {
+         if(equalsIgnoreCase(candidate, name)) {
+            return candidate;
+         }
+         slot = (slot + 1) & (WELL_KNOWN_TABLE.length - 1);
+      }
+      final char[] chars = name.toCharArray();
+      for(int i = 0; i < chars.length; i++) {
+         chars[i] = fold(chars[i]);
+      }
+      return new String(chars);
+   }
+
+   /**
+    * Builds header maps, merging values for names that differ only by case.
+    */
+   public static final class Builder {
+
+      /**
+       * Creates a builder.
+       */
+      public Builder() {
+         this(8);
+      }
+
+      /**
+       * Creates a builder with an expected number of headers.
+       * @param expectedSize The expected number of headers.
+       */
+      public Builder(final int expectedSize) {
+         int capacity = Math.max(expectedSize, 4);
+         this.names = new String[capacity];
+         this.headers = new Header[capacity];
+         this.hashes = new int[capacity];
+         this.table = new int[tableSize(capacity)];
+      }
+
+      /**
+       * Adds a header value, appending to any existing values for the name.
+       * @param name The header name.
+       * @param value The value.
+       * @return A self-reference.
+       */
+      public Builder add(final String name, final String value) {
+         final int hash = hash(name);
+         final int index = indexOf(name, hash);
+         if(index < 0) {
+            append(name, hash, new Header(name, value));
+         } else {
+            headers[index] = headers[index].addValue(value);
+         }
+         return this;
+      }
+
+      /**
+       * Puts a header, replacing any existing header with the same name.
+       * @param header The header.
+       * @return A self-reference.
+       */
+      public Builder put(final Header header) {
+         return put(header.name, header);
+      }
+
+      /**
+       * Puts a header with a name that may differ from the header's name,
+       * replacing any existing header with the same name.
+       * @param name The name.
+       * @param header The header.
+       * @return A self-reference.
+       */
+      Builder put(final String name, final Header header) {
+         final int hash = hash(name);
+         final int index = indexOf(name, hash);
+         if(index < 0) {
+            append(name, hash, header);
+         } else {
+            headers[index] = header;
+         }
+         return this;
+      }
+
+      /**
+       * Puts all headers from a map, replacing any existing headers with the same name.
+       * @param headerMap The headers.
+       * @return A self-reference.
+       */
+      public Builder putAll(final Map<String, Header> headerMap) {
+         headerMap.forEach(this::put);
+         return this;
+      }
+
+      /**
+       * Gets a header that has been added, ignoring case.
+       * @param name The header name.
+       * @return The header or {@code null} if none.
+       */
+      public Header get(final String name) {
+         final int index = indexOf(name, hash(name));
+         return index < 0 ? null : headers[index];
+      }
+
+      /**
+       * Gets the number of headers added.
+       * @return The number of headers.
+       */
+      public int size() {
+         return size;
+      }
+
+      /**
+       * Builds an immutable map. The builder may continue to be used.
+       * @return The map.
+       */
+      public HeaderMap build() {
+         if(size == 0) {
+            return EMPTY;
+         }
+         return new HeaderMap(names.clone(), headers.clone(), hashes.clone(), table.clone(), size);
+      }
+
+      /**
+       * Builds an immutable map keyed by lower-case name, without building a header map.
+       * The builder may continue to be used.
+       * @return The map.
+       */
+      public ImmutableMap<String, Header> buildImmutableMap() {
+         if(size == 0) {
+            return ImmutableMap.of();
+         }
+         ImmutableMap.Builder<String, Header> builder = ImmutableMap.builderWithExpectedSize(size);
+         for(int i = 0; i < size; i++) {
+            builder.put(names[i], headers[i]);
+         }
+         return builder.build();
+      }
+
+      private int indexOf(final String name, final int hash) {
+         int slot = hash & (table.length - 1);
+         int entry;
+         while((entry = table[slot]) != 0) {
+            int index = entry - 1;
+            if(hashes[index] == hash && equalsIgnoreCase(names[index], name)) {
+               return index;
+            }
+            slot = (slot + 1) & (table.length - 1);
+         }
+         return -1;
+      }
+
+      private void append(final String name, final int hash, final Header header) {
+         if(size == names.length) {
+            int capacity = size * 2;
+            names = Arrays.copyOf(names, capacity);
+            headers = Arrays.copyOf(headers, capacity);
+            hashes = Arrays.copyOf(hashes, capacity);
+            table = new int[tableSize(capacity)];
+            for(int i = 0; i < size; i++) {
+               insert(table, hashes[i], i);
+            }
+         }
+         names[size] = lowerCaseName(name);
+         headers[size] = header;
+         hashes[size] = hash;
+         insert(table, hash, size);
+         size++;
+      }
+
+      private String[] names;
+      private Header[] headers;
+      private int[] hashes;
+      private int[] table;
+      private int size;
+   }
+
+   private HeaderMap(final String[] names, final Header[] headers, final int[] hashes,
+                     final int[] table, final int size) {
+      this.names = names;
+      this.headers = headers;
+      this.hashes = hashes;
+      this.table = table;
+      this.size = size;
+   }
+
+   /**
+    * Computes a hash of a name with ASCII letters folded to lower-case.
+    * @param name The name.
+    * @return The hash.
+    */
+   static int hash(final String name) {
+      int hash = 0;
+      for(int i = 0; i < name.length(); i++) {
+         hash = 31 * hash + fold(name.charAt(i));
+      }
+      return hash ^ (hash >>> 16);
+   }
+
+   /**
+    * Compares names with ASCII letters folded to lower-case, consistent with {@link #hash(String)}.
+    */
+   private static boolean equalsIgnoreCase(final String s0, final String s1) {
+      if(s0 == s1) {
+         return true;
+      } else if(s0.length() != s1.length()) {
+         return false;
+      }
+      for(int i = 0; i < s0.length(); i++) {
+         char ch0 = s0.charAt(i);
+         char ch1 = s1.charAt(i);
+         if(ch0 != ch1 && fold(ch0) != fold(ch1)) {
+            return false;
+         }
+      }
+      return true;
+   }
+
+   /**
+    * Folds an ASCII upper-case letter to lower-case. Other characters are unchanged.
+    */
+   private static char fold(final char ch) {
+      return ch >= 'A' && ch <= 'Z' ? (char)(ch + ('a' - 'A')) : ch;
+   }
+
+   private static boolean isLowerCase(final String name) {
+      for(int i = 0; i < name.length(); i++) {
+         char ch = name.charAt(i);
+         if(ch >= 'A' && ch <= 'Z') {
+            return false;
+         }
+      }
+      return true;
+   }
+
+   private static int tableSize(final int capacity) {
+      return Integer.highestOneBit(Math.max(capacity, 2) * 2 - 1) * 2;
+   }
+
+   private static void insert(final int[] table, final int hash, final int index) {
+      int slot = hash & (table.length - 1);
+      while(table[slot] != 0) {
+         slot = (slot + 1) & (table.length - 1);
+      }
+      table[slot] = index + 1;
+   }
+
+   /**
+    * Lower-case names of well-known headers.
+    */
+   private static final List<String> WELL_KNOWN_NAMES = Arrays.asList(
+           "accept", "accept-charset", "accept-encoding", "accept-language", "accept-ranges",
+           "access-control-allow-origin", "age", "allow", "authorization", "cache-control", "connection",
+           "content-disposition", "content-encoding", "content-language", "content-length", "content-location",
+           "content-range", "content-type", "cookie", "date", "etag", "expect", "expires", "host",
+           "if-match", "if-modified-since", "if-none-match", "if-range", "if-unmodified-since",
+           "keep-alive", "last-modified", "link", "location", "origin", "pragma", "proxy-authenticate",
+           "proxy-authorization", "range", "referer", "retry-after", "server", "set-cookie",
+           "strict-transport-security", "te", "trailer", "transfer-encoding", "upgrade", "user-agent",
+           "vary", "via", "www-authenticate", "x-forwarded-for", "x-forwarded-host", "x-forwarded-proto",
+           "x-request-id"
+   );
+
+   /**
+    * An open-addressed table of well-known names, probed by folded hash.
+    */
+   private static final String[] WELL_KNOWN_TABLE = new String[tableSize(WELL_KNOWN_NAMES.size())];
+
+   static {
+      for(String name : WELL_KNOWN_NAMES) {
+         int slot = hash(name) & (WELL_KNOWN_TABLE.length - 1);
+         while(WELL_KNOWN_TABLE[slot] != null) {
+            slot = (slot + 1) & (WELL_KNOWN_TABLE.length - 1);
+         }
+         WELL_KNOWN_TABLE[slot] = name;
+      }
+   }
+
+   /**
+    * An immutable copy, created on first use.
+    */
+   private volatile ImmutableMap<String, Header> immutableMap;
+
+   /**
+    * Lower-case names in insertion order.
+    */
+   private final String[] names;
+
+   /**
+    * Headers in insertion order.
+    */
+   private final Header[] headers;
+
+   /**
+    * The folded hash for each name.
+    */
+   private final int[] hashes;
+
+   /**
+    * The open-addressed index. Each slot holds an entry index plus one, or zero if empty.
+    */
+   private final int[] table;
+
+   /**
+    * The number of headers.
+    */
+   private final int size;
+}
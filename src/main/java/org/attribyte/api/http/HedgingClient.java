@@ -0,0 +1,429 @@
+/*
+ * Copyright 2026 Attribyte Labs, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ *
+ */
+
+package org.attribyte.api.http;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.collect.ImmutableSet;
+
+import java.util.Collection;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongFunction;
+
+/**
+ * An async client that sends a second (hedged) request when the first is slow, and returns the first response.
+ * <p>
+ *    The hedge is sent when a request has not completed within a percentile ({@code 95} by default) of recent
+ *    latency for its host, port and stats tag, so only the slowest requests are hedged. When one request completes,
+ *    the other is cancelled. The {@code JettyClient} aborts cancelled requests. The {@code JdkClient} can't,
+ *    so their responses are received and discarded.
+ * </p>
+ * <p>
+ *    By default, the client records the time each request takes to complete. Alternatively, the delay may be
+ *    read from the total times recorded by a client's {@link TimingAggregator}. Other phases are not used,
+ *    because a hedge is sent when the response is not complete. Requests are not hedged until enough times are recorded.
+ * </p>
+ * <p>
+ *    Every request deposits in a {@link RetryBudget} and every hedge withdraws, so hedges are limited
+ *    (by default, to 5% of requests) when a destination is slow for every request. Only requests with
+ *    safe methods ({@code GET} and {@code HEAD} by default) are hedged. A failure does not send a hedge;
+ *    use a {@link RetryingClient} for that.
+ * </p>
+ */
+public class HedgingClient extends ForwardingAsyncClient {
+
+   /**
+    * Creates a builder.
+    * @param delegate The client that sends requests.
+    * @return The builder.
+    */
+   public static Builder builder(final AsyncClient delegate) {
+      return new Builder(delegate);
+   }
+
+   /**
+    * Creates a hedging client with default settings.
+    * @param delegate The client that sends requests.
+    */
+   public HedgingClient(final AsyncClient delegate) {
+      this(new Builder(delegate));
+   }
+
+   private HedgingClient(final Builder builder) {
+      super(builder.delegate);
+      this.percentile = builder.percentile;
+      this.minDelayMillis = builder.minDelayMillis;
+      this.minSamples = builder.minSamples;
+      this.methods = ImmutableSet.copyOf(builder.methods);
+      this.budget = builder.budget != null ? builder.budget : new RetryBudget(0.05, 0, 10);
+      this.recordTiming = builder.timingAggregator == null;
+      this.timingAggregator = builder.timingAggregator != null ? builder.timingAggregator :
+              new TimingAggregator(1L, TimeUnit.MINUTES);
+      this.scheduler = builder.scheduler != null ? builder.scheduler : SharedTimer.scheduler;
+   }
+
+   @Override
+   public CompletableFuture<Response> completableSend(final Request request, final RequestOptions options) {
+      if(!methods.contains(request.method)) {
+         return delegate.completableSend(request, options);
+      }
+      budget.deposit();
+      final HedgedRequest result = new HedgedRequest(request, options);
+      result.start(hedgeDelayMillis(request));
+      return result;
+   }
+
+   /**
+    * Gets the time to wait for a response before sending a hedge.
+    * @param request The request.
+    * @return The delay in milliseconds, or {@code -1} if the request should not be hedged.
+    */
+   protected long hedgeDelayMillis(final Request request) {
+      // Snapshots merge histograms, so the delay is recomputed at most once per interval.
+      // Until there are enough samples, it is recomputed for every request.
+      return timingAggregator.derivedValue(this, request.uri.getHost(), TimingAggregator.port(request.uri),
+              request.getStatsTag(), DELAY_REFRESH_NANOS, delayFunction);
+   }
+
+   /**
+    * Computes the hedge delay from recent timing.
+    * @return The delay in milliseconds, or {@code -1} if there are not enough samples.
+    */
+   private long delayMillis(final TimingAggregator.Snapshot snapshot) {
+      final LatencyHistogram.Snapshot total = snapshot.phase(TimingAggregator.Phase.TOTAL);
+      if(total.count < minSamples) {
+         return -1L;
+      }
+      return Math.max(minDelayMillis, total.percentile(percentile, TimeUnit.MILLISECONDS));
+   }
+
+   /**
+    * The result of a request that may be hedged.
+    */
+   private final class HedgedRequest extends CompletableFuture<Response> {
+
+      HedgedRequest(final Request request, final RequestOptions options) {
+         this.request = request;
+         this.options = options;
+         this.startTick = System.nanoTime();
+      }
+
+      /**
+       * Sends the request and schedules the hedge.
+       * @param delayMillis The delay before the hedge, or {@code -1} for none.
+       */
+      void start(final long delayMillis) {
+         synchronized(this) {
+            outstanding++;
+         }
+         send(false);
+         if(delayMillis >= 0L && !isDone()) {
+            try {
+               timer = scheduler.schedule(this::hedge, delayMillis, TimeUnit.MILLISECONDS);
+            } catch(RejectedExecutionException ree) {
+               //Not hedged
+            }
+         }
+      }
+
+      private void hedge() {
+         synchronized(this) {
+            if(isDone() || outstanding == 0) {
+               return;
+            }
+            if(!budget.tryWithdraw()) {
+               budgetExhausted.increment();
+               return;
+            }
+            outstanding++;
+         }
+         hedges.increment();
+         send(true);
+      }
+
+      private void send(final boolean isHedge) {
+         final long attemptStartTick = isHedge ? System.nanoTime() : startTick;
+         CompletableFuture<Response> attempt;
+         try {
+            attempt = delegate.completableSend(request, options);
+         } catch(RuntimeException re) {
+            attempt = CompletableFuture.failedFuture(re);
+         }
+         if(isHedge) {
+            hedge = attempt;
+         } else {
+            primary = attempt;
+         }
+         attempt.whenComplete((response, throwable) -> completed(isHedge, attemptStartTick, response, throwable));
+         if(isDone()) { //Completed before the attempt was visible to cancelAttempts
+            attempt.cancel(true);
+         }
+      }
+
+      private void completed(final boolean isHedge, final long attemptStartTick,
+                             final Response response, final Throwable throwable) {
+         final Throwable failure = throwable != null ? unwrap(throwable) : null;
+         if(recordTiming && (failure == null || failure instanceof CancellationException)) {
+            //A cancelled attempt is measured from when the request started, so slow requests that lose aren't
+            //missing from the distribution, and a losing hedge, started late, does not bias it down.
+            final long tick = System.nanoTime();
+            final long elapsed = tick - (failure == null ? attemptStartTick : startTick);
+            timingAggregator.record(request.uri.getHost(), TimingAggregator.port(request.uri), request.getStatsTag(), -1L, -1L, -1L, elapsed, tick);
+         }
+
+         if(failure == null) {
+            final boolean first;
+            synchronized(this) {
+               first = !responded;
+               responded = true;
+            }
+            if(first && isHedge) { //Counted before completing, so the count is current when the caller sees the response
+               hedgeWins.increment();
+            }
+            if(first && complete(response)) {
+               cancelAttempts();
+            } else {
+               release(response);
+            }
+            return;
+         }
+
+         final boolean last;
+         synchronized(this) {
+            last = --outstanding == 0;
+         }
+         if(last && completeExceptionally(failure)) {
+            cancelAttempts();
+         }
+      }
+
+      @Override
+      public boolean cancel(final boolean mayInterruptIfRunning) {
+         final boolean cancelled = super.cancel(mayInterruptIfRunning);
+         if(cancelled) {
+            cancelAttempts();
+         }
+         return cancelled;
+      }
+
+      /**
+       * Cancels the timer and any attempt that has not completed.
+       */
+      private void cancelAttempts() {
+         final ScheduledFuture<?> timer = this.timer;
+         if(timer != null) {
+            timer.cancel(false);
+         }
+         final CompletableFuture<Response> primary = this.primary;
+         if(primary != null) {
+            primary.cancel(true);
+         }
+         final CompletableFuture<Response> hedge = this.hedge;
+         if(hedge != null) {
+            hedge.cancel(true);
+         }
+      }
+
+      private final Request request;
+      private final RequestOptions options;
+
+      /**
+       * The time the request, and the first attempt, started.
+       */
+      private final long startTick;
+
+      /**
+       * The number of attempts that have not failed.
+       */
+      private int outstanding;
+
+      /**
+       * Has an attempt returned a response?
+       */
+      private boolean responded;
+
+      private volatile CompletableFuture<Response> primary;
+      private volatile CompletableFuture<Response> hedge;
+      private volatile ScheduledFuture<?> timer;
+   }
+
+   /**
+    * Gets the number of hedged requests sent.
+    * @return The number of hedges.
+    */
+   public long hedges() {
+      return hedges.sum();
+   }
+
+   /**
+    * Gets the number of requests that completed with the hedge's response.
+    * @return The number of requests.
+    */
+   public long hedgeWins() {
+      return hedgeWins.sum();
+   }
+
+   /**
+    * Gets the number of hedges not sent because the budget was exhausted.
+    * @return The number of hedges.
+    */
+   public long budgetExhausted() {
+      return budgetExhausted.sum();
+   }
+
+   /**
+    * Gets the hedge budget.
+    * @return The budget.
+    */
+   public RetryBudget budget() {
+      return budget;
+   }
+
+   @Override
+   public String toString() {
+      return MoreObjects.toStringHelper(this)
+              .add("percentile", percentile)
+              .add("hedges", hedges())
+              .add("hedgeWins", hedgeWins())
+              .add("budgetExhausted", budgetExhausted())
+              .add("budget", budget)
+              .toString();
+   }
+
+   /**
+    * Builds hedging clients.
+    */
+   public static class Builder {
+
+      private Builder(final AsyncClient delegate) {
+         this.delegate = delegate;
+      }
+
+      /**
+       * Sets the latency percentile after which a hedge is sent. Default is {@code 95}.
+       * @param percentile The percentile.
+       * @return A self-reference.
+       */
+      public Builder setPercentile(final double percentile) {
+         this.percentile = percentile;
+         return this;
+      }
+
+      /**
+       * Sets the minimum delay before a hedge. Default is {@code 1} ms.
+       * @param minDelayMillis The delay in milliseconds.
+       * @return A self-reference.
+       */
+      public Builder setMinDelayMillis(final long minDelayMillis) {
+         this.minDelayMillis = minDelayMillis;
+         return this;
+      }
+
+      /**
+       * Sets the number of recent times required for a destination and tag before requests are hedged. Default is {@code 20}.
+       * @param minSamples The number of times.
+       * @return A self-reference.
+       */
+      public Builder setMinSamples(final int minSamples) {
+         this.minSamples = minSamples;
+         return this;
+      }
+
+      /**
+       * Sets the methods that may be hedged. Default is {@code GET} and {@code HEAD}.
+       * @param methods The methods.
+       * @return A self-reference.
+       */
+      public Builder setMethods(final Collection<Request.Method> methods) {
+         this.methods = methods;
+         return this;
+      }
+
+      /**
+       * Sets the hedge budget, possibly shared with other clients.
+       * Default allows hedges for 5% of requests, with at most 10 saved.
+       * @param budget The budget.
+       * @return A self-reference.
+       */
+      public Builder setHedgeBudget(final RetryBudget budget) {
+         this.budget = budget;
+         return this;
+      }
+
+      /**
+       * Reads hedge delays from the total times recorded by a timing aggregator instead of recording times.
+       * @param timingAggregator The aggregator, for example, {@code JettyClient.timingAggregator()}.
+       * @return A self-reference.
+       */
+      public Builder setTimingAggregator(final TimingAggregator timingAggregator) {
+         this.timingAggregator = timingAggregator;
+         return this;
+      }
+
+      /**
+       * Sets the scheduler for hedges. By default, a timer thread shared by all clients is used.
+       * @param scheduler The scheduler.
+       * @return A self-reference.
+       */
+      public Builder setScheduler(final ScheduledExecutorService scheduler) {
+         this.scheduler = scheduler;
+         return this;
+      }
+
+      /**
+       * Builds the client.
+       * @return The client.
+       */
+      public HedgingClient build() {
+         if(percentile <= 0.0 || percentile > 100.0 || minDelayMillis < 0L || minSamples < 1) {
+            throw new IllegalArgumentException("The 'percentile' must be in (0, 100], 'minDelayMillis' must be >= 0 and 'minSamples' must be > 0");
+         }
+         return new HedgingClient(this);
+      }
+
+      private final AsyncClient delegate;
+      private double percentile = 95.0;
+      private long minDelayMillis = 1L;
+      private int minSamples = 20;
+      private Collection<Request.Method> methods = ImmutableSet.of(Request.Method.GET, Request.Method.HEAD);
+      private RetryBudget budget;
+      private TimingAggregator timingAggregator;
+      private ScheduledExecutorService scheduler;
+   }
+
+   /**
+    * The time a hedge delay is used before it is recomputed.
+    */
+   private static final long DELAY_REFRESH_NANOS = TimeUnit.SECONDS.toNanos(1L);
+
+   private final double percentile;
+   private final long minDelayMillis;
+   private final int minSamples;
+   private final ImmutableSet<Request.Method> methods;
+   private final RetryBudget budget;
+   private final boolean recordTiming;
+   private final TimingAggregator timingAggregator;
+   private final ScheduledExecutorService scheduler;
+   private final ToLongFunction<TimingAggregator.Snapshot> delayFunction = this::delayMillis;
+   private final LongAdder hedges = new LongAdder();
+   private final LongAdder hedgeWins = new LongAdder();
+   private final LongAdder budgetExhausted = new LongAdder();
+}
@@ -0,0 +1,313 @@
+/*
+ * Copyright 2026 Attribyte Labs, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ *
+ */
+
+package org.attribyte.api.http;
+
+import com.google.common.base.MoreObjects;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A concurrent, log-linear histogram of durations in nanoseconds.
+ * <p>
+ *    Each power-of-two range is divided into 16 linear buckets, so recorded values
+ *    are accurate to about 3%. Values above {@code 2^40} nanoseconds (about 18 minutes) are recorded as the maximum.
+ *    Recording is lock-free and allocation-free. Counts are striped by thread so concurrent recording threads
+ *    rarely contend.
+ * </p>
+ */
+public final class LatencyHistogram {
+
+   /**
+    * Creates a histogram with a stripe for each available processor (up to 16).
+    */
+   public LatencyHistogram() {
+      this(Math.min(16, Runtime.getRuntime().availableProcessors()));
+   }
+
+   /**
+    * Creates a histogram with a specified number of stripes.
+    * @param stripes The number of stripes. Rounded up to a power of two.
+    */
+   public LatencyHistogram(final int stripes) {
+      int stripeCount = Integer.highestOneBit(Math.max(1, stripes));
+      if(stripeCount < stripes) {
+         stripeCount <<= 1;
+      }
+      this.stripes = new AtomicLongArray[stripeCount];
+      for(int i = 0; i < stripeCount; i++) {
+         this.stripes[i] = new AtomicLongArray(STRIPE_LENGTH);
+      }
+      this.stripeMask = stripeCount - 1;
+   }
+
+   /**
+    * Records a duration.
+    * @param duration The duration.
+    * @param units The duration units.
+    */
+   public void record(final long duration, final TimeUnit units) {
+      record(units.toNanos(duration));
+   }
+
+   /**
+    * Records a duration in nanoseconds. Negative values are ignored.
+    * @param nanos The duration in nanoseconds.
+    */
+   public void record(final long nanos) {
+      if(nanos < 0L) {
+         return;
+      }
+      final long value = Math.min(nanos, MAX_VALUE);
+      final AtomicLongArray stripe = stripes[(int)Thread.currentThread().getId() & stripeMask];
+      stripe.incrementAndGet(bucketIndex(value));
+      stripe.addAndGet(SUM_INDEX, value);
+      long max = stripe.get(MAX_INDEX);
+      while(value > max && !stripe.compareAndSet(MAX_INDEX, max, value)) {
+         max = stripe.get(MAX_INDEX);
+      }
+   }
+
+   /**
+    * Creates a snapshot of all values recorded.
+    * @return The snapshot.
+    */
+   public Snapshot snapshot() {
+      return snapshot(false);
+   }
+
+   /**
+    * Creates a snapshot of all values recorded since the last reset, then resets the histogram.
+    * <p>
+    *    Values recorded concurrently are included in either this snapshot or the next, never lost.
+    * </p>
+    * @return The snapshot.
+    */
+   public Snapshot snapshotAndReset() {
+      return snapshot(true);
+   }
+
+   /**
+    * Discards all recorded values.
+    */
+   public void reset() {
+      for(AtomicLongArray stripe : stripes) {
+         for(int i = 0; i < STRIPE_LENGTH; i++) {
+            stripe.set(i, 0L);
+         }
+      }
+   }
+
+   private Snapshot snapshot(final boolean reset) {
+      final long[] counts = new long[BUCKET_COUNT];
+      long count = 0L;
+      long sum = 0L;
+      long max = 0L;
+      for(AtomicLongArray stripe : stripes) {
+         for(int i = 0; i < BUCKET_COUNT; i++) {
+            long bucketCount = reset ? stripe.getAndSet(i, 0L) : stripe.get(i);
+            counts[i] += bucketCount;
+            count += bucketCount;
+         }
+         sum += reset ? stripe.getAndSet(SUM_INDEX, 0L) : stripe.get(SUM_INDEX);
+         max = Math.max(max, reset ? stripe.getAndSet(MAX_INDEX, 0L) : stripe.get(MAX_INDEX));
+      }
+      return new Snapshot(counts, count, sum, max);
+   }
+
+   /**
+    * An immutable view of the values recorded in a histogram.
+    */
+   public static final class Snapshot {
+
+      private Snapshot(final long[] counts, final long count, final long sum, final long max) {
+         this.counts = counts;
+         this.count = count;
+         this.sum = sum;
+         this.max = max;
+      }
+
+      /**
+       * Gets the value at a percentile.
+       * <p>
+       *    The value reported is the midpoint of the bucket that contains the percentile, limited to the maximum recorded.
+       * </p>
+       * @param percentile The percentile, from {@code 0} to {@code 100}.
+       * @return The value in nanoseconds, or {@code 0} if nothing was recorded.
+       */
+      public long percentile(final double percentile) {
+         if(count == 0L) {
+            return 0L;
+         }
+         final long rank = Math.max(1L, (long)Math.ceil(Math.min(100.0, Math.max(0.0, percentile)) / 100.0 * count));
+         long seen = 0L;
+         for(int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if(seen >= rank) {
+               return Math.min(max, bucketMidpoint(i));
+            }
+         }
+         return max;
+      }
+
+      /**
+       * Gets the value at a percentile.
+       * @param percentile The percentile, from {@code 0} to {@code 100}.
+       * @param units The units for the returned value.
+       * @return The value.
+       */
+      public long percentile(final double percentile, final TimeUnit units) {
+         return units.convert(percentile(percentile), TimeUnit.NANOSECONDS);
+      }
+
+      /**
+       * Gets the mean of the recorded values.
+       * @return The mean in nanoseconds, or {@code 0} if nothing was recorded.
+       */
+      public double mean() {
+         return count == 0L ? 0.0 : (double)sum / (double)count;
+      }
+
+      /**
+       * Creates a snapshot that combines the values in this snapshot with another.
+       * @param other The other snapshot.
+       * @return The combined snapshot.
+       */
+      public Snapshot merge(final Snapshot other) {
+         final long[] merged = counts.clone();
+         for(int i = 0; i < merged.length; i++) {
+            merged[i] += other.counts[i];
+         }
+         return new Snapshot(merged, count + other.count, sum + other.sum, Math.max(max, other.max));
+      }
+
+      @Override
+      public String toString() {
+         return MoreObjects.toStringHelper(this)
+                 .add("count", count)
+                 .add("mean", (long)mean() / 1000L)
+                 .add("p50", percentile(50.0, TimeUnit.MICROSECONDS))
+                 .add("p90", percentile(90.0, TimeUnit.MICROSECONDS))
+                 .add("p99", percentile(99.0, TimeUnit.MICROSECONDS))
+                 .add("p999", percentile(99.9, TimeUnit.MICROSECONDS))
+                 .add("max", TimeUnit.NANOSECONDS.toMicros(max))
+                 .add("units", "microsecond")
+                 .toString();
+      }
+
+      /**
+       * The count for each bucket.
+       */
+      private final long[] counts;
+
+      /**
+       * The number of values recorded.
+       */
+      public final long count;
+
+      /**
+       * The sum of all values recorded in nanoseconds.
+       */
+      public final long sum;
+
+      /**
+       * The maximum value recorded in nanoseconds.
+       */
+      public final long max;
+
+      /**
+       * A snapshot with no values.
+       */
+      public static final Snapshot EMPTY = new Snapshot(new long[BUCKET_COUNT], 0L, 0L, 0L);
+   }
+
+   /**
+    * Gets the bucket index for a value.
+    * <p>
+    *    Values below 16 have their own bucket. Larger values are bucketed by
+    *    their highest set bit, then linearly by the next 4 bits.
+    * </p>
+    * @param value The value.
+    * @return The bucket index.
+    */
+   static int bucketIndex(final long value) {
+      if(value < SUB_BUCKET_COUNT) {
+         return (int)value;
+      }
+      final int exponent = 63 - Long.numberOfLeadingZeros(value);
+      final int shift = exponent - SUB_BUCKET_BITS;
+      return ((shift + 1) << SUB_BUCKET_BITS) + (int)((value >>> shift) & (SUB_BUCKET_COUNT - 1));
+   }
+
+   /**
+    * Gets the midpoint of the range of values recorded in a bucket.
+    * @param index The bucket index.
+    * @return The midpoint.
+    */
+   static long bucketMidpoint(final int index) {
+      if(index < SUB_BUCKET_COUNT) {
+         return index;
+      }
+      final int shift = (index >>> SUB_BUCKET_BITS) - 1;
+      final long lower = (long)(SUB_BUCKET_COUNT + (index & (SUB_BUCKET_COUNT - 1))) << shift;
+      return lower + ((1L << shift) >>> 1);
+   }
+
+   /**
+    * The number of bits used for linear buckets in each power-of-two range.
+    */
+   private static final int SUB_BUCKET_BITS = 4;
+
+   /**
+    * The number of linear buckets in each power-of-two range.
+    */
+   private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+   /**
+    * The maximum value recorded.
+    */
+   private static final long MAX_VALUE = (1L << 40) - 1L;
+
+   /**
+    * The number of buckets.
+    */
+   private static final int BUCKET_COUNT = bucketIndex(MAX_VALUE) + 1;
+
+   /**
+    * The index of the sum of values in a stripe.
+    */
+   private static final int SUM_INDEX = BUCKET_COUNT;
+
+   /**
+    * The index of the maximum value in a stripe.
+    */
+   private static final int MAX_INDEX = BUCKET_COUNT + 1;
+
+   /**
+    * The length of each stripe.
+    */
+   private static final int STRIPE_LENGTH = BUCKET_COUNT + 2;
+
+   /**
+    * The stripes.
+    */
+   private final AtomicLongArray[] stripes;
+
+   /**
+    * The mask applied to a thread id to select a stripe.
+    */
+   private final int stripeMask;
+}
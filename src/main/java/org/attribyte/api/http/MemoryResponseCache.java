@@ -0,0 +1,280 @@
+/*
+ * Copyright 2026 Attribyte Labs, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ *
+ */
+
+package org.attribyte.api.http;
+
+import com.google.common.base.MoreObjects;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A response cache bounded by the number of body bytes it holds in memory.
+ * <p>
+ *    Each response is also charged a fixed overhead for its headers and entry, so
+ *    responses without a body are bounded too.
+ * </p>
+ * <p>
+ *    Eviction is segmented LRU. New entries are added to a probationary segment and
+ *    are promoted to a protected segment (80% of the capacity) when they are used again, so
+ *    a burst of responses used only once can't displace those used repeatedly. Keys are divided
+ *    into stripes, each with its own lock and an equal share of the capacity.
+ * </p>
+ */
+public class MemoryResponseCache implements ResponseCache {
+
+   /**
+    * Creates a cache.
+    * @param maxBytes The maximum number of bytes held.
+    */
+   public MemoryResponseCache(final long maxBytes) {
+      if(maxBytes < 1L) {
+         throw new IllegalArgumentException("The 'maxBytes' must be > 0");
+      }
+      this.maxBytes = maxBytes;
+      int stripeCount = 1;
+      while(stripeCount < MAX_STRIPES && maxBytes / (stripeCount * 2) >= MIN_STRIPE_BYTES) {
+         stripeCount *= 2;
+      }
+      this.stripes = new Stripe[stripeCount];
+      for(int i = 0; i < stripeCount; i++) {
+         stripes[i] = new Stripe(maxBytes / stripeCount);
+      }
+   }
+
+   @Override
+   public CachedResponse get(final String key) {
+      return stripe(key).get(key);
+   }
+
+   @Override
+   public void put(final String key, final CachedResponse response) {
+      stripe(key).put(key, response);
+   }
+
+   @Override
+   public void remove(final String key) {
+      stripe(key).remove(key);
+   }
+
+   /**
+    * Gets the number of cached responses.
+    * @return The number of responses.
+    */
+   public int size() {
+      int size = 0;
+      for(Stripe stripe : stripes) {
+         size += stripe.size();
+      }
+      return size;
+   }
+
+   /**
+    * Gets the number of bytes held, including the overhead charged for each entry.
+    * @return The number of bytes.
+    */
+   public long weight() {
+      long weight = 0L;
+      for(Stripe stripe : stripes) {
+         weight += stripe.weight();
+      }
+      return weight;
+   }
+
+   /**
+    * Gets the number of responses evicted to make room for others.
+    * @return The number of evictions.
+    */
+   public long evictions() {
+      return evictions.sum();
+   }
+
+   @Override
+   public String toString() {
+      return MoreObjects.toStringHelper(this)
+              .add("maxBytes", maxBytes)
+              .add("size", size())
+              .add("weight", weight())
+              .add("evictions", evictions())
+              .toString();
+   }
+
+   private static long entryWeight(final CachedResponse response) {
+      return response.weight() + ENTRY_OVERHEAD_BYTES;
+   }
+
+   private Stripe stripe(final String key) {
+      final int hash = key.hashCode();
+      return stripes[(hash ^ (hash >>> 16)) & (stripes.length - 1)];
+   }
+
+   /**
+    * A segmented LRU for a subset of keys.
+    */
+   private final class Stripe {
+
+      Stripe(final long maxBytes) {
+         this.maxBytes = maxBytes;
+         this.maxProtectedBytes = maxBytes * 4L / 5L;
+      }
+
+      synchronized CachedResponse get(final String key) {
+         CachedResponse response = probation.remove(key);
+         if(response != null) {
+            probationBytes -= entryWeight(response);
+            protect(key, response);
+            return response;
+         }
+         return protectedSegment.get(key); //Access order moves the entry to the end.
+      }
+
+      synchronized void put(final String key, final CachedResponse response) {
+         final long weight = entryWeight(response);
+         if(weight > maxBytes) {
+            remove(key);
+            return;
+         }
+         final CachedResponse replaced = protectedSegment.get(key);
+         if(replaced != null) {
+            protectedSegment.remove(key);
+            protectedBytes -= entryWeight(replaced);
+            protect(key, response);
+         } else {
+            final CachedResponse previous = probation.put(key, response);
+            if(previous != null) {
+               probationBytes -= entryWeight(previous);
+            }
+            probationBytes += weight;
+         }
+         evict();
+      }
+
+      synchronized void remove(final String key) {
+         CachedResponse response = probation.remove(key);
+         if(response != null) {
+            probationBytes -= entryWeight(response);
+         }
+         response = protectedSegment.remove(key);
+         if(response != null) {
+            protectedBytes -= entryWeight(response);
+         }
+      }
+
+      synchronized int size() {
+         return probation.size() + protectedSegment.size();
+      }
+
+      synchronized long weight() {
+         return probationBytes + protectedBytes;
+      }
+
+      /**
+       * Adds an entry to the protected segment, demoting the least-recently used
+       * protected entries to probation if the segment is full.
+       */
+      private void protect(final String key, final CachedResponse response) {
+         protectedSegment.put(key, response);
+         protectedBytes += entryWeight(response);
+         final Iterator<Map.Entry<String, CachedResponse>> iter = protectedSegment.entrySet().iterator();
+         while(protectedBytes > maxProtectedBytes && iter.hasNext()) {
+            final Map.Entry<String, CachedResponse> lru = iter.next();
+            if(lru.getKey().equals(key)) {
+               break;
+            }
+            iter.remove();
+            protectedBytes -= entryWeight(lru.getValue());
+            probation.put(lru.getKey(), lru.getValue());
+            probationBytes += entryWeight(lru.getValue());
+         }
+      }
+
+      /**
+       * Evicts the least-recently used entries, probationary entries first, until the stripe is within its capacity.
+       */
+      private void evict() {
+         evict(probation, true);
+         evict(protectedSegment, false);
+      }
+
+      private void evict(final LinkedHashMap<String, CachedResponse> segment, final boolean isProbation) {
+         final Iterator<CachedResponse> iter = segment.values().iterator();
+         while(probationBytes + protectedBytes > maxBytes && iter.hasNext()) {
+            final long weight = entryWeight(iter.next());
+            iter.remove();
+            if(isProbation) {
+               probationBytes -= weight;
+            } else {
+               protectedBytes -= weight;
+            }
+            evictions.increment();
+         }
+      }
+
+      /**
+       * The maximum bytes held by the stripe.
+       */
+      private final long maxBytes;
+
+      /**
+       * The maximum bytes held by the protected segment.
+       */
+      private final long maxProtectedBytes;
+
+      /**
+       * Entries used once, in insertion order.
+       */
+      private final LinkedHashMap<String, CachedResponse> probation = new LinkedHashMap<>(16, 0.75f, false);
+
+      /**
+       * Entries used more than once, in access order.
+       */
+      private final LinkedHashMap<String, CachedResponse> protectedSegment = new LinkedHashMap<>(16, 0.75f, true);
+
+      private long probationBytes;
+      private long protectedBytes;
+   }
+
+   /**
+    * The maximum number of stripes.
+    */
+   private static final int MAX_STRIPES = 16;
+
+   /**
+    * The minimum capacity of a stripe, so small caches aren't divided.
+    */
+   private static final long MIN_STRIPE_BYTES = 1024L * 1024L;
+
+   /**
+    * The bytes charged for each entry in addition to its body.
+    */
+   private static final long ENTRY_OVERHEAD_BYTES = 256L;
+
+   /**
+    * The maximum bytes held.
+    */
+   private final long maxBytes;
+
+   /**
+    * The stripes.
+    */
+   private final Stripe[] stripes;
+
+   /**
+    * The number of evictions.
+    */
+   private final LongAdder evictions = new LongAdder();
+}
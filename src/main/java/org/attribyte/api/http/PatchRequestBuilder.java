@@ -15,10 +15,12 @@
 
 package org.attribyte.api.http;
 
+import com.google.common.io.ByteSource;
 import com.google.protobuf.ByteString;
 import org.attribyte.api.InvalidURIException;
 
 import java.net.URI;
+import java.nio.file.Path;
 
 /**
  * Builds immutable HTTP {@code PATCH} requests.
@@ -34,6 +36,7 @@ public class PatchRequestBuilder extends RequestBuilder {
    public PatchRequestBuilder(final String uri, final byte[] body) throws InvalidURIException {
       super(uri);
       this.body = ByteString.copyFrom(body);
+      this.bodySource = null;
    }
 
    /**
@@ -44,6 +47,7 @@ public class PatchRequestBuilder extends RequestBuilder {
    public PatchRequestBuilder(final URI uri, final byte[] body) {
       super(uri);
       this.body = ByteString.copyFrom(body);
+      this.bodySource = null;
    }
 
    /**
@@ -56,6 +60,7 @@ public class PatchRequestBuilder extends RequestBuilder {
    public PatchRequestBuilder(final String uri, final ByteString body) throws InvalidURIException {
       super(uri);
       this.body = body;
+      this.bodySource = null;
    }
 
    /**
@@ -67,13 +72,66 @@ public class PatchRequestBuilder extends RequestBuilder {
    public PatchRequestBuilder(final URI uri, final ByteString body) {
       super(uri);
       this.body = body;
+      this.bodySource = null;
+   }
+
+   /**
+    * Creates a {@code PATCH} request builder with a parsed URI and
+    * the body streamed from a source when the request is sent.
+    * <p>
+    *    The source may be read more than once, for example, if a redirect is followed.
+    * </p>
+    * @param uri The URI string to be parsed.
+    * @param bodySource The body source.
+    * @throws InvalidURIException if URI is invalid.
+    */
+   public PatchRequestBuilder(final String uri, final ByteSource bodySource) throws InvalidURIException {
+      super(uri);
+      this.body = null;
+      this.bodySource = bodySource;
+   }
+
+   /**
+    * Creates a {@code PATCH} request builder with
+    * the body streamed from a source when the request is sent.
+    * <p>
+    *    The source may be read more than once, for example, if a redirect is followed.
+    * </p>
+    * @param uri The URI.
+    * @param bodySource The body source.
+    */
+   public PatchRequestBuilder(final URI uri, final ByteSource bodySource) {
+      super(uri);
+      this.body = null;
+      this.bodySource = bodySource;
+   }
+
+   /**
+    * Creates a {@code PATCH} request builder with a parsed URI and
+    * the body sent directly from a file.
+    * @param uri The URI string to be parsed.
+    * @param bodyFile The path to the file.
+    * @throws InvalidURIException if URI is invalid.
+    */
+   public PatchRequestBuilder(final String uri, final Path bodyFile) throws InvalidURIException {
+      this(uri, new PathByteSource(bodyFile));
+   }
+
+   /**
+    * Creates a {@code PATCH} request builder with
+    * the body sent directly from a file.
+    * @param uri The URI.
+    * @param bodyFile The path to the file.
+    */
+   public PatchRequestBuilder(final URI uri, final Path bodyFile) {
+      this(uri, new PathByteSource(bodyFile));
    }
 
    @Override
    public Request create() {
-      return new Request(Request.Method.PATCH, uri, headers, null, false, body, attributes, cookies);
+      return new Request(Request.Method.PATCH, uri, headers, null, false, body, bodySource, attributes, cookies);
    }
 
    private final ByteString body;
+   private final ByteSource bodySource;
 }
-
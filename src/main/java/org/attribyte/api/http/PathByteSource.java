@@ -0,0 +1,78 @@
+/*
+ * Copyright 2026 Attribyte Labs, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ *
+ */
+package org.attribyte.api.http;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Optional;
+import com.google.common.io.ByteSource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * A {@code ByteSource} that reads a file.
+ * <p>
+ *    Clients recognize this source and send (or serve) the file directly,
+ *    without reading it through a stream.
+ * </p>
+ */
+public class PathByteSource extends ByteSource {
+
+   /**
+    * Creates a source for a file.
+    * @param path The path to the file.
+    */
+   public PathByteSource(final Path path) {
+      this.path = path;
+   }
+
+   @Override
+   public InputStream openStream() throws IOException {
+      return Files.newInputStream(path);
+   }
+
+   @Override
+   public Optional<Long> sizeIfKnown() {
+      try {
+         return Optional.of(Files.size(path));
+      } catch(IOException ioe) {
+         return Optional.absent();
+      }
+   }
+
+   @Override
+   public long size() throws IOException {
+      return Files.size(path);
+   }
+
+   @Override
+   public byte[] read() throws IOException {
+      return Files.readAllBytes(path);
+   }
+
+   @Override
+   public String toString() {
+      return MoreObjects.toStringHelper(this)
+              .add("path", path)
+              .toString();
+   }
+
+   /**
+    * The path to the file.
+    */
+   public final Path path;
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2026 Attribyte Labs, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ *
+ */
+package org.attribyte.api.http;
+
+import com.google.protobuf.ByteString;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A response with an in-memory body that references buffers borrowed from a pool.
+ * <p>
+ *    The body is not copied out of the pooled buffers, so it must not be used
+ *    after the response is closed. Responses must be closed to return the buffers to the pool.
+ * </p>
+ */
+public class PooledBodyResponse extends BodyResponse implements AutoCloseable {
+
+   /**
+    * Creates a response.
+    * @param statusCode The HTTP response status code.
+    * @param headers The response headers.
+    * @param body The response body.
+    * @param attributes A map of attributes associated with the response.
+    * @param stats Full stats for the response.
+    * @param cookies A collection of cookies.
+    * @param release Returns the buffers that back the body to the pool.
+    */
+   PooledBodyResponse(final int statusCode, final Map<?, ?> headers,
+                      final ByteString body, final Map<String, Object> attributes,
+                      final Stats stats, final Collection<Cookie> cookies,
+                      final Runnable release) {
+      super(statusCode, headers, body, attributes, stats, cookies);
+      this.release = release;
+   }
+
+   /**
+    * Returns the buffers that back the body to the pool.
+    * The body must not be used after the response is closed. Additional calls have no effect.
+    */
+   @Override
+   public void close() {
+      if(released.compareAndSet(false, true) && release != null) {
+         release.run();
+      }
+   }
+
+   /**
+    * Has the response been closed?
+    * @return Is the response closed?
+    */
+   public boolean isClosed() {
+      return released.get();
+   }
+
+   /**
+    * Returns the buffers to the pool.
+    */
+   private final Runnable release;
+
+   /**
+    * Have the buffers been released?
+    */
+   private final AtomicBoolean released = new AtomicBoolean(false);
+}
@@ -0,0 +1,354 @@
+/*
+ * Copyright 2026 Attribyte Labs, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ *
+ */
+package org.attribyte.api.http;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A query string (or form body) parsed into name/value pairs.
+ * <p>
+ *    Parsing is a single pass that records the offsets of each name and value
+ *    in the raw string. Percent-escapes (and {@code +} as space) are decoded only when a name
+ *    or value is accessed, and the decoded string is retained. Names or values without
+ *    escapes are returned as substrings of the raw string.
+ * </p>
+ * <p>
+ *    Instances are not thread-safe.
+ * </p>
+ */
+public final class QueryString {
+
+   /**
+    * Parses a raw (escaped) query string. A leading {@code ?} is ignored.
+    * @param rawQueryString The query string. May be {@code null}.
+    * @return The parsed query string.
+    */
+   public static QueryString parse(final String rawQueryString) {
+      return parse(rawQueryString, true);
+   }
+
+   /**
+    * Parses a query string.
+    * @param queryString The query string. May be {@code null}.
+    * @param decode Should names and values be decoded? If {@code false}, the query string is already unescaped.
+    * @return The parsed query string.
+    */
+   static QueryString parse(final String queryString, final boolean decode) {
+      if(queryString == null || queryString.isEmpty()) {
+         return new QueryString("", new int[0], 0, decode);
+      }
+
+      int[] offsets = new int[24];
+      int count = 0;
+      final int length = queryString.length();
+      int start = queryString.charAt(0) == '?' ? 1 : 0;
+      int eq = -1;
+      for(int i = start; i <= length; i++) {
+         char ch = i < length ? queryString.charAt(i) : '&';
+         if(ch == '=' && eq == -1) {
+            eq = i;
+         } else if(ch == '&') {
+            if(eq == -1) {
+               eq = i;
+            }
+            if(eq > start) { //Pairs with an empty name are ignored
+               if(count * 3 == offsets.length) {
+                  offsets = Arrays.copyOf(offsets, offsets.length * 2);
+               }
+               offsets[count * 3] = start;
+               offsets[count * 3 + 1] = eq;
+               offsets[count * 3 + 2] = i;
+               count++;
+            }
+            start = i + 1;
+            eq = -1;
+         }
+      }
+
+      return new QueryString(queryString, offsets, count, decode);
+   }
+
+   private QueryString(final String raw, final int[] offsets, final int size, final boolean decode) {
+      this.raw = raw;
+      this.offsets = offsets;
+      this.size = size;
+      this.decode = decode;
+   }
+
+   /**
+    * Gets the number of name/value pairs.
+    * @return The number of pairs.
+    */
+   public int size() {
+      return size;
+   }
+
+   /**
+    * Gets the name of a pair.
+    * @param index The pair index.
+    * @return The decoded name.
+    * @throws IndexOutOfBoundsException if the index is invalid.
+    */
+   public String name(final int index) {
+      checkIndex(index);
+      return decoded(index * 2, offsets[index * 3], offsets[index * 3 + 1]);
+   }
+
+   /**
+    * Gets the value of a pair.
+    * @param index The pair index.
+    * @return The decoded value, or an empty string if the pair has no value.
+    * @throws IndexOutOfBoundsException if the index is invalid.
+    */
+   public String value(final int index) {
+      checkIndex(index);
+      int eq = offsets[index * 3 + 1];
+      int end = offsets[index * 3 + 2];
+      return eq >= end ? "" : decoded(index * 2 + 1, eq + 1, end);
+   }
+
+   /**
+    * Gets the first value for a name.
+    * @param name The name. Case is significant.
+    * @return The decoded value, or {@code null} if none.
+    */
+   public String getValue(final String name) {
+      for(int i = 0; i < size; i++) {
+         if(nameEquals(i, name)) {
+            return value(i);
+         }
+      }
+      return null;
+   }
+
+   /**
+    * Gets all values for a name.
+    * @param name The name. Case is significant.
+    * @return The decoded values, or an empty list if none.
+    */
+   public List<String> getValues(final String name) {
+      List<String> values = null;
+      for(int i = 0; i < size; i++) {
+         if(nameEquals(i, name)) {
+            if(values == null) {
+               values = Lists.newArrayListWithExpectedSize(2);
+            }
+            values.add(value(i));
+         }
+      }
+      return values != null ? Collections.unmodifiableList(values) : ImmutableList.of();
+   }
+
+   /**
+    * Creates a map of parameters, decoding all names and values.
+    * <p>
+    *    Values for repeated names are collected before each parameter is created.
+    * </p>
+    * @param caseSensitiveNames Should case be preserved for parameter names? If not, keys are lower-case.
+    * @return The map of parameters.
+    */
+   public Map<String, Parameter> toParameterMap(final boolean caseSensitiveNames) {
+      if(size == 0) {
+         return Collections.emptyMap();
+      }
+
+      Map<String, Object> grouped = Maps.newLinkedHashMapWithExpectedSize(size);
+      for(int i = 0; i < size; i++) {
+         String name = name(i);
+         String key = caseSensitiveNames ? name : name.toLowerCase();
+         Object curr = grouped.get(key);
+         if(curr == null) {
+            grouped.put(key, i); //Single-valued, so far
+         } else if(curr instanceof Integer) {
+            List<String> values = Lists.newArrayListWithExpectedSize(4);
+            values.add(value((Integer)curr));
+            values.add(value(i));
+            grouped.put(key, new Object[] {name((Integer)curr), values});
+         } else {
+            @SuppressWarnings("unchecked")
+            List<String> values = (List<String>)((Object[])curr)[1];
+            values.add(value(i));
+         }
+      }
+
+      Map<String, Parameter> parameterMap = Maps.newHashMapWithExpectedSize(grouped.size());
+      for(Map.Entry<String, Object> entry : grouped.entrySet()) {
+         Object curr = entry.getValue();
+         if(curr instanceof Integer) {
+            int index = (Integer)curr;
+            parameterMap.put(entry.getKey(), new Parameter(name(index), value(index)));
+         } else {
+            Object[] nameValues = (Object[])curr;
+            @SuppressWarnings("unchecked")
+            List<String> values = (List<String>)nameValues[1];
+            parameterMap.put(entry.getKey(), new Parameter((String)nameValues[0], values));
+         }
+      }
+      return parameterMap;
+   }
+
+   @Override
+   public String toString() {
+      return raw;
+   }
+
+   /**
+    * Compares the name of a pair without decoding, if the raw name has no escapes.
+    * @param index The pair index.
+    * @param name The name.
+    * @return Is the name equal?
+    */
+   private boolean nameEquals(final int index, final String name) {
+      int start = offsets[index * 3];
+      int end = offsets[index * 3 + 1];
+      if(decoded != null && decoded[index * 2] != null) {
+         return decoded[index * 2].equals(name);
+      } else if(!decode || !hasEscape(start, end)) {
+         return end - start == name.length() && raw.startsWith(name, start);
+      } else {
+         return name(index).equals(name);
+      }
+   }
+
+   private String decoded(final int slot, final int start, final int end) {
+      if(decoded == null) {
+         decoded = new String[size * 2];
+      }
+      String str = decoded[slot];
+      if(str == null) {
+         str = decode && hasEscape(start, end) ? decode(raw, start, end) : raw.substring(start, end);
+         decoded[slot] = str;
+      }
+      return str;
+   }
+
+   private boolean hasEscape(final int start, final int end) {
+      for(int i = start; i < end; i++) {
+         char ch = raw.charAt(i);
+         if(ch == '%' || ch == '+') {
+            return true;
+         }
+      }
+      return false;
+   }
+
+   private void checkIndex(final int index) {
+      if(index < 0 || index >= size) {
+         throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+      }
+   }
+
+   /**
+    * Decodes a range of a string, treating {@code +} as space and decoding
+    * percent-escaped bytes as UTF-8. Invalid escapes are retained as-is.
+    * @param str The string.
+    * @param start The start index.
+    * @param end The end index (exclusive).
+    * @return The decoded string.
+    */
+   static String decode(final String str, final int start, final int end) {
+      StringBuilder buf = new StringBuilder(end - start);
+      byte[] bytes = null;
+      int i = start;
+      while(i < end) {
+         char ch = str.charAt(i);
+         if(ch == '+') {
+            buf.append(' ');
+            i++;
+         } else if(ch == '%' && hexValue(str, i + 1, end) >= 0) {
+            if(bytes == null) {
+               bytes = new byte[(end - i) / 3];
+            }
+            int count = 0;
+            int b;
+            while(i < end && str.charAt(i) == '%' && (b = hexValue(str, i + 1, end)) >= 0) {
+               bytes[count++] = (byte)b;
+               i += 3;
+            }
+            buf.append(new String(bytes, 0, count, StandardCharsets.UTF_8));
+         } else {
+            buf.append(ch);
+            i++;
+         }
+      }
+      return buf.toString();
+   }
+
+   /**
+    * Gets the value of two hex digits.
+    * @param str The string.
+    * @param index The index of the first digit.
+    * @param end The end index (exclusive).
+    * @return The value, or {@code -1} if not valid hex.
+    */
+   private static int hexValue(final String str, final int index, final int end) {
+      if(index + 1 >= end) {
+         return -1;
+      }
+      int hi = hexDigit(str.charAt(index));
+      int lo = hexDigit(str.charAt(index + 1));
+      return hi < 0 || lo < 0 ? -1 : (hi << 4) | lo;
+   }
+
+   /**
+    * Gets the value of an ASCII hex digit.
+    * @param ch The character.
+    * @return The value, or {@code -1} if not {@code 0-9}, {@code a-f} or {@code A-F}.
+    */
+   private static int hexDigit(final char ch) {
+      if(ch >= '0' && ch <= '9') {
+         return ch - '0';
+      } else if(ch >= 'a' && ch <= 'f') {
+         return ch - 'a' + 10;
+      } else if(ch >= 'A' && ch <= 'F') {
+         return ch - 'A' + 10;
+      } else {
+         return -1;
+      }
+   }
+
+   /**
+    * The raw query string.
+    */
+   private final String raw;
+
+   /**
+    * For each pair: the name start, the index of {@code =} (or the end, if no value), and the end.
+    */
+   private final int[] offsets;
+
+   /**
+    * The number of pairs.
+    */
+   private final int size;
+
+   /**
+    * Are names and values decoded?
+    */
+   private final boolean decode;
+
+   /**
+    * Names and values, created on first access.
+    */
+   private String[] decoded;
+}
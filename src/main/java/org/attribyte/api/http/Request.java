@@ -20,13 +20,12 @@ import com.google.common.base.Strings;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Lists;
-import com.google.common.collect.Maps;
 import com.google.common.io.ByteStreams;
+import com.google.common.io.ByteSource;
 import com.google.protobuf.ByteString;
 import org.attribyte.api.DataLimitException;
 import org.attribyte.api.InvalidURIException;
 
-import java.io.BufferedInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
@@ -133,12 +132,32 @@ public final class Request {
    Request(final Method method, final URI uri, Map<String, Header> headers, Map<String, Parameter> parameters,
            final boolean caseSensitiveParameters, final ByteString body, final Map<String, Object> attributes,
            final List<Cookie> cookies) {
+      this(method, uri, headers, parameters, caseSensitiveParameters, body, null, attributes, cookies);
+   }
+
+   /**
+    * Creates a request with the body specified as either a {@code ByteString} or a {@code ByteSource}.
+    * @param method The method.
+    * @param uri The URI.
+    * @param headers The HTTP headers.
+    * @param parameters The request parameters.
+    * @param caseSensitiveParameters Are parameters case-sensitive?
+    * @param body The body. May be null.
+    * @param bodySource A source for the body that is streamed when the request is sent. May be null.
+    * @param attributes Additional attributes.
+    * @param cookies A list of cookies.
+    */
+   Request(final Method method, final URI uri, Map<String, Header> headers, Map<String, Parameter> parameters,
+           final boolean caseSensitiveParameters, final ByteString body, final ByteSource bodySource,
+           final Map<String, Object> attributes,
+           final List<Cookie> cookies) {
       this.method = method;
       this.uri = uri;
       this.headers = Header.createImmutableMap(headers);
       this.parameters = Parameter.createImmutableMap(parameters);
       this.caseSensitiveParameters = caseSensitiveParameters;
       this.body = body;
+      this.bodySource = bodySource;
       this.attributes = attributes != null ? ImmutableMap.copyOf(attributes) : ImmutableMap.of();
       this.cookies = cookies != null ? ImmutableList.copyOf(cookies) : ImmutableList.of();
    }
@@ -241,9 +260,7 @@ public final class Request {
     * @return The value or {@code null} if none.
     */
    public String getHeaderValue(final String name) {
-      Header h = headers.get(name);
-      if(h != null) return h.getValue();
-      h = headers.get(name.toLowerCase());
+      Header h = Header.get(headers, name);
       return h == null ? null : h.getValue();
    }
 
@@ -253,9 +270,7 @@ public final class Request {
     * @return The values or {@code null} if none.
     */
    public String[] getHeaderValues(final String name) {
-      Header h = headers.get(name);
-      if(h != null) return h.getValues();
-      h = headers.get(name.toLowerCase());
+      Header h = Header.get(headers, name);
       return h == null ? null : h.getValues();
    }
 
@@ -265,9 +280,7 @@ public final class Request {
     * @return The values or {@code null} if none.
     */
    public ImmutableList<String> getHeaderValueList(final String name) {
-      Header h = headers.get(name);
-      if(h != null) return h.getValueList();
-      h = headers.get(name.toLowerCase());
+      Header h = Header.get(headers, name);
       return h == null ? ImmutableList.of() : h.getValueList();
    }
 
@@ -277,9 +290,7 @@ public final class Request {
     * @return The header or {@code null} if none.
     */
    public Header getHeader(final String name) {
-      Header h = headers.get(name);
-      if(h != null) return h;
-      return headers.get(name.toLowerCase());
+      return Header.get(headers, name);
    }
 
    /**
@@ -336,6 +347,14 @@ public final class Request {
       return body;
    }
 
+   /**
+    * Gets a source for a body that is streamed when the request is sent, if any.
+    * @return The body source, or {@code null} if none.
+    */
+   public ByteSource getBodySource() {
+      return bodySource;
+   }
+
    /**
     * Gets the value of the {@code Content-Type} header.
     * @return The content type, or {@code null} if none.
@@ -390,6 +409,19 @@ public final class Request {
       return attributes == null ? null : (String)attributes.get(REMOTE_ADDR);
    }
 
+   /**
+    * The name of an attribute that <em>may</em> hold a tag used to group request timing.
+    */
+   public static final String STATS_TAG = "statsTag";
+
+   /**
+    * Gets the tag used to group the timing for this request with similar requests.
+    * @return The tag or {@code null} if none.
+    */
+   public String getStatsTag() {
+      return attributes == null ? null : (String)attributes.get(STATS_TAG);
+   }
+
    /**
     * Gets the server name (as specified in the {@code Host} header.
     * @return The server name, excluding any port, or {@code null} if unspecified.
@@ -465,19 +497,18 @@ public final class Request {
     * @return The request with additional headers added.
     */
    public Request addHeaders(Collection<Header> headers) {
-      Map<String, Header> newHeaders = this.headers == null ? Maps.newHashMapWithExpectedSize(8) : Maps.newHashMap(this.headers);
+      HeaderMap.Builder newHeaders = new HeaderMap.Builder(this.headers.size() + headers.size()).putAll(this.headers);
       for(Header header : headers) {
-         newHeaders.put(header.getName(), header);
+         newHeaders.put(header);
       }
-      return new Request(this.method, this.uri, newHeaders, this.parameters, this.caseSensitiveParameters, this.body, this.attributes, this.cookies);
+      return new Request(this.method, this.uri, newHeaders.buildImmutableMap(), this.parameters, this.caseSensitiveParameters, this.body, this.bodySource, this.attributes, this.cookies);
    }
 
    /**
     * Reads the request body from an input stream.
     * <p>
     * Reads the body up to the specified maximum number of bytes.
-    * If byte limit is exceeded, continues to read the rest of the stream,
-    * ignoring the data.
+    * No more than one byte past the limit is read before the limit is reported as exceeded.
     * </p>
     * @param is The input stream.
     * @param maxBytesRead The maximum bytes read.
@@ -485,16 +516,8 @@ public final class Request {
     * @throws java.io.IOException on input exception, or data limit exceeded.
     */
    public static final byte[] bodyFromInputStream(final InputStream is, final int maxBytesRead) throws IOException {
-
-      final InputStream cis;
-      if(is instanceof BufferedInputStream) {
-         cis = ByteStreams.limit(is, maxBytesRead);
-      } else {
-         cis = ByteStreams.limit(new BufferedInputStream(is), maxBytesRead);
-      }
-
-      byte[] body = ByteStreams.toByteArray(cis);
-      if(body.length < maxBytesRead) {
+      byte[] body = ByteStreams.toByteArray(ByteStreams.limit(is, (long)maxBytesRead + 1L));
+      if(body.length <= maxBytesRead) {
          return body;
       } else {
          throw new DataLimitException("The size of the body exceeds the limit of " + maxBytesRead + " bytes");
@@ -525,49 +548,14 @@ public final class Request {
    /**
     * Parse parameters from a query string.
     * <p>
-    * Query string should already be unescaped.
+    * Query string should already be unescaped. To parse a raw query string, use {@link QueryString#parse(String)}.
     * </p>
     * @param queryString The query string.
     * @param caseSensitiveNames Should case be preserved for parameter names?
     * @return The map of parameters.
     */
-   public static final Map<String, Parameter> parseParameters(String queryString, final boolean caseSensitiveNames) {
-      if(queryString == null || queryString.length() == 0) {
-         return Collections.emptyMap();
-      }
-
-      switch(queryString.charAt(0)) {
-         case '?':
-         case '&': //We'll deal even though not valid
-            queryString = queryString.substring(1);
-      }
-
-      Map<String, Parameter> parameterMap = Maps.newHashMapWithExpectedSize(8);
-
-      StringTokenizer tok = new StringTokenizer(queryString, "&");
-      while(tok.hasMoreTokens()) {
-         String nv = tok.nextToken();
-         int index = nv.indexOf("=");
-         String name, value;
-         if(index == -1 || index == nv.length() - 1) {
-            name = nv;
-            value = "";
-         } else {
-            name = nv.substring(index);
-            value = nv.substring(index + 1);
-         }
-
-         final String key = caseSensitiveNames ? name : name.toLowerCase();
-
-         Parameter currParam = parameterMap.get(key);
-         if(currParam == null) {
-            parameterMap.put(key, new Parameter(name, value));
-         } else {
-            parameterMap.put(key, currParam.addValue(value));
-         }
-      }
-
-      return parameterMap;
+   public static final Map<String, Parameter> parseParameters(final String queryString, final boolean caseSensitiveNames) {
+      return QueryString.parse(queryString, false).toParameterMap(caseSensitiveNames);
    }
 
    @Override
@@ -625,6 +613,8 @@ public final class Request {
          } catch(java.io.UnsupportedEncodingException uee) {
             buf.append("[Encoding Unsupported]");
          }
+      } else if(bodySource != null) {
+         buf.append("[Streamed: ").append(bodySource).append("]");
       }
       return buf.toString();
    }
@@ -642,7 +632,7 @@ public final class Request {
    /**
     * An immutable map of headers.
     * <p>
-    *    Keys are lower-cased.
+    *    Keys are lower-cased. Use {@link #getHeader(String)} to look up a header ignoring case.
     * </p>
     */
    public final ImmutableMap<String, Header> headers;
@@ -671,6 +661,15 @@ public final class Request {
     */
    public final ByteString body;
 
+   /**
+    * A source for a body that is streamed when the request is sent. May be null.
+    * <p>
+    *    If set, {@code body} is {@code null}. The source may be read more than once,
+    *    for example, if a redirect is followed.
+    * </p>
+    */
+   public final ByteSource bodySource;
+
    /**
     * If the request has parameters, are they case-sensitive?
     */
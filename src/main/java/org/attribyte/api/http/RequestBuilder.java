@@ -64,7 +64,7 @@ public abstract class RequestBuilder {
     * @return A self-reference.
     */
    public RequestBuilder addHeader(final String name, final String value) {
-      String lcName = name.toLowerCase();
+      String lcName = HeaderMap.lowerCaseName(name);
       Header currHeader = headers.get(lcName);
       if(currHeader == null) {
          headers.put(lcName, new Header(name, value));
@@ -82,7 +82,7 @@ public abstract class RequestBuilder {
    public RequestBuilder addHeaders(final Collection<Header> headers) {
       if(headers != null) {
          for(Header header : headers) {
-            this.headers.put(header.getName().toLowerCase(), header);
+            this.headers.put(HeaderMap.lowerCaseName(header.getName()), header);
          }
       }
       return this;
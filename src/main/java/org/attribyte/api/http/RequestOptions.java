@@ -22,6 +22,28 @@ import com.google.common.base.MoreObjects;
  */
 public class RequestOptions {
 
+   /**
+    * The stats collected for a request.
+    */
+   public enum StatsLevel {
+
+      /**
+       * No stats are collected. Responses have no stats.
+       * A client that aggregates timing still collects the timing it aggregates.
+       */
+      OFF,
+
+      /**
+       * Only timing is collected. Header and body sizes and counts are zero.
+       */
+      TIMING,
+
+      /**
+       * Timing and header and body sizes and counts are collected.
+       */
+      FULL
+   }
+
    /**
     * The default follow redirects (true).
     */
@@ -57,6 +79,7 @@ public class RequestOptions {
       this.maxResponseBytes = maxResponseBytes;
       this.timeoutSeconds = timeoutSeconds;
       this.truncateOnLimit = false;
+      this.statsLevel = StatsLevel.FULL;
    }
 
    /**
@@ -70,10 +93,27 @@ public class RequestOptions {
                          final int maxResponseBytes,
                          final int timeoutSeconds,
                          final boolean truncateOnLimit) {
+      this(followRedirects, maxResponseBytes, timeoutSeconds, truncateOnLimit, StatsLevel.FULL);
+   }
+
+   /**
+    * Creates request options.
+    * @param followRedirects Should redirects be followed?
+    * @param maxResponseBytes The maximum allowed response size in bytes.
+    * @param timeoutSeconds The maximum time to wait for a response in seconds.
+    * @param truncateOnLimit Should the response be truncated if {@code maxResponseBytes} is reached (otherwise an exception is thrown)?
+    * @param statsLevel The stats collected for the request.
+    */
+   public RequestOptions(final boolean followRedirects,
+                         final int maxResponseBytes,
+                         final int timeoutSeconds,
+                         final boolean truncateOnLimit,
+                         final StatsLevel statsLevel) {
       this.followRedirects = followRedirects;
       this.maxResponseBytes = maxResponseBytes;
       this.timeoutSeconds = timeoutSeconds;
       this.truncateOnLimit = truncateOnLimit;
+      this.statsLevel = statsLevel != null ? statsLevel : StatsLevel.FULL;
    }
 
    /**
@@ -81,7 +121,7 @@ public class RequestOptions {
     * @return The new request options.
     */
    public RequestOptions truncateOnLimit() {
-      return new RequestOptions(followRedirects, maxResponseBytes, timeoutSeconds, true);
+      return new RequestOptions(followRedirects, maxResponseBytes, timeoutSeconds, true, statsLevel);
    }
 
    /**
@@ -89,7 +129,16 @@ public class RequestOptions {
     * @return The new request options.
     */
    public RequestOptions followRedirects() {
-      return new RequestOptions(true, maxResponseBytes, timeoutSeconds, truncateOnLimit);
+      return new RequestOptions(true, maxResponseBytes, timeoutSeconds, truncateOnLimit, statsLevel);
+   }
+
+   /**
+    * Create request options that collect stats at a level.
+    * @param statsLevel The stats level.
+    * @return The new request options.
+    */
+   public RequestOptions withStatsLevel(final StatsLevel statsLevel) {
+      return new RequestOptions(followRedirects, maxResponseBytes, timeoutSeconds, truncateOnLimit, statsLevel);
    }
 
    @Override
@@ -99,6 +148,7 @@ public class RequestOptions {
               .add("maxResponseBytes", maxResponseBytes)
               .add("truncateOnLimit", truncateOnLimit)
               .add("timeoutSeconds", timeoutSeconds)
+              .add("statsLevel", statsLevel)
               .toString();
    }
 
@@ -121,4 +171,9 @@ public class RequestOptions {
     * The maximum time to wait for a response in seconds.
     */
    public final int timeoutSeconds;
+
+   /**
+    * The stats collected for the request.
+    */
+   public final StatsLevel statsLevel;
 }
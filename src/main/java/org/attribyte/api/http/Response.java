@@ -172,7 +172,7 @@ public class Response {
     * @return The value or {@code null} if none.
     */
    public String getHeaderValue(String name) {
-      Header h = headers.get(name.toLowerCase());
+      Header h = Header.get(headers, name);
       return h == null ? null : h.getValue();
    }
 
@@ -182,7 +182,7 @@ public class Response {
     * @return The values or {@code null} if none.
     */
    public String[] getHeaderValues(String name) {
-      Header h = headers.get(name.toLowerCase());
+      Header h = Header.get(headers, name);
       return h == null ? null : h.getValues();
    }
 
@@ -192,9 +192,7 @@ public class Response {
     * @return The values or {@code null} if none.
     */
    public ImmutableList<String> getHeaderValueList(String name) {
-      Header h = headers.get(name);
-      if(h != null) return h.getValueList();
-      h = headers.get(name.toLowerCase());
+      Header h = Header.get(headers, name);
       return h == null ? ImmutableList.of() : h.getValueList();
    }
 
@@ -325,7 +323,7 @@ public class Response {
    /**
     * An immutable map of headers.
     * <p>
-    * The keys in this map are <em>lower-case</em>.
+    * The keys in this map are <em>lower-case</em>. Use {@link #getHeaderValue(String)} to look up a header ignoring case.
     * </p>
     */
    public final ImmutableMap<String, Header> headers;
@@ -104,6 +104,19 @@ public class ResponseBuilder {
       return this;
    }
 
+   /**
+    * Sets the response body.
+    * <p>
+    *    The body is not copied.
+    * </p>
+    * @param body The body.
+    * @return A self-reference.
+    */
+   public ResponseBuilder setBody(final ByteString body) {
+      this.body = body;
+      return this;
+   }
+
    /**
     * Sets a {@code ByteSource} for the response body.
     * @param body The body byte source.
@@ -119,8 +132,17 @@ public class ResponseBuilder {
     * @return The response.
     */
    public Response create() {
-      return bodySource == null ? new BodyResponse(statusCode, headers, body, attributes, stats, cookies) :
-              new StreamedResponse(statusCode, headers, bodySource, attributes, stats, cookies);
+      return bodySource == null ? new BodyResponse(statusCode, headers.buildImmutableMap(), body, attributes, stats, cookies) :
+              new StreamedResponse(statusCode, headers.buildImmutableMap(), bodySource, attributes, stats, cookies);
+   }
+
+   /**
+    * Creates an immutable response with a body that references pooled buffers.
+    * @param release Returns the buffers that back the body to the pool when the response is closed.
+    * @return The response.
+    */
+   public PooledBodyResponse createPooled(final Runnable release) {
+      return new PooledBodyResponse(statusCode, headers.buildImmutableMap(), body, attributes, stats, cookies, release);
    }
 
    /**
@@ -130,7 +152,7 @@ public class ResponseBuilder {
    public StreamedResponse createStreamed() {
       final ByteSource bodySource =
               this.bodySource != null ? this.bodySource : body != null ? ByteSource.wrap(body.toByteArray()) : null;
-      return new StreamedResponse(statusCode, headers, bodySource, attributes, stats, cookies);
+      return new StreamedResponse(statusCode, headers.buildImmutableMap(), bodySource, attributes, stats, cookies);
    }
 
    /**
@@ -140,13 +162,7 @@ public class ResponseBuilder {
     * @return A self-reference.
     */
    public ResponseBuilder addHeader(final String name, final String value) {
-      String lcName = name.toLowerCase();
-      Header currHeader = headers.get(lcName);
-      if(currHeader == null) {
-         headers.put(lcName, new Header(name, value));
-      } else {
-         headers.put(lcName, currHeader.addValue(value));
-      }
+      headers.add(name, value);
       return this;
    }
 
@@ -158,7 +174,7 @@ public class ResponseBuilder {
    public ResponseBuilder putHeaders(final Collection<Header> headers) {
       if(headers != null) {
          for(Header header : headers) {
-            this.headers.put(header.getName().toLowerCase(), header);
+            this.headers.put(header);
          }
       }
       return this;
@@ -171,7 +187,7 @@ public class ResponseBuilder {
     */
    public ResponseBuilder addHeaders(final Map<?, ?> headerMap) {
       if(headerMap != null) {
-         this.headers.putAll(Header.createMap(headerMap));
+         Header.createMap(headerMap, this.headers);
       }
       return this;
    }
@@ -232,7 +248,7 @@ public class ResponseBuilder {
       return this.attributes;
    }
 
-   final Map<String, Header> headers = Maps.newHashMapWithExpectedSize(8);
+   final HeaderMap.Builder headers = new HeaderMap.Builder();
    Map<String, Object> attributes = null;
    ByteString body = null;
    ByteSource bodySource = null;
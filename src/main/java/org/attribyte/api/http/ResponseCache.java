@@ -0,0 +1,45 @@
+/*
+ * Copyright 2026 Attribyte Labs, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ *
+ */
+
+package org.attribyte.api.http;
+
+/**
+ * Stores responses for a {@link CachingClient}.
+ * <p>
+ *    Implementations must be thread-safe and may discard entries at any time.
+ * </p>
+ */
+public interface ResponseCache {
+
+   /**
+    * Gets a cached response.
+    * @param key The key.
+    * @return The cached response, or {@code null} if none.
+    */
+   public CachedResponse get(String key);
+
+   /**
+    * Stores a response, replacing any existing response for the key.
+    * @param key The key.
+    * @param response The response.
+    */
+   public void put(String key, CachedResponse response);
+
+   /**
+    * Removes a cached response.
+    * @param key The key.
+    */
+   public void remove(String key);
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2026 Attribyte Labs, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ *
+ */
+
+package org.attribyte.api.http;
+
+import com.google.common.base.MoreObjects;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limits retries to a fraction of requests, so retries can't multiply load when a destination fails.
+ * <p>
+ *    A token bucket. Each request deposits {@code ratio} tokens and each retry withdraws one. Tokens are also
+ *    added at {@code minRetriesPerSecond}, so clients with little traffic may still retry. The balance is limited
+ *    to {@code maxTokens}, so a long period without failures does not allow a burst of retries. A budget may be
+ *    shared by clients.
+ * </p>
+ */
+public class RetryBudget {
+
+   /**
+    * Creates a budget that allows retries for 10% of requests, plus 10 retries per second, with at most 100 saved.
+    */
+   public RetryBudget() {
+      this(0.1, 10, 100);
+   }
+
+   /**
+    * Creates a budget.
+    * @param ratio The number of retries allowed for each request.
+    * @param minRetriesPerSecond The number of retries allowed each second, regardless of requests.
+    * @param maxTokens The maximum number of retries that may be saved.
+    */
+   public RetryBudget(final double ratio, final int minRetriesPerSecond, final int maxTokens) {
+      if(ratio < 0.0 || minRetriesPerSecond < 0 || maxTokens < 1) {
+         throw new IllegalArgumentException("The 'ratio' and 'minRetriesPerSecond' must be >= 0 and 'maxTokens' must be > 0");
+      }
+      this.depositUnits = (long)(ratio * UNIT);
+      this.minRetriesPerSecond = minRetriesPerSecond;
+      this.maxUnits = maxTokens * UNIT;
+      this.balance = new AtomicLong(Math.min(maxTokens, minRetriesPerSecond) * UNIT);
+      this.lastRefillTick = new AtomicLong(System.nanoTime());
+   }
+
+   /**
+    * Records a request.
+    */
+   public void deposit() {
+      if(depositUnits > 0L) {
+         balance.getAndUpdate(units -> Math.min(maxUnits, units + depositUnits));
+      }
+   }
+
+   /**
+    * Withdraws a token for a retry, if one is available.
+    * @return Is the retry allowed?
+    */
+   public boolean tryWithdraw() {
+      refill();
+      return balance.getAndUpdate(units -> units >= UNIT ? units - UNIT : units) >= UNIT;
+   }
+
+   /**
+    * Gets the number of retries currently allowed.
+    * @return The number of retries.
+    */
+   public long available() {
+      refill();
+      return balance.get() / UNIT;
+   }
+
+   /**
+    * Adds the tokens for the minimum retry rate since the last refill.
+    */
+   private void refill() {
+      if(minRetriesPerSecond == 0) {
+         return;
+      }
+      final long lastTick = lastRefillTick.get();
+      final long tick = System.nanoTime();
+      final long elapsed = Math.min(tick - lastTick, NANOS_PER_SECOND * 3600L); //Avoids overflow
+      final long units = elapsed * minRetriesPerSecond * UNIT / NANOS_PER_SECOND;
+      if(units > 0L && lastRefillTick.compareAndSet(lastTick, tick)) {
+         balance.getAndUpdate(current -> Math.min(maxUnits, current + units));
+      }
+   }
+
+   @Override
+   public String toString() {
+      return MoreObjects.toStringHelper(this)
+              .add("ratio", (double)depositUnits / UNIT)
+              .add("minRetriesPerSecond", minRetriesPerSecond)
+              .add("maxTokens", maxUnits / UNIT)
+              .add("available", available())
+              .toString();
+   }
+
+   /**
+    * The units in one token.
+    */
+   private static final long UNIT = 1000L;
+
+   private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+   /**
+    * The units deposited for each request.
+    */
+   private final long depositUnits;
+
+   /**
+    * The number of tokens added each second.
+    */
+   private final int minRetriesPerSecond;
+
+   /**
+    * The maximum balance in units.
+    */
+   private final long maxUnits;
+
+   /**
+    * The balance in units.
+    */
+   private final AtomicLong balance;
+
+   /**
+    * The tick when tokens were last added for the minimum rate.
+    */
+   private final AtomicLong lastRefillTick;
+}
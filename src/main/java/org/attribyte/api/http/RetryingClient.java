@@ -0,0 +1,404 @@
+/*
+ * Copyright 2026 Attribyte Labs, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ *
+ */
+
+package org.attribyte.api.http;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.collect.ImmutableSet;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.NoRouteToHostException;
+import java.net.http.HttpConnectTimeoutException;
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * An async client that retries failed requests with backoff, within a retry budget.
+ * <p>
+ *    Requests that fail to connect are retried for any method, since nothing was sent.
+ *    Requests with an idempotent method are also retried after other I/O errors, and when the response status is
+ *    retryable ({@code 503} by default) or is {@code 429} with {@code Retry-After}.
+ * </p>
+ * <p>
+ *    The delay before each retry is chosen with decorrelated jitter: a random time between the base delay and three
+ *    times the previous delay, up to the maximum delay. It is extended to honour {@code Retry-After}. If
+ *    {@code Retry-After} exceeds the maximum delay, the response is returned instead. Retries are
+ *    scheduled on a timer, so no thread waits for the delay.
+ * </p>
+ * <p>
+ *    Every request deposits in a {@link RetryBudget} and every retry withdraws, so when a destination is
+ *    failing, retries are limited to a fraction of requests instead of multiplying the load.
+ * </p>
+ */
+public class RetryingClient extends ForwardingAsyncClient {
+
+   /**
+    * Creates a builder.
+    * @param delegate The client that sends requests.
+    * @return The builder.
+    */
+   public static Builder builder(final AsyncClient delegate) {
+      return new Builder(delegate);
+   }
+
+   /**
+    * Creates a retrying client with default settings.
+    * @param delegate The client that sends requests.
+    */
+   public RetryingClient(final AsyncClient delegate) {
+      this(new Builder(delegate));
+   }
+
+   private RetryingClient(final Builder builder) {
+      super(builder.delegate);
+      this.maxAttempts = builder.maxAttempts;
+      this.baseDelayMillis = builder.baseDelayMillis;
+      this.maxDelayMillis = builder.maxDelayMillis;
+      this.idempotentMethods = ImmutableSet.copyOf(builder.idempotentMethods);
+      this.retryStatuses = ImmutableSet.copyOf(builder.retryStatuses);
+      this.budget = builder.budget != null ? builder.budget : new RetryBudget();
+      this.scheduler = builder.scheduler != null ? builder.scheduler : SharedTimer.scheduler;
+   }
+
+   @Override
+   public CompletableFuture<Response> completableSend(final Request request, final RequestOptions options) {
+      budget.deposit();
+      final RetriedRequest result = new RetriedRequest();
+      attempt(request, options, 1, baseDelayMillis, result);
+      return result;
+   }
+
+   /**
+    * Sends a request and completes the result or schedules a retry.
+    * @param attempt The attempt number, starting with {@code 1}.
+    * @param previousDelayMillis The previous delay.
+    * @param result The result future.
+    */
+   private void attempt(final Request request, final RequestOptions options,
+                        final int attempt, final long previousDelayMillis,
+                        final RetriedRequest result) {
+      if(result.isDone()) { //Cancelled during the delay
+         return;
+      }
+      CompletableFuture<Response> response;
+      try {
+         response = delegate.completableSend(request, options);
+      } catch(RuntimeException re) {
+         response = CompletableFuture.failedFuture(re);
+      }
+      result.attempt = response;
+      if(result.isDone()) { //Cancelled before the attempt was visible to cancelAttempt
+         response.cancel(true);
+      }
+
+      response.whenComplete((value, throwable) -> {
+         if(result.isDone()) { //Cancelled
+            release(value);
+            return;
+         }
+
+         final Throwable failure = throwable != null ? unwrap(throwable) : null;
+         final boolean retryable = failure != null ? isRetryable(request, failure) : isRetryable(request, value);
+         if(!retryable || attempt >= maxAttempts) {
+            complete(result, value, failure);
+            return;
+         }
+
+         final long retryAfterMillis = failure == null ? retryAfterMillis(value) : 0L;
+         if(retryAfterMillis > maxDelayMillis) {
+            complete(result, value, failure);
+            return;
+         }
+
+         if(!budget.tryWithdraw()) {
+            budgetExhausted.increment();
+            complete(result, value, failure);
+            return;
+         }
+
+         final long delayMillis = Math.min(maxDelayMillis,
+                 ThreadLocalRandom.current().nextLong(baseDelayMillis, Math.max(baseDelayMillis, previousDelayMillis * 3L) + 1L));
+         try {
+            result.timer = scheduler.schedule(() -> attempt(request, options, attempt + 1, delayMillis, result),
+                    Math.max(delayMillis, retryAfterMillis), TimeUnit.MILLISECONDS);
+            if(result.isDone()) {
+               result.timer.cancel(false);
+            }
+            retries.increment();
+            release(value);
+         } catch(RejectedExecutionException ree) {
+            complete(result, value, failure);
+         }
+      });
+   }
+
+   private static void complete(final CompletableFuture<Response> result, final Response response, final Throwable failure) {
+      if(failure != null) {
+         result.completeExceptionally(failure);
+      } else if(!result.complete(response)) {
+         release(response);
+      }
+   }
+
+   /**
+    * The result of a request that may be retried.
+    */
+   private static final class RetriedRequest extends CompletableFuture<Response> {
+
+      @Override
+      public boolean cancel(final boolean mayInterruptIfRunning) {
+         final boolean cancelled = super.cancel(mayInterruptIfRunning);
+         if(cancelled) {
+            cancelAttempt();
+         }
+         return cancelled;
+      }
+
+      /**
+       * Cancels the timer for the next retry and the attempt in-flight.
+       */
+      private void cancelAttempt() {
+         final ScheduledFuture<?> timer = this.timer;
+         if(timer != null) {
+            timer.cancel(false);
+         }
+         final CompletableFuture<Response> attempt = this.attempt;
+         if(attempt != null) {
+            attempt.cancel(true);
+         }
+      }
+
+      /**
+       * The current attempt.
+       */
+      private volatile CompletableFuture<Response> attempt;
+
+      /**
+       * The timer for the next retry.
+       */
+      private volatile ScheduledFuture<?> timer;
+   }
+
+   /**
+    * Should a request be retried after a failure?
+    * @param request The request.
+    * @param failure The failure.
+    * @return Should the request be retried?
+    */
+   protected boolean isRetryable(final Request request, final Throwable failure) {
+      if(isConnectFailure(failure)) {
+         return true;
+      }
+      return idempotentMethods.contains(request.method) && failure instanceof IOException;
+   }
+
+   /**
+    * Should a request be retried after a response?
+    * @param request The request.
+    * @param response The response.
+    * @return Should the request be retried?
+    */
+   protected boolean isRetryable(final Request request, final Response response) {
+      return idempotentMethods.contains(request.method) &&
+              (retryStatuses.contains(response.statusCode) ||
+                      response.statusCode == 429 && response.getHeaderValue("Retry-After") != null);
+   }
+
+   /**
+    * Did a request fail before anything was sent?
+    */
+   private static boolean isConnectFailure(final Throwable failure) {
+      for(Throwable t = failure; t != null; t = t.getCause() != t ? t.getCause() : null) {
+         if(t instanceof ConnectException || t instanceof NoRouteToHostException || t instanceof HttpConnectTimeoutException) {
+            return true;
+         }
+      }
+      return false;
+   }
+
+   /**
+    * Gets the delay required by the {@code Retry-After} header.
+    * @param response The response.
+    * @return The delay in milliseconds, or {@code 0} if none.
+    */
+   static long retryAfterMillis(final Response response) {
+      final String retryAfter = response.getHeaderValue("Retry-After");
+      if(retryAfter == null || retryAfter.isEmpty()) {
+         return 0L;
+      }
+      try {
+         return Math.max(0L, TimeUnit.SECONDS.toMillis(Long.parseLong(retryAfter.trim())));
+      } catch(NumberFormatException nfe) {
+         final long date = CacheControl.parseDate(retryAfter);
+         return date > 0L ? Math.max(0L, date - System.currentTimeMillis()) : 0L;
+      }
+   }
+
+   /**
+    * Gets the number of retries sent.
+    * @return The number of retries.
+    */
+   public long retries() {
+      return retries.sum();
+   }
+
+   /**
+    * Gets the number of retries not sent because the budget was exhausted.
+    * @return The number of retries.
+    */
+   public long budgetExhausted() {
+      return budgetExhausted.sum();
+   }
+
+   /**
+    * Gets the retry budget.
+    * @return The budget.
+    */
+   public RetryBudget budget() {
+      return budget;
+   }
+
+   @Override
+   public String toString() {
+      return MoreObjects.toStringHelper(this)
+              .add("maxAttempts", maxAttempts)
+              .add("baseDelayMillis", baseDelayMillis)
+              .add("maxDelayMillis", maxDelayMillis)
+              .add("retries", retries())
+              .add("budgetExhausted", budgetExhausted())
+              .add("budget", budget)
+              .toString();
+   }
+
+   /**
+    * Builds retrying clients.
+    */
+   public static class Builder {
+
+      private Builder(final AsyncClient delegate) {
+         this.delegate = delegate;
+      }
+
+      /**
+       * Sets the maximum number of attempts, including the first. Default is {@code 3}.
+       * @param maxAttempts The maximum number of attempts.
+       * @return A self-reference.
+       */
+      public Builder setMaxAttempts(final int maxAttempts) {
+         this.maxAttempts = maxAttempts;
+         return this;
+      }
+
+      /**
+       * Sets the minimum delay before a retry. Default is {@code 50} ms.
+       * @param baseDelayMillis The delay in milliseconds.
+       * @return A self-reference.
+       */
+      public Builder setBaseDelayMillis(final long baseDelayMillis) {
+         this.baseDelayMillis = baseDelayMillis;
+         return this;
+      }
+
+      /**
+       * Sets the maximum delay before a retry. A {@code Retry-After} that is longer is not honoured,
+       * and the response is returned. Default is {@code 5000} ms.
+       * @param maxDelayMillis The delay in milliseconds.
+       * @return A self-reference.
+       */
+      public Builder setMaxDelayMillis(final long maxDelayMillis) {
+         this.maxDelayMillis = maxDelayMillis;
+         return this;
+      }
+
+      /**
+       * Sets the methods that may be retried after an I/O error or a retryable status.
+       * Default is {@code GET}, {@code HEAD}, {@code OPTIONS}, {@code PUT} and {@code DELETE}.
+       * @param idempotentMethods The methods.
+       * @return A self-reference.
+       */
+      public Builder setIdempotentMethods(final Collection<Request.Method> idempotentMethods) {
+         this.idempotentMethods = idempotentMethods;
+         return this;
+      }
+
+      /**
+       * Sets the response statuses that are retried. Default is {@code 503}.
+       * @param retryStatuses The statuses.
+       * @return A self-reference.
+       */
+      public Builder setRetryStatuses(final Collection<Integer> retryStatuses) {
+         this.retryStatuses = retryStatuses;
+         return this;
+      }
+
+      /**
+       * Sets the retry budget, possibly shared with other clients.
+       * @param budget The budget.
+       * @return A self-reference.
+       */
+      public Builder setRetryBudget(final RetryBudget budget) {
+         this.budget = budget;
+         return this;
+      }
+
+      /**
+       * Sets the scheduler for retries. By default, a timer thread shared by all clients is used.
+       * @param scheduler The scheduler.
+       * @return A self-reference.
+       */
+      public Builder setScheduler(final ScheduledExecutorService scheduler) {
+         this.scheduler = scheduler;
+         return this;
+      }
+
+      /**
+       * Builds the client.
+       * @return The client.
+       */
+      public RetryingClient build() {
+         if(maxAttempts < 1 || baseDelayMillis < 1L || maxDelayMillis < baseDelayMillis) {
+            throw new IllegalArgumentException("The 'maxAttempts' and 'baseDelayMillis' must be > 0 and 'maxDelayMillis' must be >= 'baseDelayMillis'");
+         }
+         return new RetryingClient(this);
+      }
+
+      private final AsyncClient delegate;
+      private int maxAttempts = 3;
+      private long baseDelayMillis = 50L;
+      private long maxDelayMillis = 5000L;
+      private Collection<Request.Method> idempotentMethods = ImmutableSet.of(
+              Request.Method.GET, Request.Method.HEAD, Request.Method.OPTIONS, Request.Method.PUT, Request.Method.DELETE);
+      private Collection<Integer> retryStatuses = ImmutableSet.of(503);
+      private RetryBudget budget;
+      private ScheduledExecutorService scheduler;
+   }
+
+   private final int maxAttempts;
+   private final long baseDelayMillis;
+   private final long maxDelayMillis;
+   private final ImmutableSet<Request.Method> idempotentMethods;
+   private final ImmutableSet<Integer> retryStatuses;
+   private final RetryBudget budget;
+   private final ScheduledExecutorService scheduler;
+   private final LongAdder retries = new LongAdder();
+   private final LongAdder budgetExhausted = new LongAdder();
+}
@@ -0,0 +1,36 @@
+/*
+ * Copyright 2026 Attribyte Labs, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ *
+ */
+
+package org.attribyte.api.http;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * The timer shared by client decorators that delay requests, created on first use.
+ */
+final class SharedTimer {
+
+   private SharedTimer() {
+   }
+
+   /**
+    * A single daemon thread. Scheduled tasks must not block.
+    */
+   static final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+           new ThreadFactoryBuilder().setNameFormat("http-client-timer-%d").setDaemon(true).build());
+}
@@ -49,6 +49,37 @@ public class Stats extends Timing {
                 final long timeToFirstResponseContent, final long timeToCompleteResponse, final int requestHeaderCount,
                 final long requestHeaderSize, final int requestChunkCount, final long requestBodySize, final int responseHeaderCount,
                 final long responseHeaderSize, final AtomicInteger responseChunkCount, final AtomicLong responseBodySize) {
+      this(timeToRequestStart, timeToRequestComplete, timeToResponseStatus, timeToFirstResponseHeader,
+              timeToLastResponseHeader, timeToFirstResponseContent, timeToCompleteResponse, requestHeaderCount,
+              requestHeaderSize, requestChunkCount, requestBodySize, responseHeaderCount,
+              responseHeaderSize, responseChunkCount, responseBodySize, 0);
+   }
+
+   /**
+    * Creates stats with all timing and size metrics, and the number of response buffer reallocations.
+    * @param timeToRequestStart Time to start the request (nanoseconds).
+    * @param timeToRequestComplete Time to complete sending the request (nanoseconds).
+    * @param timeToResponseStatus Time to receive the response status (nanoseconds).
+    * @param timeToFirstResponseHeader Time to receive the first response header (nanoseconds).
+    * @param timeToLastResponseHeader Time to receive the last response header (nanoseconds).
+    * @param timeToFirstResponseContent Time to receive the first response content (nanoseconds).
+    * @param timeToCompleteResponse Time to complete the response (nanoseconds).
+    * @param requestHeaderCount The number of request headers.
+    * @param requestHeaderSize The size of request headers in bytes.
+    * @param requestChunkCount The number of request body chunks.
+    * @param requestBodySize The size of the request body in bytes.
+    * @param responseHeaderCount The number of response headers.
+    * @param responseHeaderSize The size of response headers in bytes.
+    * @param responseChunkCount The number of response body chunks.
+    * @param responseBodySize The size of the response body in bytes.
+    * @param responseBufferReallocations The number of times the response buffer was reallocated, copying content.
+    */
+   public Stats(final long timeToRequestStart, final long timeToRequestComplete, final long timeToResponseStatus,
+                final long timeToFirstResponseHeader, final long timeToLastResponseHeader,
+                final long timeToFirstResponseContent, final long timeToCompleteResponse, final int requestHeaderCount,
+                final long requestHeaderSize, final int requestChunkCount, final long requestBodySize, final int responseHeaderCount,
+                final long responseHeaderSize, final AtomicInteger responseChunkCount, final AtomicLong responseBodySize,
+                final int responseBufferReallocations) {
       super(timeToRequestStart, timeToRequestComplete, timeToResponseStatus, timeToFirstResponseHeader,
               timeToLastResponseHeader, timeToFirstResponseContent, timeToCompleteResponse);
       this.requestHeaderCount = requestHeaderCount;
@@ -59,6 +90,7 @@ public class Stats extends Timing {
       this.responseHeaderSize = responseHeaderSize;
       this.responseChunkCount = responseChunkCount;
       this.responseBodySize = responseBodySize;
+      this.responseBufferReallocations = responseBufferReallocations;
    }
 
    @Override
@@ -79,6 +111,7 @@ public class Stats extends Timing {
               .add("responseHeaderSize", responseHeaderSize)
               .add("responseChunkCount", responseChunkCount)
               .add("responseBodySize", responseBodySize)
+              .add("responseBufferReallocations", responseBufferReallocations)
               .add("units", "microsecond")
               .toString();
    }
@@ -122,4 +155,9 @@ public class Stats extends Timing {
     * The size of the response body.
     */
    public final AtomicLong responseBodySize;
+
+   /**
+    * The number of times the response buffer was reallocated, copying content.
+    */
+   public final int responseBufferReallocations;
 }
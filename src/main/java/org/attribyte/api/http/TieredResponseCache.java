@@ -0,0 +1,79 @@
+/*
+ * Copyright 2026 Attribyte Labs, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ *
+ */
+
+package org.attribyte.api.http;
+
+import com.google.common.base.MoreObjects;
+
+/**
+ * A response cache that checks a fast cache (for example, in memory) before a larger, slower one (for example, on disk).
+ * <p>
+ *    Responses are stored in both caches. Responses with bodies held in memory are stored in the first cache,
+ *    and responses found only in the second cache are returned without being copied to the first, so bodies
+ *    streamed from disk are not loaded on the heap.
+ * </p>
+ */
+public class TieredResponseCache implements ResponseCache {
+
+   /**
+    * Creates a tiered cache.
+    * @param first The cache checked first.
+    * @param second The cache checked if a response is not in the first.
+    */
+   public TieredResponseCache(final ResponseCache first, final ResponseCache second) {
+      this.first = first;
+      this.second = second;
+   }
+
+   @Override
+   public CachedResponse get(final String key) {
+      final CachedResponse response = first.get(key);
+      return response != null ? response : second.get(key);
+   }
+
+   @Override
+   public void put(final String key, final CachedResponse response) {
+      if(response.response instanceof BodyResponse) {
+         first.put(key, response);
+      } else {
+         first.remove(key);
+      }
+      second.put(key, response);
+   }
+
+   @Override
+   public void remove(final String key) {
+      first.remove(key);
+      second.remove(key);
+   }
+
+   @Override
+   public String toString() {
+      return MoreObjects.toStringHelper(this)
+              .add("first", first)
+              .add("second", second)
+              .toString();
+   }
+
+   /**
+    * The cache checked first.
+    */
+   private final ResponseCache first;
+
+   /**
+    * The cache checked if a response is not in the first.
+    */
+   private final ResponseCache second;
+}
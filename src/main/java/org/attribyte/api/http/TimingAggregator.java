@@ -0,0 +1,514 @@
+/*
+ * Copyright 2026 Attribyte Labs, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ *
+ */
+
+package org.attribyte.api.http;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToLongFunction;
+
+/**
+ * Aggregates request timing into rolling latency histograms, by destination host and port, and optional tag.
+ * <p>
+ *    Each destination and tag has a histogram for each {@link Phase}. Values are recorded into the current window.
+ *    When a window ends, it becomes the previous window and the one before it is discarded, so snapshots
+ *    include between one and two windows of recent values. Recording is lock-free and does not allocate
+ *    once a destination and tag have been seen.
+ * </p>
+ * <p>
+ *    A destination and tag with nothing recorded in either window is discarded, so snapshots
+ *    are available only for those with recent values.
+ * </p>
+ */
+public class TimingAggregator {
+
+   /**
+    * The recorded phases.
+    */
+   public enum Phase {
+
+      /**
+       * Time from queued until the request starts to send. Includes time to acquire (or establish) a connection.
+       */
+      QUEUE,
+
+      /**
+       * Time from the start of the request until it is completely sent.
+       */
+      SEND,
+
+      /**
+       * Time from queued until the response status is received.
+       */
+      FIRST_BYTE,
+
+      /**
+       * Time from queued until the response is complete.
+       */
+      TOTAL
+   }
+
+   /**
+    * Creates an aggregator.
+    * @param window The length of the window.
+    * @param units The window units.
+    */
+   public TimingAggregator(final long window, final TimeUnit units) {
+      this.windowNanos = units.toNanos(window);
+      if(this.windowNanos < 1L) {
+         throw new IllegalArgumentException("The window must be > 0");
+      }
+      this.nextEvictionTick = new AtomicLong(System.nanoTime() + windowNanos);
+   }
+
+   /**
+    * Gets the port for a URI.
+    * @param uri The URI.
+    * @return The port, or the default port for the scheme if none.
+    */
+   public static int port(final URI uri) {
+      if(uri.getPort() > 0) {
+         return uri.getPort();
+      } else {
+         return "https".equalsIgnoreCase(uri.getScheme()) ? 443 : 80;
+      }
+   }
+
+   /**
+    * Records the timing for a request.
+    * @param destination The request URI.
+    * @param tag The request tag, or {@code null} if none.
+    * @param timing The timing.
+    */
+   public void record(final URI destination, final String tag, final Timing timing) {
+      record(destination.getHost(), port(destination), tag,
+              timing.timeToRequestStart(TimeUnit.NANOSECONDS),
+              timing.timeToRequestComplete(TimeUnit.NANOSECONDS) - timing.timeToRequestStart(TimeUnit.NANOSECONDS),
+              timing.timeToResponseStatus(TimeUnit.NANOSECONDS),
+              timing.timeToCompleteResponse(TimeUnit.NANOSECONDS),
+              System.nanoTime());
+   }
+
+   /**
+    * Records the phase times for a request.
+    * <p>
+    *    Negative times, for phases that did not happen, are ignored.
+    * </p>
+    * @param host The destination host.
+    * @param port The destination port.
+    * @param tag The request tag, or {@code null} if none.
+    * @param queueNanos The queue time in nanoseconds.
+    * @param sendNanos The send time in nanoseconds.
+    * @param firstByteNanos The time to first byte in nanoseconds.
+    * @param totalNanos The total time in nanoseconds.
+    * @param tick The current value of {@code System.nanoTime()}.
+    */
+   public void record(final String host, final int port, final String tag,
+                      final long queueNanos, final long sendNanos, final long firstByteNanos, final long totalNanos,
+                      final long tick) {
+      final long nextEvictionTick = this.nextEvictionTick.get();
+      if(tick - nextEvictionTick >= 0L && this.nextEvictionTick.compareAndSet(nextEvictionTick, tick + windowNanos)) {
+         evictIdle(tick);
+      }
+
+      final Window window = entry(host, port, tag).window(tick);
+      if(!window.used) {
+         window.used = true;
+      }
+      window.histograms[Phase.QUEUE.ordinal()].record(queueNanos);
+      window.histograms[Phase.SEND.ordinal()].record(sendNanos);
+      window.histograms[Phase.FIRST_BYTE.ordinal()].record(firstByteNanos);
+      window.histograms[Phase.TOTAL.ordinal()].record(totalNanos);
+   }
+
+   /**
+    * Creates a snapshot of recent timing for a destination and tag.
+    * @param destination The request URI.
+    * @param tag The tag, or {@code null} for requests without a tag.
+    * @return The snapshot, or {@code null} if nothing was recorded recently for the destination and tag.
+    */
+   public Snapshot snapshot(final URI destination, final String tag) {
+      return snapshot(destination.getHost(), port(destination), tag);
+   }
+
+   /**
+    * Creates a snapshot of recent timing for a destination and tag.
+    * @param host The host.
+    * @param port The port.
+    * @param tag The tag, or {@code null} for requests without a tag.
+    * @return The snapshot, or {@code null} if nothing was recorded recently for the destination and tag.
+    */
+   public Snapshot snapshot(final String host, final int port, final String tag) {
+      final Entry entry = existingEntry(host, port, tag);
+      return entry != null ? entry.snapshot(host, tag, System.nanoTime()) : null;
+   }
+
+   /**
+    * Gets a value computed from recent timing for a destination and tag, computing it at most once per interval.
+    * <p>
+    *    The value is held with the timing for the destination and tag, so it is discarded with them when they
+    *    are idle. Each owner has its own value. A negative value is not retained.
+    * </p>
+    * @param owner The owner of the value, compared by identity.
+    * @param host The host.
+    * @param port The port.
+    * @param tag The tag, or {@code null} for requests without a tag.
+    * @param refreshNanos The time a computed value is used before it is computed again.
+    * @param function Computes the value from a snapshot.
+    * @return The value, or {@code -1} if nothing was recorded recently for the destination and tag.
+    */
+   long derivedValue(final Object owner, final String host, final int port, final String tag,
+                     final long refreshNanos, final ToLongFunction<Snapshot> function) {
+      final Entry entry = existingEntry(host, port, tag);
+      if(entry == null) {
+         return -1L;
+      }
+      final long tick = System.nanoTime();
+      final Derived first = entry.derived;
+      for(Derived derived = first; derived != null; derived = derived.next) {
+         if(derived.owner == owner) {
+            if(tick - derived.expiresTick < 0L) {
+               return derived.value;
+            }
+            break;
+         }
+      }
+
+      final long value = function.applyAsLong(entry.snapshot(host, tag, tick));
+      if(value >= 0L) {
+         Derived others = null;
+         for(Derived derived = first; derived != null; derived = derived.next) {
+            if(derived.owner != owner) {
+               others = new Derived(derived.owner, derived.value, derived.expiresTick, others);
+            }
+         }
+         entry.derived = new Derived(owner, value, tick + refreshNanos, others);
+      }
+      return value;
+   }
+
+   /**
+    * Creates a snapshot of recent timing for every destination and tag.
+    * @return The list of snapshots.
+    */
+   public List<Snapshot> snapshots() {
+      final long tick = System.nanoTime();
+      evictIdle(tick);
+      final List<Snapshot> snapshots = Lists.newArrayList();
+      hosts.forEach((host, tags) -> tags.forEach((tag, head) -> {
+         for(Entry entry = head; entry != null; entry = entry.next) {
+            snapshots.add(entry.snapshot(host, tag.isEmpty() ? null : tag, tick));
+         }
+      }));
+      return snapshots;
+   }
+
+   /**
+    * Removes entries with nothing recorded in the current or previous window.
+    * <p>
+    *    A value recorded while its entry is removed may be lost.
+    * </p>
+    * @param tick The current value of {@code System.nanoTime()}.
+    */
+   void evictIdle(final long tick) {
+      hosts.forEach((host, tags) -> {
+         tags.forEach((tag, head) -> tags.compute(tag, (t, first) -> {
+            Entry retained = null;
+            Entry last = null;
+            for(Entry entry = first; entry != null; entry = entry.next) {
+               if(!entry.isIdle(tick)) {
+                  if(last == null) {
+                     retained = entry;
+                  } else {
+                     last.next = entry;
+                  }
+                  last = entry;
+               }
+            }
+            if(last != null) {
+               last.next = null;
+            }
+            return retained;
+         }));
+         hosts.computeIfPresent(host, (h, t) -> t.isEmpty() ? null : t);
+      });
+   }
+
+   /**
+    * Gets the entry for a destination and tag.
+    * @return The entry, or {@code null} if none.
+    */
+   private Entry existingEntry(final String host, final int port, final String tag) {
+      final ConcurrentMap<String, Entry> tags = hosts.get(host != null ? host : "");
+      Entry entry = tags != null ? tags.get(tag != null ? tag : "") : null;
+      while(entry != null && entry.port != port) {
+         entry = entry.next;
+      }
+      return entry;
+   }
+
+   /**
+    * Gets the entry for a destination and tag, creating it if required.
+    */
+   private Entry entry(final String host, final int port, final String tag) {
+      final String hostKey = host != null ? host : "";
+      ConcurrentMap<String, Entry> tags = hosts.get(hostKey);
+      if(tags == null) {
+         tags = hosts.computeIfAbsent(hostKey, h -> Maps.newConcurrentMap());
+      }
+      final String key = tag != null ? tag : "";
+      for(Entry entry = tags.get(key); entry != null; entry = entry.next) {
+         if(entry.port == port) {
+            return entry;
+         }
+      }
+      final Entry[] created = new Entry[1];
+      tags.compute(key, (t, first) -> {
+         for(Entry entry = first; entry != null; entry = entry.next) {
+            if(entry.port == port) {
+               created[0] = entry;
+               return first;
+            }
+         }
+         created[0] = new Entry(port, first, System.nanoTime() + windowNanos);
+         return created[0];
+      });
+      return created[0];
+   }
+
+   /**
+    * Recent timing for a destination and tag.
+    */
+   public static final class Snapshot {
+
+      private Snapshot(final String host, final int port, final String tag, final LatencyHistogram.Snapshot[] phases) {
+         this.host = host;
+         this.port = port;
+         this.tag = tag;
+         this.phases = phases;
+      }
+
+      /**
+       * Gets the latency distribution for a phase.
+       * @param phase The phase.
+       * @return The distribution.
+       */
+      public LatencyHistogram.Snapshot phase(final Phase phase) {
+         return phases[phase.ordinal()];
+      }
+
+      @Override
+      public String toString() {
+         return MoreObjects.toStringHelper(this)
+                 .add("host", host)
+                 .add("port", port)
+                 .add("tag", tag)
+                 .add("queue", phase(Phase.QUEUE))
+                 .add("send", phase(Phase.SEND))
+                 .add("firstByte", phase(Phase.FIRST_BYTE))
+                 .add("total", phase(Phase.TOTAL))
+                 .toString();
+      }
+
+      /**
+       * The host.
+       */
+      public final String host;
+
+      /**
+       * The port.
+       */
+      public final int port;
+
+      /**
+       * The tag, or {@code null} if none.
+       */
+      public final String tag;
+
+      /**
+       * The distribution for each phase, by ordinal.
+       */
+      private final LatencyHistogram.Snapshot[] phases;
+   }
+
+   /**
+    * A window of histograms, one for each phase.
+    */
+   private static final class Window {
+
+      Window() {
+         histograms = new LatencyHistogram[PHASES.length];
+         for(int i = 0; i < histograms.length; i++) {
+            histograms[i] = new LatencyHistogram(STRIPES);
+         }
+      }
+
+      void reset() {
+         for(LatencyHistogram histogram : histograms) {
+            histogram.reset();
+         }
+         used = false;
+      }
+
+      final LatencyHistogram[] histograms;
+
+      /**
+       * Has a value been recorded since the window was reset?
+       */
+      volatile boolean used;
+   }
+
+   /**
+    * A value computed from the windows for an owner.
+    */
+   private static final class Derived {
+
+      Derived(final Object owner, final long value, final long expiresTick, final Derived next) {
+         this.owner = owner;
+         this.value = value;
+         this.expiresTick = expiresTick;
+         this.next = next;
+      }
+
+      final Object owner;
+      final long value;
+      final long expiresTick;
+
+      /**
+       * The value for the next owner, or {@code null}.
+       */
+      final Derived next;
+   }
+
+   /**
+    * The current and previous windows for a destination and tag.
+    * <p>
+    *    Entries for the same host and tag, with different ports, are linked.
+    * </p>
+    */
+   private final class Entry {
+
+      Entry(final int port, final Entry next, final long windowEndTick) {
+         this.port = port;
+         this.next = next;
+         this.windowEndTick = windowEndTick;
+      }
+
+      /**
+       * Is there nothing recorded in the current or previous window?
+       */
+      boolean isIdle(final long tick) {
+         final Window window = window(tick);
+         return !window.used && !previous.used;
+      }
+
+      /**
+       * Gets the current window, first rotating windows if the current window has ended.
+       */
+      Window window(final long tick) {
+         if(tick - windowEndTick >= 0L) {
+            rotate(tick);
+         }
+         return current;
+      }
+
+      private synchronized void rotate(final long tick) {
+         if(tick - windowEndTick < 0L) {
+            return;
+         }
+         final Window expired = previous;
+         previous = current;
+         if(tick - windowEndTick >= windowNanos) {
+            // More than one window has passed with no values recorded.
+            previous.reset();
+         }
+         expired.reset();
+         current = expired;
+         windowEndTick = tick + windowNanos;
+      }
+
+      Snapshot snapshot(final String host, final String tag, final long tick) {
+         final Window window = window(tick);
+         final Window previous = this.previous;
+         final LatencyHistogram.Snapshot[] phases = new LatencyHistogram.Snapshot[PHASES.length];
+         for(int i = 0; i < phases.length; i++) {
+            phases[i] = window.histograms[i].snapshot().merge(previous.histograms[i].snapshot());
+         }
+         return new Snapshot(host, port, tag, phases);
+      }
+
+      /**
+       * The port.
+       */
+      final int port;
+
+      /**
+       * The entry for the next port, or {@code null}.
+       */
+      volatile Entry next;
+
+      /**
+       * The window values are recorded into.
+       */
+      volatile Window current = new Window();
+
+      /**
+       * The previous window.
+       */
+      volatile Window previous = new Window();
+
+      /**
+       * The tick when the current window ends.
+       */
+      volatile long windowEndTick;
+
+      /**
+       * Values computed from the windows, linked by owner.
+       */
+      volatile Derived derived;
+   }
+
+   /**
+    * The phases.
+    */
+   private static final Phase[] PHASES = Phase.values();
+
+   /**
+    * The number of stripes in each histogram.
+    */
+   private static final int STRIPES = Math.min(4, Runtime.getRuntime().availableProcessors());
+
+   /**
+    * The length of a window in nanoseconds.
+    */
+   private final long windowNanos;
+
+   /**
+    * The tick when idle entries are next removed.
+    */
+   private final AtomicLong nextEvictionTick;
+
+   /**
+    * Entries by host, then tag, then linked by port. Requests without a tag use the empty string.
+    */
+   private final ConcurrentMap<String, ConcurrentMap<String, Entry>> hosts = Maps.newConcurrentMap();
+}
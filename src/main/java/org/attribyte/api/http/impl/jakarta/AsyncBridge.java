@@ -0,0 +1,468 @@
+/*
+ * Copyright 2026 Attribyte Labs, LLC
+ *
+ * This software is the confidential and proprietary information of Attribyte, LLC.
+ * ("Confidential Information").  You shall not
+ * disclose such Confidential Information and shall use it only in
+ * accordance with the terms of the license agreement you entered into
+ * with Attribyte, LLC
+ *
+ * ATTRIBYTE, LLC MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF
+ * THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE, OR NON-INFRINGEMENT. ATTRIBYTE, LLC SHALL NOT BE LIABLE FOR ANY DAMAGES
+ * SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING OR DISTRIBUTING
+ * THIS SOFTWARE OR ITS DERIVATIVES.
+ */
+
+package org.attribyte.api.http.impl.jakarta;
+
+import com.google.common.base.Strings;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.protobuf.ByteString;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.attribyte.api.DataLimitException;
+import org.attribyte.api.http.FormPostRequestBuilder;
+import org.attribyte.api.http.Header;
+import org.attribyte.api.http.PatchRequestBuilder;
+import org.attribyte.api.http.PostRequestBuilder;
+import org.attribyte.api.http.PutRequestBuilder;
+import org.attribyte.api.http.QueryString;
+import org.attribyte.api.http.Request;
+import org.attribyte.api.http.Request.Method;
+import org.attribyte.api.http.RequestBuilder;
+import org.attribyte.api.http.Response;
+import org.attribyte.api.http.StreamedResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Bridges the Jakarta Servlet API to the Attribyte API without blocking container threads.
+ * <p>
+ *    Request bodies are read with a {@code ReadListener} and response bodies are written with a
+ *    {@code WriteListener}, so a slow client never holds a container thread while waiting for I/O.
+ *    Streamed response bodies are read from their source by an executor, never by a container thread.
+ *    Both require asynchronous processing to be supported by the servlet (or filter).
+ * </p>
+ * <pre>
+ * AsyncBridge.fromServletRequest(servletRequest, maxBodyBytes)
+ *    .thenCompose(request -&gt; client.completableSend(request))
+ *    .whenComplete(...);
+ * AsyncBridge.sendServletResponse(responseFuture, servletRequest.getAsyncContext());
+ * </pre>
+ */
+public class AsyncBridge {
+
+   /**
+    * Creates a request from a servlet request, reading any body without blocking.
+    * <p>
+    *    Asynchronous processing is started, if it has not been already.
+    *    Requests with methods that have no body complete immediately. A form-encoded body
+    *    is parsed into parameters, along with any parameters in the query string.
+    *    Sets an attribute, {@code remoteAddr} with the address reported by the servlet API.
+    * </p>
+    * @param request The servlet request.
+    * @param maxBodyBytes The maximum number of bytes read. If &lt; 1, the body is discarded, reading
+    * no more than {@link Bridge#MAX_DRAIN_BYTES}.
+    * @return A future for the request. Fails with {@code DataLimitException} if the body (or its declared length) is too large.
+    * In that case, a {@code 413} response has already been sent and the request completed.
+    */
+   public static CompletableFuture<Request> fromServletRequest(final HttpServletRequest request,
+                                                              final int maxBodyBytes) {
+      final CompletableFuture<Request> fut = new CompletableFuture<>();
+      final Method method = Method.fromString(request.getMethod());
+      if(method != Method.POST && method != Method.PUT && method != Method.PATCH) {
+         try {
+            fut.complete(Bridge.fromServletRequest(request, 0));
+         } catch(IOException | RuntimeException e) {
+            fut.completeExceptionally(e);
+         }
+         return fut;
+      }
+
+      final long contentLength = request.getContentLengthLong();
+      final AsyncContext asyncContext = request.isAsyncStarted() ? request.getAsyncContext() : request.startAsync();
+      if(maxBodyBytes > 0 && contentLength > maxBodyBytes) {
+         rejectBody(asyncContext, fut, new DataLimitException("The size of the body (" + contentLength + ") exceeds the limit of " + maxBodyBytes + " bytes"));
+         return fut;
+      }
+
+      try {
+         final ServletInputStream in = request.getInputStream();
+         in.setReadListener(new BodyReader(request, asyncContext, method, in, maxBodyBytes, fut));
+      } catch(IOException | RuntimeException e) {
+         fut.completeExceptionally(e);
+      }
+      return fut;
+   }
+
+   /**
+    * Sends a response when it is available, writing the body without blocking.
+    * <p>
+    *    A streamed body is read from its source by a shared pool of daemon threads.
+    * </p>
+    * @param response A future for the response.
+    * @param asyncContext The async context for the servlet request.
+    * @return A future that completes when the response is written.
+    * @see #sendServletResponse(CompletableFuture, AsyncContext, Executor)
+    */
+   public static CompletableFuture<Void> sendServletResponse(final CompletableFuture<? extends Response> response,
+                                                            final AsyncContext asyncContext) {
+      return sendServletResponse(response, asyncContext, SourceReader.executor);
+   }
+
+   /**
+    * Sends a response when it is available, writing the body without blocking.
+    * <p>
+    *    The async context is completed when the body is written, or on error.
+    *    If the response fails and nothing has been sent, the status is set to {@code 500}.
+    *    A streamed body is read from its source, with the executor, as the client is ready to receive it.
+    * </p>
+    * @param response A future for the response.
+    * @param asyncContext The async context for the servlet request.
+    * @param sourceExecutor The executor used to read streamed bodies. Reads may block.
+    * @return A future that completes when the response is written.
+    */
+   public static CompletableFuture<Void> sendServletResponse(final CompletableFuture<? extends Response> response,
+                                                            final AsyncContext asyncContext,
+                                                            final Executor sourceExecutor) {
+      final CompletableFuture<Void> done = new CompletableFuture<>();
+      final HttpServletResponse servletResponse = (HttpServletResponse)asyncContext.getResponse();
+      response.whenComplete((resp, throwable) -> {
+         if(throwable != null) {
+            if(!servletResponse.isCommitted()) {
+               servletResponse.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+            }
+            complete(asyncContext);
+            done.completeExceptionally(throwable);
+            return;
+         }
+
+         try {
+            servletResponse.setStatus(resp.getStatusCode());
+            for(Header header : resp.getHeaders()) {
+               for(String value : header.getValueList()) {
+                  servletResponse.addHeader(header.getName(), value);
+               }
+            }
+
+            final BodyWriter writer;
+            if(resp instanceof StreamedResponse) {
+               StreamedResponse streamedResponse = (StreamedResponse)resp;
+               if(streamedResponse.getBodySource() == null) {
+                  writer = null;
+               } else {
+                  if(streamedResponse.getBodySource().sizeIfKnown().isPresent()) {
+                     servletResponse.setContentLengthLong(streamedResponse.getBodySource().sizeIfKnown().get());
+                  }
+                  writer = new BodyWriter(asyncContext, servletResponse.getOutputStream(),
+                          null, streamedResponse.getBodySource().openStream(), sourceExecutor, done);
+               }
+            } else {
+               ByteString body = resp.getBody();
+               if(body == null) {
+                  writer = null;
+               } else {
+                  servletResponse.setContentLength(body.size());
+                  writer = new BodyWriter(asyncContext, servletResponse.getOutputStream(), body, null, null, done);
+               }
+            }
+
+            if(writer != null) {
+               writer.out.setWriteListener(writer);
+            } else {
+               asyncContext.complete();
+               done.complete(null);
+            }
+         } catch(IOException | RuntimeException e) {
+            complete(asyncContext);
+            done.completeExceptionally(e);
+         }
+      });
+      return done;
+   }
+
+   /**
+    * Sends a response when it is available, writing the body without blocking.
+    * @param response A future for the response.
+    * @param request The servlet request. Asynchronous processing is started, if it has not been already.
+    * @return A future that completes when the response is written. Fails immediately if the
+    * request has already been completed, for example, because its body was too large.
+    * @see #sendServletResponse(CompletableFuture, AsyncContext)
+    */
+   public static CompletableFuture<Void> sendServletResponse(final CompletableFuture<? extends Response> response,
+                                                            final HttpServletRequest request) {
+      final AsyncContext asyncContext;
+      try {
+         asyncContext = request.isAsyncStarted() ? request.getAsyncContext() : request.startAsync();
+      } catch(IllegalStateException ise) {
+         return CompletableFuture.failedFuture(ise);
+      }
+      return sendServletResponse(response, asyncContext);
+   }
+
+   /**
+    * Sends a {@code 413} response, completes the request, then fails the future.
+    * @param asyncContext The async context.
+    * @param fut The request future.
+    * @param dle The exception.
+    */
+   private static void rejectBody(final AsyncContext asyncContext, final CompletableFuture<Request> fut,
+                                  final DataLimitException dle) {
+      try {
+         HttpServletResponse servletResponse = (HttpServletResponse)asyncContext.getResponse();
+         if(!servletResponse.isCommitted()) {
+            servletResponse.setStatus(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE);
+         }
+      } catch(RuntimeException re) {
+         //Ignore - the request is completed, below
+      }
+      complete(asyncContext);
+      fut.completeExceptionally(dle);
+   }
+
+   /**
+    * Completes the async context, ignoring a context that has already been completed.
+    * @param asyncContext The async context.
+    */
+   private static void complete(final AsyncContext asyncContext) {
+      try {
+         asyncContext.complete();
+      } catch(IllegalStateException ise) {
+         //Already complete
+      }
+   }
+
+   /**
+    * The size of the buffer used for reading and writing bodies.
+    */
+   private static final int BUFFER_SIZE = 8192;
+
+   /**
+    * The default executor for reading streamed bodies, created on first use.
+    */
+   private static final class SourceReader {
+
+      /**
+       * Daemon threads, created as needed. Idle threads exit after 60 seconds.
+       */
+      static final ExecutorService executor = Executors.newCachedThreadPool(
+              new ThreadFactoryBuilder().setNameFormat("async-bridge-source-%d").setDaemon(true).build());
+   }
+
+   /**
+    * Reads a request body as it becomes available, then completes the request.
+    */
+   private static final class BodyReader implements ReadListener {
+
+      BodyReader(final HttpServletRequest request, final AsyncContext asyncContext, final Method method,
+                 final ServletInputStream in, final int maxBodyBytes, final CompletableFuture<Request> fut) {
+         this.request = request;
+         this.asyncContext = asyncContext;
+         this.method = method;
+         this.in = in;
+         this.maxBodyBytes = maxBodyBytes;
+         this.fut = fut;
+      }
+
+      @Override
+      public void onDataAvailable() throws IOException {
+         int read;
+         while(!fut.isDone() && in.isReady() && (read = in.read(buf)) != -1) {
+            if(maxBodyBytes > 0) {
+               if(body.size() + read > maxBodyBytes) {
+                  rejectBody(asyncContext, fut, new DataLimitException("The size of the body exceeds the limit of " + maxBodyBytes + " bytes"));
+               } else {
+                  body.write(buf, 0, read);
+               }
+            } else {
+               drained += read;
+               if(drained > Bridge.MAX_DRAIN_BYTES) {
+                  complete(); //Stop reading - the remainder is left to the container.
+               }
+            }
+         }
+      }
+
+      @Override
+      public void onAllDataRead() {
+         complete();
+      }
+
+      /**
+       * Creates the request with the body read so far.
+       */
+      private void complete() {
+         if(fut.isDone()) {
+            return;
+         }
+
+         try {
+            final String queryString = request.getQueryString();
+            final String requestURL = Strings.isNullOrEmpty(queryString) ?
+                    request.getRequestURL().toString() : request.getRequestURL().append('?').append(queryString).toString();
+            final ByteString bodyBytes = body.toByteString();
+            final RequestBuilder builder;
+            if(Strings.nullToEmpty(request.getContentType()).toLowerCase(Locale.ROOT).startsWith("application/x-www-form-urlencoded")) {
+               FormPostRequestBuilder prb = new FormPostRequestBuilder(requestURL);
+               prb.addParameters(QueryString.parse(queryString).toParameterMap(true));
+               prb.addParameters(QueryString.parse(bodyBytes.toString(StandardCharsets.UTF_8)).toParameterMap(true));
+               builder = prb;
+            } else if(method == Method.POST) {
+               builder = new PostRequestBuilder(requestURL, bodyBytes);
+            } else if(method == Method.PATCH) {
+               builder = new PatchRequestBuilder(requestURL, bodyBytes);
+            } else {
+               builder = new PutRequestBuilder(requestURL, bodyBytes);
+            }
+            builder.addHeaders(Bridge.headers(request));
+            builder.addAttribute("remoteAddr", request.getRemoteAddr());
+            fut.complete(builder.create());
+         } catch(Exception e) {
+            fut.completeExceptionally(e);
+         }
+      }
+
+      @Override
+      public void onError(final Throwable t) {
+         fut.completeExceptionally(t);
+      }
+
+      private final HttpServletRequest request;
+      private final AsyncContext asyncContext;
+      private final Method method;
+      private final ServletInputStream in;
+      private final int maxBodyBytes;
+      private final CompletableFuture<Request> fut;
+      private final ByteString.Output body = ByteString.newOutput();
+      private long drained;
+      private final byte[] buf = new byte[BUFFER_SIZE];
+   }
+
+   /**
+    * Writes a response body as the client is ready to receive it.
+    * <p>
+    *    A streamed body is read, one buffer at a time, with the source executor.
+    *    Writing resumes on the executor thread when a buffer has been read, or on a container
+    *    thread when the client is ready for more.
+    * </p>
+    */
+   private static final class BodyWriter implements WriteListener {
+
+      BodyWriter(final AsyncContext asyncContext, final ServletOutputStream out,
+                 final ByteString body, final InputStream source, final Executor sourceExecutor,
+                 final CompletableFuture<Void> done) {
+         this.asyncContext = asyncContext;
+         this.out = out;
+         this.body = body;
+         this.source = source;
+         this.sourceExecutor = sourceExecutor;
+         this.done = done;
+      }
+
+      @Override
+      public void onWritePossible() throws IOException {
+         write();
+      }
+
+      @Override
+      public void onError(final Throwable t) {
+         fail(t);
+      }
+
+      /**
+       * Writes buffered bytes while the client is ready, reading more as needed.
+       * @throws IOException on write error.
+       */
+      private synchronized void write() throws IOException {
+         while(!done.isDone() && !reading && out.isReady()) {
+            if(count > 0) {
+               out.write(buf, 0, count);
+               count = 0;
+            } else if(count == -1) {
+               closeSource();
+               asyncContext.complete();
+               done.complete(null);
+            } else if(body != null) {
+               count = Math.min(buf.length, body.size() - offset);
+               if(count > 0) {
+                  body.substring(offset, offset + count).copyTo(buf, 0);
+                  offset += count;
+               } else {
+                  count = -1;
+               }
+            } else {
+               reading = true;
+               sourceExecutor.execute(this::read);
+            }
+         }
+      }
+
+      /**
+       * Reads the next buffer from the source, then resumes writing.
+       */
+      private void read() {
+         try {
+            int read;
+            do {
+               read = source.read(buf);
+            } while(read == 0);
+            synchronized(this) {
+               count = read;
+               reading = false;
+            }
+            write();
+         } catch(IOException | RuntimeException e) {
+            fail(e);
+         }
+      }
+
+      private void fail(final Throwable t) {
+         closeSource();
+         complete(asyncContext);
+         done.completeExceptionally(t);
+      }
+
+      private void closeSource() {
+         if(source != null) {
+            try {
+               source.close();
+            } catch(IOException ioe) {
+               //Ignore
+            }
+         }
+      }
+
+      private final AsyncContext asyncContext;
+      private final ServletOutputStream out;
+      private final ByteString body;
+      private final InputStream source;
+      private final Executor sourceExecutor;
+      private final CompletableFuture<Void> done;
+      private final byte[] buf = new byte[BUFFER_SIZE];
+      private int offset;
+
+      /**
+       * The number of bytes in the buffer not yet written, or {@code -1} at the end of the body.
+       */
+      private int count;
+
+      /**
+       * Is a read from the source in progress?
+       */
+      private boolean reading;
+   }
+}
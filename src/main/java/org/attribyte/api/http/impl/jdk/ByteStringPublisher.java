@@ -0,0 +1,100 @@
+/*
+ * Copyright 2026 Attribyte Labs, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ *
+ */
+package org.attribyte.api.http.impl.jdk;
+
+import com.google.protobuf.ByteString;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publishes a {@code ByteString} as read-only views of its underlying buffers.
+ * <p>
+ *    Unlike {@code BodyPublishers.ofByteArray}, the body is not copied to an array first,
+ *    and ropes are published segment-by-segment. Each subscriber receives the complete body,
+ *    so the request may be resent (for example, when a redirect is followed).
+ * </p>
+ */
+class ByteStringPublisher implements Flow.Publisher<ByteBuffer> {
+
+   /**
+    * Creates a publisher.
+    * @param body The body.
+    */
+   ByteStringPublisher(final ByteString body) {
+      this.body = body;
+   }
+
+   @Override
+   public void subscribe(final Flow.Subscriber<? super ByteBuffer> subscriber) {
+      subscriber.onSubscribe(new BufferSubscription(subscriber, body.asReadOnlyByteBufferList()));
+   }
+
+   /**
+    * Emits buffers as they are requested.
+    */
+   private static final class BufferSubscription implements Flow.Subscription {
+
+      BufferSubscription(final Flow.Subscriber<? super ByteBuffer> subscriber, final List<ByteBuffer> buffers) {
+         this.subscriber = subscriber;
+         this.buffers = buffers;
+      }
+
+      @Override
+      public void request(final long n) {
+         if(n <= 0) {
+            cancel();
+            subscriber.onError(new IllegalArgumentException("Demand must be positive"));
+            return;
+         }
+
+         demand.getAndAccumulate(n, (current, add) -> current + add < 0 ? Long.MAX_VALUE : current + add);
+         if(wip.getAndIncrement() != 0) {
+            return; //Emitting on another call - it will see the new demand.
+         }
+
+         do {
+            while(!cancelled.get() && demand.get() > 0 && index < buffers.size()) {
+               demand.decrementAndGet();
+               subscriber.onNext(buffers.get(index++));
+            }
+            if(!cancelled.get() && index == buffers.size() && cancelled.compareAndSet(false, true)) {
+               subscriber.onComplete();
+            }
+         } while(wip.decrementAndGet() != 0);
+      }
+
+      @Override
+      public void cancel() {
+         cancelled.set(true);
+      }
+
+      private final Flow.Subscriber<? super ByteBuffer> subscriber;
+      private final List<ByteBuffer> buffers;
+      private final AtomicLong demand = new AtomicLong();
+      private final AtomicInteger wip = new AtomicInteger();
+      private final AtomicBoolean cancelled = new AtomicBoolean();
+      private int index;
+   }
+
+   /**
+    * The body.
+    */
+   private final ByteString body;
+}
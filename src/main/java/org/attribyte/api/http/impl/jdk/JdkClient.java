@@ -15,37 +15,61 @@
 
 package org.attribyte.api.http.impl.jdk;
 
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.io.ByteSource;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.SettableFuture;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.protobuf.UnsafeByteOperations;
 import org.attribyte.api.InitializationException;
 import org.attribyte.api.Logger;
 import org.attribyte.api.http.AsyncClient;
+import org.attribyte.api.http.ClientMetrics;
 import org.attribyte.api.http.ClientOptions;
 import org.attribyte.api.http.Header;
 import org.attribyte.api.http.Parameter;
+import org.attribyte.api.http.PathByteSource;
 import org.attribyte.api.http.RequestOptions;
 import org.attribyte.api.http.Response;
 import org.attribyte.api.http.ResponseBuilder;
+import org.attribyte.api.http.StreamedResponse;
+import org.attribyte.api.http.TimingAggregator;
 
+import java.io.BufferedInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.net.InetSocketAddress;
+import java.net.URI;
 import java.net.ProxySelector;
 import java.net.URLEncoder;
 import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * HTTP client implementation using the JDK {@code java.net.http.HttpClient}.
@@ -76,22 +100,75 @@ public class JdkClient implements AsyncClient {
       if(options.connectionTimeoutMillis > 0) {
          builder.connectTimeout(Duration.ofMillis(options.connectionTimeoutMillis));
       }
-      // Default to following redirects. Per-request redirect control
-      // is handled by creating separate client instances if needed.
-      builder.followRedirects(HttpClient.Redirect.NORMAL);
-      this.defaultFollowRedirects = options.followRedirects;
+      // Redirects are followed by this client, per-request, so a single connection pool
+      // serves both redirecting and non-redirecting requests.
+      builder.followRedirects(HttpClient.Redirect.NEVER);
+      this.maxRedirects = options.getIntProperty("maxRedirects", 8);
+      this.maxRequestsPerDestination = options.maxConnectionsPerDestination;
 
       if(options != ClientOptions.IMPLEMENTATION_DEFAULT && options.proxyHost != null) {
          builder.proxy(ProxySelector.of(
                  new InetSocketAddress(options.proxyHost, options.proxyPort)));
       }
 
-      this.executor = Executors.newCachedThreadPool();
+      this.executor = executorFromOptions(options);
       builder.executor(this.executor);
       this.httpClient = builder.build();
       this.options = options;
    }
 
+   /**
+    * Creates the executor used by the client for asynchronous tasks.
+    * @param options The options.
+    * @return The executor.
+    * @throws InitializationException if the number of threads for a bounded executor is invalid.
+    */
+   static ExecutorService executorFromOptions(final ClientOptions options) throws InitializationException {
+      switch(options.executorType) {
+         case VIRTUAL:
+            ExecutorService virtualExecutor = virtualThreadExecutor();
+            if(virtualExecutor != null) {
+               return virtualExecutor;
+            }
+            return boundedExecutor(options.executorThreads);
+         case BOUNDED:
+            return boundedExecutor(options.executorThreads);
+         default:
+            return Executors.newCachedThreadPool(new ThreadFactoryBuilder()
+                    .setNameFormat(THREAD_NAME_FORMAT).setDaemon(true).build());
+      }
+   }
+
+   /**
+    * Creates an executor with a bounded number of named threads and an unbounded queue.
+    * Idle threads exit after 60 seconds.
+    * @param maxThreads The maximum number of threads.
+    * @return The executor.
+    * @throws InitializationException if the number of threads is invalid.
+    */
+   private static ExecutorService boundedExecutor(final int maxThreads) throws InitializationException {
+      if(maxThreads < 1) {
+         throw new InitializationException("The 'executorThreads' must be > 0");
+      }
+      ThreadPoolExecutor executor = new ThreadPoolExecutor(maxThreads, maxThreads, 60L, TimeUnit.SECONDS,
+              new LinkedBlockingQueue<>(),
+              new ThreadFactoryBuilder().setNameFormat(THREAD_NAME_FORMAT).setDaemon(true).build());
+      executor.allowCoreThreadTimeOut(true);
+      return executor;
+   }
+
+   /**
+    * Creates an executor that starts a new virtual thread for each task.
+    * @return The executor, or {@code null} if virtual threads are not available (Java &lt; 21).
+    */
+   private static ExecutorService virtualThreadExecutor() {
+      try {
+         return (ExecutorService)Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+      } catch(ReflectiveOperationException | UnsupportedOperationException e) {
+         return null;
+      }
+   }
+
    @Override
    public void init(String prefix, Properties props, Logger logger) throws InitializationException {
       if(isInit.compareAndSet(false, true)) {
@@ -107,9 +184,11 @@ public class JdkClient implements AsyncClient {
    @Override
    public Response send(org.attribyte.api.http.Request request, RequestOptions options) throws IOException {
       try {
-         HttpRequest httpRequest = toJdkRequest(request, options);
-         HttpResponse<byte[]> httpResponse = httpClient.send(httpRequest, HttpResponse.BodyHandlers.ofByteArray());
-         return toResponse(httpResponse);
+         StatsCollector stats = StatsCollector.forOptions(options);
+         HttpRequest httpRequest = toJdkRequest(request, options, stats);
+         LimitingBodyHandler<byte[]> bodyHandler = bufferingBodyHandler(request, options);
+         HttpResponse<byte[]> httpResponse = send(httpRequest, withStats(bodyHandler, stats), options.followRedirects);
+         return toResponse(httpResponse, bodyHandler.truncated(), stats);
       } catch(InterruptedException ie) {
          Thread.currentThread().interrupt();
          throw new IOException(ie);
@@ -124,11 +203,19 @@ public class JdkClient implements AsyncClient {
    @Override
    public ListenableFuture<Response> asyncSend(org.attribyte.api.http.Request request, RequestOptions options) {
       final SettableFuture<Response> fut = SettableFuture.create();
-      HttpRequest httpRequest = toJdkRequest(request, options);
-      httpClient.sendAsync(httpRequest, HttpResponse.BodyHandlers.ofByteArray())
+      StatsCollector stats = StatsCollector.forOptions(options);
+      final HttpRequest httpRequest;
+      try {
+         httpRequest = toJdkRequest(request, options, stats);
+      } catch(IOException ioe) {
+         fut.setException(ioe);
+         return fut;
+      }
+      LimitingBodyHandler<byte[]> bodyHandler = bufferingBodyHandler(request, options);
+      sendAsync(httpRequest, withStats(bodyHandler, stats), options.followRedirects, 0)
               .thenAccept(httpResponse -> {
                  try {
-                    fut.set(toResponse(httpResponse));
+                    fut.set(toResponse(httpResponse, bodyHandler.truncated(), stats));
                  } catch(Exception e) {
                     fut.setException(e);
                  }
@@ -147,9 +234,111 @@ public class JdkClient implements AsyncClient {
 
    @Override
    public CompletableFuture<Response> completableSend(org.attribyte.api.http.Request request, RequestOptions options) {
-      HttpRequest httpRequest = toJdkRequest(request, options);
-      return httpClient.sendAsync(httpRequest, HttpResponse.BodyHandlers.ofByteArray())
-              .thenApply(this::toResponse);
+      StatsCollector stats = StatsCollector.forOptions(options);
+      final HttpRequest httpRequest;
+      try {
+         httpRequest = toJdkRequest(request, options, stats);
+      } catch(IOException ioe) {
+         return CompletableFuture.failedFuture(ioe);
+      }
+      LimitingBodyHandler<byte[]> bodyHandler = bufferingBodyHandler(request, options);
+      return sendAsync(httpRequest, withStats(bodyHandler, stats), options.followRedirects, 0)
+              .thenApply(httpResponse -> toResponse(httpResponse, bodyHandler.truncated(), stats));
+   }
+
+   /**
+    * Sends a request and allows the response to be streamed when it is available.
+    * <p>
+    *    The response body is not limited.
+    * </p>
+    * @param request The request.
+    * @param timeout The time to wait for the response to return status and headers.
+    * @param timeoutUnits The timeout units.
+    * @throws TimeoutException on timeout.
+    * @throws InterruptedException on interrupted.
+    * @throws ExecutionException on send exception.
+    * @return The streamed response.
+    */
+   public StreamedResponse stream(final org.attribyte.api.http.Request request,
+                                  final long timeout,
+                                  final TimeUnit timeoutUnits)
+           throws TimeoutException, InterruptedException, ExecutionException {
+      return stream(request, UNLIMITED_STREAM_OPTIONS, timeout, timeoutUnits);
+   }
+
+   /**
+    * Sends a request and allows the response to be streamed when it is available.
+    * <p>
+    *    The body is limited to {@code maxResponseBytes} as it is read. When the limit is reached, the stream
+    *    either ends (if {@code truncateOnLimit}) or reading throws {@code DataLimitException}. If the declared
+    *    length exceeds the limit, and the body is not to be truncated, the first read fails.
+    * </p>
+    * @param request The request.
+    * @param options The request options.
+    * @param timeout The time to wait for the response to return status and headers.
+    * @param timeoutUnits The timeout units.
+    * @throws TimeoutException on timeout.
+    * @throws InterruptedException on interrupted.
+    * @throws ExecutionException on send exception.
+    * @return The streamed response.
+    */
+   public StreamedResponse stream(final org.attribyte.api.http.Request request,
+                                  final RequestOptions options,
+                                  final long timeout,
+                                  final TimeUnit timeoutUnits)
+           throws TimeoutException, InterruptedException, ExecutionException {
+
+      final HttpRequest httpRequest;
+      try {
+         httpRequest = toJdkRequest(request, options, null);
+      } catch(IOException ioe) {
+         throw new ExecutionException(ioe);
+      }
+      LimitingBodyHandler<InputStream> bodyHandler = new LimitingBodyHandler<>(HttpResponse.BodyHandlers.ofInputStream(),
+              options.maxResponseBytes, options.truncateOnLimit, request.getMethod() != org.attribyte.api.http.Request.Method.HEAD);
+      CompletableFuture<HttpResponse<InputStream>> fut = sendAsync(httpRequest, bodyHandler, options.followRedirects, 0);
+      final HttpResponse<InputStream> httpResponse;
+      try {
+         httpResponse = fut.get(timeout, timeoutUnits);
+      } catch(TimeoutException | InterruptedException e) {
+         fut.cancel(true);
+         throw e;
+      }
+
+      ResponseBuilder builder = new ResponseBuilder();
+      builder.setStatusCode(httpResponse.statusCode());
+      addHeaders(httpResponse, builder);
+      builder.setBody(new ByteSource() {
+         @Override
+         public InputStream openStream() {
+            return httpResponse.body();
+         }
+
+         @Override
+         public InputStream openBufferedStream() {
+            return new BufferedInputStream(httpResponse.body());
+         }
+      });
+
+      return builder.createStreamed();
+   }
+
+   /**
+    * Gets a snapshot of request metrics for each destination.
+    * <p>
+    *    The JDK client does not expose its connection pool, so metrics are best-effort:
+    *    active connections are the number of requests sent to the destination that are awaiting a response,
+    *    rejected requests are those the client executor refused, and idle connections and queue depth
+    *    are unknown ({@code -1}).
+    * </p>
+    * @return The metrics.
+    */
+   public ClientMetrics metrics() {
+      evictIdleDestinations(System.nanoTime());
+      List<ClientMetrics.Destination> metrics = Lists.newArrayListWithExpectedSize(destinations.size());
+      destinations.forEach((key, stats) -> metrics.add(new ClientMetrics.Destination(key,
+              stats.activeRequests.get(), -1, -1, -1, stats.rejectedRequests.sum(), null)));
+      return new ClientMetrics(metrics);
    }
 
    @Override
@@ -159,7 +348,16 @@ public class JdkClient implements AsyncClient {
       }
    }
 
-   private HttpRequest toJdkRequest(org.attribyte.api.http.Request request, RequestOptions options) {
+   /**
+    * Creates a JDK request.
+    * @param request The request.
+    * @param options The request options.
+    * @param stats The stats collector for the request, or {@code null} if stats are not collected.
+    * @return The JDK request.
+    * @throws IOException if the request body file does not exist.
+    */
+   private HttpRequest toJdkRequest(org.attribyte.api.http.Request request, RequestOptions options,
+                                    final StatsCollector stats) throws IOException {
       HttpRequest.Builder builder = HttpRequest.newBuilder(request.getURI());
 
       if(options.timeoutSeconds > 0) {
@@ -184,24 +382,20 @@ public class JdkClient implements AsyncClient {
                String formBody = encodeFormParameters(parameters);
                bodyPublisher = HttpRequest.BodyPublishers.ofString(formBody);
                builder.header("Content-Type", "application/x-www-form-urlencoded");
-            } else if(request.getBody() != null) {
-               bodyPublisher = HttpRequest.BodyPublishers.ofByteArray(request.getBody().toByteArray());
+            } else {
+               bodyPublisher = bodyPublisher(request);
             }
-            builder.POST(bodyPublisher);
+            builder.POST(withStats(bodyPublisher, stats));
             break;
          }
          case PUT: {
-            if(request.getBody() != null) {
-               bodyPublisher = HttpRequest.BodyPublishers.ofByteArray(request.getBody().toByteArray());
-            }
-            builder.PUT(bodyPublisher);
+            bodyPublisher = bodyPublisher(request);
+            builder.PUT(withStats(bodyPublisher, stats));
             break;
          }
          case PATCH: {
-            if(request.getBody() != null) {
-               bodyPublisher = HttpRequest.BodyPublishers.ofByteArray(request.getBody().toByteArray());
-            }
-            builder.method("PATCH", bodyPublisher);
+            bodyPublisher = bodyPublisher(request);
+            builder.method("PATCH", withStats(bodyPublisher, stats));
             break;
          }
          case OPTIONS: {
@@ -224,27 +418,311 @@ public class JdkClient implements AsyncClient {
          builder.header("User-Agent", this.options.userAgent);
       }
 
+      HttpRequest httpRequest = builder.build();
+      if(stats != null) {
+         stats.requestHeaders(httpRequest.headers());
+      }
+      return httpRequest;
+   }
+
+   /**
+    * Creates the publisher for a request body without copying.
+    * <p>
+    *    Files are sent directly from the path and other sources are streamed.
+    *    A {@code ByteString} is published as its underlying buffers, so ropes are not flattened.
+    * </p>
+    * @param request The request.
+    * @return The body publisher.
+    * @throws IOException if the request body file does not exist.
+    */
+   private static HttpRequest.BodyPublisher bodyPublisher(final org.attribyte.api.http.Request request) throws IOException {
+      final ByteSource bodySource = request.getBodySource();
+      if(bodySource instanceof PathByteSource) {
+         return HttpRequest.BodyPublishers.ofFile(((PathByteSource)bodySource).path);
+      } else if(bodySource != null) {
+         HttpRequest.BodyPublisher publisher = HttpRequest.BodyPublishers.ofInputStream(() -> {
+            try {
+               return bodySource.openStream();
+            } catch(IOException ioe) {
+               throw new UncheckedIOException(ioe);
+            }
+         });
+         com.google.common.base.Optional<Long> size = bodySource.sizeIfKnown();
+         if(size.isPresent()) {
+            return size.get() > 0 ? HttpRequest.BodyPublishers.fromPublisher(publisher, size.get()) : HttpRequest.BodyPublishers.noBody();
+         } else {
+            return publisher;
+         }
+      } else if(request.getBody() != null && !request.getBody().isEmpty()) {
+         return HttpRequest.BodyPublishers.fromPublisher(new ByteStringPublisher(request.getBody()), request.getBody().size());
+      } else {
+         return HttpRequest.BodyPublishers.noBody();
+      }
+   }
+
+   private static HttpRequest.BodyPublisher withStats(final HttpRequest.BodyPublisher publisher, final StatsCollector stats) {
+      return stats != null ? stats.publisher(publisher) : publisher;
+   }
+
+   /**
+    * Wraps a body handler to collect stats, if stats are collected.
+    * @param handler The handler.
+    * @param stats The stats collector, or {@code null}.
+    * @param <T> The body type.
+    * @return The handler.
+    */
+   private static <T> HttpResponse.BodyHandler<T> withStats(final HttpResponse.BodyHandler<T> handler, final StatsCollector stats) {
+      return stats != null ? stats.handler(handler) : handler;
+   }
+
+   /**
+    * Sends a request, blocking until the response is received, and following redirects if configured.
+    * <p>
+    *    The request is sent on the calling thread. If {@code maxConnectionsPerDestination} requests to the destination
+    *    are already being sent synchronously, the calling thread waits. A virtual thread waiting here, or for the
+    *    response, is unmounted from its carrier, so thousands of virtual threads may send concurrently without
+    *    opening a connection for each.
+    * </p>
+    * @param httpRequest The request.
+    * @param bodyHandler The handler for the final response body.
+    * @param followRedirects Should redirects be followed?
+    * @param <T> The body type.
+    * @return The final response.
+    * @throws IOException on send error, or if the maximum number of redirects is exceeded.
+    * @throws InterruptedException if interrupted.
+    */
+   private <T> HttpResponse<T> send(final HttpRequest httpRequest,
+                                    final HttpResponse.BodyHandler<T> bodyHandler,
+                                    final boolean followRedirects) throws IOException, InterruptedException {
+      HttpRequest currRequest = httpRequest;
+      for(int redirects = 0; ; redirects++) {
+         final DestinationStats stats = destination(currRequest);
+         final HttpResponse<T> httpResponse;
+         try {
+            if(stats.permits != null) {
+               stats.permits.acquire();
+            }
+            stats.activeRequests.incrementAndGet();
+            try {
+               httpResponse = httpClient.send(currRequest, redirectBodyHandler(currRequest, bodyHandler, followRedirects));
+            } catch(RejectedExecutionException ree) {
+               stats.rejectedRequests.increment();
+               throw new IOException(ree);
+            } finally {
+               stats.activeRequests.decrementAndGet();
+               if(stats.permits != null) {
+                  stats.permits.release();
+               }
+            }
+         } finally {
+            stats.release();
+         }
+         HttpRequest redirectRequest = followRedirects ? redirectRequest(httpResponse, redirects) : null;
+         if(redirectRequest == null) {
+            return httpResponse;
+         }
+         currRequest = redirectRequest;
+      }
+   }
+
+   /**
+    * Sends a request asynchronously, following redirects if configured.
+    * @param httpRequest The request.
+    * @param bodyHandler The handler for the final response body.
+    * @param followRedirects Should redirects be followed?
+    * @param redirects The number of redirects already followed.
+    * @param <T> The body type.
+    * @return A future for the final response.
+    */
+   private <T> CompletableFuture<HttpResponse<T>> sendAsync(final HttpRequest httpRequest,
+                                                            final HttpResponse.BodyHandler<T> bodyHandler,
+                                                            final boolean followRedirects,
+                                                            final int redirects) {
+      final DestinationStats stats = destination(httpRequest);
+      stats.activeRequests.incrementAndGet();
+      final CompletableFuture<HttpResponse<T>> fut;
+      try {
+         fut = httpClient.sendAsync(httpRequest, redirectBodyHandler(httpRequest, bodyHandler, followRedirects));
+      } catch(RuntimeException re) {
+         stats.activeRequests.decrementAndGet();
+         stats.release();
+         throw re;
+      }
+      return fut
+              .whenComplete((httpResponse, failure) -> {
+                 stats.activeRequests.decrementAndGet();
+                 stats.release();
+                 if(failure instanceof RejectedExecutionException ||
+                         (failure instanceof CompletionException && failure.getCause() instanceof RejectedExecutionException)) {
+                    stats.rejectedRequests.increment();
+                 }
+              })
+              .thenCompose(httpResponse -> {
+                 final HttpRequest redirectRequest;
+                 try {
+                    redirectRequest = followRedirects ? redirectRequest(httpResponse, redirects) : null;
+                 } catch(IOException ioe) {
+                    return CompletableFuture.failedFuture(ioe);
+                 }
+                 return redirectRequest == null ? CompletableFuture.completedFuture(httpResponse) :
+                         sendAsync(redirectRequest, bodyHandler, true, redirects + 1);
+              });
+   }
+
+   /**
+    * Creates a body handler that discards the body of responses that will be redirected.
+    * @param httpRequest The request.
+    * @param bodyHandler The handler for the final response body.
+    * @param followRedirects Should redirects be followed?
+    * @param <T> The body type.
+    * @return The body handler.
+    */
+   private static <T> HttpResponse.BodyHandler<T> redirectBodyHandler(final HttpRequest httpRequest,
+                                                                      final HttpResponse.BodyHandler<T> bodyHandler,
+                                                                      final boolean followRedirects) {
+      if(!followRedirects) {
+         return bodyHandler;
+      }
+      return responseInfo -> redirectURI(httpRequest.uri(), responseInfo.statusCode(), responseInfo.headers()) != null ?
+              HttpResponse.BodySubscribers.replacing(null) : bodyHandler.apply(responseInfo);
+   }
+
+   /**
+    * Creates the request that follows a redirect response.
+    * <p>
+    *    As with {@code HttpClient.Redirect.NORMAL}, redirects from {@code https} to {@code http} are not followed.
+    *    A {@code 303} response, or a {@code 301} or {@code 302} response to a {@code POST}, is followed with {@code GET},
+    *    and the body is dropped. Otherwise the method and body are preserved. The {@code Authorization} header
+    *    is dropped if the redirect is to a different host or port.
+    * </p>
+    * @param httpResponse The response.
+    * @param redirects The number of redirects already followed.
+    * @return The request, or {@code null} if the response is not a redirect that should be followed.
+    * @throws IOException if the maximum number of redirects is exceeded.
+    */
+   private HttpRequest redirectRequest(final HttpResponse<?> httpResponse, final int redirects) throws IOException {
+      HttpRequest httpRequest = httpResponse.request();
+      URI redirectURI = redirectURI(httpRequest.uri(), httpResponse.statusCode(), httpResponse.headers());
+      if(redirectURI == null) {
+         return null;
+      }
+
+      if(redirects >= maxRedirects) {
+         throw new IOException("Maximum redirects (" + maxRedirects + ") exceeded for " + httpRequest.uri());
+      }
+
+      int statusCode = httpResponse.statusCode();
+      String method = httpRequest.method();
+      boolean toGET = statusCode == 303 && !method.equals("HEAD") ||
+              (statusCode == 301 || statusCode == 302) && method.equals("POST");
+      boolean sameHost = sameHostAndPort(redirectURI, httpRequest.uri());
+
+      HttpRequest.Builder builder = HttpRequest.newBuilder(httpRequest, (name, value) -> {
+         if(toGET && (name.equalsIgnoreCase("Content-Type") || name.equalsIgnoreCase("Content-Length"))) {
+            return false;
+         } else {
+            return sameHost || !name.equalsIgnoreCase("Authorization");
+         }
+      }).uri(redirectURI);
+
+      if(toGET) {
+         builder.GET();
+      }
+
       return builder.build();
    }
 
-   private Response toResponse(HttpResponse<byte[]> httpResponse) {
+   /**
+    * Are two URIs for the same host (ignoring case) and port (including the scheme default)?
+    * @param uri The first URI.
+    * @param other The second URI.
+    * @return Are the host and port the same?
+    */
+   private static boolean sameHostAndPort(final URI uri, final URI other) {
+      return uri.getHost() != null && uri.getHost().equalsIgnoreCase(other.getHost()) && TimingAggregator.port(uri) == TimingAggregator.port(other);
+   }
+
+   /**
+    * Gets the URI to follow for a redirect response.
+    * @param requestURI The URI of the request.
+    * @param statusCode The response status code.
+    * @param headers The response headers.
+    * @return The redirect URI, or {@code null} if the response is not a redirect that should be followed.
+    */
+   private static URI redirectURI(final URI requestURI, final int statusCode, final HttpHeaders headers) {
+      switch(statusCode) {
+         case 301:
+         case 302:
+         case 303:
+         case 307:
+         case 308:
+            break;
+         default:
+            return null;
+      }
+
+      String location = headers.firstValue("Location").orElse(null);
+      if(location == null) {
+         return null;
+      }
+
+      final URI redirectURI;
+      try {
+         redirectURI = requestURI.resolve(location.trim());
+      } catch(IllegalArgumentException iae) {
+         return null;
+      }
+
+      String scheme = redirectURI.getScheme();
+      if(scheme == null || !(scheme.equalsIgnoreCase("http") || scheme.equalsIgnoreCase("https"))) {
+         return null;
+      } else if(scheme.equalsIgnoreCase("http") && "https".equalsIgnoreCase(requestURI.getScheme())) {
+         return null;
+      } else {
+         return redirectURI;
+      }
+   }
+
+   /**
+    * Creates a handler that buffers the response body, enforcing the maximum response size.
+    * @param request The request.
+    * @param options The request options.
+    * @return The body handler.
+    */
+   private static LimitingBodyHandler<byte[]> bufferingBodyHandler(final org.attribyte.api.http.Request request,
+                                                                   final RequestOptions options) {
+      return new LimitingBodyHandler<>(HttpResponse.BodyHandlers.ofByteArray(), options.maxResponseBytes,
+              options.truncateOnLimit, request.getMethod() != org.attribyte.api.http.Request.Method.HEAD);
+   }
+
+   private Response toResponse(HttpResponse<byte[]> httpResponse, final boolean truncated, final StatsCollector stats) {
       ResponseBuilder builder = new ResponseBuilder();
       builder.setStatusCode(httpResponse.statusCode());
-
-      httpResponse.headers().map().forEach((name, values) -> {
-         for(String value : values) {
-            builder.addHeader(name, value);
-         }
-      });
+      addHeaders(httpResponse, builder);
 
       byte[] body = httpResponse.body();
       if(body != null && body.length > 0) {
-         builder.setBody(body);
+         builder.setBody(UnsafeByteOperations.unsafeWrap(body)); //The array is owned by the response
       }
 
+      if(truncated) {
+         builder.addAttribute("truncated", Boolean.TRUE);
+      }
+
+      if(stats != null) {
+         builder.setStats(stats.stats());
+      }
       return builder.create();
    }
 
+   private static void addHeaders(final HttpResponse<?> httpResponse, final ResponseBuilder builder) {
+      httpResponse.headers().map().forEach((name, values) -> {
+         for(String value : values) {
+            builder.addHeader(name, value);
+         }
+      });
+   }
+
    private static String encodeFormParameters(Collection<Parameter> parameters) {
       StringBuilder sb = new StringBuilder();
       boolean first = true;
@@ -262,9 +740,162 @@ public class JdkClient implements AsyncClient {
       return sb.toString();
    }
 
+   /**
+    * Gets and retains the stats for the destination of a request.
+    * <p>
+    *    Retained stats are not evicted. They must be released when the request completes.
+    * </p>
+    * @param httpRequest The request.
+    * @return The stats.
+    */
+   private DestinationStats destination(final HttpRequest httpRequest) {
+      final long nowNanos = System.nanoTime();
+      final long lastEvictionNanos = this.lastEvictionNanos.get();
+      if(nowNanos - lastEvictionNanos >= DESTINATION_EVICTION_INTERVAL_NANOS &&
+              this.lastEvictionNanos.compareAndSet(lastEvictionNanos, nowNanos)) {
+         evictIdleDestinations(nowNanos);
+      }
+
+      final String key = ClientMetrics.destinationKey(httpRequest.uri());
+      while(true) {
+         final DestinationStats stats = destinations.computeIfAbsent(key, k -> new DestinationStats(maxRequestsPerDestination));
+         if(stats.retain()) {
+            return stats;
+         }
+         destinations.remove(key, stats); //Evicted - create a replacement.
+      }
+   }
+
+   /**
+    * Removes stats for destinations with no requests since the expiry time.
+    * @param nowNanos The current time in nanoseconds.
+    */
+   void evictIdleDestinations(final long nowNanos) {
+      destinations.forEach((key, stats) -> {
+         if(stats.evictIfIdle(nowNanos)) {
+            destinations.remove(key, stats);
+         }
+      });
+   }
+
+   /**
+    * Request stats for a destination.
+    */
+   private static final class DestinationStats {
+
+      /**
+       * Creates destination stats.
+       * @param maxRequests The maximum number of concurrent synchronous requests, or {@code 0} for no limit.
+       */
+      DestinationStats(final int maxRequests) {
+         this.permits = maxRequests > 0 ? new Semaphore(maxRequests) : null;
+      }
+
+      /**
+       * Retains the stats for a request.
+       * @return Were the stats retained? If {@code false}, the stats have been evicted.
+       */
+      boolean retain() {
+         int count;
+         do {
+            count = references.get();
+            if(count < 0) {
+               return false;
+            }
+         } while(!references.compareAndSet(count, count + 1));
+         return true;
+      }
+
+      /**
+       * Releases the stats when a request completes.
+       */
+      void release() {
+         lastReleasedNanos = System.nanoTime();
+         references.decrementAndGet();
+      }
+
+      /**
+       * Marks the stats evicted if no request has retained them since the expiry time.
+       * Evicted stats can't be retained.
+       * @param nowNanos The current time in nanoseconds.
+       * @return Were the stats evicted?
+       */
+      boolean evictIfIdle(final long nowNanos) {
+         return nowNanos - lastReleasedNanos >= DESTINATION_EXPIRY_NANOS && references.compareAndSet(0, EVICTED);
+      }
+
+      /**
+       * The number of requests that have retained the stats, including those waiting for a permit,
+       * or {@link #EVICTED}.
+       */
+      private final AtomicInteger references = new AtomicInteger();
+
+      /**
+       * The time the stats were last released.
+       */
+      private volatile long lastReleasedNanos = System.nanoTime();
+
+      /**
+       * The number of requests awaiting a response.
+       */
+      final AtomicInteger activeRequests = new AtomicInteger();
+
+      /**
+       * The number of requests rejected by the executor.
+       */
+      final LongAdder rejectedRequests = new LongAdder();
+
+      /**
+       * Limits concurrent synchronous requests, or {@code null} if not limited.
+       */
+      final Semaphore permits;
+   }
+
+   /**
+    * The reference count for evicted destination stats.
+    */
+   private static final int EVICTED = Integer.MIN_VALUE;
+
+   /**
+    * The time after which stats for a destination without requests are evicted.
+    */
+   private static final long DESTINATION_EXPIRY_NANOS = TimeUnit.MILLISECONDS.toNanos(ClientMetrics.DESTINATION_EXPIRY_MILLIS);
+
+   /**
+    * The minimum time between checks for idle destinations.
+    */
+   private static final long DESTINATION_EVICTION_INTERVAL_NANOS = TimeUnit.MINUTES.toNanos(1L);
+
+   /**
+    * The name format for platform threads created by the client executor.
+    */
+   private static final String THREAD_NAME_FORMAT = "jdk-http-client-%d";
+
+   /**
+    * Options for streamed responses without a size limit.
+    */
+   private static final RequestOptions UNLIMITED_STREAM_OPTIONS =
+           new RequestOptions(RequestOptions.DEFAULT_FOLLOW_REDIRECTS, Integer.MAX_VALUE, 0);
+
    private HttpClient httpClient;
    private ClientOptions options;
-   private boolean defaultFollowRedirects;
+   private int maxRedirects;
+
+   /**
+    * The maximum number of concurrent synchronous requests to a destination, or {@code 0} for no limit.
+    */
+   private int maxRequestsPerDestination;
    private ExecutorService executor;
+
+   /**
+    * Request stats for each destination, by key.
+    */
+   private final ConcurrentMap<String, DestinationStats> destinations = Maps.newConcurrentMap();
+
+   /**
+    * The time of the last check for idle destinations.
+    */
+   private final AtomicLong lastEvictionNanos = new AtomicLong(System.nanoTime());
+
    private final AtomicBoolean isInit = new AtomicBoolean(false);
 }
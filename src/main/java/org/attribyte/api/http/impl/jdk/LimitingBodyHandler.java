@@ -0,0 +1,251 @@
+/*
+ * Copyright 2026 Attribyte Labs, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ *
+ */
+package org.attribyte.api.http.impl.jdk;
+
+import com.google.common.collect.Lists;
+import org.attribyte.api.DataLimitException;
+
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+
+/**
+ * A body handler that enforces a maximum response size as the body is received.
+ * <p>
+ *    When the limit is reached, the upstream subscription is cancelled. The body is then either
+ *    completed with the content received up to the limit (truncated), or completed exceptionally
+ *    with {@code DataLimitException}. A declared {@code Content-Length} that exceeds the limit fails
+ *    immediately, without reading the body, unless the body is to be truncated.
+ * </p>
+ * <p>
+ *    A handler instance must be used for a single request.
+ * </p>
+ * @param <T> The body type.
+ */
+class LimitingBodyHandler<T> implements HttpResponse.BodyHandler<T> {
+
+   /**
+    * Creates the handler.
+    * @param downstream The handler that creates the subscriber for the (limited) body.
+    * @param maxBytes The maximum number of body bytes.
+    * @param truncateOnLimit Should the body be truncated when the limit is reached, instead of failing?
+    * @param expectBody Is a body expected? If {@code false}, as for {@code HEAD}, the declared length is ignored.
+    */
+   LimitingBodyHandler(final HttpResponse.BodyHandler<T> downstream,
+                       final long maxBytes,
+                       final boolean truncateOnLimit,
+                       final boolean expectBody) {
+      if(maxBytes < 0) {
+         throw new IllegalArgumentException("Invalid max bytes " + maxBytes);
+      }
+      this.downstream = downstream;
+      this.maxBytes = maxBytes;
+      this.truncateOnLimit = truncateOnLimit;
+      this.expectBody = expectBody;
+   }
+
+   @Override
+   public HttpResponse.BodySubscriber<T> apply(final HttpResponse.ResponseInfo responseInfo) {
+      long declaredLength = expectBody && responseInfo.statusCode() != 204 && responseInfo.statusCode() != 304 ?
+              responseInfo.headers().firstValueAsLong("Content-Length").orElse(-1L) : -1L;
+      subscriber = new LimitingBodySubscriber<>(downstream.apply(responseInfo), maxBytes, truncateOnLimit,
+              !truncateOnLimit && declaredLength > maxBytes);
+      return subscriber;
+   }
+
+   /**
+    * Was the body truncated because the limit was reached?
+    * @return Was the body truncated?
+    */
+   boolean truncated() {
+      LimitingBodySubscriber<T> subscriber = this.subscriber;
+      return subscriber != null && subscriber.truncated;
+   }
+
+   /**
+    * Counts received bytes, passing them to a downstream subscriber until the limit is reached.
+    * @param <T> The body type.
+    */
+   static final class LimitingBodySubscriber<T> implements HttpResponse.BodySubscriber<T> {
+
+      /**
+       * Creates the subscriber.
+       * @param downstream The downstream subscriber.
+       * @param maxBytes The maximum number of body bytes.
+       * @param truncateOnLimit Should the body be truncated when the limit is reached, instead of failing?
+       * @param reject Should the body be rejected on subscribe because its declared length exceeds the limit?
+       */
+      LimitingBodySubscriber(final HttpResponse.BodySubscriber<T> downstream,
+                             final long maxBytes,
+                             final boolean truncateOnLimit,
+                             final boolean reject) {
+         this.downstream = downstream;
+         this.maxBytes = maxBytes;
+         this.truncateOnLimit = truncateOnLimit;
+         this.reject = reject;
+      }
+
+      @Override
+      public CompletionStage<T> getBody() {
+         return downstream.getBody();
+      }
+
+      @Override
+      public void onSubscribe(final Flow.Subscription subscription) {
+         this.subscription = subscription;
+         downstream.onSubscribe(subscription);
+         if(reject) {
+            done = true;
+            subscription.cancel();
+            downstream.onError(limitException());
+         }
+      }
+
+      @Override
+      public void onNext(final List<ByteBuffer> items) {
+         if(done) {
+            return;
+         }
+
+         long length = 0L;
+         for(ByteBuffer item : items) {
+            length += item.remaining();
+         }
+
+         if(receivedBytes + length <= maxBytes) {
+            receivedBytes += length;
+            downstream.onNext(items);
+            return;
+         }
+
+         done = true;
+         subscription.cancel();
+
+         if(truncateOnLimit) {
+            truncated = true;
+            long remaining = maxBytes - receivedBytes;
+            List<ByteBuffer> limited = Lists.newArrayListWithCapacity(items.size());
+            for(ByteBuffer item : items) {
+               if(remaining == 0L) {
+                  break;
+               }
+               if(item.remaining() <= remaining) {
+                  limited.add(item);
+                  remaining -= item.remaining();
+               } else {
+                  ByteBuffer slice = item.slice();
+                  slice.limit((int)remaining);
+                  limited.add(slice);
+                  remaining = 0L;
+               }
+            }
+            receivedBytes = maxBytes;
+            if(!limited.isEmpty()) {
+               downstream.onNext(limited);
+            }
+            downstream.onComplete();
+         } else {
+            downstream.onError(limitException());
+         }
+      }
+
+      @Override
+      public void onError(final Throwable throwable) {
+         if(!done) {
+            done = true;
+            downstream.onError(throwable);
+         }
+      }
+
+      @Override
+      public void onComplete() {
+         if(!done) {
+            done = true;
+            downstream.onComplete();
+         }
+      }
+
+      private DataLimitException limitException() {
+         return new DataLimitException("The size of the response exceeds the limit of " + maxBytes + " bytes");
+      }
+
+      /**
+       * The downstream subscriber.
+       */
+      private final HttpResponse.BodySubscriber<T> downstream;
+
+      /**
+       * The maximum number of body bytes.
+       */
+      private final long maxBytes;
+
+      /**
+       * Should the body be truncated when the limit is reached?
+       */
+      private final boolean truncateOnLimit;
+
+      /**
+       * Should the body be rejected on subscribe?
+       */
+      private final boolean reject;
+
+      /**
+       * The upstream subscription.
+       */
+      private Flow.Subscription subscription;
+
+      /**
+       * The number of bytes received.
+       */
+      private long receivedBytes;
+
+      /**
+       * Has the downstream subscriber been completed?
+       */
+      private boolean done;
+
+      /**
+       * Was the body truncated?
+       */
+      volatile boolean truncated;
+   }
+
+   /**
+    * The handler that creates the subscriber for the body.
+    */
+   private final HttpResponse.BodyHandler<T> downstream;
+
+   /**
+    * The maximum number of body bytes.
+    */
+   private final long maxBytes;
+
+   /**
+    * Should the body be truncated when the limit is reached?
+    */
+   private final boolean truncateOnLimit;
+
+   /**
+    * Is a body expected?
+    */
+   private final boolean expectBody;
+
+   /**
+    * The subscriber for the response body.
+    */
+   private volatile LimitingBodySubscriber<T> subscriber;
+}
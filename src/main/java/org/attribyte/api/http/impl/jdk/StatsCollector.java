@@ -0,0 +1,336 @@
+/*
+ * Copyright 2026 Attribyte Labs, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ *
+ */
+package org.attribyte.api.http.impl.jdk;
+
+import com.google.common.base.MoreObjects;
+import org.attribyte.api.http.RequestOptions;
+import org.attribyte.api.http.Stats;
+
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Collects timing and size stats for a single request sent with the JDK client.
+ * <p>
+ *    The JDK client does not report connection or header events, so ticks are captured at the nearest
+ *    observable point: the request is started when its body publisher is subscribed and complete when
+ *    the publisher completes; the status and all headers are received when the body handler is applied.
+ *    Requests without a body report zero time to request start and complete.
+ * </p>
+ */
+class StatsCollector {
+
+   /**
+    * Creates a collector, recording the time the request is queued.
+    * @param collectSizes Are header and body sizes and counts collected, or only timing?
+    */
+   StatsCollector(final boolean collectSizes) {
+      this.collectSizes = collectSizes;
+      this.requestQueuedTick = getTick();
+   }
+
+   /**
+    * Creates a collector for the stats level in request options.
+    * @param options The request options.
+    * @return The collector, or {@code null} if stats are not collected.
+    */
+   static StatsCollector forOptions(final RequestOptions options) {
+      switch(options.statsLevel) {
+         case OFF:
+            return null;
+         case TIMING:
+            return new StatsCollector(false);
+         default:
+            return new StatsCollector(true);
+      }
+   }
+
+   /**
+    * Records the request headers.
+    * @param headers The headers.
+    */
+   void requestHeaders(final HttpHeaders headers) {
+      if(collectSizes) {
+         Map<String, List<String>> map = headers.map();
+         requestHeaderCount = map.size();
+         requestHeaderSize = size(map);
+      }
+   }
+
+   /**
+    * Wraps a body publisher to record the request start, content and completion.
+    * <p>
+    *    The publisher is subscribed again when a request is resent, for example, after a {@code 307} redirect,
+    *    so the body is counted from the last subscription.
+    * </p>
+    * @param publisher The publisher.
+    * @return The wrapped publisher.
+    */
+   HttpRequest.BodyPublisher publisher(final HttpRequest.BodyPublisher publisher) {
+      return new HttpRequest.BodyPublisher() {
+         @Override
+         public long contentLength() {
+            return publisher.contentLength();
+         }
+
+         @Override
+         public void subscribe(final Flow.Subscriber<? super ByteBuffer> subscriber) {
+            requestBeginTick = getTick();
+            if(collectSizes) {
+               requestChunkCount = 0;
+               requestBodySize = 0L;
+            }
+            publisher.subscribe(new Flow.Subscriber<ByteBuffer>() {
+               @Override
+               public void onSubscribe(final Flow.Subscription subscription) {
+                  subscriber.onSubscribe(subscription);
+               }
+
+               @Override
+               public void onNext(final ByteBuffer item) {
+                  if(collectSizes) {
+                     requestChunkCount++;
+                     requestBodySize += item.remaining();
+                  }
+                  subscriber.onNext(item);
+               }
+
+               @Override
+               public void onError(final Throwable throwable) {
+                  requestCompleteTick = getTick();
+                  subscriber.onError(throwable);
+               }
+
+               @Override
+               public void onComplete() {
+                  requestCompleteTick = getTick();
+                  subscriber.onComplete();
+               }
+            });
+         }
+      };
+   }
+
+   /**
+    * Wraps a body handler to record the response status, headers, content and completion.
+    * @param handler The handler.
+    * @param <T> The body type.
+    * @return The wrapped handler.
+    */
+   <T> HttpResponse.BodyHandler<T> handler(final HttpResponse.BodyHandler<T> handler) {
+      return responseInfo -> {
+         responseHeadersTick = getTick();
+         if(collectSizes) {
+            Map<String, List<String>> headers = responseInfo.headers().map();
+            responseHeaderCount = headers.size();
+            responseHeaderSize = size(headers);
+         }
+         return new StatsBodySubscriber<>(handler.apply(responseInfo));
+      };
+   }
+
+   /**
+    * Records response content, passing it to a downstream subscriber.
+    * @param <T> The body type.
+    */
+   private final class StatsBodySubscriber<T> implements HttpResponse.BodySubscriber<T> {
+
+      StatsBodySubscriber(final HttpResponse.BodySubscriber<T> downstream) {
+         this.downstream = downstream;
+      }
+
+      @Override
+      public CompletionStage<T> getBody() {
+         return downstream.getBody().whenComplete((body, throwable) -> responseCompleteTick = getTick());
+      }
+
+      @Override
+      public void onSubscribe(final Flow.Subscription subscription) {
+         downstream.onSubscribe(subscription);
+      }
+
+      @Override
+      public void onNext(final List<ByteBuffer> items) {
+         if(responseContentStartedTick == 0L) {
+            responseContentStartedTick = getTick();
+         }
+         if(collectSizes) {
+            responseChunkCount++;
+            for(ByteBuffer item : items) {
+               responseBodySize += item.remaining();
+            }
+         }
+         downstream.onNext(items);
+      }
+
+      @Override
+      public void onError(final Throwable throwable) {
+         downstream.onError(throwable);
+      }
+
+      @Override
+      public void onComplete() {
+         downstream.onComplete();
+      }
+
+      /**
+       * The downstream subscriber.
+       */
+      private final HttpResponse.BodySubscriber<T> downstream;
+   }
+
+   /**
+    * Creates the accumulated stats.
+    * @return The stats.
+    */
+   Stats stats() {
+      long requestBeginTick = this.requestBeginTick != 0L ? this.requestBeginTick : requestQueuedTick;
+      long requestCompleteTick = this.requestCompleteTick != 0L ? this.requestCompleteTick : requestBeginTick;
+      return new Stats(
+              requestBeginTick - requestQueuedTick,
+              requestCompleteTick - requestQueuedTick,
+              responseHeadersTick - requestQueuedTick,
+              responseHeadersTick - requestQueuedTick,
+              responseHeadersTick - requestQueuedTick,
+              responseContentStartedTick - requestQueuedTick,
+              responseCompleteTick - requestQueuedTick,
+              requestHeaderCount, requestHeaderSize,
+              requestChunkCount, requestBodySize,
+              responseHeaderCount, responseHeaderSize,
+              new AtomicInteger(responseChunkCount), new AtomicLong(responseBodySize)
+      );
+   }
+
+   /**
+    * Gets the current tick in nanoseconds.
+    * @return The tick.
+    */
+   private static long getTick() {
+      return System.nanoTime();
+   }
+
+   /**
+    * Gets the size in bytes of the headers.
+    * <p>
+    *    We assume that both names and values are ASCII, which is almost certainly the case
+    *    in normal circumstances.
+    * </p>
+    * @param headers The headers.
+    * @return The size.
+    */
+   private static long size(final Map<String, List<String>> headers) {
+      long size = 0L;
+      for(Map.Entry<String, List<String>> header : headers.entrySet()) {
+         for(String value : header.getValue()) {
+            size += header.getKey().length() + 2; // ': '
+            size += value.length();
+         }
+      }
+      return size;
+   }
+
+   @Override
+   public String toString() {
+      return MoreObjects.toStringHelper(this)
+              .add("stats", stats())
+              .toString();
+   }
+
+   /**
+    * The tick in nanoseconds when the request was queued for processing.
+    */
+   private final long requestQueuedTick;
+
+   /**
+    * The tick in nanoseconds when the request body publisher was subscribed.
+    */
+   private volatile long requestBeginTick;
+
+   /**
+    * The tick in nanoseconds when the request body was sent.
+    */
+   private volatile long requestCompleteTick;
+
+   /**
+    * The tick in nanoseconds when the response status and headers were received.
+    */
+   private volatile long responseHeadersTick;
+
+   /**
+    * The tick in nanoseconds when the first chunk of content is received.
+    */
+   private volatile long responseContentStartedTick;
+
+   /**
+    * The tick in nanoseconds when the response is complete.
+    */
+   private volatile long responseCompleteTick;
+
+   /**
+    * The number of request headers.
+    */
+   private int requestHeaderCount;
+
+   /**
+    * The size (in bytes) of the request headers.
+    */
+   private long requestHeaderSize;
+
+   /**
+    * The number of chunks in the request body.
+    */
+   private volatile int requestChunkCount;
+
+   /**
+    * The size of the request body.
+    */
+   private volatile long requestBodySize;
+
+   /**
+    * The number of response headers.
+    */
+   private volatile int responseHeaderCount;
+
+   /**
+    * The size of the response headers.
+    */
+   private volatile long responseHeaderSize;
+
+   /**
+    * The number of chunks in the response.
+    * <p>
+    *    Body events are delivered serially, and the body is complete before stats are created, so this is not atomic.
+    * </p>
+    */
+   private int responseChunkCount;
+
+   /**
+    * The size of the response body.
+    */
+   private long responseBodySize;
+
+   /**
+    * Are header and body sizes and counts collected?
+    */
+   private final boolean collectSizes;
+}
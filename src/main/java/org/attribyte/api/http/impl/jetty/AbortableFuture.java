@@ -0,0 +1,54 @@
+/*
+ * Copyright 2026 Attribyte Labs, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ *
+ */
+
+package org.attribyte.api.http.impl.jetty;
+
+import org.eclipse.jetty.client.Request;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A future response that aborts the request when it is cancelled, so a connection isn't held
+ * to receive a response that won't be used.
+ */
+class AbortableFuture extends CompletableFuture<org.attribyte.api.http.Response> {
+
+   /**
+    * Sets the request to abort. If the future was already cancelled, the request is aborted immediately.
+    * @param request The request.
+    */
+   void setRequest(final Request request) {
+      this.request = request;
+      if(isCancelled()) {
+         request.abort(new CancellationException());
+      }
+   }
+
+   @Override
+   public boolean cancel(final boolean mayInterruptIfRunning) {
+      final boolean cancelled = super.cancel(mayInterruptIfRunning);
+      final Request request = this.request;
+      if(cancelled && request != null) {
+         request.abort(new CancellationException());
+      }
+      return cancelled;
+   }
+
+   /**
+    * The request, or {@code null} if not yet sent.
+    */
+   private volatile Request request;
+}
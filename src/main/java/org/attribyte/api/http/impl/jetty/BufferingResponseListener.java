@@ -16,10 +16,19 @@
 package org.attribyte.api.http.impl.jetty;
 
 import java.nio.ByteBuffer;
+import java.util.List;
 
+import com.google.common.base.MoreObjects;
+import com.google.common.collect.Lists;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.UnsafeByteOperations;
 import org.attribyte.api.http.ResponseBuilder;
 import org.eclipse.jetty.client.Response;
 import org.eclipse.jetty.client.Result;
+import org.eclipse.jetty.http.HttpHeader;
+import org.eclipse.jetty.http.HttpMethod;
+import org.eclipse.jetty.io.ByteBufferPool;
+import org.eclipse.jetty.io.RetainableByteBuffer;
 import org.eclipse.jetty.util.BufferUtil;
 
 abstract class BufferingResponseListener extends BaseResponseListener {
@@ -31,26 +40,109 @@ abstract class BufferingResponseListener extends BaseResponseListener {
     */
    public BufferingResponseListener(final int maxLength,
                                     final boolean truncateOnLimit) {
+      this(maxLength, truncateOnLimit, null, ResponseBufferGrowth.DEFAULT);
+   }
+
+   /**
+    * Creates an instance with the given maximum length that buffers content in pooled segments.
+    * <p>
+    *    When a pool is configured, completed responses are {@code PooledBodyResponse}
+    *    with a body that references the segments without copying. The segments
+    *    are returned to the pool when the response is closed.
+    * </p>
+    * @param maxLength the maximum length of the content
+    * @param truncateOnLimit If we reach the maximum length, should the content simply be truncated?
+    * @param bufferPool The pool used to buffer content, or {@code null} to buffer on the heap.
+    * @param growth The growth strategy for heap buffers when the content length is unknown.
+    */
+   public BufferingResponseListener(final int maxLength,
+                                    final boolean truncateOnLimit,
+                                    final ResponseBufferPool bufferPool,
+                                    final ResponseBufferGrowth growth) {
       super(maxLength, truncateOnLimit);
+      this.bufferPool = bufferPool;
+      this.segments = bufferPool != null ? Lists.newArrayListWithCapacity(4) : null;
+      this.growth = growth;
+   }
+
+   @Override
+   public void onHeaders(Response response) {
+      super.onHeaders(response);
+
+      if(segments != null || buffer != null || HttpMethod.HEAD.is(response.getRequest().getMethod())) {
+         return;
+      }
+
+      long length = response.getHeaders().getLongField(HttpHeader.CONTENT_LENGTH);
+      if(length > 0L && (length <= maxLength || truncateOnLimit)) {
+         buffer = BufferUtil.allocate((int)Math.min(length, maxLength));
+      }
    }
 
    @Override
    public void onContent(Response response, ByteBuffer content) {
       super.onContent(response, content);
 
+      if(segments != null) {
+         appendSegments(response, content);
+         return;
+      }
+
       int length = content.remaining();
       if(length > BufferUtil.space(buffer)) {
          int remaining = buffer == null ? 0 : buffer.remaining();
          if(remaining + length > maxLength) {
             response.abort(new CapacityReached("Buffering capacity " + maxLength + " exceeded"));
          }
-         int requiredCapacity = buffer == null ? length : buffer.capacity() + length;
-         int newCapacity = Math.min(Integer.highestOneBit(requiredCapacity) << 1, maxLength);
+         int requiredCapacity = remaining + length;
+         int newCapacity = Math.min(growth.capacity(requiredCapacity), maxLength);
+         if(buffer != null && newCapacity > buffer.capacity()) {
+            responseBufferReallocations++;
+         }
          buffer = BufferUtil.ensureCapacity(buffer, newCapacity);
       }
       BufferUtil.append(buffer, content);
    }
 
+   /**
+    * Appends content to pooled segments, acquiring new segments as required.
+    * @param response The response.
+    * @param content The content.
+    */
+   private void appendSegments(final Response response, final ByteBuffer content) {
+      int length = content.remaining();
+      if(segmentsLength + length > maxLength) {
+         response.abort(new CapacityReached("Buffering capacity " + maxLength + " exceeded"));
+         length = maxLength - segmentsLength;
+      }
+
+      while(length > 0) {
+         if(segment == null || BufferUtil.space(segment.getByteBuffer()) == 0) {
+            segment = bufferPool.pool.acquire(bufferPool.segmentSize, bufferPool.direct);
+            segments.add(segment);
+         }
+         ByteBuffer segmentBuffer = segment.getByteBuffer();
+         int appendLength = Math.min(length, BufferUtil.space(segmentBuffer));
+         ByteBuffer slice = content.slice();
+         slice.limit(appendLength);
+         BufferUtil.append(segmentBuffer, slice);
+         content.position(content.position() + appendLength);
+         segmentsLength += appendLength;
+         length -= appendLength;
+      }
+   }
+
+   /**
+    * Releases all pooled segments.
+    */
+   private void releaseSegments() {
+      for(RetainableByteBuffer pooled : segments) {
+         pooled.release();
+      }
+      segments.clear();
+      segment = null;
+   }
+
    /**
     * Called when the request is completed with success.
     * @param response The complete response.
@@ -67,11 +159,14 @@ abstract class BufferingResponseListener extends BaseResponseListener {
    public void onComplete(Result result) {
       if(!result.isFailed()) {
          ResponseBuilder builder = fromResult(result, false);
-         completed(builder.create());
+         completed(segments != null ? builder.createPooled(this::releaseSegments) : builder.create());
       } else if(truncateOnLimit && result.getFailure() instanceof CapacityReached) {
          ResponseBuilder builder = fromResult(result, true);
-         completed(builder.create());
+         completed(segments != null ? builder.createPooled(this::releaseSegments) : builder.create());
       } else {
+         if(segments != null) {
+            releaseSegments();
+         }
          failed(result.getFailure());
       }
    }
@@ -85,9 +180,10 @@ abstract class BufferingResponseListener extends BaseResponseListener {
       response.getHeaders().forEach(header -> {
          builder.addHeader(header.getName(), header.getValue()); //Note that getValues returns quoted csv so don't want that.
       });
-      byte[] responseContent = getContent();
-      if(responseContent != null) {
-         builder.setBody(responseContent);
+      if(segments != null) {
+         builder.setBody(segmentsContent());
+      } else {
+         builder.setBody(heapContent());
       }
       builder.setStats(stats());
 
@@ -99,15 +195,161 @@ abstract class BufferingResponseListener extends BaseResponseListener {
    }
 
    /**
-    * Gets the content.
+    * Gets the content held in the heap buffer.
+    * <p>
+    *    If the buffer is exactly filled, as it is when it was sized from the {@code Content-Length},
+    *    it is wrapped without copying. Otherwise, the content is copied once so the unused
+    *    capacity is not retained.
+    * </p>
+    * @return The content.
+    */
+   private ByteString heapContent() {
+      if(buffer == null || !buffer.hasRemaining()) {
+         return ByteString.EMPTY;
+      } else if(buffer.remaining() == buffer.capacity() && buffer.hasArray()) {
+         return UnsafeByteOperations.unsafeWrap(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+      } else {
+         return ByteString.copyFrom(buffer.duplicate());
+      }
+   }
+
+   /**
+    * Gets the content held in pooled segments without copying.
     * @return The content.
     */
-   public byte[] getContent() {
-      return buffer != null ? BufferUtil.toArray(buffer) : new byte[0];
+   private ByteString segmentsContent() {
+      if(segments.isEmpty()) {
+         return ByteString.EMPTY;
+      }
+      List<ByteString> pieces = Lists.newArrayListWithCapacity(segments.size());
+      for(RetainableByteBuffer pooled : segments) {
+         pieces.add(UnsafeByteOperations.unsafeWrap(pooled.getByteBuffer()));
+      }
+      return ByteString.copyFrom(pieces);
+   }
+
+   /**
+    * Configures buffering of response content in pooled segments.
+    */
+   static final class ResponseBufferPool {
+
+      /**
+       * Creates the pool configuration.
+       * @param pool The buffer pool.
+       * @param segmentSize The minimum size of each segment.
+       * @param direct Should direct buffers be acquired?
+       */
+      ResponseBufferPool(final ByteBufferPool pool, final int segmentSize, final boolean direct) {
+         this.pool = pool;
+         this.segmentSize = segmentSize;
+         this.direct = direct;
+      }
+
+      /**
+       * The buffer pool.
+       */
+      final ByteBufferPool pool;
+
+      /**
+       * The minimum size of each segment.
+       */
+      final int segmentSize;
+
+      /**
+       * Should direct buffers be acquired?
+       */
+      final boolean direct;
+   }
+
+   /**
+    * Selects the capacity of heap buffers as content is received when the length is not known in advance.
+    * <p>
+    *    Capacities are chosen from size classes that start at an initial size and grow geometrically
+    *    by a factor. The smallest class that holds all content received so far is selected.
+    * </p>
+    */
+   static final class ResponseBufferGrowth {
+
+      /**
+       * The default growth: 4K initial size, doubling.
+       */
+      static final ResponseBufferGrowth DEFAULT = new ResponseBufferGrowth(4096, 2.0);
+
+      /**
+       * Creates the growth strategy.
+       * @param initialSize The smallest size class.
+       * @param factor The factor by which each size class exceeds the previous. Must be {@code > 1}.
+       */
+      ResponseBufferGrowth(final int initialSize, final double factor) {
+         if(initialSize < 1) {
+            throw new IllegalArgumentException("Invalid initial size " + initialSize);
+         }
+         if(!(factor > 1.0)) {
+            throw new IllegalArgumentException("Invalid growth factor " + factor);
+         }
+         this.initialSize = initialSize;
+         this.factor = factor;
+      }
+
+      /**
+       * Gets the smallest size class that holds the required capacity.
+       * @param requiredCapacity The required capacity.
+       * @return The capacity.
+       */
+      int capacity(final int requiredCapacity) {
+         long capacity = initialSize;
+         while(capacity < requiredCapacity) {
+            capacity = Math.max(capacity + 1, (long)(capacity * factor));
+         }
+         return (int)Math.min(capacity, Integer.MAX_VALUE - 8);
+      }
+
+      @Override
+      public String toString() {
+         return MoreObjects.toStringHelper(this)
+                 .add("initialSize", initialSize)
+                 .add("factor", factor)
+                 .toString();
+      }
+
+      /**
+       * The smallest size class.
+       */
+      final int initialSize;
+
+      /**
+       * The factor by which each size class exceeds the previous.
+       */
+      final double factor;
    }
 
    /**
     * Holds the response content.
     */
    private ByteBuffer buffer;
+
+   /**
+    * The growth strategy for the heap buffer.
+    */
+   private final ResponseBufferGrowth growth;
+
+   /**
+    * The pool used to buffer content, or {@code null} if content is buffered on the heap.
+    */
+   private final ResponseBufferPool bufferPool;
+
+   /**
+    * The pooled segments that hold the response content, or {@code null} if content is buffered on the heap.
+    */
+   private final List<RetainableByteBuffer.Mutable> segments;
+
+   /**
+    * The segment currently being filled.
+    */
+   private RetainableByteBuffer.Mutable segment;
+
+   /**
+    * The total length of content held in segments.
+    */
+   private int segmentsLength;
 }
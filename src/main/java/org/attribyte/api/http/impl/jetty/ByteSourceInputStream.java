@@ -0,0 +1,84 @@
+/*
+ * Copyright 2026 Attribyte Labs, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ *
+ */
+
+package org.attribyte.api.http.impl.jetty;
+
+import com.google.common.io.ByteSource;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * An input stream that opens a byte source when it is first read, so a request that fails
+ * before its content is sent doesn't hold an open stream.
+ */
+class ByteSourceInputStream extends InputStream {
+
+   /**
+    * Creates the stream.
+    * @param source The source.
+    */
+   ByteSourceInputStream(final ByteSource source) {
+      this.source = source;
+   }
+
+   @Override
+   public int read() throws IOException {
+      return stream().read();
+   }
+
+   @Override
+   public int read(final byte[] b, final int off, final int len) throws IOException {
+      return stream().read(b, off, len);
+   }
+
+   @Override
+   public int available() throws IOException {
+      return stream != null ? stream.available() : 0;
+   }
+
+   @Override
+   public void close() throws IOException {
+      closed = true;
+      if(stream != null) {
+         stream.close();
+      }
+   }
+
+   private InputStream stream() throws IOException {
+      if(stream == null) {
+         if(closed) {
+            throw new IOException("Stream closed");
+         }
+         stream = source.openStream();
+      }
+      return stream;
+   }
+
+   /**
+    * The source.
+    */
+   private final ByteSource source;
+
+   /**
+    * The stream, or {@code null} if not yet opened.
+    */
+   private InputStream stream;
+
+   /**
+    * Was the stream closed?
+    */
+   private boolean closed;
+}
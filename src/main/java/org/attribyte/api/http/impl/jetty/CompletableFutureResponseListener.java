@@ -14,20 +14,26 @@
  */
 package org.attribyte.api.http.impl.jetty;
 
+import org.attribyte.api.http.PooledBodyResponse;
+
 import java.util.concurrent.CompletableFuture;
 
 class CompletableFutureResponseListener extends BufferingResponseListener {
 
    CompletableFutureResponseListener(final CompletableFuture<org.attribyte.api.http.Response> fut,
                                      final int maxResponseBytes,
-                                     final boolean truncateOnLimit) {
-      super(maxResponseBytes, truncateOnLimit);
+                                     final boolean truncateOnLimit,
+                                     final ResponseBufferPool bufferPool,
+                                     final ResponseBufferGrowth growth) {
+      super(maxResponseBytes, truncateOnLimit, bufferPool, growth);
       this.fut = fut;
    }
 
    @Override
    protected void completed(final org.attribyte.api.http.Response response) {
-      fut.complete(response);
+      if(!fut.complete(response) && response instanceof PooledBodyResponse) { //Cancelled
+         ((PooledBodyResponse)response).close();
+      }
    }
 
    @Override
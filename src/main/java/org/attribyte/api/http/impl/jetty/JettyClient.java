@@ -14,19 +14,25 @@
  */
 package org.attribyte.api.http.impl.jetty;
 
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableList;
 import com.google.common.io.ByteSource;
 import com.google.common.util.concurrent.ListenableFuture;
-import com.google.common.util.concurrent.SettableFuture;
 import org.attribyte.api.InitializationException;
 import org.attribyte.api.Logger;
 import org.attribyte.api.http.AsyncClient;
+import org.attribyte.api.http.ClientMetrics;
 import org.attribyte.api.http.ClientOptions;
 import org.attribyte.api.http.Parameter;
+import org.attribyte.api.http.PathByteSource;
 import org.attribyte.api.http.RequestOptions;
 import org.attribyte.api.http.Response;
 import org.attribyte.api.http.ResponseBuilder;
 import org.attribyte.api.http.StreamedResponse;
+import org.attribyte.api.http.TimingAggregator;
 import org.eclipse.jetty.client.ByteBufferRequestContent;
+import org.eclipse.jetty.client.InputStreamRequestContent;
+import org.eclipse.jetty.client.PathRequestContent;
 import org.eclipse.jetty.client.HttpClient;
 import org.eclipse.jetty.client.HttpProxy;
 import org.eclipse.jetty.client.InputStreamResponseListener;
@@ -36,10 +42,12 @@ import org.eclipse.jetty.http.HttpCookieStore;
 import org.eclipse.jetty.http.HttpField;
 import org.eclipse.jetty.http.HttpHeader;
 import org.eclipse.jetty.http.HttpMethod;
+import org.eclipse.jetty.io.ByteBufferPool;
 
 import java.io.BufferedInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.util.Collection;
 import java.util.Properties;
 import java.util.concurrent.CompletableFuture;
@@ -67,22 +75,129 @@ public class JettyClient implements AsyncClient {
 
    private void initFromOptions(final ClientOptions options) throws InitializationException {
       this.httpClient = jettyClientFromOptions(options);
+      this.httpClient.getRequestListeners().addListener(metricsListener);
       try {
          this.httpClient.start();
       } catch(Exception e) {
          throw new InitializationException("Problem starting client", e);
       }
+      this.responseBufferPool = responseBufferPoolFromOptions(options, httpClient);
+      this.responseBufferGrowth = responseBufferGrowthFromOptions(options);
+      this.timingAggregator = timingAggregatorFromOptions(options);
+      this.listeners = listenersFromOptions(options);
+   }
+
+   /**
+    * Creates the listeners notified of events for every request from options.
+    * <p>
+    *    The {@code listeners} property is a comma-separated list of {@code Listener} class names.
+    *    Each class must have a public no-argument constructor. A single instance of each is shared
+    *    by all requests, so listeners must be thread-safe.
+    * </p>
+    * @param options The options.
+    * @return The listeners.
+    * @throws InitializationException if a listener could not be created.
+    */
+   private static ImmutableList<Listener> listenersFromOptions(final ClientOptions options) throws InitializationException {
+      String listenerClasses = options.getProperty("listeners", "");
+      ImmutableList.Builder<Listener> listeners = ImmutableList.builder();
+      for(String className : Splitter.on(',').omitEmptyStrings().trimResults().split(listenerClasses)) {
+         try {
+            listeners.add(Class.forName(className).asSubclass(Listener.class).getConstructor().newInstance());
+         } catch(ReflectiveOperationException | ClassCastException e) {
+            throw new InitializationException("Unable to create listener, '" + className + "'", e);
+         }
+      }
+      return listeners.build();
+   }
+
+   /**
+    * Creates the timing aggregator from options.
+    * <p>
+    *    Aggregation is enabled with the {@code aggregateTiming} property. Percentiles are reported
+    *    for between one and two windows of {@code timingWindow} (default {@code 60s}).
+    * </p>
+    * @param options The options.
+    * @return The aggregator, or {@code null} if timing is not aggregated.
+    * @throws InitializationException if the window is invalid.
+    */
+   private static TimingAggregator timingAggregatorFromOptions(final ClientOptions options) throws InitializationException {
+      if(options.getBooleanProperty("aggregateTiming", false)) {
+         int windowMillis = options.getTimeProperty("timingWindow", 60000);
+         if(windowMillis < 1) {
+            throw new InitializationException("The 'timingWindow' must be > 0");
+         }
+         return new TimingAggregator(windowMillis, TimeUnit.MILLISECONDS);
+      } else {
+         return null;
+      }
+   }
+
+   /**
+    * Creates the heap response buffer growth strategy from options.
+    * <p>
+    *    When the response length is known, the buffer is allocated once. Otherwise, it grows through size classes
+    *    that start at {@code responseBufferInitialSize} bytes, each {@code responseBufferGrowthFactor} times the previous.
+    * </p>
+    * @param options The options.
+    * @return The growth strategy.
+    * @throws InitializationException if the initial size or growth factor is invalid.
+    */
+   private static BufferingResponseListener.ResponseBufferGrowth responseBufferGrowthFromOptions(final ClientOptions options)
+           throws InitializationException {
+      BufferingResponseListener.ResponseBufferGrowth defaultGrowth = BufferingResponseListener.ResponseBufferGrowth.DEFAULT;
+      int initialSize = options.getIntProperty("responseBufferInitialSize", defaultGrowth.initialSize);
+      String factorStr = options.getProperty("responseBufferGrowthFactor", null);
+      try {
+         double factor = factorStr != null ? Double.parseDouble(factorStr) : defaultGrowth.factor;
+         return new BufferingResponseListener.ResponseBufferGrowth(initialSize, factor);
+      } catch(IllegalArgumentException iae) {
+         throw new InitializationException("Invalid response buffer growth", iae);
+      }
+   }
+
+   /**
+    * Creates the pooled response buffer configuration from options.
+    * <p>
+    *    Pooled buffering is enabled with the {@code pooledResponseBuffers} property. When enabled,
+    *    buffered responses are {@code PooledBodyResponse} and must be closed.
+    *    Segments are at least {@code pooledResponseSegmentSize} bytes, and are direct buffers if
+    *    {@code directResponseBuffers} is {@code true}.
+    * </p>
+    * @param options The options.
+    * @param httpClient The started client that supplies the buffer pool.
+    * @return The configuration, or {@code null} if pooled buffering is disabled.
+    * @throws InitializationException if the segment size is invalid.
+    */
+   private static BufferingResponseListener.ResponseBufferPool responseBufferPoolFromOptions(final ClientOptions options,
+                                                                                             final HttpClient httpClient)
+           throws InitializationException {
+      if(options.getBooleanProperty("pooledResponseBuffers", false)) {
+         int segmentSize = options.getIntProperty("pooledResponseSegmentSize",
+                 options.responseBufferSize > 0 ? options.responseBufferSize : 16384);
+         if(segmentSize < 1) {
+            throw new InitializationException("The 'pooledResponseSegmentSize' must be > 0");
+         }
+         return new BufferingResponseListener.ResponseBufferPool(httpClient.getByteBufferPool(), segmentSize,
+                 options.getBooleanProperty("directResponseBuffers", false));
+      } else {
+         return null;
+      }
    }
 
    /**
     * Creates and initializes a new Jetty client from HTTP client options.
+    * <p>
+    *    If the protocol is {@code HTTP_2} or {@code H2C}, {@code jetty-http2-client-transport} is required.
+    * </p>
     * @param options The options.
     * @return The initialized (but not started) client.
     */
    public static HttpClient jettyClientFromOptions(final ClientOptions options) {
 
       if(options != ClientOptions.IMPLEMENTATION_DEFAULT) {
-         HttpClient httpClient = new HttpClient();
+         HttpClient httpClient = options.protocol == ClientOptions.Protocol.HTTP_1_1 ?
+                 new HttpClient() : new HttpClient(MultiplexTransport.create(options));
          httpClient.setFollowRedirects(options.followRedirects);
          httpClient.setConnectTimeout(options.connectionTimeoutMillis);
          httpClient.setMaxConnectionsPerDestination(options.maxConnectionsPerDestination);
@@ -136,19 +251,35 @@ public class JettyClient implements AsyncClient {
 
    @Override
    public ListenableFuture<org.attribyte.api.http.Response> asyncSend(org.attribyte.api.http.Request request, RequestOptions options) {
-      final SettableFuture<org.attribyte.api.http.Response> fut = SettableFuture.create();
-      final ListenableFutureResponseListener listener =
-              new ListenableFutureResponseListener(fut, options.maxResponseBytes, options.truncateOnLimit);
-      toJettyRequest(request)
-              .followRedirects(options.followRedirects)
-              .onRequestQueued(listener)
-              .onRequestBegin(listener)
-              .onRequestHeaders(listener)
-              .onRequestCommit(listener)
-              .onRequestContent(listener)
-              .onRequestSuccess(listener)
-              .onRequestFailure(listener)
-              .send(listener);
+      return asyncSend(request, options, null);
+   }
+
+   /**
+    * Sends a request asynchronously, notifying an additional listener of request and response events.
+    * <p>
+    *    Cancelling the future aborts the request.
+    * </p>
+    * @param request The request.
+    * @param options The request options.
+    * @param listener The additional listener, or {@code null} if none.
+    * @return The future response.
+    */
+   public ListenableFuture<org.attribyte.api.http.Response> asyncSend(final org.attribyte.api.http.Request request,
+                                                                      final RequestOptions options,
+                                                                      final Listener listener) {
+      final AbortableListenableFuture fut = new AbortableListenableFuture();
+      final ListenableFutureResponseListener responseListener =
+              new ListenableFutureResponseListener(fut, options.maxResponseBytes, options.truncateOnLimit, responseBufferPool, responseBufferGrowth);
+      configureStats(responseListener, request, options);
+      final Request jettyRequest;
+      try {
+         jettyRequest = toJettyRequest(request);
+      } catch(IOException ioe) {
+         fut.setException(ioe);
+         return fut;
+      }
+      send(jettyRequest, options, responseListener, listener);
+      fut.setRequest(jettyRequest);
       return fut;
    }
 
@@ -159,19 +290,35 @@ public class JettyClient implements AsyncClient {
 
    @Override
    public CompletableFuture<Response> completableSend(org.attribyte.api.http.Request request, RequestOptions options) {
-      final CompletableFuture<org.attribyte.api.http.Response> fut = new CompletableFuture<>();
-      final CompletableFutureResponseListener listener =
-              new CompletableFutureResponseListener(fut, options.maxResponseBytes, options.truncateOnLimit);
-      toJettyRequest(request)
-              .followRedirects(options.followRedirects)
-              .onRequestQueued(listener)
-              .onRequestBegin(listener)
-              .onRequestHeaders(listener)
-              .onRequestCommit(listener)
-              .onRequestContent(listener)
-              .onRequestSuccess(listener)
-              .onRequestFailure(listener)
-              .send(listener);
+      return completableSend(request, options, null);
+   }
+
+   /**
+    * Sends a request asynchronously, notifying an additional listener of request and response events.
+    * <p>
+    *    Cancelling the future aborts the request.
+    * </p>
+    * @param request The request.
+    * @param options The request options.
+    * @param listener The additional listener, or {@code null} if none.
+    * @return The future response.
+    */
+   public CompletableFuture<Response> completableSend(final org.attribyte.api.http.Request request,
+                                                      final RequestOptions options,
+                                                      final Listener listener) {
+      final AbortableFuture fut = new AbortableFuture();
+      final CompletableFutureResponseListener responseListener =
+              new CompletableFutureResponseListener(fut, options.maxResponseBytes, options.truncateOnLimit, responseBufferPool, responseBufferGrowth);
+      configureStats(responseListener, request, options);
+      final Request jettyRequest;
+      try {
+         jettyRequest = toJettyRequest(request);
+      } catch(IOException ioe) {
+         fut.completeExceptionally(ioe);
+         return fut;
+      }
+      send(jettyRequest, options, responseListener, listener);
+      fut.setRequest(jettyRequest);
       return fut;
    }
 
@@ -185,16 +332,15 @@ public class JettyClient implements AsyncClient {
       final CompletableFuture<org.attribyte.api.http.Response> fut = new CompletableFuture<>();
       final TestResponseListener listener =
               new TestResponseListener(fut);
-      toJettyRequest(request)
-              .followRedirects(options.followRedirects)
-              .onRequestQueued(listener)
-              .onRequestBegin(listener)
-              .onRequestHeaders(listener)
-              .onRequestCommit(listener)
-              .onRequestContent(listener)
-              .onRequestSuccess(listener)
-              .onRequestFailure(listener)
-              .send(listener);
+      configureStats(listener, request, options);
+      final Request jettyRequest;
+      try {
+         jettyRequest = toJettyRequest(request);
+      } catch(IOException ioe) {
+         fut.completeExceptionally(ioe);
+         return fut;
+      }
+      send(jettyRequest, options, listener, null);
       return fut;
    }
 
@@ -218,8 +364,11 @@ public class JettyClient implements AsyncClient {
 
       InputStreamResponseListener inputStreamListener = new InputStreamResponseListener();
 
-      toJettyRequest(request)
-              .send(inputStreamListener);
+      try {
+         toJettyRequest(request).send(inputStreamListener);
+      } catch(IOException ioe) {
+         throw new ExecutionException(ioe);
+      }
 
       org.eclipse.jetty.client.Response response =
               inputStreamListener.get(timeout, timeoutUnits);
@@ -241,13 +390,37 @@ public class JettyClient implements AsyncClient {
       return responseBuilder.createStreamed();
    }
 
+   /**
+    * Gets a snapshot of connection pool and request queue metrics.
+    * <p>
+    *    Connection counts and queue depth are reported for each destination the client currently has.
+    *    Queue wait time (from queued until a connection is acquired) and requests rejected because
+    *    {@code maxRequestsQueuedPerDestination} was exceeded are accumulated since the client started.
+    * </p>
+    * @return The metrics.
+    */
+   public ClientMetrics metrics() {
+      return metricsListener.metrics(httpClient);
+   }
+
+   /**
+    * Gets the aggregator that receives the timing for completed requests.
+    * <p>
+    *    Timing is aggregated for every request, including those sent with {@code StatsLevel.OFF}.
+    * </p>
+    * @return The aggregator, or {@code null} if the {@code aggregateTiming} property is not set.
+    */
+   public TimingAggregator timingAggregator() {
+      return timingAggregator;
+   }
+
    @Override
    public void shutdown() throws Exception {
       httpClient.stop();
    }
 
 
-   private Request toJettyRequest(org.attribyte.api.http.Request request) {
+   private Request toJettyRequest(org.attribyte.api.http.Request request) throws IOException {
 
       final Request jettyRequest = httpClient.newRequest(request.getURI());
       switch(request.getMethod()) {
@@ -264,20 +437,20 @@ public class JettyClient implements AsyncClient {
                for(Parameter parameter : parameters) {
                   jettyRequest.param(parameter.getName(), parameter.getValue());
                }
-            } else if(request.getBody() != null) {
-               jettyRequest.body(new ByteBufferRequestContent(request.getBody().asReadOnlyByteBuffer()));
+            } else if(hasBody(request)) {
+               jettyRequest.body(requestContent(request));
             }
             break;
          case PUT:
             jettyRequest.method(HttpMethod.PUT);
-            if(request.getBody() != null) {
-               jettyRequest.body(new ByteBufferRequestContent(request.getBody().asReadOnlyByteBuffer()));
+            if(hasBody(request)) {
+               jettyRequest.body(requestContent(request));
             }
             break;
          case PATCH:
             jettyRequest.method("PATCH");
-            if(request.getBody() != null) {
-               jettyRequest.body(new ByteBufferRequestContent(request.getBody().asReadOnlyByteBuffer()));
+            if(hasBody(request)) {
+               jettyRequest.body(requestContent(request));
             }
             break;
          case DELETE:
@@ -297,6 +470,129 @@ public class JettyClient implements AsyncClient {
       return jettyRequest;
    }
 
+   /**
+    * Sends a Jetty request, registering a single listener for all request and response events.
+    * <p>
+    *    If the client has listeners, or there is an additional listener for the request,
+    *    they are notified after the response listener.
+    * </p>
+    * @param jettyRequest The request.
+    * @param options The request options.
+    * @param responseListener The listener that completes the response.
+    * @param listener An additional listener for the request, or {@code null} if none.
+    */
+   private void send(final Request jettyRequest, final RequestOptions options,
+                     final Listener responseListener, final Listener listener) {
+      final Listener effectiveListener;
+      if(listeners.isEmpty() && listener == null) {
+         effectiveListener = responseListener;
+      } else {
+         ImmutableList.Builder<Listener> chain = ImmutableList.builderWithExpectedSize(listeners.size() + 2);
+         chain.add(responseListener).addAll(listeners);
+         if(listener != null) {
+            chain.add(listener);
+         }
+         ImmutableList<Listener> chainListeners = chain.build();
+         effectiveListener = new ListenerChain(chainListeners, chainListeners);
+      }
+      jettyRequest
+              .followRedirects(options.followRedirects)
+              .onRequestListener(effectiveListener)
+              .send(effectiveListener);
+   }
+
+   /**
+    * Configures the stats collected by a listener, and reports timing to the aggregator if timing is aggregated.
+    * @param listener The listener.
+    * @param request The request.
+    * @param options The request options.
+    */
+   private void configureStats(final StatsListener listener, final org.attribyte.api.http.Request request,
+                               final RequestOptions options) {
+      if(options.statsLevel != RequestOptions.StatsLevel.FULL) {
+         listener.statsLevel(options.statsLevel);
+      }
+      if(timingAggregator != null) {
+         listener.aggregateTiming(timingAggregator, request.getURI().getHost(),
+                 TimingAggregator.port(request.getURI()), request.getStatsTag());
+      }
+   }
+
+   /**
+    * Does a request have a body?
+    * @param request The request.
+    * @return Does the request have a body?
+    */
+   private static boolean hasBody(final org.attribyte.api.http.Request request) {
+      return request.getBody() != null || request.getBodySource() != null;
+   }
+
+   /**
+    * Creates the content for a request body without copying.
+    * <p>
+    *    Files are sent directly from the path and other sources are streamed. A stream is opened when the
+    *    content is first read, and closed when it is complete or the request fails.
+    *    A {@code ByteString} is sent as its underlying buffers, so ropes are not flattened.
+    * </p>
+    * @param request The request.
+    * @return The content.
+    * @throws IOException if the body source could not be opened.
+    */
+   private Request.Content requestContent(final org.attribyte.api.http.Request request) throws IOException {
+      final ByteSource bodySource = request.getBodySource();
+      if(bodySource instanceof PathByteSource) {
+         return new PathRequestContent(((PathByteSource)bodySource).path);
+      } else if(bodySource != null) {
+         final ByteBufferPool.Sized bufferPool = new ByteBufferPool.Sized(httpClient.getByteBufferPool());
+         final InputStream bodyStream = new ByteSourceInputStream(bodySource);
+         final com.google.common.base.Optional<Long> size = bodySource.sizeIfKnown();
+         if(size.isPresent()) {
+            final long length = size.get();
+            return new InputStreamRequestContent(STREAM_CONTENT_TYPE, bodyStream, bufferPool) {
+               @Override
+               public long getLength() {
+                  return length;
+               }
+            };
+         } else {
+            return new InputStreamRequestContent(STREAM_CONTENT_TYPE, bodyStream, bufferPool);
+         }
+      } else {
+         return new ByteBufferRequestContent(request.getBody().asReadOnlyByteBufferList().toArray(new ByteBuffer[0]));
+      }
+   }
+
+   /**
+    * The content type for streamed request bodies, if the request has no {@code Content-Type} header.
+    */
+   private static final String STREAM_CONTENT_TYPE = "application/octet-stream";
+
    private HttpClient httpClient;
+
+   /**
+    * Configures pooled buffering of response content, or {@code null} if content is buffered on the heap.
+    */
+   private BufferingResponseListener.ResponseBufferPool responseBufferPool;
+
+   /**
+    * The growth strategy for heap response buffers.
+    */
+   private BufferingResponseListener.ResponseBufferGrowth responseBufferGrowth = BufferingResponseListener.ResponseBufferGrowth.DEFAULT;
+
+   /**
+    * Listeners notified of events for every request, after the response listener.
+    */
+   private ImmutableList<Listener> listeners = ImmutableList.of();
+
+   /**
+    * Aggregates timing for completed requests, or {@code null} if timing is not aggregated.
+    */
+   private TimingAggregator timingAggregator;
+
+   /**
+    * Records queue wait time and rejected requests for all requests.
+    */
+   private final MetricsListener metricsListener = new MetricsListener();
+
    private final AtomicBoolean isInit = new AtomicBoolean(false);
 }
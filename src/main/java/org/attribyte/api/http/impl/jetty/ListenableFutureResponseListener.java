@@ -15,20 +15,24 @@
 
 package org.attribyte.api.http.impl.jetty;
 
-import com.google.common.util.concurrent.SettableFuture;
+import org.attribyte.api.http.PooledBodyResponse;
 
 class ListenableFutureResponseListener extends BufferingResponseListener {
 
-   ListenableFutureResponseListener(final SettableFuture<org.attribyte.api.http.Response> fut,
+   ListenableFutureResponseListener(final AbortableListenableFuture fut,
                                     final int maxResponseBytes,
-                                    final boolean truncateOnLimit) {
-      super(maxResponseBytes, truncateOnLimit);
+                                    final boolean truncateOnLimit,
+                                    final ResponseBufferPool bufferPool,
+                                    final ResponseBufferGrowth growth) {
+      super(maxResponseBytes, truncateOnLimit, bufferPool, growth);
       this.fut = fut;
    }
 
    @Override
    protected void completed(final org.attribyte.api.http.Response response) {
-      fut.set(response);
+      if(!fut.set(response) && response instanceof PooledBodyResponse) { //Cancelled
+         ((PooledBodyResponse)response).close();
+      }
    }
 
    @Override
@@ -39,5 +43,5 @@ class ListenableFutureResponseListener extends BufferingResponseListener {
    /**
     * The future result.
     */
-   private final SettableFuture<org.attribyte.api.http.Response> fut;
+   private final AbortableListenableFuture fut;
 }
@@ -34,7 +34,8 @@ public class ListenerChain implements Listener {
     * @param requestListeners The request listeners.
     * @param responseListeners The response listeners.
     */
-   public ListenerChain(final List<Request.Listener> requestListeners, final List<Response.Listener> responseListeners) {
+   public ListenerChain(final List<? extends Request.Listener> requestListeners,
+                        final List<? extends Response.Listener> responseListeners) {
       this.requestListeners = requestListeners != null ? ImmutableList.copyOf(requestListeners) : ImmutableList.of();
       this.responseListeners = responseListeners != null ? ImmutableList.copyOf(responseListeners) : ImmutableList.of();
    }
@@ -49,52 +50,72 @@ public class ListenerChain implements Listener {
 
    @Override
    public void onQueued(Request request) {
-      requestListeners.forEach(l -> l.onQueued(request));
+      for(final Request.Listener listener : requestListeners) {
+         listener.onQueued(request);
+      }
    }
 
    @Override
    public void onBegin(Request request) {
-      requestListeners.forEach(l -> l.onBegin(request));
+      for(final Request.Listener listener : requestListeners) {
+         listener.onBegin(request);
+      }
    }
 
    @Override
    public void onHeaders(Request request) {
-      requestListeners.forEach(l -> l.onHeaders(request));
+      for(final Request.Listener listener : requestListeners) {
+         listener.onHeaders(request);
+      }
    }
 
    @Override
    public void onCommit(Request request) {
-      requestListeners.forEach(l -> l.onCommit(request));
+      for(final Request.Listener listener : requestListeners) {
+         listener.onCommit(request);
+      }
    }
 
    @Override
    public void onContent(Request request, ByteBuffer content) {
-      requestListeners.forEach(l -> l.onContent(request, content));
+      for(final Request.Listener listener : requestListeners) {
+         listener.onContent(request, content);
+      }
    }
 
    @Override
    public void onSuccess(Request request) {
-      requestListeners.forEach(l -> l.onSuccess(request));
+      for(final Request.Listener listener : requestListeners) {
+         listener.onSuccess(request);
+      }
    }
 
    @Override
    public void onFailure(Request request, Throwable failure) {
-      requestListeners.forEach(l -> l.onFailure(request, failure));
+      for(final Request.Listener listener : requestListeners) {
+         listener.onFailure(request, failure);
+      }
    }
 
    @Override
    public void onBegin(final Response response) {
-      responseListeners.forEach(l -> l.onBegin(response));
+      for(final Response.Listener listener : responseListeners) {
+         listener.onBegin(response);
+      }
    }
 
    @Override
    public void onComplete(final Result result) {
-      responseListeners.forEach(l -> l.onComplete(result));
+      for(final Response.Listener listener : responseListeners) {
+         listener.onComplete(result);
+      }
    }
 
    @Override
    public void onContent(final Response response, final ByteBuffer byteBuffer) {
-      responseListeners.forEach(l -> l.onContent(response, byteBuffer));
+      for(final Response.Listener listener : responseListeners) {
+         listener.onContent(response, byteBuffer);
+      }
    }
 
    @Override
@@ -110,17 +131,23 @@ public class ListenerChain implements Listener {
 
    @Override
    public void onFailure(final Response response, final Throwable throwable) {
-      responseListeners.forEach(l -> l.onFailure(response, throwable));
+      for(final Response.Listener listener : responseListeners) {
+         listener.onFailure(response, throwable);
+      }
    }
 
    @Override
    public void onHeaders(final Response response) {
-      responseListeners.forEach(l -> l.onHeaders(response));
+      for(final Response.Listener listener : responseListeners) {
+         listener.onHeaders(response);
+      }
    }
 
    @Override
    public void onSuccess(final Response response) {
-      responseListeners.forEach(l -> l.onSuccess(response));
+      for(final Response.Listener listener : responseListeners) {
+         listener.onSuccess(response);
+      }
    }
 
    /**
@@ -0,0 +1,196 @@
+/*
+ * Copyright 2026 Attribyte Labs, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ *
+ */
+
+package org.attribyte.api.http.impl.jetty;
+
+import com.google.common.collect.Maps;
+import org.attribyte.api.http.ClientMetrics;
+import org.attribyte.api.http.LatencyHistogram;
+import org.eclipse.jetty.client.AbstractConnectionPool;
+import org.eclipse.jetty.client.ConnectionPool;
+import org.eclipse.jetty.client.Destination;
+import org.eclipse.jetty.client.HttpClient;
+import org.eclipse.jetty.client.Origin;
+import org.eclipse.jetty.client.Request;
+import org.eclipse.jetty.client.transport.HttpDestination;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A client-wide request listener that records, for each destination, the time requests wait
+ * for a connection and the number of requests rejected because the destination queue is full.
+ * <p>
+ *    Stats for a destination without requests for {@link ClientMetrics#DESTINATION_EXPIRY_MILLIS} are discarded.
+ * </p>
+ */
+final class MetricsListener implements Request.Listener {
+
+   @Override
+   public void onQueued(final Request request) {
+      request.attribute(QUEUED_TICK_ATTRIBUTE, System.nanoTime());
+   }
+
+   @Override
+   public void onBegin(final Request request) {
+      final Object queuedTick = request.getAttributes().get(QUEUED_TICK_ATTRIBUTE);
+      if(queuedTick != null) {
+         destination(request).queueWaitTime.record(System.nanoTime() - (Long)queuedTick);
+      }
+   }
+
+   @Override
+   public void onFailure(final Request request, final Throwable failure) {
+      if(failure instanceof RejectedExecutionException && !request.getAttributes().containsKey(QUEUED_TICK_ATTRIBUTE)) {
+         destination(request).rejectedRequests.increment();
+      }
+   }
+
+   /**
+    * Creates a metrics snapshot from the current state of a client's destinations.
+    * @param httpClient The client.
+    * @return The metrics.
+    */
+   ClientMetrics metrics(final HttpClient httpClient) {
+      evictIdleDestinations(System.nanoTime());
+      final Map<String, ClientMetrics.Destination> metrics = Maps.newLinkedHashMap();
+      for(Destination destination : httpClient.getDestinations()) {
+         final Origin origin = destination.getOrigin();
+         final String key = ClientMetrics.destinationKey(origin.getScheme(),
+                 origin.getAddress().getHost(), origin.getAddress().getPort());
+         final ConnectionPool pool = destination.getConnectionPool();
+         final ClientMetrics.Destination destinationMetrics;
+         if(pool instanceof AbstractConnectionPool) {
+            final AbstractConnectionPool abstractPool = (AbstractConnectionPool)pool;
+            destinationMetrics = new ClientMetrics.Destination(key,
+                    abstractPool.getActiveConnectionCount(), abstractPool.getIdleConnectionCount(),
+                    abstractPool.getMaxConnectionCount(), queuedRequests(destination), 0L, null);
+         } else {
+            destinationMetrics = new ClientMetrics.Destination(key, -1, -1, -1, queuedRequests(destination), 0L, null);
+         }
+         metrics.merge(key, destinationMetrics, MetricsListener::merge);
+      }
+
+      destinations.forEach((key, stats) -> {
+         final ClientMetrics.Destination current = metrics.get(key);
+         metrics.put(key, current != null ?
+                 new ClientMetrics.Destination(key, current.activeConnections, current.idleConnections,
+                         current.maxConnections, current.queuedRequests,
+                         stats.rejectedRequests.sum(), stats.queueWaitTime.snapshot()) :
+                 new ClientMetrics.Destination(key, 0, 0, -1, 0,
+                         stats.rejectedRequests.sum(), stats.queueWaitTime.snapshot()));
+      });
+      return new ClientMetrics(metrics.values());
+   }
+
+   /**
+    * Gets the number of requests queued for a destination.
+    * @param destination The destination.
+    * @return The number of queued requests, or {@code -1} if unknown.
+    */
+   private static int queuedRequests(final Destination destination) {
+      return destination instanceof HttpDestination ? ((HttpDestination)destination).getQueuedRequestCount() : -1;
+   }
+
+   /**
+    * Merges the metrics for destinations with the same key (for example, with different tags).
+    */
+   private static ClientMetrics.Destination merge(final ClientMetrics.Destination a, final ClientMetrics.Destination b) {
+      return new ClientMetrics.Destination(a.key,
+              sum(a.activeConnections, b.activeConnections), sum(a.idleConnections, b.idleConnections),
+              sum(a.maxConnections, b.maxConnections), sum(a.queuedRequests, b.queuedRequests),
+              0L, null);
+   }
+
+   private static int sum(final int a, final int b) {
+      return a < 0 || b < 0 ? -1 : a + b;
+   }
+
+   private DestinationStats destination(final Request request) {
+      final long nowNanos = System.nanoTime();
+      final long lastEvictionNanos = this.lastEvictionNanos.get();
+      if(nowNanos - lastEvictionNanos >= DESTINATION_EVICTION_INTERVAL_NANOS &&
+              this.lastEvictionNanos.compareAndSet(lastEvictionNanos, nowNanos)) {
+         evictIdleDestinations(nowNanos);
+      }
+
+      final DestinationStats stats = destinations.computeIfAbsent(
+              ClientMetrics.destinationKey(request.getScheme(), request.getHost(), request.getPort()),
+              key -> new DestinationStats());
+      stats.lastRecordedNanos = nowNanos;
+      return stats;
+   }
+
+   /**
+    * Removes stats for destinations with nothing recorded since the expiry time.
+    * <p>
+    *    A value recorded while stats are removed may be lost.
+    * </p>
+    * @param nowNanos The current time in nanoseconds.
+    */
+   void evictIdleDestinations(final long nowNanos) {
+      destinations.values().removeIf(stats -> nowNanos - stats.lastRecordedNanos >= DESTINATION_EXPIRY_NANOS);
+   }
+
+   /**
+    * Stats recorded for a destination.
+    */
+   private static final class DestinationStats {
+
+      /**
+       * The time requests waited for a connection.
+       */
+      final LatencyHistogram queueWaitTime = new LatencyHistogram(4);
+
+      /**
+       * The number of requests rejected because the queue was full.
+       */
+      final LongAdder rejectedRequests = new LongAdder();
+
+      /**
+       * The time stats were last recorded.
+       */
+      volatile long lastRecordedNanos = System.nanoTime();
+   }
+
+   /**
+    * The time after which stats for a destination without requests are evicted.
+    */
+   private static final long DESTINATION_EXPIRY_NANOS = TimeUnit.MILLISECONDS.toNanos(ClientMetrics.DESTINATION_EXPIRY_MILLIS);
+
+   /**
+    * The minimum time between checks for idle destinations.
+    */
+   private static final long DESTINATION_EVICTION_INTERVAL_NANOS = TimeUnit.MINUTES.toNanos(1L);
+
+   /**
+    * The request attribute that holds the time the request was queued.
+    */
+   private static final String QUEUED_TICK_ATTRIBUTE = MetricsListener.class.getName() + ".queued";
+
+   /**
+    * Stats for each destination, by key.
+    */
+   private final ConcurrentMap<String, DestinationStats> destinations = Maps.newConcurrentMap();
+
+   /**
+    * The time of the last check for idle destinations.
+    */
+   private final AtomicLong lastEvictionNanos = new AtomicLong(System.nanoTime());
+}
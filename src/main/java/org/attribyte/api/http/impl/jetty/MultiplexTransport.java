@@ -0,0 +1,94 @@
+/*
+ * Copyright 2026 Attribyte Labs, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ *
+ */
+package org.attribyte.api.http.impl.jetty;
+
+import org.attribyte.api.http.ClientOptions;
+import org.eclipse.jetty.client.Connection;
+import org.eclipse.jetty.client.ConnectionPool;
+import org.eclipse.jetty.client.Destination;
+import org.eclipse.jetty.client.HttpClientTransport;
+import org.eclipse.jetty.client.MultiplexConnectionPool;
+import org.eclipse.jetty.client.transport.HttpClientConnectionFactory;
+import org.eclipse.jetty.client.transport.HttpClientTransportDynamic;
+import org.eclipse.jetty.http2.client.HTTP2Client;
+import org.eclipse.jetty.http2.client.transport.ClientConnectionFactoryOverHTTP2;
+import org.eclipse.jetty.io.ClientConnectionFactory;
+import org.eclipse.jetty.io.ClientConnector;
+import org.eclipse.jetty.util.ConcurrentPool;
+
+/**
+ * Creates transports that support HTTP/2.
+ * <p>
+ *    HTTP/2 classes are referenced only here so that {@code jetty-http2-client-transport}
+ *    is required only when an HTTP/2 protocol is configured.
+ * </p>
+ */
+class MultiplexTransport {
+
+   /**
+    * Creates a dynamic transport for the configured protocol.
+    * <p>
+    *    Requests to a destination share connections, with up to {@code maxConcurrentStreams}
+    *    (or the server's limit, if lower or if not configured) outstanding on each HTTP/2 connection.
+    *    HTTP/1.1 connections carry one request at a time.
+    * </p>
+    * @param options The options.
+    * @return The transport.
+    */
+   static HttpClientTransport create(final ClientOptions options) {
+      ClientConnector connector = new ClientConnector();
+      HTTP2Client http2Client = new HTTP2Client(connector);
+      ClientConnectionFactory.Info http2 = new ClientConnectionFactoryOverHTTP2.HTTP2(http2Client);
+      ClientConnectionFactory.Info http11 = HttpClientConnectionFactory.HTTP11;
+
+      // The first protocol is used for clear-text connections. All are offered, in order, with ALPN.
+      HttpClientTransportDynamic transport = options.protocol == ClientOptions.Protocol.H2C ?
+              new HttpClientTransportDynamic(connector, http2, http11) :
+              new HttpClientTransportDynamic(connector, http11, http2);
+
+      final int maxConcurrentStreams = options.maxConcurrentStreams;
+      transport.setConnectionPoolFactory(destination ->
+              new StreamLimitConnectionPool(destination,
+                      destination.getHttpClient().getMaxConnectionsPerDestination(), maxConcurrentStreams));
+      return transport;
+   }
+
+   /**
+    * A multiplexed connection pool that limits the number of concurrent streams per connection.
+    */
+   private static final class StreamLimitConnectionPool extends MultiplexConnectionPool {
+
+      StreamLimitConnectionPool(final Destination destination, final int maxConnections, final int maxConcurrentStreams) {
+         super(destination, () -> new ConcurrentPool<>(ConcurrentPool.StrategyType.FIRST, maxConnections,
+                 connection -> maxMultiplex(connection, maxConcurrentStreams)), 1);
+      }
+
+      /**
+       * Gets the maximum number of concurrent requests for a connection.
+       * @param connection The connection.
+       * @param maxConcurrentStreams The configured stream limit, or {@code 0} for no limit.
+       * @return The lower of the connection (server) limit and the configured limit. Always {@code 1}
+       * for connections that are not multiplexed.
+       */
+      private static int maxMultiplex(final Connection connection, final int maxConcurrentStreams) {
+         if(connection instanceof ConnectionPool.MaxMultiplexable) {
+            int serverMax = ((ConnectionPool.MaxMultiplexable)connection).getMaxMultiplex();
+            return maxConcurrentStreams > 0 ? Math.min(serverMax, maxConcurrentStreams) : serverMax;
+         } else {
+            return 1;
+         }
+      }
+   }
+}
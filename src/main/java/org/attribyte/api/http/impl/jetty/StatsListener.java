@@ -17,8 +17,10 @@ package org.attribyte.api.http.impl.jetty;
 
 import com.google.common.base.MoreObjects;
 import com.google.common.base.Strings;
+import org.attribyte.api.http.RequestOptions;
 import org.attribyte.api.http.Stats;
 import org.attribyte.api.http.Timing;
+import org.attribyte.api.http.TimingAggregator;
 import org.eclipse.jetty.client.Request;
 import org.eclipse.jetty.client.Response;
 import org.eclipse.jetty.client.Result;
@@ -35,53 +37,67 @@ public class StatsListener implements Listener {
 
    @Override
    public void onQueued(Request request) {
-      requestQueuedTick = getTick();
+      if(collectTiming) {
+         requestQueuedTick = getTick();
+      }
    }
 
    @Override
    public void onBegin(Request request) {
-      requestBeginTick = getTick();
+      if(collectTiming) {
+         requestBeginTick = getTick();
+      }
    }
 
    @Override
    public void onHeaders(Request request) {
-      requestHeaderCount = request.getHeaders().size();
-      requestHeaderSize = size(request.getHeaders());
+      if(collectSizes) {
+         requestHeaderCount = request.getHeaders().size();
+         requestHeaderSize = size(request.getHeaders());
+      }
    }
 
    @Override
    public void onCommit(Request request) {
-      requestSentTick = getTick();
+      if(collectTiming) {
+         requestSentTick = getTick();
+      }
    }
 
    @Override
    public void onContent(Request request, ByteBuffer content) {
-      requestChunkCount++;
-      if(content.hasRemaining()) {
+      if(collectSizes) {
+         requestChunkCount++;
          requestBodySize += content.remaining();
       }
    }
 
    @Override
    public void onSuccess(Request request) {
-      requestCompleteTick = getTick();
+      if(collectTiming) {
+         requestCompleteTick = getTick();
+      }
    }
 
    @Override
    public void onFailure(Request request, Throwable failure) {
-      requestCompleteTick = getTick();
+      if(collectTiming) {
+         requestCompleteTick = getTick();
+      }
    }
 
    /* Response.Listener */
 
    @Override
    public void onBegin(Response response) {
-      responseStatusReceivedTick = getTick();
+      if(collectTiming) {
+         responseStatusReceivedTick = getTick();
+      }
    }
 
    @Override
    public boolean onHeader(Response response, HttpField field) {
-      if(firstHeaderReceivedTick == 0L) {
+      if(collectTiming && firstHeaderReceivedTick == 0L) {
          firstHeaderReceivedTick = getTick();
       }
       return true;
@@ -89,34 +105,120 @@ public class StatsListener implements Listener {
 
    @Override
    public void onHeaders(Response response) {
-      lastHeaderReceivedTick = getTick();
-      responseHeaderCount = response.getHeaders().size();
-      responseHeaderSize = size(response.getHeaders());
+      if(collectTiming) {
+         lastHeaderReceivedTick = getTick();
+      }
+      if(collectSizes) {
+         responseHeaderCount = response.getHeaders().size();
+         responseHeaderSize = size(response.getHeaders());
+      }
    }
 
    @Override
    public void onContent(Response response, ByteBuffer content) {
-      responseChunkCount.incrementAndGet();
-      responseBodySize.addAndGet(content.remaining());
-      if(responseContentStartedTick == 0L) {
+      if(collectSizes) {
+         responseChunkCount++;
+         responseBodySize += content.remaining();
+      }
+      if(collectTiming && responseContentStartedTick == 0L) {
          responseContentStartedTick = getTick();
       }
    }
 
    @Override
    public void onSuccess(Response response) {
+      if(!collectTiming) {
+         return;
+      }
       responseCompleteTick = getTick();
+      if(timingAggregator != null) {
+         timingAggregator.record(timingHost, timingPort, timingTag,
+                 requestBeginTick - requestQueuedTick,
+                 requestCompleteTick - requestBeginTick,
+                 responseStatusReceivedTick - requestQueuedTick,
+                 responseCompleteTick - requestQueuedTick,
+                 responseCompleteTick);
+      }
    }
 
    @Override
    public void onFailure(Response response, Throwable failure)   {
-      responseCompleteTick = getTick();
+      if(collectTiming) {
+         responseCompleteTick = getTick();
+      }
    }
 
    @Override
    public void onComplete(Result result) {
    }
 
+   /**
+    * Sets the stats collected.
+    * <p>
+    *    Timing is not collected if the level is {@code OFF}, unless it is reported to an aggregator.
+    *    Header and body sizes and counts are collected only if the level is {@code FULL}.
+    * </p>
+    * @param level The stats level.
+    */
+   public void statsLevel(final RequestOptions.StatsLevel level) {
+      this.reportStats = level != RequestOptions.StatsLevel.OFF;
+      this.collectTiming = reportStats || timingAggregator != null;
+      this.collectSizes = level == RequestOptions.StatsLevel.FULL;
+   }
+
+   /**
+    * Are stats reported with the response?
+    */
+   private boolean reportStats = true;
+
+   /**
+    * Is timing collected?
+    */
+   private boolean collectTiming = true;
+
+   /**
+    * Are header and body sizes and counts collected?
+    */
+   private boolean collectSizes = true;
+
+   /**
+    * Reports timing to an aggregator when the response completes successfully.
+    * <p>
+    *    Timing is collected for the aggregator even if the stats level is {@code OFF}.
+    * </p>
+    * @param aggregator The aggregator.
+    * @param host The destination host.
+    * @param port The destination port.
+    * @param tag The request tag, or {@code null} if none.
+    */
+   public void aggregateTiming(final TimingAggregator aggregator, final String host, final int port, final String tag) {
+      this.timingAggregator = aggregator;
+      this.collectTiming = reportStats || aggregator != null;
+      this.timingHost = host;
+      this.timingPort = port;
+      this.timingTag = tag;
+   }
+
+   /**
+    * The aggregator that receives timing, or {@code null} if timing is not aggregated.
+    */
+   private TimingAggregator timingAggregator;
+
+   /**
+    * The destination host reported to the aggregator.
+    */
+   private String timingHost;
+
+   /**
+    * The destination port reported to the aggregator.
+    */
+   private int timingPort;
+
+   /**
+    * The request tag reported to the aggregator.
+    */
+   private String timingTag;
+
    /**
     * The tick in nanoseconds when the request was queued for processing.
     */
@@ -194,13 +296,21 @@ public class StatsListener implements Listener {
 
    /**
     * The number of chunks in the response.
+    * <p>
+    *    Response events are delivered serially, so this is not atomic.
+    * </p>
     */
-   protected AtomicInteger responseChunkCount = new AtomicInteger(0);
+   protected int responseChunkCount = 0;
 
    /**
     * The size of the response body.
     */
-   protected AtomicLong responseBodySize = new AtomicLong(0);
+   protected long responseBodySize = 0L;
+
+   /**
+    * The number of times the response buffer was reallocated, copying content.
+    */
+   protected int responseBufferReallocations = 0;
 
    /**
     * Creates the accumulated timing information.
@@ -220,9 +330,12 @@ public class StatsListener implements Listener {
 
    /**
     * Creates the accumulated stats.
-    * @return The status.
+    * @return The stats, or {@code null} if the stats level is {@code OFF}.
     */
    public Stats stats() {
+      if(!reportStats) {
+         return null;
+      }
       return new Stats(
               requestBeginTick - requestQueuedTick,
               requestCompleteTick - requestQueuedTick,
@@ -233,7 +346,9 @@ public class StatsListener implements Listener {
               responseCompleteTick - requestQueuedTick,
               requestHeaderCount, requestHeaderSize,
               requestChunkCount, requestBodySize,
-              responseHeaderCount, responseHeaderSize, responseChunkCount, responseBodySize
+              responseHeaderCount, responseHeaderSize,
+              new AtomicInteger(responseChunkCount), new AtomicLong(responseBodySize),
+              responseBufferReallocations
       );
    }
 
@@ -276,6 +391,7 @@ public class StatsListener implements Listener {
               .add("responseHeaderSize", responseHeaderSize)
               .add("responseChunkCount", responseChunkCount)
               .add("responseBodySize", responseBodySize)
+              .add("responseBufferReallocations", responseBufferReallocations)
               .toString();
    }
 }
@@ -17,28 +17,37 @@
 
 package org.attribyte.api.http.impl.servlet;
 
+import com.google.common.base.Optional;
 import com.google.common.base.Strings;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.google.common.io.ByteSource;
 import com.google.common.io.ByteStreams;
 import com.google.protobuf.ByteString;
+import org.attribyte.api.DataLimitException;
 import org.attribyte.api.http.DeleteRequestBuilder;
 import org.attribyte.api.http.FormPostRequestBuilder;
 import org.attribyte.api.http.GetRequestBuilder;
 import org.attribyte.api.http.HeadRequestBuilder;
 import org.attribyte.api.http.Header;
+import org.attribyte.api.http.PathByteSource;
 import org.attribyte.api.http.PostRequestBuilder;
 import org.attribyte.api.http.PutRequestBuilder;
 import org.attribyte.api.http.Request;
 import org.attribyte.api.http.Request.Method;
 import org.attribyte.api.http.Response;
+import org.attribyte.api.http.StreamedResponse;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
-import java.io.BufferedOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.URI;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
 import java.util.Collection;
 import java.util.Enumeration;
 import java.util.List;
@@ -110,9 +119,11 @@ public class Bridge {
     *   by the servlet API.
     * </p>
     * @param request The servlet request.
-    * @param maxBodyBytes The maximum number of bytes read. If &lt; 1, the body is not read.
+    * @param maxBodyBytes The maximum number of bytes read. If &lt; 1, the body is discarded,
+    * reading no more than {@link #MAX_DRAIN_BYTES}.
     * @return The request.
     * @throws IOException on invalid request.
+    * @throws DataLimitException if the body (or its declared length) exceeds {@code maxBodyBytes}.
     */
    @SuppressWarnings("unchecked")
    public static final Request fromServletRequest(final HttpServletRequest request,
@@ -172,13 +183,12 @@ public class Bridge {
          prb.addAttribute("remoteAddr", request.getRemoteAddr());
          return prb.create();
       } else {
-         byte[] body = null;
+         final byte[] body;
          if(maxBodyBytes > 0) {
-            try(InputStream is = request.getInputStream()) {
-               body = Request.bodyFromInputStream(is, maxBodyBytes);
-            }
+            body = readBody(request, maxBodyBytes);
          } else {
-            ByteStreams.toByteArray(request.getInputStream()); //Read, but ignore the body...
+            drainBody(request); //Read, but ignore the body...
+            body = new byte[0];
          }
 
          if(method == Method.POST) {
@@ -195,8 +205,51 @@ public class Bridge {
       }
    }
 
+   /**
+    * The maximum number of bytes read and discarded from a body that is ignored.
+    * <p>
+    *    If more remain, the container is left to discard them (or close the connection)
+    *    when the request completes.
+    * </p>
+    */
+   static final long MAX_DRAIN_BYTES = 64 * 1024;
+
+   /**
+    * Reads the body of a servlet request, up to a maximum size.
+    * <p>
+    *    If the declared {@code Content-Length} exceeds the maximum, the request is rejected before any of the body is read.
+    * </p>
+    * @param request The servlet request.
+    * @param maxBodyBytes The maximum number of bytes read.
+    * @return The body.
+    * @throws IOException on read error.
+    * @throws DataLimitException if the body is larger than the maximum.
+    */
+   static byte[] readBody(final HttpServletRequest request, final int maxBodyBytes) throws IOException {
+      final long contentLength = request.getContentLength();
+      if(contentLength > maxBodyBytes) {
+         throw new DataLimitException("The size of the body (" + contentLength + ") exceeds the limit of " + maxBodyBytes + " bytes");
+      }
+      try(InputStream is = request.getInputStream()) {
+         return Request.bodyFromInputStream(is, maxBodyBytes);
+      }
+   }
+
+   /**
+    * Reads and discards the body of a servlet request, up to {@link #MAX_DRAIN_BYTES}.
+    * @param request The servlet request.
+    * @throws IOException on read error.
+    */
+   static void drainBody(final HttpServletRequest request) throws IOException {
+      ByteStreams.exhaust(ByteStreams.limit(request.getInputStream(), MAX_DRAIN_BYTES));
+   }
+
    /**
     * Sends an Attribyte response using a servlet response.
+    * <p>
+    *    The body of a {@code StreamedResponse} is copied from its source as it is read,
+    *    with {@code Content-Length} set when the size is known.
+    * </p>
     * @param response The Attribyte response.
     * @param servletResponse The servlet response.
     * @throws java.io.IOException on transmit error.
@@ -212,11 +265,53 @@ public class Bridge {
          }
       }
 
+      if(response instanceof StreamedResponse) {
+         ByteSource bodySource = ((StreamedResponse)response).getBodySource();
+         if(bodySource != null) {
+            Optional<Long> size = bodySource.sizeIfKnown();
+            if(size.isPresent()) {
+               servletResponse.setHeader("Content-Length", Long.toString(size.get())); //No setContentLengthLong before Servlet 3.1
+            }
+            try(OutputStream os = servletResponse.getOutputStream()) {
+               copy(bodySource, os);
+            }
+         }
+         return;
+      }
+
       ByteString bodyString = response.getBody();
 
       if(bodyString != null) {
-         try(BufferedOutputStream baos = new BufferedOutputStream(servletResponse.getOutputStream())) {
-            baos.write(bodyString.toByteArray());
+         servletResponse.setContentLength(bodyString.size());
+         try(OutputStream os = servletResponse.getOutputStream()) {
+            bodyString.writeTo(os);
+         }
+      }
+   }
+
+   /**
+    * Copies a streamed body to an output stream in fixed-size chunks.
+    * <p>
+    *    Files are transferred from their channel; other sources are copied through a small buffer.
+    *    Neither reads the whole body into memory.
+    * </p>
+    * @param bodySource The body source.
+    * @param os The output stream.
+    * @throws IOException on read or write error.
+    */
+   static void copy(final ByteSource bodySource, final OutputStream os) throws IOException {
+      if(bodySource instanceof PathByteSource) {
+         try(FileChannel channel = FileChannel.open(((PathByteSource)bodySource).path, StandardOpenOption.READ)) {
+            WritableByteChannel target = Channels.newChannel(os);
+            long position = 0L;
+            long size = channel.size();
+            while(position < size) {
+               position += channel.transferTo(position, size - position, target);
+            }
+         }
+      } else {
+         try(InputStream is = bodySource.openStream()) {
+            is.transferTo(os);
          }
       }
    }
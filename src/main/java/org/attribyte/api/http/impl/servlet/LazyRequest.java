@@ -0,0 +1,398 @@
+/*
+ * Copyright 2026 Attribyte Labs, LLC
+ * 
+ * This software is the confidential and proprietary information of Attribyte, LLC.
+ * ("Confidential Information").  You shall not
+ * disclose such Confidential Information and shall use it only in
+ * accordance with the terms of the license agreement you entered into
+ * with Attribyte, LLC
+ * 
+ * ATTRIBYTE, LLC MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF
+ * THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE, OR NON-INFRINGEMENT. ATTRIBYTE, LLC SHALL NOT BE LIABLE FOR ANY DAMAGES
+ * SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING OR DISTRIBUTING
+ * THIS SOFTWARE OR ITS DERIVATIVES.
+ */
+
+package org.attribyte.api.http.impl.servlet;
+
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.UnsafeByteOperations;
+import org.attribyte.api.InvalidURIException;
+import org.attribyte.api.http.DeleteRequestBuilder;
+import org.attribyte.api.http.FormPostRequestBuilder;
+import org.attribyte.api.http.GetRequestBuilder;
+import org.attribyte.api.http.HeadRequestBuilder;
+import org.attribyte.api.http.Header;
+import org.attribyte.api.http.HeaderMap;
+import org.attribyte.api.http.OptionsRequestBuilder;
+import org.attribyte.api.http.Parameter;
+import org.attribyte.api.http.PatchRequestBuilder;
+import org.attribyte.api.http.PostRequestBuilder;
+import org.attribyte.api.http.PutRequestBuilder;
+import org.attribyte.api.http.QueryString;
+import org.attribyte.api.http.Request;
+import org.attribyte.api.http.Request.Method;
+import org.attribyte.api.http.RequestBuilder;
+
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.Collection;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * A read-only view of a servlet request that converts headers, parameters
+ * and the body only when they are first accessed.
+ * <p>
+ *    Single header and parameter lookups are answered by the container without copying.
+ *    Collections of headers and parameters, and the body, are created once, on first access,
+ *    and are immutable. Parameters for requests without a form body are parsed from the query string.
+ *    Unlike {@code Request}, parameter names are case-sensitive.
+ * </p>
+ * <p>
+ *    The view must only be used while the servlet request is active. Use {@link #toRequest()}
+ *    to create a {@code Request} that may be retained.
+ *    Instances are not thread-safe.
+ * </p>
+ */
+public final class LazyRequest {
+
+   /**
+    * Creates a lazy view of a servlet request.
+    * @param request The servlet request.
+    * @param maxBodyBytes The maximum number of bytes read from the body. If &lt; 1, the body is not read.
+    */
+   public LazyRequest(final HttpServletRequest request, final int maxBodyBytes) {
+      this.request = request;
+      this.maxBodyBytes = maxBodyBytes;
+      this.method = Method.fromString(request.getMethod());
+   }
+
+   /**
+    * Gets the method.
+    * @return The method.
+    */
+   public Method getMethod() {
+      return method;
+   }
+
+   /**
+    * Gets the request URI, including the query string.
+    * @return The URI.
+    * @throws InvalidURIException if the URI is invalid.
+    */
+   public URI getURI() throws InvalidURIException {
+      if(uri == null) {
+         try {
+            uri = new URI(requestURL());
+         } catch(URISyntaxException use) {
+            throw new InvalidURIException(use);
+         }
+      }
+      return uri;
+   }
+
+   /**
+    * Gets the raw (escaped) query string.
+    * @return The query string or {@code null} if none.
+    */
+   public String getRawQueryString() {
+      return request.getQueryString();
+   }
+
+   /**
+    * Gets the first header value.
+    * @param name The header name. Case is ignored.
+    * @return The value or {@code null} if none.
+    */
+   public String getHeaderValue(final String name) {
+      if(headers != null) {
+         Header h = headers.get(name);
+         return h == null ? null : h.getValue();
+      }
+      return request.getHeader(name);
+   }
+
+   /**
+    * Gets an immutable list of values for a header.
+    * @param name The header name. Case is ignored.
+    * @return The values.
+    */
+   public ImmutableList<String> getHeaderValueList(final String name) {
+      if(headers != null) {
+         Header h = headers.get(name);
+         return h == null ? ImmutableList.of() : h.getValueList();
+      }
+      Enumeration<String> values = request.getHeaders(name);
+      return values == null ? ImmutableList.of() : ImmutableList.copyOf(values.asIterator());
+   }
+
+   /**
+    * Gets a header.
+    * @param name The header name. Case is ignored.
+    * @return The header or {@code null} if none.
+    */
+   public Header getHeader(final String name) {
+      return headers().get(name);
+   }
+
+   /**
+    * Gets all headers.
+    * @return An immutable collection of headers.
+    */
+   public Collection<Header> getHeaders() {
+      return headers().values();
+   }
+
+   /**
+    * Gets the value of the {@code Content-Type} header.
+    * @return The content type, or {@code null} if none.
+    */
+   public String getContentType() {
+      return getHeaderValue(Header.CONTENT_TYPE);
+   }
+
+   /**
+    * Gets the first parameter value.
+    * @param name The parameter name.
+    * @return The value or {@code null} if none.
+    */
+   public String getParameterValue(final String name) {
+      if(parameters != null) {
+         Parameter p = parameters.get(name);
+         return p == null ? null : p.getValue();
+      } else if(hasFormBody()) {
+         return request.getParameter(name);
+      } else {
+         return queryString().getValue(name);
+      }
+   }
+
+   /**
+    * Gets an immutable list of values for a parameter.
+    * @param name The parameter name.
+    * @return The values.
+    */
+   public ImmutableList<String> getParameterValueList(final String name) {
+      if(parameters != null) {
+         Parameter p = parameters.get(name);
+         return p == null ? ImmutableList.of() : p.getValueList();
+      } else if(hasFormBody()) {
+         String[] values = request.getParameterValues(name);
+         return values == null ? ImmutableList.of() : ImmutableList.copyOf(values);
+      } else {
+         return ImmutableList.copyOf(queryString().getValues(name));
+      }
+   }
+
+   /**
+    * Gets all parameters.
+    * @return An immutable collection of parameters.
+    */
+   public Collection<Parameter> getParameters() {
+      return parameters().values();
+   }
+
+   /**
+    * Gets the body, reading it on first access.
+    * <p>
+    *    If the request has form parameters, or the body is not read, the body is {@code null}.
+    * </p>
+    * @return The body, or {@code null} if none.
+    * @throws IOException on read error, or if the body exceeds the maximum size.
+    */
+   public ByteString getBody() throws IOException {
+      if(!bodyRead) {
+         bodyRead = true;
+         if(hasBody() && !hasFormParameters()) {
+            if(maxBodyBytes > 0) {
+               body = UnsafeByteOperations.unsafeWrap(Bridge.readBody(request, maxBodyBytes));
+            } else {
+               Bridge.drainBody(request); //Read, but ignore the body...
+            }
+         }
+      }
+      return body;
+   }
+
+   /**
+    * Gets the remote address reported by the servlet API.
+    * @return The remote address.
+    */
+   public String getRemoteAddr() {
+      return request.getRemoteAddr();
+   }
+
+   /**
+    * Creates an immutable request with all headers, parameters and the body.
+    * <p>
+    *    The request is created once and has the {@code remoteAddr} attribute set.
+    *    Unlike {@code Bridge.fromServletRequest}, a body is retained when
+    *    the request has query parameters but is not form-encoded.
+    * </p>
+    * @return The request.
+    * @throws IOException on invalid request, or body read error.
+    */
+   public Request toRequest() throws IOException {
+      if(materialized != null) {
+         return materialized;
+      }
+
+      final String requestURL = requestURL();
+      final RequestBuilder builder;
+      switch(method) {
+         case GET:
+            builder = new GetRequestBuilder(requestURL, parameters());
+            break;
+         case HEAD:
+            builder = new HeadRequestBuilder(requestURL, parameters());
+            break;
+         case DELETE:
+            builder = new DeleteRequestBuilder(requestURL, parameters());
+            break;
+         case OPTIONS:
+            builder = new OptionsRequestBuilder(requestURL, parameters());
+            break;
+         default:
+            if(hasFormParameters()) {
+               FormPostRequestBuilder prb = new FormPostRequestBuilder(requestURL);
+               prb.addParameters(parameters());
+               builder = prb;
+            } else {
+               ByteString body = getBody();
+               if(body == null) {
+                  body = ByteString.EMPTY;
+               }
+               switch(method) {
+                  case POST:
+                     builder = new PostRequestBuilder(requestURL, body);
+                     break;
+                  case PATCH:
+                     builder = new PatchRequestBuilder(requestURL, body);
+                     break;
+                  default:
+                     builder = new PutRequestBuilder(requestURL, body);
+                     break;
+               }
+            }
+            break;
+      }
+
+      builder.addHeaders(headers().values());
+      builder.addAttribute("remoteAddr", request.getRemoteAddr());
+      materialized = builder.create();
+      return materialized;
+   }
+
+   /**
+    * Creates the header map on first access.
+    * @return The headers.
+    */
+   private HeaderMap headers() {
+      if(headers == null) {
+         HeaderMap.Builder builder = new HeaderMap.Builder();
+         List<String> valueList = Lists.newArrayListWithExpectedSize(2);
+         Enumeration<String> headerNames = request.getHeaderNames();
+         while(headerNames != null && headerNames.hasMoreElements()) {
+            String name = headerNames.nextElement();
+            Enumeration<String> headerValues = request.getHeaders(name);
+            valueList.clear();
+            while(headerValues.hasMoreElements()) {
+               valueList.add(headerValues.nextElement());
+            }
+            builder.put(valueList.size() == 1 ? new Header(name, valueList.get(0)) : new Header(name, valueList));
+         }
+         headers = builder.build();
+      }
+      return headers;
+   }
+
+   /**
+    * Creates the parameter map on first access.
+    * @return The parameters.
+    */
+   private Map<String, Parameter> parameters() {
+      if(parameters == null) {
+         if(hasFormBody()) {
+            Map<String, String[]> parameterMap = request.getParameterMap();
+            Map<String, Parameter> builder = Maps.newHashMapWithExpectedSize(parameterMap.size());
+            parameterMap.forEach((name, values) -> builder.put(name, new Parameter(name, values)));
+            parameters = ImmutableMap.copyOf(builder);
+         } else {
+            parameters = ImmutableMap.copyOf(queryString().toParameterMap(true));
+         }
+      }
+      return parameters;
+   }
+
+   private QueryString queryString() {
+      if(queryString == null) {
+         queryString = QueryString.parse(request.getQueryString());
+      }
+      return queryString;
+   }
+
+   /**
+    * Does the method allow a body?
+    * @return Can the request have a body?
+    */
+   private boolean hasBody() {
+      return method == Method.POST || method == Method.PUT || method == Method.PATCH;
+   }
+
+   /**
+    * Is the body form-encoded? If so, parameters are read from the container.
+    * @return Is the body form-encoded?
+    */
+   private boolean hasFormBody() {
+      return hasBody() && Strings.nullToEmpty(request.getContentType()).toLowerCase(Locale.ROOT).startsWith("application/x-www-form-urlencoded");
+   }
+
+   /**
+    * Is the body form-encoded, with parameters?
+    * @return Are there form parameters?
+    */
+   private boolean hasFormParameters() {
+      return hasFormBody() && !parameters().isEmpty();
+   }
+
+   private String requestURL() {
+      final String rawQueryString = request.getQueryString();
+      return Strings.isNullOrEmpty(rawQueryString) ?
+              request.getRequestURL().toString() : request.getRequestURL().append('?').append(rawQueryString).toString();
+   }
+
+   /**
+    * The servlet request.
+    */
+   private final HttpServletRequest request;
+
+   /**
+    * The maximum number of body bytes read.
+    */
+   private final int maxBodyBytes;
+
+   /**
+    * The method.
+    */
+   private final Method method;
+
+   private URI uri;
+   private HeaderMap headers;
+   private ImmutableMap<String, Parameter> parameters;
+   private QueryString queryString;
+   private boolean bodyRead;
+   private ByteString body;
+   private Request materialized;
+}
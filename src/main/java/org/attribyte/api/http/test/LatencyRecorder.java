@@ -0,0 +1,192 @@
+/*
+ * Copyright 2026 Attribyte Labs, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ *
+ */
+package org.attribyte.api.http.test;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.attribyte.api.http.Response;
+import org.attribyte.api.http.Stats;
+
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records per-phase request latency in HDR histograms.
+ * <p>
+ *   Phases are derived from the {@code Stats} attached to a response, when available.
+ *   The total latency is always measured by the caller, so it may be corrected for
+ *   coordinated omission by measuring from the <em>intended</em> start time.
+ *   Recording is wait-free and safe for concurrent use.
+ * </p>
+ */
+class LatencyRecorder {
+
+   /**
+    * The recorded phases.
+    */
+   enum Phase {
+
+      /**
+       * Time from queued until the request starts to send. Includes time to acquire (or establish) a connection.
+       */
+      QUEUE("queue+connect"),
+
+      /**
+       * Time to send the request headers and body.
+       */
+      SEND("send"),
+
+      /**
+       * Time from request sent until the response status is received.
+       */
+      SERVER("server"),
+
+      /**
+       * Time from response status until all headers are received.
+       */
+      HEADERS("headers"),
+
+      /**
+       * Time from the first byte of response content until the response is complete.
+       */
+      BODY("body"),
+
+      /**
+       * Time to first byte of response content, measured from when the request was queued.
+       */
+      FIRST_BYTE("first-byte"),
+
+      /**
+       * The total time observed by the caller.
+       */
+      TOTAL("total");
+
+      Phase(final String label) {
+         this.label = label;
+      }
+
+      final String label;
+   }
+
+   LatencyRecorder() {
+      this.recorders = new Recorder[Phase.values().length];
+      for(int i = 0; i < recorders.length; i++) {
+         recorders[i] = new Recorder(SIGNIFICANT_DIGITS);
+      }
+   }
+
+   /**
+    * Records a completed response.
+    * @param response The response.
+    * @param totalNanos The total latency observed by the caller.
+    */
+   void record(final Response response, final long totalNanos) {
+      record(Phase.TOTAL, totalNanos);
+      Stats stats = response.getStats();
+      if(stats == null) {
+         return;
+      }
+
+      long start = stats.timeToRequestStart(TimeUnit.NANOSECONDS);
+      long requestComplete = stats.timeToRequestComplete(TimeUnit.NANOSECONDS);
+      long status = stats.timeToResponseStatus(TimeUnit.NANOSECONDS);
+      long lastHeader = stats.timeToLastResponseHeader(TimeUnit.NANOSECONDS);
+      long firstContent = stats.timeToFirstResponseContent(TimeUnit.NANOSECONDS);
+      long complete = stats.timeToCompleteResponse(TimeUnit.NANOSECONDS);
+
+      record(Phase.QUEUE, start);
+      record(Phase.SEND, requestComplete - start);
+      record(Phase.SERVER, status - requestComplete);
+      record(Phase.HEADERS, lastHeader - status);
+      if(firstContent > 0L) {
+         record(Phase.FIRST_BYTE, firstContent);
+         record(Phase.BODY, complete - firstContent);
+      }
+   }
+
+   /**
+    * Records a failed request.
+    */
+   void recordError() {
+      errors.increment();
+   }
+
+   /**
+    * Discards everything recorded so far (for example, at the end of warm-up).
+    */
+   void reset() {
+      for(Recorder recorder : recorders) {
+         recorder.reset();
+      }
+      errors.reset();
+   }
+
+   /**
+    * Prints a summary of everything recorded since the last reset.
+    * @param elapsedNanos The elapsed time for the rate calculation.
+    * @param out The output stream.
+    */
+   void print(final long elapsedNanos, final PrintStream out) {
+      Histogram[] histograms = new Histogram[recorders.length];
+      for(int i = 0; i < recorders.length; i++) {
+         histograms[i] = recorders[i].getIntervalHistogram();
+      }
+
+      long count = histograms[Phase.TOTAL.ordinal()].getTotalCount();
+      double rate = (double)count / ((double)elapsedNanos / 1e9);
+      out.println(String.format("Completed %d requests with %d errors (%.3f/s)", count, errors.sum(), rate));
+      out.println();
+      out.println(String.format("%-14s %10s %10s %10s %10s %10s %10s", "phase (ms)", "count", "p50", "p90", "p99", "p99.9", "max"));
+      for(Phase phase : Phase.values()) {
+         Histogram histogram = histograms[phase.ordinal()];
+         if(histogram.getTotalCount() == 0L) {
+            continue;
+         }
+         out.println(String.format("%-14s %10d %10.3f %10.3f %10.3f %10.3f %10.3f",
+                 phase.label, histogram.getTotalCount(),
+                 millis(histogram.getValueAtPercentile(50.0)),
+                 millis(histogram.getValueAtPercentile(90.0)),
+                 millis(histogram.getValueAtPercentile(99.0)),
+                 millis(histogram.getValueAtPercentile(99.9)),
+                 millis(histogram.getMaxValue())));
+      }
+   }
+
+   private void record(final Phase phase, final long nanos) {
+      if(nanos > 0L) {
+         recorders[phase.ordinal()].recordValue(nanos);
+      }
+   }
+
+   private static double millis(final long nanos) {
+      return (double)nanos / 1e6;
+   }
+
+   /**
+    * The number of significant digits kept by each histogram.
+    */
+   private static final int SIGNIFICANT_DIGITS = 3;
+
+   /**
+    * A recorder for each phase, indexed by ordinal.
+    */
+   private final Recorder[] recorders;
+
+   /**
+    * The number of errors.
+    */
+   private final LongAdder errors = new LongAdder();
+}
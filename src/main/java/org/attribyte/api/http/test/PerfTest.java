@@ -12,46 +12,75 @@
  * See the License for the specific language governing permissions and limitations under the License.
  *
  */
-
 package org.attribyte.api.http.test;
 
 import com.google.common.collect.Lists;
-import com.google.common.hash.HashCode;
-import com.google.common.hash.HashFunction;
-import com.google.common.hash.Hashing;
 import com.google.common.io.Files;
-import com.google.protobuf.ByteString;
-import org.attribyte.api.http.Client;
+import org.attribyte.api.http.AsyncClient;
 import org.attribyte.api.http.ClientOptions;
 import org.attribyte.api.http.GetRequestBuilder;
 import org.attribyte.api.http.PostRequestBuilder;
 import org.attribyte.api.http.Request;
+import org.attribyte.api.http.RequestOptions;
 import org.attribyte.api.http.Response;
+import org.attribyte.api.http.impl.jdk.JdkClient;
 import org.attribyte.api.http.impl.jetty.JettyClient;
 import org.attribyte.util.InitUtil;
 
 import java.io.File;
-import java.text.NumberFormat;
 import java.util.List;
 import java.util.Properties;
-
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A load generator that drives any {@code AsyncClient} and reports per-phase latency percentiles.
+ * <p>
+ *   Properties are specified on the command line as {@code -name=value}:
+ * </p>
+ * <ul>
+ *    <li>{@code client} - The client implementation: {@code jetty} or {@code jdk}. Required.</li>
+ *    <li>{@code url} - The URL to request. Required.</li>
+ *    <li>{@code mode} - {@code closed} (default) for a fixed number of concurrent requests or
+ *    {@code open} for a fixed arrival rate.</li>
+ *    <li>{@code concurrency} - The number of concurrent requests in closed mode (1).</li>
+ *    <li>{@code rate} - The number of requests per second in open mode (100).</li>
+ *    <li>{@code maxOutstanding} - The maximum number of outstanding requests in open mode (10000).
+ *    When reached, sending is delayed, and the delay is included in the recorded latency.</li>
+ *    <li>{@code warmupSeconds} - The warm-up time. Nothing recorded during warm-up is reported (10).</li>
+ *    <li>{@code testSeconds} - The test time (20).</li>
+ *    <li>{@code timeoutSeconds} - The request timeout (5).</li>
+ *    <li>{@code postBodyFile} - If specified, requests are {@code POST} with the body read from this file.</li>
+ *    <li>{@code implDefaults} - If {@code true}, the client is created with implementation defaults.
+ *    Otherwise, client options are read from the command line properties.</li>
+ * </ul>
+ * <p>
+ *   In open mode, latency is measured from the time each request was <em>scheduled</em> to be sent,
+ *   not the time it was actually sent, so results are corrected for coordinated omission.
+ * </p>
+ */
 public class PerfTest {
 
    public static void main(String[] args) throws Exception {
 
-      Client client = null;
+      AsyncClient client = null;
 
       try {
 
          Properties props = new Properties();
          InitUtil.fromCommandLine(args, props);
          InitUtil init = new InitUtil("", props, false);
+         boolean implementationDefaults = init.getProperty("implDefaults", "false").equalsIgnoreCase("true");
+         ClientOptions options = implementationDefaults ? ClientOptions.IMPLEMENTATION_DEFAULT : new ClientOptions("", props);
 
          String clientName = init.getProperty("client", "");
          if(clientName.equalsIgnoreCase("jetty")) {
-            client = new JettyClient(ClientOptions.IMPLEMENTATION_DEFAULT);
+            client = new JettyClient(options);
+         } else if(clientName.equalsIgnoreCase("jdk")) {
+            client = new JdkClient(options);
          } else {
-            System.err.println("A 'client' must be specified (jetty)");
+            System.err.println("A 'client' must be specified (jetty, jdk)");
             return;
          }
 
@@ -65,19 +94,13 @@ public class PerfTest {
 
          System.out.println("URL: " + url);
 
-         System.out.println(props.getProperty("numThreads"));
-
-         int numThreads = init.getIntProperty("numThreads", 1);
-
-         System.out.println("Number of Threads: " + numThreads);
-
+         String mode = init.getProperty("mode", "closed");
+         int concurrency = init.getIntProperty("concurrency", 1);
+         int rate = init.getIntProperty("rate", 100);
+         int maxOutstanding = init.getIntProperty("maxOutstanding", 10000);
          int warmupSeconds = init.getIntProperty("warmupSeconds", 10);
-
-         System.out.println("Warmup seconds: " + warmupSeconds);
-
          int testSeconds = init.getIntProperty("testSeconds", 20);
-
-         System.out.println("Test seconds: " + testSeconds);
+         int timeoutSeconds = init.getIntProperty("timeoutSeconds", RequestOptions.DEFAULT_TIMEOUT_SECONDS);
 
          String postBodyFile = init.getProperty("postBodyFile", null);
          byte[] postBody = null;
@@ -87,134 +110,221 @@ public class PerfTest {
 
          Request request = postBody == null ? new GetRequestBuilder(url).create() :
                  new PostRequestBuilder(url, postBody).create();
-
-         List<TestRunner> runners = Lists.newArrayListWithCapacity(numThreads);
-         for(int i = 0; i < numThreads; i++) {
-            runners.add(new TestRunner(client, request, null)); //TODO
+         RequestOptions requestOptions = new RequestOptions(RequestOptions.DEFAULT_FOLLOW_REDIRECTS,
+                 RequestOptions.DEFAULT_MAX_RESPONSE_BYTES, timeoutSeconds);
+
+         final LoadGenerator generator;
+         if(mode.equalsIgnoreCase("open")) {
+            if(rate < 1) {
+               System.err.println("The 'rate' must be > 0");
+               return;
+            }
+            System.out.println("Mode: open (" + rate + "/s, max outstanding " + maxOutstanding + ")");
+            generator = new OpenLoopGenerator(client, request, requestOptions, rate, maxOutstanding);
+         } else if(mode.equalsIgnoreCase("closed")) {
+            if(concurrency < 1) {
+               System.err.println("The 'concurrency' must be > 0");
+               return;
+            }
+            System.out.println("Mode: closed (" + concurrency + " concurrent)");
+            generator = new ClosedLoopGenerator(client, request, requestOptions, concurrency);
+         } else {
+            System.err.println("The 'mode' must be 'closed' or 'open'");
+            return;
          }
 
+         System.out.println("Warmup seconds: " + warmupSeconds);
+         System.out.println("Test seconds: " + testSeconds);
          System.out.println("Starting warm-up...");
 
-         for(TestRunner runner : runners) {
-            Thread thread = new Thread(runner);
-            thread.setDaemon(true);
-            thread.start();
-         }
-
-         long stopTime = System.currentTimeMillis() + warmupSeconds * 1000L;
-         while(System.currentTimeMillis() < stopTime) {
-            Thread.sleep(10L);
-         }
-
-         for(TestRunner runner : runners) {
-            runner.running = false;
-            while(runner.elapsedTime == 0L) {
-               Thread.sleep(10L);
-            }
-            runner.reset();
-         }
+         generator.start();
+         sleepSeconds(warmupSeconds);
+         generator.recorder.reset();
 
          System.out.println("Starting test...");
-
-         for(TestRunner runner : runners) {
-            Thread thread = new Thread(runner);
-            thread.setDaemon(true);
-            thread.start();
-         }
-
-         stopTime = System.currentTimeMillis() + testSeconds * 1000L;
-         while(System.currentTimeMillis() < stopTime) {
-            Thread.sleep(10L);
-         }
+         long testStartNanos = System.nanoTime();
+         sleepSeconds(testSeconds);
+         long elapsedNanos = System.nanoTime() - testStartNanos;
+         generator.stop(timeoutSeconds);
 
          System.out.println("Test complete!");
-
-         int requestCount = 0;
-         int errorCount = 0;
-         long totalTime = 0L;
-
-         for(TestRunner runner : runners) {
-            runner.running = false;
-            while(runner.elapsedTime == 0L) {
-               Thread.sleep(10L);
-            }
-            requestCount += runner.count;
-            errorCount += runner.errorCount;
-            totalTime += runner.elapsedTime;
-         }
-
-         double avgTimeSeconds = (double)totalTime / (double)numThreads / 1000.0;
-         double rate = (double)requestCount / avgTimeSeconds;
-         NumberFormat formatter = NumberFormat.getNumberInstance();
-         formatter.setMaximumFractionDigits(3);
-         formatter.setMinimumFractionDigits(3);
-
-         System.out.println("Executed " + requestCount + " requests with " + errorCount + " failures (" + formatter.format(rate) + "/s)");
+         System.out.println();
+         generator.recorder.print(elapsedNanos, System.out);
       } finally {
          if(client != null) client.shutdown();
       }
    }
 
-   private static final class TestRunner implements Runnable {
+   private static void sleepSeconds(final int seconds) throws InterruptedException {
+      long stopNanos = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+      long remainingNanos;
+      while((remainingNanos = stopNanos - System.nanoTime()) > 0L) {
+         TimeUnit.NANOSECONDS.sleep(Math.min(remainingNanos, TimeUnit.MILLISECONDS.toNanos(100L)));
+      }
+   }
 
-      TestRunner(final Client client, final Request request, final HashCode expectedResponseHash) {
+   /**
+    * Generates load and records the results.
+    */
+   private static abstract class LoadGenerator {
+
+      LoadGenerator(final AsyncClient client, final Request request, final RequestOptions options) {
          this.client = client;
          this.request = request;
-         this.expectedResponseHash = expectedResponseHash;
+         this.options = options;
       }
 
-      public void run() {
-         startTimestamp = System.currentTimeMillis();
-         while(running) {
-            count++;
-            try {
-               Response response = client.send(request);
-               if(response.getStatusCode() == 200) {
-                  ByteString body = response.getBody();
-                  if(body != null) {
-                     byte[] responseBytes = body.toByteArray();
-                     if(expectedResponseHash != null && !hashFunction.hashBytes(responseBytes).equals(expectedResponseHash)) {
-                        System.err.println("Error (Hash Mismatch)");
-                        errorCount++;
-                     }
-                  } else {
-                     System.err.println("Error (No Response)");
-                     errorCount++;
-                  }
-               } else {
-                  System.err.println("Error (" + response.getStatusCode() + ")");
-                  errorCount++;
+      /**
+       * Starts generating load.
+       */
+      abstract void start();
+
+      /**
+       * Stops generating load, waiting for outstanding requests to complete.
+       * @param timeoutSeconds The maximum time to wait.
+       * @throws InterruptedException if interrupted while waiting.
+       */
+      abstract void stop(int timeoutSeconds) throws InterruptedException;
+
+      /**
+       * Sends a request, recording the result.
+       * @param startNanos The start time used to measure the total latency.
+       * @param onComplete Called when the request is complete.
+       */
+      final void send(final long startNanos, final Runnable onComplete) {
+         try {
+            client.completableSend(request, options).whenComplete((response, t) -> {
+               try {
+                  record(response, t, startNanos);
+               } finally {
+                  onComplete.run();
                }
-            } catch(Exception e) {
-               e.printStackTrace();
-               errorCount++;
-               System.exit(1);
+            });
+         } catch(RuntimeException re) {
+            recorder.recordError();
+            onComplete.run();
+         }
+      }
+
+      final void record(final Response response, final Throwable t, final long startNanos) {
+         if(response != null) {
+            recorder.record(response, System.nanoTime() - startNanos);
+            if(!Response.Code.isOK(response.getStatusCode())) {
+               recorder.recordError();
             }
+         } else {
+            recorder.recordError();
          }
+      }
+
+      final AsyncClient client;
+      final Request request;
+      final RequestOptions options;
+      final LatencyRecorder recorder = new LatencyRecorder();
+      volatile boolean running = true;
+   }
 
-         this.elapsedTime = System.currentTimeMillis() - startTimestamp;
+   /**
+    * Keeps a fixed number of requests outstanding. A new request is sent as soon as one completes.
+    */
+   private static final class ClosedLoopGenerator extends LoadGenerator {
+
+      ClosedLoopGenerator(final AsyncClient client, final Request request, final RequestOptions options,
+                          final int concurrency) {
+         super(client, request, options);
+         this.workers = Lists.newArrayListWithCapacity(concurrency);
+         for(int i = 0; i < concurrency; i++) {
+            Thread worker = new Thread(this::run, "perf-closed-" + i);
+            worker.setDaemon(true);
+            workers.add(worker);
+         }
       }
 
-      void reset() {
-         count = 0;
-         errorCount = 0;
-         elapsedTime = 0;
-         startTimestamp = 0;
-         running = true;
+      @Override
+      void start() {
+         workers.forEach(Thread::start);
       }
 
-      private final Client client;
-      private final Request request;
-      private final HashCode expectedResponseHash;
-      int count;
-      int errorCount;
-      volatile boolean running = true;
-      @SuppressWarnings("deprecation")
-      private final HashFunction hashFunction = Hashing.md5();
-      long startTimestamp = 0L;
-      long elapsedTime = 0L;
+      @Override
+      void stop(final int timeoutSeconds) throws InterruptedException {
+         running = false;
+         for(Thread worker : workers) {
+            worker.join(TimeUnit.SECONDS.toMillis(timeoutSeconds));
+         }
+      }
 
+      private void run() {
+         final Semaphore complete = new Semaphore(0);
+         while(running) {
+            send(System.nanoTime(), complete::release);
+            complete.acquireUninterruptibly();
+         }
+      }
+
+      private final List<Thread> workers;
    }
 
+   /**
+    * Sends requests at a fixed rate, regardless of how long previous requests take to complete.
+    */
+   private static final class OpenLoopGenerator extends LoadGenerator {
+
+      OpenLoopGenerator(final AsyncClient client, final Request request, final RequestOptions options,
+                        final int rate, final int maxOutstanding) {
+         super(client, request, options);
+         this.intervalNanos = TimeUnit.SECONDS.toNanos(1L) / rate;
+         this.maxOutstanding = maxOutstanding;
+         this.outstanding = new Semaphore(maxOutstanding);
+         this.dispatcher = new Thread(this::run, "perf-open-dispatcher");
+         this.dispatcher.setDaemon(true);
+      }
+
+      @Override
+      void start() {
+         dispatcher.start();
+      }
+
+      @Override
+      void stop(final int timeoutSeconds) throws InterruptedException {
+         running = false;
+         dispatcher.join();
+         if(outstanding.tryAcquire(maxOutstanding, timeoutSeconds, TimeUnit.SECONDS)) {
+            outstanding.release(maxOutstanding);
+         }
+      }
+
+      private void run() {
+         long intendedStartNanos = System.nanoTime();
+         while(running) {
+            long delayNanos = intendedStartNanos - System.nanoTime();
+            if(delayNanos > 0L) {
+               LockSupport.parkNanos(delayNanos);
+               continue;
+            }
+            outstanding.acquireUninterruptibly();
+            send(intendedStartNanos, outstanding::release);
+            intendedStartNanos += intervalNanos;
+         }
+      }
 
+      /**
+       * The time between requests.
+       */
+      private final long intervalNanos;
+
+      /**
+       * The maximum number of outstanding requests.
+       */
+      private final int maxOutstanding;
+
+      /**
+       * Permits for outstanding requests.
+       */
+      private final Semaphore outstanding;
+
+      /**
+       * Sends requests on schedule.
+       */
+      private final Thread dispatcher;
+   }
 }
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2026 Attribyte Labs, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ *
+ */
+
+package org.attribyte.api.http;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class CachedResponseTest {
+
+   @Test
+   public void testFresh() {
+      CachedResponse cached = cached("max-age=60");
+      assertEquals(60000L, cached.freshnessLifetime);
+      assertTrue(cached.isFresh(59999L));
+      assertFalse(cached.isFresh(60000L));
+      assertTrue(cached.isFresh(59999L, CacheControl.EMPTY));
+      assertFalse(cached.isFresh(60000L, CacheControl.EMPTY));
+      assertFalse(cached("max-age=60, no-cache").isFresh(0L, CacheControl.EMPTY));
+   }
+
+   @Test
+   public void testRequestMaxAge() {
+      CachedResponse cached = cached("max-age=60");
+      assertTrue(cached.isFresh(10000L, requestCacheControl("max-age=10")));
+      assertFalse(cached.isFresh(10001L, requestCacheControl("max-age=10")));
+      assertFalse(cached.isFresh(1L, requestCacheControl("max-age=0")));
+      assertFalse(cached.isFresh(70000L, requestCacheControl("max-age=120")));
+   }
+
+   @Test
+   public void testRequestMinFresh() {
+      CachedResponse cached = cached("max-age=60");
+      assertTrue(cached.isFresh(50000L, requestCacheControl("min-fresh=10")));
+      assertFalse(cached.isFresh(50001L, requestCacheControl("min-fresh=10")));
+      assertFalse(cached.isFresh(0L, requestCacheControl("min-fresh=61")));
+      assertTrue(cached.isFresh(0L, requestCacheControl("min-fresh=invalid")));
+   }
+
+   @Test
+   public void testRequestMaxStale() {
+      CachedResponse cached = cached("max-age=60");
+      assertTrue(cached.isFresh(70000L, requestCacheControl("max-stale=10")));
+      assertFalse(cached.isFresh(70001L, requestCacheControl("max-stale=10")));
+      assertTrue(cached.isFresh(Long.MAX_VALUE / 2L, requestCacheControl("max-stale")));
+      assertFalse(cached.isFresh(70000L, requestCacheControl("max-stale=10, max-age=60")));
+      assertFalse(cached("max-age=60, must-revalidate").isFresh(60001L, requestCacheControl("max-stale")));
+      assertFalse(cached("max-age=60, no-cache").isFresh(60001L, requestCacheControl("max-stale")));
+   }
+
+   private static CachedResponse cached(final String cacheControl) {
+      Response response = new ResponseBuilder(200, "cached").addHeader("Cache-Control", cacheControl).create();
+      return new CachedResponse(response, null, 0L, 0L);
+   }
+
+   private static CacheControl requestCacheControl(final String cacheControl) {
+      return CacheControl.parse(ImmutableList.of(cacheControl));
+   }
+}
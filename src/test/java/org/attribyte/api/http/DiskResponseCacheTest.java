@@ -0,0 +1,248 @@
+/*
+ * Copyright 2026 Attribyte Labs, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ *
+ */
+
+package org.attribyte.api.http;
+
+import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.io.ByteSource;
+import com.google.protobuf.ByteString;
+import org.attribyte.api.http.impl.TestHttpServer;
+import org.attribyte.api.http.impl.jdk.JdkClient;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class DiskResponseCacheTest {
+
+   private static JdkClient client;
+   private static TestHttpServer server;
+
+   @BeforeClass
+   public static void setUp() throws Exception {
+      server = new TestHttpServer();
+      server.start();
+      client = new JdkClient(ClientOptions.IMPLEMENTATION_DEFAULT);
+   }
+
+   @AfterClass
+   public static void tearDown() throws Exception {
+      client.shutdown();
+      server.stop();
+   }
+
+   @Rule
+   public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+   @Test
+   public void testDiskResponseCache() throws Exception {
+      Path directory = temporaryFolder.newFolder("disk-cache").toPath();
+      Request request = new GetRequestBuilder(server.baseUrl() + "/cacheable?maxAge=60&disk").create();
+      DiskResponseCache cache = new DiskResponseCache(directory, 1024L * 1024L, 64L * 1024L, 0L);
+      Response response = new CachingClient(client, cache).send(request);
+      assertEquals(CachedResponse.CacheStatus.MISS, response.getAttribute(CachedResponse.CACHE_STATUS_ATTRIBUTE));
+      cache.close();
+
+      cache = new DiskResponseCache(directory, 1024L * 1024L, 64L * 1024L, 0L);
+      Response cached = new CachingClient(client, cache).send(request);
+      assertEquals(CachedResponse.CacheStatus.HIT, cached.getAttribute(CachedResponse.CACHE_STATUS_ATTRIBUTE));
+      assertTrue(cached instanceof StreamedResponse);
+      assertEquals(response.getBody(), cached.getBody());
+      assertEquals("text/plain", cached.getContentType());
+
+      //Not closed, so the index is rebuilt. A partial record at the end of the segment is discarded.
+      try(DirectoryStream<Path> segments = Files.newDirectoryStream(directory, "*.seg")) {
+         for(Path segment : segments) {
+            Files.write(segment, new byte[] {0x48, 0x43, 0x41}, StandardOpenOption.APPEND);
+         }
+      }
+      DiskResponseCache recovered = new DiskResponseCache(directory, 1024L * 1024L, 64L * 1024L, 0L);
+      assertEquals(1, recovered.size());
+      CachedResponse recoveredResponse = recovered.get(request.uri.toString());
+      assertNotNull(recoveredResponse);
+      assertEquals(response.getBody(), recoveredResponse.response.getBody());
+      recovered.close();
+   }
+
+
+   @Test
+   public void testDiskResponseCacheCompaction() throws Exception {
+      Path directory = temporaryFolder.newFolder("disk-cache").toPath();
+      DiskResponseCache cache = new DiskResponseCache(directory, 1024L * 1024L, 64L * 1024L, 0L);
+      byte[] body = new byte[1024];
+      for(int i = 0; i < 256; i++) {
+         body[0] = (byte)i;
+         cache.put("replaced", new CachedResponse(new ResponseBuilder(200, body).create(), null, 0L, 0L));
+         cache.put("key-" + (i % 8), new CachedResponse(new ResponseBuilder(200, body).create(), null, 0L, 0L));
+      }
+      cache.remove("key-0");
+      assertEquals(8, cache.size());
+      long diskBytes = cache.diskBytes();
+      cache.compact();
+      assertTrue(cache.compactions() > 0L);
+      assertTrue(cache.diskBytes() < diskBytes);
+      assertEquals((byte)255, cache.get("replaced").response.getBody().byteAt(0));
+      assertNull(cache.get("key-0"));
+      assertEquals(1024, cache.get("key-7").response.getBody().size());
+      cache.close();
+
+      cache = new DiskResponseCache(directory, 1024L * 1024L, 64L * 1024L, 0L);
+      assertEquals(8, cache.size());
+      assertEquals((byte)255, cache.get("replaced").response.getBody().byteAt(0));
+      assertNull(cache.get("key-0"));
+      assertEquals(0L, cache.errors());
+      cache.close();
+   }
+
+
+   @Test
+   public void testDiskResponseCacheCompactedRemoval() throws Exception {
+      Path directory = temporaryFolder.newFolder("disk-cache").toPath();
+      DiskResponseCache cache = new DiskResponseCache(directory, 1024L * 1024L, 64L * 1024L, 0L);
+      byte[] body = new byte[1024];
+      cache.put("removed", new CachedResponse(new ResponseBuilder(200, body).create(), null, 0L, 0L));
+      for(int i = 0; segmentCount(directory) < 2; i++) {
+         cache.put("live-" + i, new CachedResponse(new ResponseBuilder(200, body).create(), null, 0L, 0L));
+      }
+      cache.remove("removed");
+      int replaced = 0;
+      while(segmentCount(directory) < 3) {
+         cache.put("replaced", new CachedResponse(new ResponseBuilder(200, body).create(), null, 0L, 0L));
+         replaced++;
+      }
+      assertTrue(replaced > 32);
+
+      //The second segment, with the removal, is compacted. The first segment still has the removed response.
+      cache.compact();
+      assertEquals(1L, cache.compactions());
+      assertNull(cache.get("removed"));
+      assertNotNull(cache.get("live-0"));
+
+      //Not closed, so the index is rebuilt from the segments.
+      DiskResponseCache recovered = new DiskResponseCache(directory, 1024L * 1024L, 64L * 1024L, 0L);
+      assertEquals(cache.size(), recovered.size());
+      assertNull(recovered.get("removed"));
+      assertNotNull(recovered.get("live-0"));
+      assertNotNull(recovered.get("replaced"));
+      recovered.close();
+      cache.close();
+   }
+
+
+   @Test
+   public void testDiskResponseCacheConcurrentPut() throws Exception {
+      Path directory = temporaryFolder.newFolder("disk-cache").toPath();
+      DiskResponseCache cache = new DiskResponseCache(directory, 1024L * 1024L, 64L * 1024L, 0L);
+      byte[] body = new byte[4096];
+      for(int i = 0; i < body.length; i++) {
+         body[i] = (byte)(i % 251);
+      }
+      CountDownLatch reading = new CountDownLatch(1);
+      CountDownLatch release = new CountDownLatch(1);
+      ByteSource slowBody = new ByteSource() {
+         @Override
+         public InputStream openStream() throws IOException {
+            reading.countDown();
+            try {
+               release.await();
+            } catch(InterruptedException ie) {
+               throw new IOException(ie);
+            }
+            return new ByteArrayInputStream(body);
+         }
+
+         @Override
+         public Optional<Long> sizeIfKnown() {
+            return Optional.of((long)body.length);
+         }
+      };
+
+      ExecutorService writer = Executors.newFixedThreadPool(2);
+      try {
+         Future<?> slowPut = writer.submit(() -> cache.put("slow",
+                 new CachedResponse(new StreamedResponse(200, ImmutableMap.of(), slowBody, null, null, null), null, 0L, 0L)));
+         assertTrue(reading.await(5, TimeUnit.SECONDS));
+
+         //The cache is not locked while the slow body is written.
+         writer.submit(() -> {
+            cache.put("fast", new CachedResponse(new ResponseBuilder(200, body).create(), null, 0L, 0L));
+            return cache.get("fast");
+         }).get(5, TimeUnit.SECONDS);
+         assertNull(cache.get("slow"));
+         assertNotNull(cache.get("fast"));
+
+         release.countDown();
+         slowPut.get(5, TimeUnit.SECONDS);
+         assertEquals(ByteString.copyFrom(body), cache.get("slow").response.getBody());
+      } finally {
+         release.countDown();
+         writer.shutdownNow();
+      }
+
+      //A body shorter than its size is not stored, and the record is skipped by recovery.
+      ByteSource shortBody = new ByteSource() {
+         @Override
+         public InputStream openStream() {
+            return new ByteArrayInputStream(body, 0, 16);
+         }
+
+         @Override
+         public Optional<Long> sizeIfKnown() {
+            return Optional.of((long)body.length);
+         }
+      };
+      cache.put("short", new CachedResponse(new StreamedResponse(200, ImmutableMap.of(), shortBody, null, null, null), null, 0L, 0L));
+      assertNull(cache.get("short"));
+      assertEquals(1L, cache.errors());
+      cache.put("after", new CachedResponse(new ResponseBuilder(200, body).create(), null, 0L, 0L));
+
+      DiskResponseCache recovered = new DiskResponseCache(directory, 1024L * 1024L, 64L * 1024L, 0L);
+      assertEquals(3, recovered.size());
+      assertNull(recovered.get("short"));
+      assertEquals(ByteString.copyFrom(body), recovered.get("slow").response.getBody());
+      assertEquals(ByteString.copyFrom(body), recovered.get("after").response.getBody());
+      assertEquals(0L, recovered.errors());
+      recovered.close();
+      cache.close();
+   }
+
+
+   private static int segmentCount(final Path directory) throws IOException {
+      int count = 0;
+      try(DirectoryStream<Path> segments = Files.newDirectoryStream(directory, "*.seg")) {
+         for(Path ignored : segments) {
+            count++;
+         }
+      }
+      return count;
+   }
+}
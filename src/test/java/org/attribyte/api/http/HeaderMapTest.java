@@ -0,0 +1,174 @@
+/*
+ * Copyright 2026 Attribyte Labs, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ *
+ */
+
+package org.attribyte.api.http;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import org.attribyte.api.http.impl.TestHttpServer;
+import org.attribyte.api.http.impl.jdk.JdkClient;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class HeaderMapTest {
+
+   private static JdkClient client;
+   private static TestHttpServer server;
+
+   @BeforeClass
+   public static void setUp() throws Exception {
+      server = new TestHttpServer();
+      server.start();
+      client = new JdkClient(ClientOptions.IMPLEMENTATION_DEFAULT);
+   }
+
+   @AfterClass
+   public static void tearDown() throws Exception {
+      client.shutdown();
+      server.stop();
+   }
+
+   @Test
+   public void testHeaderLookupIgnoresCase() throws Exception {
+      Request request = new GetRequestBuilder(server.baseUrl() + "/headers")
+              .addHeader("X-Custom-Header", "custom-value")
+              .addHeader("x-custom-header", "second-value")
+              .create();
+      assertEquals(1, request.headers.size());
+      assertEquals(ImmutableList.of("custom-value", "second-value"), request.getHeaderValueList("X-CUSTOM-HEADER"));
+      request = request.addHeaders(ImmutableList.of(new Header("X-CUSTOM-HEADER", "replaced")));
+      assertEquals(1, request.headers.size());
+      assertEquals("replaced", request.getHeaderValue("x-custom-header"));
+
+      Response response = client.send(request, RequestOptions.DEFAULT);
+      assertEquals(200, response.statusCode);
+      assertEquals("replaced", response.getHeaderValue("X-Echo-X-Custom-Header"));
+      assertEquals("replaced", response.getHeaderValue("X-ECHO-X-CUSTOM-HEADER"));
+      assertTrue(response.headers.containsKey("x-echo-x-custom-header"));
+      assertNull(response.getHeaderValue("X-Missing"));
+      ImmutableMap<String, Header> headers = response.headers;
+      assertSame(headers, response.headers);
+   }
+
+   @Test
+   public void testHeaderNamesFoldOnlyAscii() throws Exception {
+      Request request = new GetRequestBuilder(server.baseUrl() + "/headers")
+              .addHeader("X-\u00C9t\u00E9", "accented")
+              .addHeader("X-\u212A", "kelvin")
+              .create();
+      assertEquals(ImmutableSet.of("x-\u00C9t\u00E9", "x-\u212A"), request.headers.keySet());
+      assertEquals("accented", request.getHeaderValue("x-\u00C9T\u00E9"));
+      assertNull(request.getHeaderValue("x-\u00E9t\u00E9"));
+      assertEquals("kelvin", request.getHeaderValue("x-\u212A"));
+      assertNull(request.getHeaderValue("x-k"));
+   }
+
+   @Test
+   public void testProbingAfterReplacement() throws Exception {
+      List<String> names = collidingNames(3, 8);
+      HeaderMap.Builder builder = new HeaderMap.Builder(4);
+      for(String name : names) {
+         builder.add(name, "first");
+      }
+      builder.put(new Header(names.get(0).toUpperCase(), "replaced"));
+      builder.put(new Header(names.get(1), "replaced"));
+      assertEquals(3, builder.size());
+      HeaderMap headerMap = builder.build();
+      assertEquals(3, headerMap.size());
+      assertEquals("replaced", headerMap.get(names.get(0)).getValue());
+      assertEquals(names.get(0).toUpperCase(), headerMap.get(names.get(0)).name);
+      assertEquals("replaced", headerMap.get(names.get(1).toUpperCase()).getValue());
+      assertEquals("first", headerMap.get(names.get(2)).getValue());
+      assertEquals(ImmutableList.copyOf(names), ImmutableList.copyOf(headerMap.keySet()));
+
+      //Request headers are replaced the same way
+      Request request = new GetRequestBuilder("http://localhost/").addHeaders(headerMap).create();
+      request = request.addHeaders(ImmutableList.of(new Header(names.get(0), "again")));
+      assertEquals(3, request.headers.size());
+      assertEquals("again", request.getHeaderValue(names.get(0).toUpperCase()));
+      assertEquals("replaced", request.getHeaderValue(names.get(1)));
+      assertEquals("first", request.getHeaderValue(names.get(2)));
+   }
+
+   @Test
+   public void testProbingAfterResize() {
+      List<String> names = collidingNames(4, 8);
+      HeaderMap.Builder builder = new HeaderMap.Builder(4);
+      for(String name : names) {
+         builder.add(name, name);
+      }
+      HeaderMap beforeResize = builder.build();
+      for(int i = 0; i < 64; i++) {
+         builder.add("X-Header-" + i, Integer.toString(i));
+      }
+      for(String name : names) {
+         builder.add(name.toUpperCase(), "second");
+      }
+      HeaderMap headerMap = builder.build();
+      assertEquals(4, beforeResize.size());
+      assertEquals(68, headerMap.size());
+      for(String name : names) {
+         assertEquals(name, beforeResize.get(name.toUpperCase()).getValue());
+         assertEquals(ImmutableList.of(name, "second"), headerMap.get(name.toUpperCase()).getValueList());
+      }
+      for(int i = 0; i < 64; i++) {
+         assertEquals(Integer.toString(i), headerMap.get("x-header-" + i).getValue());
+      }
+      assertNull(headerMap.get("x-header-64"));
+      assertEquals(headerMap.size(), headerMap.toImmutableMap().size());
+      assertEquals(headerMap.toImmutableMap(), builder.buildImmutableMap());
+   }
+
+   @Test
+   public void testLowerCaseName() {
+      assertSame("content-type", HeaderMap.lowerCaseName("Content-Type"));
+      assertSame("content-type", HeaderMap.lowerCaseName("CONTENT-TYPE"));
+      assertSame(HeaderMap.lowerCaseName("ETag"), HeaderMap.lowerCaseName("etAG"));
+      assertSame("x-request-id", HeaderMap.lowerCaseName("X-Request-ID"));
+
+      String lowerCase = new String("x-custom");
+      assertSame(lowerCase, HeaderMap.lowerCaseName(lowerCase));
+      assertEquals("x-custom", HeaderMap.lowerCaseName("X-Custom"));
+      assertNotSame(HeaderMap.lowerCaseName("X-Custom"), HeaderMap.lowerCaseName("X-Custom"));
+      assertEquals("x-\u00C9t\u00E9", HeaderMap.lowerCaseName("X-\u00C9t\u00E9"));
+   }
+
+   /**
+    * Finds lower-case names with the same slot in a table of the given size.
+    */
+   private static List<String> collidingNames(final int count, final int tableSize) {
+      ImmutableList.Builder<String> names = ImmutableList.builder();
+      int slot = -1;
+      int found = 0;
+      for(int i = 0; found < count; i++) {
+         String name = "x-probe-" + i;
+         int nameSlot = HeaderMap.hash(name) & (tableSize - 1);
+         if(slot == -1) {
+            slot = nameSlot;
+         }
+         if(nameSlot == slot) {
+            names.add(name);
+            found++;
+         }
+      }
+      return names.build();
+   }
+}
@@ -0,0 +1,217 @@
+/*
+ * Copyright 2026 Attribyte Labs, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ *
+ */
+
+
+package org.attribyte.api.http;
+
+import com.google.common.collect.Lists;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.*;
+
+public class LatencyHistogramTest {
+
+   @Test
+   public void testSubBucketBoundaries() {
+      for(int i = 0; i < 32; i++) {
+         assertEquals(i, LatencyHistogram.bucketIndex(i));
+         assertEquals(i, LatencyHistogram.bucketMidpoint(i));
+      }
+      assertEquals(32, LatencyHistogram.bucketIndex(32L));
+      assertEquals(32, LatencyHistogram.bucketIndex(33L));
+      assertEquals(33, LatencyHistogram.bucketIndex(34L));
+      assertEquals(47, LatencyHistogram.bucketIndex(63L));
+      assertEquals(48, LatencyHistogram.bucketIndex(64L));
+      assertEquals(48, LatencyHistogram.bucketIndex(67L));
+      assertEquals(49, LatencyHistogram.bucketIndex(68L));
+      assertEquals(33L, LatencyHistogram.bucketMidpoint(32));
+      assertEquals(66L, LatencyHistogram.bucketMidpoint(48));
+
+      //Each power-of-two range has 16 buckets, and the midpoint of each bucket is in that bucket.
+      int maxIndex = LatencyHistogram.bucketIndex((1L << 40) - 1L);
+      for(int exponent = 5; exponent < 40; exponent++) {
+         long lower = 1L << exponent;
+         assertEquals(LatencyHistogram.bucketIndex(lower - 1L) + 1, LatencyHistogram.bucketIndex(lower));
+         assertEquals(LatencyHistogram.bucketIndex(lower) + 15, LatencyHistogram.bucketIndex(2L * lower - 1L));
+      }
+      for(int index = 0; index <= maxIndex; index++) {
+         assertEquals(index, LatencyHistogram.bucketIndex(LatencyHistogram.bucketMidpoint(index)));
+      }
+   }
+
+   @Test
+   public void testRelativeError() {
+      for(long value = 1L; value < (1L << 40); value = value * 3L + 1L) {
+         long midpoint = LatencyHistogram.bucketMidpoint(LatencyHistogram.bucketIndex(value));
+         assertTrue(Math.abs(midpoint - value) <= Math.max(1L, value / 32L));
+      }
+   }
+
+   @Test
+   public void testPercentile() {
+      LatencyHistogram histogram = new LatencyHistogram(1);
+      assertEquals(0L, histogram.snapshot().percentile(50.0));
+      for(long value = 1L; value <= 100L; value++) {
+         histogram.record(value * 1000L);
+      }
+      histogram.record(-1L);
+      LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+      assertEquals(100L, snapshot.count);
+      assertEquals(5050000L, snapshot.sum);
+      assertEquals(100000L, snapshot.max);
+      assertEquals(50500.0, snapshot.mean(), 0.0);
+
+      //The midpoint of the bucket with the value at the rank
+      assertEquals(LatencyHistogram.bucketMidpoint(LatencyHistogram.bucketIndex(50000L)), snapshot.percentile(50.0));
+      assertEquals(LatencyHistogram.bucketMidpoint(LatencyHistogram.bucketIndex(90000L)), snapshot.percentile(90.0));
+      assertEquals(LatencyHistogram.bucketMidpoint(LatencyHistogram.bucketIndex(1000L)), snapshot.percentile(0.0));
+      assertEquals(LatencyHistogram.bucketMidpoint(LatencyHistogram.bucketIndex(1000L)), snapshot.percentile(-1.0));
+      assertEquals(50L, snapshot.percentile(50.0, TimeUnit.MICROSECONDS), 2L);
+
+      //Limited to the maximum recorded
+      assertEquals(100000L, snapshot.percentile(100.0));
+      assertEquals(100000L, snapshot.percentile(200.0));
+      assertTrue(snapshot.percentile(99.0) <= 100000L);
+   }
+
+   @Test
+   public void testClamp() {
+      LatencyHistogram histogram = new LatencyHistogram(1);
+      histogram.record(1L << 41);
+      histogram.record(Long.MAX_VALUE);
+      histogram.record(1L, TimeUnit.HOURS);
+      LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+      assertEquals(3L, snapshot.count);
+      assertEquals((1L << 40) - 1L, snapshot.max);
+      assertEquals(3L * ((1L << 40) - 1L), snapshot.sum);
+      long lastMidpoint = LatencyHistogram.bucketMidpoint(LatencyHistogram.bucketIndex((1L << 40) - 1L));
+      assertEquals(lastMidpoint, snapshot.percentile(100.0));
+      assertEquals(lastMidpoint, snapshot.percentile(1.0));
+   }
+
+   @Test
+   public void testSnapshotAndReset() {
+      LatencyHistogram histogram = new LatencyHistogram(2);
+      histogram.record(10L);
+      histogram.record(20L);
+      LatencyHistogram.Snapshot snapshot = histogram.snapshotAndReset();
+      assertEquals(2L, snapshot.count);
+      assertEquals(20L, snapshot.max);
+      assertEquals(0L, histogram.snapshot().count);
+      assertEquals(0L, histogram.snapshot().max);
+      histogram.record(5L);
+      histogram.reset();
+      assertEquals(0L, histogram.snapshot().count);
+   }
+
+   @Test
+   public void testMerge() {
+      LatencyHistogram first = new LatencyHistogram(1);
+      LatencyHistogram second = new LatencyHistogram(1);
+      for(int i = 0; i < 90; i++) {
+         first.record(1000L);
+      }
+      for(int i = 0; i < 10; i++) {
+         second.record(1000000L);
+      }
+      LatencyHistogram.Snapshot merged = first.snapshot().merge(second.snapshot());
+      assertEquals(100L, merged.count);
+      assertEquals(90L * 1000L + 10L * 1000000L, merged.sum);
+      assertEquals(1000000L, merged.max);
+      assertEquals(LatencyHistogram.bucketMidpoint(LatencyHistogram.bucketIndex(1000L)), merged.percentile(90.0));
+      assertEquals(LatencyHistogram.bucketMidpoint(LatencyHistogram.bucketIndex(1000000L)), merged.percentile(91.0));
+      assertEquals(merged.percentile(91.0), second.snapshot().merge(first.snapshot()).percentile(91.0));
+
+      LatencyHistogram.Snapshot empty = LatencyHistogram.Snapshot.EMPTY.merge(LatencyHistogram.Snapshot.EMPTY);
+      assertEquals(0L, empty.count);
+      assertEquals(0L, empty.percentile(50.0));
+      LatencyHistogram.Snapshot withEmpty = merged.merge(LatencyHistogram.Snapshot.EMPTY);
+      assertEquals(merged.count, withEmpty.count);
+      assertEquals(merged.sum, withEmpty.sum);
+      assertEquals(merged.percentile(50.0), withEmpty.percentile(50.0));
+   }
+
+   @Test
+   public void testConcurrentRecording() throws Exception {
+      final LatencyHistogram histogram = new LatencyHistogram(4);
+      final int threads = 8;
+      final int values = 20000;
+      final ExecutorService executor = Executors.newFixedThreadPool(threads + 1);
+      final CountDownLatch start = new CountDownLatch(1);
+      final AtomicBoolean recording = new AtomicBoolean(true);
+      try {
+         List<Future<?>> futures = Lists.newArrayList();
+         for(int t = 0; t < threads; t++) {
+            final long base = (t + 1) * 1000L;
+            futures.add(executor.submit(() -> {
+               start.await();
+               for(int i = 0; i < values; i++) {
+                  histogram.record(base + (i % 100));
+               }
+               return null;
+            }));
+         }
+
+         //Values recorded while snapshots are reset are in exactly one snapshot.
+         Future<Long> resets = executor.submit(() -> {
+            long count = 0L;
+            while(recording.get()) {
+               count += histogram.snapshotAndReset().count;
+            }
+            return count;
+         });
+         start.countDown();
+         for(Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+         }
+         recording.set(false);
+         long reset = resets.get(30, TimeUnit.SECONDS);
+         assertEquals((long)threads * values, reset + histogram.snapshot().count);
+      } finally {
+         executor.shutdownNow();
+      }
+
+      LatencyHistogram histogram2 = new LatencyHistogram(4);
+      final ExecutorService executor2 = Executors.newFixedThreadPool(threads);
+      try {
+         List<Future<?>> futures = Lists.newArrayList();
+         for(int t = 0; t < threads; t++) {
+            final long value = (t + 1) * 1000L;
+            futures.add(executor2.submit(() -> {
+               for(int i = 0; i < values; i++) {
+                  histogram2.record(value);
+               }
+            }));
+         }
+         for(Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+         }
+      } finally {
+         executor2.shutdownNow();
+      }
+      LatencyHistogram.Snapshot snapshot = histogram2.snapshot();
+      assertEquals((long)threads * values, snapshot.count);
+      assertEquals(values * 1000L * (threads * (threads + 1) / 2), snapshot.sum);
+      assertEquals(threads * 1000L, snapshot.max);
+   }
+}
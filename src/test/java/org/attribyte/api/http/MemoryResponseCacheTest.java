@@ -0,0 +1,59 @@
+/*
+ * Copyright 2026 Attribyte Labs, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ *
+ */
+
+package org.attribyte.api.http;
+
+import org.attribyte.api.http.impl.TestHttpServer;
+import org.attribyte.api.http.impl.jdk.JdkClient;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class MemoryResponseCacheTest {
+
+   private static JdkClient client;
+   private static TestHttpServer server;
+
+   @BeforeClass
+   public static void setUp() throws Exception {
+      server = new TestHttpServer();
+      server.start();
+      client = new JdkClient(ClientOptions.IMPLEMENTATION_DEFAULT);
+   }
+
+   @AfterClass
+   public static void tearDown() throws Exception {
+      client.shutdown();
+      server.stop();
+   }
+
+   @Test
+   public void testMemoryResponseCacheEviction() throws Exception {
+      MemoryResponseCache cache = new MemoryResponseCache(4096L);
+      CachingClient cachingClient = new CachingClient(client, cache);
+      Request frequent = new GetRequestBuilder(server.baseUrl() + "/cacheable?maxAge=60&frequent").create();
+      cachingClient.send(frequent);
+      cachingClient.send(frequent);
+      for(int i = 0; i < 64; i++) {
+         cachingClient.send(new GetRequestBuilder(server.baseUrl() + "/cacheable?maxAge=60&once=" + i).create());
+      }
+      assertTrue(cache.weight() <= 4096L);
+      assertTrue(cache.evictions() > 0L);
+      assertEquals(CachedResponse.CacheStatus.HIT,
+              cachingClient.send(frequent).getAttribute(CachedResponse.CACHE_STATUS_ATTRIBUTE));
+   }
+}
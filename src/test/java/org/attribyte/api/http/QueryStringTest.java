@@ -0,0 +1,128 @@
+/*
+ * Copyright 2026 Attribyte Labs, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ *
+ */
+
+
+package org.attribyte.api.http;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.Test;
+
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class QueryStringTest {
+
+   @Test
+   public void testGetValue() {
+      QueryString queryString = QueryString.parse("q=http+model&tag=a%26b&tag=c&tag=%E2%82%AC&empty&=ignored&eq=x=y");
+      assertEquals(6, queryString.size());
+      assertEquals("http model", queryString.getValue("q"));
+      assertEquals("a&b", queryString.getValue("tag"));
+      assertEquals("", queryString.getValue("empty"));
+      assertEquals("x=y", queryString.getValue("eq"));
+      assertNull(queryString.getValue("missing"));
+      assertNull(queryString.getValue("Q"));
+   }
+
+   @Test
+   public void testGetValues() {
+      QueryString queryString = QueryString.parse("tag=a%26b&other=x&tag=c&tag=%E2%82%AC");
+      assertEquals(ImmutableList.of("a&b", "c", "\u20ac"), queryString.getValues("tag"));
+      assertEquals(ImmutableList.of("x"), queryString.getValues("other"));
+      assertTrue(queryString.getValues("missing").isEmpty());
+   }
+
+   @Test
+   public void testIndexedAccess() {
+      QueryString queryString = QueryString.parse("a%20b=1&c=&d");
+      assertEquals(3, queryString.size());
+      assertEquals("a b", queryString.name(0));
+      assertEquals("1", queryString.value(0));
+      assertEquals("c", queryString.name(1));
+      assertEquals("", queryString.value(1));
+      assertEquals("d", queryString.name(2));
+      assertEquals("", queryString.value(2));
+      assertEquals("1", queryString.getValue("a b"));
+      try {
+         queryString.name(3);
+         fail("Expected IndexOutOfBoundsException");
+      } catch(IndexOutOfBoundsException ie) {
+         //Expected
+      }
+      try {
+         queryString.value(-1);
+         fail("Expected IndexOutOfBoundsException");
+      } catch(IndexOutOfBoundsException ie) {
+         //Expected
+      }
+   }
+
+   @Test
+   public void testInvalidEscapes() {
+      QueryString queryString = QueryString.parse("a=%zz&b=x%4&c=%&d=%4g%41&e=%E2%82");
+      assertEquals("%zz", queryString.getValue("a"));
+      assertEquals("x%4", queryString.getValue("b"));
+      assertEquals("%", queryString.getValue("c"));
+      assertEquals("%4gA", queryString.getValue("d"));
+      assertEquals("\ufffd", queryString.getValue("e"));
+
+      //Only ASCII hex digits are decoded
+      queryString = QueryString.parse("a=%\u0664\u0661&b=%\uff14\uff11&c=%4a%4A");
+      assertEquals("%\u0664\u0661", queryString.getValue("a"));
+      assertEquals("%\uff14\uff11", queryString.getValue("b"));
+      assertEquals("JJ", queryString.getValue("c"));
+   }
+
+   @Test
+   public void testLeadingQuestionMark() {
+      QueryString queryString = QueryString.parse("?a=1&b=2");
+      assertEquals(2, queryString.size());
+      assertEquals("a", queryString.name(0));
+      assertEquals("1", queryString.getValue("a"));
+      assertEquals("2", queryString.getValue("b"));
+      assertEquals(0, QueryString.parse("?").size());
+      assertEquals(0, QueryString.parse("").size());
+      assertEquals(0, QueryString.parse(null).size());
+   }
+
+   @Test
+   public void testNoDecode() {
+      Map<String, Parameter> parameters = Request.parseParameters("Name=a+b%20c&name=d&Other=100%");
+      assertEquals(2, parameters.size());
+      assertEquals(ImmutableList.of("a+b%20c", "d"), parameters.get("name").getValueList());
+      assertEquals("Name", parameters.get("name").name);
+      assertEquals("100%", parameters.get("other").getValue());
+
+      QueryString queryString = QueryString.parse("a+b=%41", false);
+      assertEquals("a+b", queryString.name(0));
+      assertEquals("%41", queryString.getValue("a+b"));
+   }
+
+   @Test
+   public void testToParameterMapCaseSensitive() {
+      Map<String, Parameter> parameters = QueryString.parse("Name=a&name=b&Name=c&x=%41").toParameterMap(false);
+      assertEquals(2, parameters.size());
+      assertEquals("Name", parameters.get("name").name);
+      assertEquals(ImmutableList.of("a", "b", "c"), parameters.get("name").getValueList());
+      assertEquals("A", parameters.get("x").getValue());
+
+      parameters = QueryString.parse("Name=a&name=b&Name=c").toParameterMap(true);
+      assertEquals(2, parameters.size());
+      assertEquals(ImmutableList.of("a", "c"), parameters.get("Name").getValueList());
+      assertEquals(ImmutableList.of("b"), parameters.get("name").getValueList());
+      assertTrue(QueryString.parse("").toParameterMap(false).isEmpty());
+   }
+}
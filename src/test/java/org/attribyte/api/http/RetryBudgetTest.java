@@ -0,0 +1,64 @@
+/*
+ * Copyright 2026 Attribyte Labs, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ *
+ */
+
+package org.attribyte.api.http;
+
+import org.attribyte.api.http.impl.TestHttpServer;
+import org.attribyte.api.http.impl.jdk.JdkClient;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class RetryBudgetTest {
+
+   private static JdkClient client;
+   private static TestHttpServer server;
+
+   @BeforeClass
+   public static void setUp() throws Exception {
+      server = new TestHttpServer();
+      server.start();
+      client = new JdkClient(ClientOptions.IMPLEMENTATION_DEFAULT);
+   }
+
+   @AfterClass
+   public static void tearDown() throws Exception {
+      client.shutdown();
+      server.stop();
+   }
+
+   @Test
+   public void testRetryBudget() throws Exception {
+      RetryingClient retryingClient = RetryingClient.builder(client)
+              .setBaseDelayMillis(10L)
+              .setRetryBudget(new RetryBudget(0.0, 0, 1))
+              .build();
+      Response response = retryingClient.send(new GetRequestBuilder(server.baseUrl() + "/flaky?id=jdk-budget&failures=1").create());
+      assertEquals(503, response.statusCode);
+      assertEquals(0L, retryingClient.retries());
+      assertEquals(1L, retryingClient.budgetExhausted());
+
+      RetryBudget budget = new RetryBudget(0.5, 0, 10);
+      for(int i = 0; i < 4; i++) {
+         budget.deposit();
+      }
+      assertEquals(2L, budget.available());
+      assertTrue(budget.tryWithdraw());
+      assertTrue(budget.tryWithdraw());
+      assertFalse(budget.tryWithdraw());
+   }
+}
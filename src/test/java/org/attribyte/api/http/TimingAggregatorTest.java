@@ -0,0 +1,162 @@
+/*
+ * Copyright 2026 Attribyte Labs, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ *
+ */
+
+
+package org.attribyte.api.http;
+
+import com.google.common.collect.Lists;
+import org.junit.Test;
+
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class TimingAggregatorTest {
+
+   @Test
+   public void testRecordAndSnapshot() throws Exception {
+      TimingAggregator aggregator = new TimingAggregator(1L, TimeUnit.HOURS);
+      long tick = System.nanoTime();
+      for(int i = 1; i <= 10; i++) {
+         aggregator.record("localhost", 8080, "search", 1000L * i, 2000L * i, 3000L * i, 4000L * i, tick);
+      }
+      aggregator.record("localhost", 8080, null, 1L, 1L, 1L, 1L, tick);
+      aggregator.record("localhost", 8081, "search", 1L, 1L, 1L, 1L, tick);
+      aggregator.record("localhost", 8080, "search", -1L, -1L, -1L, 50000L, tick);
+
+      TimingAggregator.Snapshot snapshot = aggregator.snapshot(new URI("http://localhost:8080/path"), "search");
+      assertEquals("localhost", snapshot.host);
+      assertEquals(8080, snapshot.port);
+      assertEquals("search", snapshot.tag);
+      assertEquals(10L, snapshot.phase(TimingAggregator.Phase.QUEUE).count);
+      assertEquals(55000L, snapshot.phase(TimingAggregator.Phase.QUEUE).sum);
+      assertEquals(20000L, snapshot.phase(TimingAggregator.Phase.SEND).max);
+      assertEquals(30000L, snapshot.phase(TimingAggregator.Phase.FIRST_BYTE).max);
+      assertEquals(11L, snapshot.phase(TimingAggregator.Phase.TOTAL).count);
+      assertEquals(50000L, snapshot.phase(TimingAggregator.Phase.TOTAL).max);
+
+      assertEquals(1L, aggregator.snapshot("localhost", 8080, null).phase(TimingAggregator.Phase.TOTAL).count);
+      assertEquals(1L, aggregator.snapshot("localhost", 8081, "search").phase(TimingAggregator.Phase.TOTAL).count);
+      assertNull(aggregator.snapshot("localhost", 8082, "search"));
+      assertNull(aggregator.snapshot("localhost", 8080, "other"));
+      assertNull(aggregator.snapshot("example.com", 8080, "search"));
+      assertEquals(3, aggregator.snapshots().size());
+   }
+
+   @Test
+   public void testPort() throws Exception {
+      assertEquals(80, TimingAggregator.port(new URI("http://localhost/")));
+      assertEquals(443, TimingAggregator.port(new URI("https://localhost/")));
+      assertEquals(443, TimingAggregator.port(new URI("HTTPS://localhost/")));
+      assertEquals(8443, TimingAggregator.port(new URI("https://localhost:8443/")));
+   }
+
+   @Test
+   public void testWindows() {
+      TimingAggregator aggregator = new TimingAggregator(1L, TimeUnit.HOURS);
+      long tick = System.nanoTime();
+      long window = TimeUnit.HOURS.toNanos(1L);
+      aggregator.record("localhost", 80, null, 1L, 1L, 1L, 1000L, tick);
+
+      //The previous window is included, so the value is retained for the next window.
+      aggregator.record("localhost", 80, null, 1L, 1L, 1L, 2000L, tick + window);
+      aggregator.evictIdle(tick + window);
+      assertEquals(2L, aggregator.snapshot("localhost", 80, null).phase(TimingAggregator.Phase.TOTAL).count);
+
+      //Idle for two windows
+      aggregator.evictIdle(tick + 4L * window);
+      assertNull(aggregator.snapshot("localhost", 80, null));
+      assertTrue(aggregator.snapshots().isEmpty());
+      aggregator.record("localhost", 80, null, 1L, 1L, 1L, 3000L, tick + 4L * window);
+      assertEquals(3000L, aggregator.snapshot("localhost", 80, null).phase(TimingAggregator.Phase.TOTAL).max);
+   }
+
+   @Test
+   public void testConcurrentRecording() throws Exception {
+      final TimingAggregator aggregator = new TimingAggregator(1L, TimeUnit.HOURS);
+      final int threads = 8;
+      final int values = 10000;
+      final ExecutorService executor = Executors.newFixedThreadPool(threads);
+      try {
+         List<Future<?>> futures = Lists.newArrayList();
+         for(int t = 0; t < threads; t++) {
+            final String tag = t % 2 == 0 ? "even" : "odd";
+            futures.add(executor.submit(() -> {
+               long tick = System.nanoTime();
+               for(int i = 0; i < values; i++) {
+                  aggregator.record("localhost", 80, tag, 1L, 1L, 1L, 1000L + i, tick);
+               }
+            }));
+         }
+         for(Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+         }
+      } finally {
+         executor.shutdownNow();
+      }
+      assertEquals((long)threads / 2L * values, aggregator.snapshot("localhost", 80, "even").phase(TimingAggregator.Phase.TOTAL).count);
+      assertEquals((long)threads / 2L * values, aggregator.snapshot("localhost", 80, "odd").phase(TimingAggregator.Phase.TOTAL).count);
+   }
+
+   @Test
+   public void testDerivedValue() {
+      TimingAggregator aggregator = new TimingAggregator(1L, TimeUnit.HOURS);
+      Object owner = new Object();
+      AtomicInteger computed = new AtomicInteger();
+      assertEquals(-1L, aggregator.derivedValue(owner, "localhost", 80, null, Long.MAX_VALUE / 2L, snapshot -> {
+         computed.incrementAndGet();
+         return 1L;
+      }));
+      assertEquals(0, computed.get());
+
+      long tick = System.nanoTime();
+      aggregator.record("localhost", 80, null, 1000L, 1000L, 1000L, 1000L, tick);
+      assertEquals(1L, aggregator.derivedValue(owner, "localhost", 80, null, Long.MAX_VALUE / 2L, snapshot -> {
+         computed.incrementAndGet();
+         return snapshot.phase(TimingAggregator.Phase.TOTAL).count;
+      }));
+      aggregator.record("localhost", 80, null, 1000L, 1000L, 1000L, 1000L, tick);
+      assertEquals(1L, aggregator.derivedValue(owner, "localhost", 80, null, Long.MAX_VALUE / 2L, snapshot -> {
+         computed.incrementAndGet();
+         return snapshot.phase(TimingAggregator.Phase.TOTAL).count;
+      }));
+      assertEquals(1, computed.get());
+
+      //Each owner has its own value, and a negative value is computed again.
+      Object other = new Object();
+      assertEquals(-1L, aggregator.derivedValue(other, "localhost", 80, null, Long.MAX_VALUE / 2L, snapshot -> -1L));
+      assertEquals(2L, aggregator.derivedValue(other, "localhost", 80, null, Long.MAX_VALUE / 2L,
+              snapshot -> snapshot.phase(TimingAggregator.Phase.TOTAL).count));
+      assertEquals(1L, aggregator.derivedValue(owner, "localhost", 80, null, Long.MAX_VALUE / 2L, snapshot -> 0L));
+
+      //Computed again when expired
+      Object expiring = new Object();
+      assertEquals(2L, aggregator.derivedValue(expiring, "localhost", 80, null, 0L, snapshot -> 2L));
+      assertEquals(3L, aggregator.derivedValue(expiring, "localhost", 80, null, 0L, snapshot -> 3L));
+      assertEquals(1L, aggregator.derivedValue(owner, "localhost", 80, null, Long.MAX_VALUE / 2L, snapshot -> 0L));
+      assertEquals(-1L, aggregator.derivedValue(owner, "localhost", 443, null, 0L, snapshot -> 3L));
+
+      //Discarded with the idle entry
+      aggregator.evictIdle(tick + TimeUnit.HOURS.toNanos(3L));
+      assertNull(aggregator.snapshot("localhost", 80, null));
+      assertEquals(-1L, aggregator.derivedValue(owner, "localhost", 80, null, Long.MAX_VALUE / 2L, snapshot -> 1L));
+   }
+}
@@ -24,6 +24,12 @@ import java.net.InetSocketAddress;
 import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * A local HTTP server for testing client implementations.
@@ -33,6 +39,11 @@ public class TestHttpServer {
 
    private final HttpServer server;
    private final int port;
+   private final AtomicInteger cacheableRequestCount = new AtomicInteger();
+   private final AtomicInteger delayRequestCount = new AtomicInteger();
+   private final Set<String> delayRequestIds = ConcurrentHashMap.newKeySet();
+   private final ExecutorService executor = Executors.newCachedThreadPool();
+   private final ConcurrentMap<String, AtomicInteger> flakyRequestCounts = new ConcurrentHashMap<>();
 
    public TestHttpServer() throws IOException {
       server = HttpServer.create(new InetSocketAddress(0), 0);
@@ -44,6 +55,13 @@ public class TestHttpServer {
       server.createContext("/server-error", this::handleServerError);
       server.createContext("/headers", this::handleHeaders);
       server.createContext("/form", this::handleForm);
+      server.createContext("/chunked", this::handleChunked);
+      server.createContext("/redirect", this::handleRedirect);
+      server.createContext("/loop", this::handleLoop);
+      server.createContext("/cacheable", this::handleCacheable);
+      server.createContext("/delay", this::handleDelay);
+      server.createContext("/flaky", this::handleFlaky);
+      server.setExecutor(executor);
    }
 
    public void start() {
@@ -52,6 +70,7 @@ public class TestHttpServer {
 
    public void stop() {
       server.stop(0);
+      executor.shutdownNow();
    }
 
    public int getPort() {
@@ -62,6 +81,19 @@ public class TestHttpServer {
       return "http://localhost:" + port;
    }
 
+   public int cacheableRequestCount() {
+      return cacheableRequestCount.get();
+   }
+
+   public int delayRequestCount() {
+      return delayRequestCount.get();
+   }
+
+   public int flakyRequestCount(String id) {
+      AtomicInteger count = flakyRequestCounts.get(id);
+      return count != null ? count.get() : 0;
+   }
+
    private void handleOk(HttpExchange exchange) throws IOException {
       String method = exchange.getRequestMethod();
       exchange.getRequestBody().readAllBytes(); // drain
@@ -184,4 +216,166 @@ public class TestHttpServer {
          os.write(body);
       }
    }
+
+   private void handleChunked(HttpExchange exchange) throws IOException {
+      byte[] requestBody = exchange.getRequestBody().readAllBytes();
+
+      // Echo the request body with chunked transfer encoding (no Content-Length)
+      exchange.getResponseHeaders().add("Content-Type", "application/octet-stream");
+      exchange.sendResponseHeaders(200, 0);
+      try(OutputStream os = exchange.getResponseBody()) {
+         for(int pos = 0; pos < requestBody.length; pos += 1024) {
+            os.write(requestBody, pos, Math.min(1024, requestBody.length - pos));
+            os.flush();
+         }
+      }
+   }
+
+   private void handleRedirect(HttpExchange exchange) throws IOException {
+      exchange.getRequestBody().readAllBytes(); // drain
+
+      // Redirect to the path in 'to' with the status in 'status' (default 302)
+      String to = "/ok";
+      int status = 302;
+      String query = exchange.getRequestURI().getRawQuery();
+      if(query != null) {
+         for(String param : query.split("&")) {
+            if(param.startsWith("to=")) {
+               to = param.substring(3);
+            } else if(param.startsWith("status=")) {
+               status = Integer.parseInt(param.substring(7));
+            }
+         }
+      }
+
+      byte[] body = "Redirect".getBytes(StandardCharsets.UTF_8);
+      exchange.getResponseHeaders().add("Location", to);
+      exchange.sendResponseHeaders(status, body.length);
+      try(OutputStream os = exchange.getResponseBody()) {
+         os.write(body);
+      }
+   }
+
+   private void handleLoop(HttpExchange exchange) throws IOException {
+      exchange.getRequestBody().readAllBytes(); // drain
+      exchange.getResponseHeaders().add("Location", "/loop");
+      exchange.sendResponseHeaders(302, -1);
+      exchange.close();
+   }
+
+   private void handleCacheable(HttpExchange exchange) throws IOException {
+      exchange.getRequestBody().readAllBytes(); // drain
+      int count = cacheableRequestCount.incrementAndGet();
+
+      // Cache headers are set from the 'maxAge', 'etag', 'vary' and 'noStore' parameters
+      String etag = null;
+      String query = exchange.getRequestURI().getRawQuery();
+      if(query != null) {
+         for(String param : query.split("&")) {
+            if(param.startsWith("maxAge=")) {
+               exchange.getResponseHeaders().add("Cache-Control", "max-age=" + param.substring(7));
+            } else if(param.startsWith("etag=")) {
+               etag = "\"" + param.substring(5) + "\"";
+               exchange.getResponseHeaders().add("ETag", etag);
+            } else if(param.startsWith("vary=")) {
+               exchange.getResponseHeaders().add("Vary", param.substring(5));
+            } else if(param.equals("noStore")) {
+               exchange.getResponseHeaders().add("Cache-Control", "no-store");
+            }
+         }
+      }
+
+      if(etag != null && etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+         exchange.sendResponseHeaders(304, -1);
+         exchange.close();
+         return;
+      }
+
+      byte[] body = ("CACHEABLE " + count).getBytes(StandardCharsets.UTF_8);
+      exchange.getResponseHeaders().add("Content-Type", "text/plain");
+      exchange.sendResponseHeaders(200, body.length);
+      try(OutputStream os = exchange.getResponseBody()) {
+         os.write(body);
+      }
+   }
+
+   private void handleDelay(HttpExchange exchange) throws IOException {
+      exchange.getRequestBody().readAllBytes(); // drain
+      int count = delayRequestCount.incrementAndGet();
+
+      // Responds after the number of milliseconds in 'ms' (default 100), or 'firstMs' for the first request with 'id'
+      long delayMillis = 100L;
+      long firstDelayMillis = -1L;
+      String id = null;
+      String query = exchange.getRequestURI().getRawQuery();
+      if(query != null) {
+         for(String param : query.split("&")) {
+            if(param.startsWith("ms=")) {
+               delayMillis = Long.parseLong(param.substring(3));
+            } else if(param.startsWith("firstMs=")) {
+               firstDelayMillis = Long.parseLong(param.substring(8));
+            } else if(param.startsWith("id=")) {
+               id = param.substring(3);
+            }
+         }
+      }
+
+      if(id != null && firstDelayMillis >= 0L && delayRequestIds.add(id)) {
+         delayMillis = firstDelayMillis;
+      }
+
+      try {
+         Thread.sleep(delayMillis);
+      } catch(InterruptedException ie) {
+         Thread.currentThread().interrupt();
+      }
+
+      byte[] body = ("DELAYED " + count).getBytes(StandardCharsets.UTF_8);
+      exchange.getResponseHeaders().add("Content-Type", "text/plain");
+      exchange.sendResponseHeaders(200, body.length);
+      try(OutputStream os = exchange.getResponseBody()) {
+         os.write(body);
+      }
+   }
+
+   private void handleFlaky(HttpExchange exchange) throws IOException {
+      exchange.getRequestBody().readAllBytes(); // drain
+
+      // Responds with 503 (or 'status') for the first 'failures' requests with the same 'id'
+      String id = "";
+      int failures = 1;
+      int status = 503;
+      String retryAfter = null;
+      String query = exchange.getRequestURI().getRawQuery();
+      if(query != null) {
+         for(String param : query.split("&")) {
+            if(param.startsWith("id=")) {
+               id = param.substring(3);
+            } else if(param.startsWith("failures=")) {
+               failures = Integer.parseInt(param.substring(9));
+            } else if(param.startsWith("status=")) {
+               status = Integer.parseInt(param.substring(7));
+            } else if(param.startsWith("retryAfter=")) {
+               retryAfter = param.substring(11);
+            }
+         }
+      }
+
+      int count = flakyRequestCounts.computeIfAbsent(id, key -> new AtomicInteger()).incrementAndGet();
+      if(count <= failures) {
+         if(retryAfter != null) {
+            exchange.getResponseHeaders().add("Retry-After", retryAfter);
+         }
+         exchange.sendResponseHeaders(status, -1);
+         exchange.close();
+         return;
+      }
+
+      byte[] body = ("FLAKY " + count).getBytes(StandardCharsets.UTF_8);
+      exchange.getResponseHeaders().add("Content-Type", "text/plain");
+      exchange.sendResponseHeaders(200, body.length);
+      try(OutputStream os = exchange.getResponseBody()) {
+         os.write(body);
+      }
+   }
 }
@@ -0,0 +1,249 @@
+/*
+ * Copyright 2026 Attribyte Labs, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ *
+ */
+
+package org.attribyte.api.http.impl;
+
+import com.google.common.collect.ConcurrentHashMultiset;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.LinkedListMultimap;
+import com.google.common.collect.ListMultimap;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Multiset;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * A servlet request, without a container, for testing servlet bridges.
+ * <p>
+ *    The request is a proxy for either the {@code javax} or {@code jakarta} interface,
+ *    and records the number of calls to each method.
+ * </p>
+ */
+public class TestServletRequest implements InvocationHandler {
+
+   /**
+    * Creates a request.
+    * @param method The method.
+    * @param requestURL The URL, without the query string.
+    * @param queryString The raw query string, or {@code null}.
+    */
+   public TestServletRequest(final String method, final String requestURL, final String queryString) {
+      this.method = method;
+      this.requestURL = requestURL;
+      this.queryString = queryString;
+   }
+
+   /**
+    * Adds a header.
+    * @param name The name.
+    * @param value The value.
+    * @return A self-reference.
+    */
+   public TestServletRequest addHeader(final String name, final String value) {
+      headers.put(name, value);
+      return this;
+   }
+
+   /**
+    * Adds a parameter reported by the container.
+    * @param name The name.
+    * @param value The value.
+    * @return A self-reference.
+    */
+   public TestServletRequest addParameter(final String name, final String value) {
+      parameters.put(name, value);
+      return this;
+   }
+
+   /**
+    * Sets the body.
+    * @param body The body.
+    * @param inputStream A function that wraps the body as a servlet input stream.
+    * @return A self-reference.
+    */
+   public TestServletRequest setBody(final byte[] body, final Function<InputStream, ?> inputStream) {
+      this.body = body;
+      this.inputStream = inputStream;
+      return this;
+   }
+
+   /**
+    * Reports an unknown content length for the body.
+    * @return A self-reference.
+    */
+   public TestServletRequest setContentLengthUnknown() {
+      this.contentLengthKnown = false;
+      return this;
+   }
+
+   /**
+    * Sets the async context returned when asynchronous processing is started.
+    * @param asyncContext The async context.
+    * @return A self-reference.
+    */
+   public TestServletRequest setAsyncContext(final Object asyncContext) {
+      this.asyncContext = asyncContext;
+      return this;
+   }
+
+   /**
+    * Creates the proxy.
+    * @param servletRequestClass The servlet request interface.
+    * @param <T> The interface type.
+    * @return The request.
+    */
+   public <T> T create(final Class<T> servletRequestClass) {
+      return servletRequestClass.cast(Proxy.newProxyInstance(servletRequestClass.getClassLoader(),
+              new Class<?>[]{servletRequestClass}, this));
+   }
+
+   /**
+    * Gets the number of calls to any of the methods.
+    * @param methodNames The method names.
+    * @return The number of calls.
+    */
+   public int calls(final String... methodNames) {
+      int count = 0;
+      for(String methodName : methodNames) {
+         count += calls.count(methodName);
+      }
+      return count;
+   }
+
+   /**
+    * Gets the number of body bytes read.
+    * @return The number of bytes read.
+    */
+   public int bodyBytesRead() {
+      return bodyBytesRead;
+   }
+
+   @Override
+   public Object invoke(final Object proxy, final Method m, final Object[] args) {
+      calls.add(m.getName());
+      switch(m.getName()) {
+         case "getMethod":
+            return method;
+         case "getRequestURL":
+            return new StringBuffer(requestURL);
+         case "getQueryString":
+            return queryString;
+         case "getRemoteAddr":
+            return "127.0.0.1";
+         case "getContentType":
+            return header("Content-Type").stream().findFirst().orElse(null);
+         case "getHeader":
+            return header((String)args[0]).stream().findFirst().orElse(null);
+         case "getHeaders":
+            return Collections.enumeration(header((String)args[0]));
+         case "getHeaderNames":
+            return Collections.enumeration(headers.keySet());
+         case "getParameter":
+            return parameters.get((String)args[0]).stream().findFirst().orElse(null);
+         case "getParameterValues":
+            List<String> values = parameters.get((String)args[0]);
+            return values.isEmpty() ? null : values.toArray(new String[0]);
+         case "getParameterMap":
+            Map<String, String[]> parameterMap = Maps.newLinkedHashMap();
+            parameters.asMap().forEach((name, vals) -> parameterMap.put(name, vals.toArray(new String[0])));
+            return parameterMap;
+         case "getContentLength":
+            return body == null || !contentLengthKnown ? -1 : body.length;
+         case "getContentLengthLong":
+            return body == null || !contentLengthKnown ? -1L : (long)body.length;
+         case "getInputStream":
+            return inputStream.apply(new CountingInputStream(body == null ? new byte[0] : body));
+         case "isAsyncStarted":
+            return asyncStarted;
+         case "startAsync":
+            if(asyncContext == null) {
+               throw new IllegalStateException("Async not supported");
+            }
+            asyncStarted = true;
+            return asyncContext;
+         case "getAsyncContext":
+            if(!asyncStarted) {
+               throw new IllegalStateException("Async not started");
+            }
+            return asyncContext;
+         case "hashCode":
+            return System.identityHashCode(proxy);
+         case "equals":
+            return proxy == args[0];
+         case "toString":
+            return method + " " + requestURL;
+         default:
+            throw new UnsupportedOperationException(m.getName());
+      }
+   }
+
+   private List<String> header(final String name) {
+      for(String headerName : headers.keySet()) {
+         if(headerName.equalsIgnoreCase(name)) {
+            return headers.get(headerName);
+         }
+      }
+      return ImmutableList.of();
+   }
+
+   /**
+    * Counts the bytes read from the body.
+    */
+   private class CountingInputStream extends ByteArrayInputStream {
+
+      CountingInputStream(final byte[] buf) {
+         super(buf);
+      }
+
+      @Override
+      public synchronized int read() {
+         int b = super.read();
+         if(b != -1) {
+            bodyBytesRead++;
+         }
+         return b;
+      }
+
+      @Override
+      public synchronized int read(final byte[] b, final int off, final int len) {
+         int count = super.read(b, off, len);
+         if(count > 0) {
+            bodyBytesRead += count;
+         }
+         return count;
+      }
+   }
+
+   private final String method;
+   private final String requestURL;
+   private final String queryString;
+   private final ListMultimap<String, String> headers = LinkedListMultimap.create();
+   private final ListMultimap<String, String> parameters = LinkedListMultimap.create();
+   private final Multiset<String> calls = ConcurrentHashMultiset.create();
+   private byte[] body;
+   private Function<InputStream, ?> inputStream;
+   private boolean contentLengthKnown = true;
+   private Object asyncContext;
+   private volatile boolean asyncStarted;
+   private volatile int bodyBytesRead;
+}
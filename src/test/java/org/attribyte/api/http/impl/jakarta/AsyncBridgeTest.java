@@ -0,0 +1,413 @@
+/*
+ * Copyright 2026 Attribyte Labs, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ *
+ */
+
+package org.attribyte.api.http.impl.jakarta;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.google.common.io.ByteSource;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.protobuf.ByteString;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.attribyte.api.DataLimitException;
+import org.attribyte.api.http.Request;
+import org.attribyte.api.http.Response;
+import org.attribyte.api.http.ResponseBuilder;
+import org.attribyte.api.http.impl.TestServletRequest;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests for the non-blocking Jakarta servlet bridge.
+ */
+public class AsyncBridgeTest {
+
+   @Test
+   public void testReadBody() throws Exception {
+      byte[] body = "{\"test\":true}".getBytes(StandardCharsets.UTF_8);
+      Exchange exchange = new Exchange();
+      TestServletRequest servletRequest = new TestServletRequest("POST", "http://localhost/test", "a=1")
+              .addHeader("Content-Type", "application/json")
+              .setBody(body, AsyncBridgeTest::servletInputStream)
+              .setContentLengthUnknown()
+              .setAsyncContext(exchange.asyncContext);
+      Request request = AsyncBridge.fromServletRequest(servletRequest.create(HttpServletRequest.class), 1024).get();
+      assertEquals(Request.Method.POST, request.getMethod());
+      assertEquals(ByteString.copyFrom(body), request.getBody());
+      assertEquals("application/json", request.getContentType());
+      assertEquals("127.0.0.1", request.getRemoteAddr());
+      assertEquals(1, servletRequest.calls("startAsync"));
+      assertEquals(0, exchange.completions.get());
+   }
+
+   @Test
+   public void testReadFormBody() throws Exception {
+      byte[] body = "b=2&b=3".getBytes(StandardCharsets.UTF_8);
+      Exchange exchange = new Exchange();
+      TestServletRequest servletRequest = new TestServletRequest("POST", "http://localhost/test", "a=1")
+              .addHeader("Content-Type", "Application/X-WWW-Form-Urlencoded; charset=UTF-8")
+              .setBody(body, AsyncBridgeTest::servletInputStream)
+              .setAsyncContext(exchange.asyncContext);
+      Request request = AsyncBridge.fromServletRequest(servletRequest.create(HttpServletRequest.class), 1024).get();
+      assertTrue(request.isFormEncoded());
+      assertEquals("1", request.getParameterValue("a"));
+      assertEquals(ImmutableList.of("2", "3"), request.getParameterValueList("b"));
+   }
+
+   @Test
+   public void testNoBody() throws Exception {
+      TestServletRequest servletRequest = new TestServletRequest("GET", "http://localhost/test", "a=1")
+              .addParameter("a", "1");
+      Request request = AsyncBridge.fromServletRequest(servletRequest.create(HttpServletRequest.class), 1024).get();
+      assertEquals(Request.Method.GET, request.getMethod());
+      assertEquals("1", request.getParameterValue("a"));
+      assertEquals(0, servletRequest.calls("startAsync", "getInputStream"));
+   }
+
+   @Test
+   public void testBodyLimit() throws Exception {
+      byte[] body = new byte[16];
+      Exchange exchange = new Exchange();
+      TestServletRequest servletRequest = new TestServletRequest("PUT", "http://localhost/test", null)
+              .setBody(body, AsyncBridgeTest::servletInputStream)
+              .setContentLengthUnknown()
+              .setAsyncContext(exchange.asyncContext);
+      Request request = AsyncBridge.fromServletRequest(servletRequest.create(HttpServletRequest.class), 16).get();
+      assertEquals(16, request.getBody().size());
+      assertEquals(0, exchange.completions.get());
+   }
+
+   @Test
+   public void testDeclaredLengthTooLarge() throws Exception {
+      Exchange exchange = new Exchange();
+      TestServletRequest servletRequest = new TestServletRequest("POST", "http://localhost/test", null)
+              .setBody(new byte[16], AsyncBridgeTest::servletInputStream)
+              .setAsyncContext(exchange.asyncContext);
+      CompletableFuture<Request> request = AsyncBridge.fromServletRequest(servletRequest.create(HttpServletRequest.class), 15);
+      assertRejected(request, exchange);
+      assertEquals(0, servletRequest.calls("getInputStream"));
+   }
+
+   @Test
+   public void testBodyTooLarge() throws Exception {
+      Exchange exchange = new Exchange();
+      TestServletRequest servletRequest = new TestServletRequest("POST", "http://localhost/test", null)
+              .setBody(new byte[16], AsyncBridgeTest::servletInputStream)
+              .setContentLengthUnknown()
+              .setAsyncContext(exchange.asyncContext);
+      CompletableFuture<Request> request = AsyncBridge.fromServletRequest(servletRequest.create(HttpServletRequest.class), 15);
+      assertRejected(request, exchange);
+
+      //A response sent for the failed request must not complete the request again.
+      CompletableFuture<Void> done = AsyncBridge.sendServletResponse(request.thenApply(r -> new ResponseBuilder(200).create()),
+              exchange.asyncContext);
+      assertTrue(done.isCompletedExceptionally());
+      assertEquals(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE, exchange.status);
+      assertEquals(1, exchange.completions.get());
+   }
+
+   @Test
+   public void testSendBody() throws Exception {
+      byte[] body = new byte[20000];
+      new Random(1).nextBytes(body);
+      Exchange exchange = new Exchange();
+      Response response = new ResponseBuilder(201, body).addHeader("X-Test", "test").create();
+      CompletableFuture<Void> done = AsyncBridge.sendServletResponse(CompletableFuture.completedFuture(response),
+              exchange.asyncContext);
+      exchange.out.awaitDone(done);
+      done.get(5, TimeUnit.SECONDS);
+      assertEquals(201, exchange.status);
+      assertEquals("test", exchange.headers.get("X-Test"));
+      assertEquals(20000L, exchange.contentLength);
+      assertArrayEquals(body, exchange.out.bytes.toByteArray());
+      assertEquals(3, exchange.out.writes.get());
+      assertEquals(1, exchange.completions.get());
+   }
+
+   @Test
+   public void testSendStreamedBody() throws Exception {
+      byte[] body = new byte[20000];
+      new Random(2).nextBytes(body);
+      Set<String> readThreads = Sets.newConcurrentHashSet();
+      AtomicBoolean closed = new AtomicBoolean();
+      ByteSource bodySource = new ByteSource() {
+         @Override
+         public InputStream openStream() {
+            return new FilterInputStream(new ByteArrayInputStream(body)) {
+               @Override
+               public int read(final byte[] b, final int off, final int len) throws IOException {
+                  readThreads.add(Thread.currentThread().getName());
+                  return super.read(b, off, len);
+               }
+
+               @Override
+               public void close() throws IOException {
+                  closed.set(true);
+                  super.close();
+               }
+            };
+         }
+      };
+
+      ExecutorService sourceExecutor = Executors.newSingleThreadExecutor(
+              new ThreadFactoryBuilder().setNameFormat("test-source-%d").setDaemon(true).build());
+      try {
+         Exchange exchange = new Exchange();
+         Response response = new ResponseBuilder(200, bodySource).createStreamed();
+         CompletableFuture<Void> done = AsyncBridge.sendServletResponse(CompletableFuture.completedFuture(response),
+                 exchange.asyncContext, sourceExecutor);
+         exchange.out.awaitDone(done);
+         done.get(5, TimeUnit.SECONDS);
+         assertEquals(200, exchange.status);
+         assertArrayEquals(body, exchange.out.bytes.toByteArray());
+         assertEquals(ImmutableList.of("test-source-0"), ImmutableList.copyOf(readThreads));
+         assertTrue(closed.get());
+         assertEquals(1, exchange.completions.get());
+      } finally {
+         sourceExecutor.shutdownNow();
+      }
+   }
+
+   @Test
+   public void testSendStreamedBodyReadError() throws Exception {
+      ByteSource bodySource = new ByteSource() {
+         @Override
+         public InputStream openStream() {
+            return new InputStream() {
+               @Override
+               public int read() throws IOException {
+                  throw new IOException("Read failed");
+               }
+            };
+         }
+      };
+
+      Exchange exchange = new Exchange();
+      Response response = new ResponseBuilder(200, bodySource).createStreamed();
+      CompletableFuture<Void> done = AsyncBridge.sendServletResponse(CompletableFuture.completedFuture(response),
+              exchange.asyncContext, Runnable::run);
+      assertTrue(done.isCompletedExceptionally());
+      assertEquals(1, exchange.completions.get());
+   }
+
+   @Test
+   public void testSendFailedResponse() throws Exception {
+      Exchange exchange = new Exchange();
+      CompletableFuture<Response> response = new CompletableFuture<>();
+      CompletableFuture<Void> done = AsyncBridge.sendServletResponse(response, exchange.asyncContext);
+      assertFalse(done.isDone());
+      response.completeExceptionally(new IOException("Failed"));
+      assertTrue(done.isCompletedExceptionally());
+      assertEquals(HttpServletResponse.SC_INTERNAL_SERVER_ERROR, exchange.status);
+      assertEquals(1, exchange.completions.get());
+   }
+
+   private static void assertRejected(final CompletableFuture<Request> request, final Exchange exchange) throws Exception {
+      try {
+         request.get();
+         fail("Expecting DataLimitException");
+      } catch(ExecutionException ee) {
+         assertTrue(ee.getCause() instanceof DataLimitException);
+      }
+      assertEquals(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE, exchange.status);
+      assertEquals(1, exchange.completions.get());
+   }
+
+   /**
+    * Wraps a stream as a servlet input stream that notifies its listener when set.
+    * @param is The stream.
+    * @return The servlet input stream.
+    */
+   static ServletInputStream servletInputStream(final InputStream is) {
+      return new ServletInputStream() {
+         @Override
+         public int read() throws IOException {
+            return is.read();
+         }
+
+         @Override
+         public int read(final byte[] b, final int off, final int len) throws IOException {
+            return is.read(b, off, len);
+         }
+
+         @Override
+         public boolean isFinished() {
+            try {
+               return is.available() == 0;
+            } catch(IOException ioe) {
+               return true;
+            }
+         }
+
+         @Override
+         public boolean isReady() {
+            return true;
+         }
+
+         @Override
+         public void setReadListener(final ReadListener readListener) {
+            try {
+               readListener.onDataAvailable();
+               readListener.onAllDataRead();
+            } catch(IOException ioe) {
+               readListener.onError(ioe);
+            }
+         }
+      };
+   }
+
+   /**
+    * An async context and the servlet response it holds.
+    */
+   private static final class Exchange {
+
+      final TestOutputStream out = new TestOutputStream();
+      final AtomicInteger completions = new AtomicInteger();
+      final Map<String, String> headers = Maps.newConcurrentMap();
+      volatile int status = 200;
+      volatile long contentLength = -1L;
+
+      final HttpServletResponse response = (HttpServletResponse)Proxy.newProxyInstance(
+              HttpServletResponse.class.getClassLoader(), new Class<?>[]{HttpServletResponse.class}, (proxy, m, args) -> {
+                 switch(m.getName()) {
+                    case "setStatus":
+                       status = (Integer)args[0];
+                       return null;
+                    case "getStatus":
+                       return status;
+                    case "addHeader":
+                       headers.put((String)args[0], (String)args[1]);
+                       return null;
+                    case "setContentLength":
+                       contentLength = (Integer)args[0];
+                       return null;
+                    case "setContentLengthLong":
+                       contentLength = (Long)args[0];
+                       return null;
+                    case "isCommitted":
+                       return completions.get() > 0 || out.writes.get() > 0;
+                    case "getOutputStream":
+                       return out;
+                    default:
+                       throw new UnsupportedOperationException(m.getName());
+                 }
+              });
+
+      final AsyncContext asyncContext = (AsyncContext)Proxy.newProxyInstance(
+              AsyncContext.class.getClassLoader(), new Class<?>[]{AsyncContext.class}, (proxy, m, args) -> {
+                 switch(m.getName()) {
+                    case "getResponse":
+                       return response;
+                    case "complete":
+                       if(completions.get() > 0) {
+                          throw new IllegalStateException("Already complete");
+                       }
+                       completions.incrementAndGet();
+                       return null;
+                    default:
+                       throw new UnsupportedOperationException(m.getName());
+                 }
+              });
+   }
+
+   /**
+    * An output stream that is ready for one write at a time, until resumed.
+    */
+   private static final class TestOutputStream extends ServletOutputStream {
+
+      @Override
+      public boolean isReady() {
+         return ready.get();
+      }
+
+      @Override
+      public void setWriteListener(final WriteListener writeListener) {
+         this.writeListener = writeListener;
+         try {
+            writeListener.onWritePossible();
+         } catch(IOException ioe) {
+            writeListener.onError(ioe);
+         }
+      }
+
+      @Override
+      public void write(final int b) throws IOException {
+         write(new byte[]{(byte)b}, 0, 1);
+      }
+
+      @Override
+      public void write(final byte[] b, final int off, final int len) {
+         if(!ready.get()) {
+            throw new IllegalStateException("Not ready");
+         }
+         synchronized(bytes) {
+            bytes.write(b, off, len);
+         }
+         writes.incrementAndGet();
+         ready.set(false);
+      }
+
+      /**
+       * Makes the stream ready, as a container would when the client has received the last write,
+       * until the response is done.
+       * @param done The response future.
+       * @throws Exception on interrupt or timeout.
+       */
+      void awaitDone(final CompletableFuture<Void> done) throws Exception {
+         long timeoutMillis = System.currentTimeMillis() + 5000L;
+         while(!done.isDone() && System.currentTimeMillis() < timeoutMillis) {
+            if(ready.compareAndSet(false, true)) {
+               writeListener.onWritePossible();
+            }
+            Thread.sleep(1L);
+         }
+      }
+
+      final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      final AtomicInteger writes = new AtomicInteger();
+      private final AtomicBoolean ready = new AtomicBoolean(true);
+      private volatile WriteListener writeListener;
+   }
+}
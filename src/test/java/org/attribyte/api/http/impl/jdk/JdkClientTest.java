@@ -15,11 +15,23 @@
 
 package org.attribyte.api.http.impl.jdk;
 
+import com.google.common.base.Throwables;
+import com.google.common.collect.Lists;
+import com.google.common.io.ByteSource;
+import com.google.common.io.ByteStreams;
+import com.google.protobuf.ByteString;
+import org.attribyte.api.DataLimitException;
+import org.attribyte.api.http.CachedResponse;
+import org.attribyte.api.http.CachingClient;
+import org.attribyte.api.http.ClientMetrics;
+import org.attribyte.api.http.CoalescingClient;
 import org.attribyte.api.http.ClientOptions;
 import org.attribyte.api.http.DeleteRequestBuilder;
 import org.attribyte.api.http.FormPostRequestBuilder;
 import org.attribyte.api.http.GetRequestBuilder;
+import org.attribyte.api.http.Header;
 import org.attribyte.api.http.HeadRequestBuilder;
+import org.attribyte.api.http.HedgingClient;
 import org.attribyte.api.http.OptionsRequestBuilder;
 import org.attribyte.api.http.PatchRequestBuilder;
 import org.attribyte.api.http.PostRequestBuilder;
@@ -27,13 +39,32 @@ import org.attribyte.api.http.PutRequestBuilder;
 import org.attribyte.api.http.Request;
 import org.attribyte.api.http.RequestOptions;
 import org.attribyte.api.http.Response;
+import org.attribyte.api.http.RetryBudget;
+import org.attribyte.api.http.RetryingClient;
+import org.attribyte.api.http.StreamedResponse;
 import org.attribyte.api.http.impl.TestHttpServer;
 import org.junit.AfterClass;
 import org.junit.BeforeClass;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.ConnectException;
+import java.net.ServerSocket;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
 import static org.junit.Assert.*;
@@ -43,6 +74,9 @@ public class JdkClientTest {
    private static JdkClient client;
    private static TestHttpServer server;
 
+   @Rule
+   public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
    @BeforeClass
    public static void setUp() throws Exception {
       server = new TestHttpServer();
@@ -183,6 +217,16 @@ public class JdkClientTest {
       assertEquals("another-value", response.getHeaderValue("x-echo-x-another"));
    }
 
+   @Test
+   public void testQueryParameters() throws Exception {
+      Request request = new GetRequestBuilder(server.baseUrl() + "/ok?q=http+model&tag=a%26b&tag=c&tag=%E2%82%AC&empty&=ignored&eq=x=y").create();
+      assertEquals("http model", request.getParameterValue("q"));
+      assertArrayEquals(new String[] {"a&b", "c", "\u20ac"}, request.getParameterValues("tag"));
+      assertTrue(request.parameters.containsKey("empty"));
+      assertEquals("x=y", request.getParameterValue("eq"));
+      assertEquals(4, request.parameters.size());
+   }
+
    @Test
    public void testAsyncGet() throws Exception {
       Request request = new GetRequestBuilder(server.baseUrl() + "/ok").create();
@@ -223,4 +267,571 @@ public class JdkClientTest {
          assertEquals("OK", response.getBody().toStringUtf8());
       }
    }
+
+   @Test
+   public void testStreamGet() throws Exception {
+      Request request = new GetRequestBuilder(server.baseUrl() + "/ok").create();
+      StreamedResponse response = client.stream(request, 5L, TimeUnit.SECONDS);
+      assertEquals(200, response.statusCode);
+      try(InputStream is = response.getBodySource().openStream()) {
+         assertEquals("OK", new String(ByteStreams.toByteArray(is), StandardCharsets.UTF_8));
+      }
+   }
+
+   @Test
+   public void testStreamTruncateOnLimit() throws Exception {
+      byte[] body = new byte[64 * 1024];
+      Request request = new PostRequestBuilder(server.baseUrl() + "/chunked", body).create();
+      RequestOptions options = new RequestOptions(true, 10000, 5, true);
+      StreamedResponse response = client.stream(request, options, 5L, TimeUnit.SECONDS);
+      assertEquals(200, response.statusCode);
+      try(InputStream is = response.getBodySource().openStream()) {
+         assertEquals(10000, ByteStreams.toByteArray(is).length);
+      }
+   }
+
+   @Test(expected = IOException.class)
+   public void testStreamLimitExceeded() throws Exception {
+      byte[] body = new byte[64 * 1024];
+      Request request = new PostRequestBuilder(server.baseUrl() + "/chunked", body).create();
+      RequestOptions options = new RequestOptions(true, 10000, 5, false);
+      StreamedResponse response = client.stream(request, options, 5L, TimeUnit.SECONDS);
+      try(InputStream is = response.getBodySource().openStream()) {
+         ByteStreams.toByteArray(is);
+      }
+   }
+
+   @Test
+   public void testTruncateOnLimit() throws Exception {
+      byte[] body = new byte[64 * 1024];
+      Request request = new PostRequestBuilder(server.baseUrl() + "/echo", body).create();
+      Response response = client.send(request, new RequestOptions(true, 10000, 5, true));
+      assertEquals(200, response.statusCode);
+      assertEquals(10000, response.getBody().size());
+      assertEquals(Boolean.TRUE, response.getAttribute("truncated"));
+   }
+
+   @Test
+   public void testLimitExceeded() throws Exception {
+      byte[] body = new byte[64 * 1024];
+      Request request = new PostRequestBuilder(server.baseUrl() + "/chunked", body).create();
+      try {
+         client.completableSend(request, new RequestOptions(true, 10000, 5, false)).get(5, TimeUnit.SECONDS);
+         fail("Expected limit exception");
+      } catch(ExecutionException ee) {
+         assertTrue(Throwables.getRootCause(ee) instanceof DataLimitException);
+      }
+   }
+
+   @Test
+   public void testDeclaredLengthLimitExceeded() throws Exception {
+      byte[] body = new byte[64 * 1024];
+      Request request = new PostRequestBuilder(server.baseUrl() + "/echo", body).create();
+      try {
+         client.send(request, new RequestOptions(true, 10000, 5, false));
+         fail("Expected limit exception");
+      } catch(IOException ioe) {
+         assertTrue(Throwables.getRootCause(ioe) instanceof DataLimitException);
+      }
+   }
+
+   @Test
+   public void testStats() throws Exception {
+      byte[] body = new byte[16 * 1024];
+      Request request = new PostRequestBuilder(server.baseUrl() + "/echo", body).create();
+      Response response = client.send(request, RequestOptions.DEFAULT);
+      assertEquals(200, response.statusCode);
+      assertNotNull(response.stats);
+      assertTrue(response.stats.responseHeaderCount > 0);
+      assertEquals(body.length, response.stats.responseBodySize.get());
+      assertTrue(response.stats.responseChunkCount.get() > 0);
+      assertEquals(body.length, response.stats.requestBodySize);
+      assertTrue(response.stats.timeToRequestStart(TimeUnit.NANOSECONDS) > 0);
+      assertTrue(response.stats.timeToResponseStatus(TimeUnit.NANOSECONDS) >= response.stats.timeToRequestStart(TimeUnit.NANOSECONDS));
+      assertTrue(response.stats.timeToFirstResponseContent(TimeUnit.NANOSECONDS) >= response.stats.timeToResponseStatus(TimeUnit.NANOSECONDS));
+      assertTrue(response.stats.timeToCompleteResponse(TimeUnit.NANOSECONDS) >= response.stats.timeToFirstResponseContent(TimeUnit.NANOSECONDS));
+   }
+
+   @Test
+   public void testExecutorTypes() throws Exception {
+      for(ClientOptions.ExecutorType executorType : ClientOptions.ExecutorType.values()) {
+         ClientOptions options = new ClientOptions.Builder()
+                 .setExecutorType(executorType)
+                 .setExecutorThreads(4)
+                 .create();
+         JdkClient executorClient = new JdkClient(options);
+         try {
+            Request request = new GetRequestBuilder(server.baseUrl() + "/ok").create();
+            Response response = executorClient.completableSend(request, RequestOptions.DEFAULT).get(5, TimeUnit.SECONDS);
+            assertEquals(200, response.statusCode);
+         } finally {
+            executorClient.shutdown();
+         }
+      }
+
+      ExecutorService executor = JdkClient.executorFromOptions(new ClientOptions.Builder()
+              .setExecutorType(ClientOptions.ExecutorType.BOUNDED)
+              .setExecutorThreads(4)
+              .create());
+      try {
+         assertTrue(executor instanceof ThreadPoolExecutor);
+         assertEquals(4, ((ThreadPoolExecutor)executor).getMaximumPoolSize());
+      } finally {
+         executor.shutdown();
+      }
+   }
+
+   @Test
+   public void testSynchronousRequestLimit() throws Exception {
+      JdkClient limitedClient = new JdkClient(new ClientOptions.Builder().setMaxConnectionsPerDestination(2).create());
+      ExecutorService callers = Executors.newFixedThreadPool(8);
+      try {
+         long start = System.nanoTime();
+         List<Future<Response>> responses = Lists.newArrayList();
+         for(int i = 0; i < 8; i++) {
+            responses.add(callers.submit(() -> limitedClient.send(new GetRequestBuilder(server.baseUrl() + "/delay?ms=100").create())));
+         }
+         for(Future<Response> response : responses) {
+            assertEquals(200, response.get(5, TimeUnit.SECONDS).statusCode);
+         }
+         assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(400L));
+      } finally {
+         callers.shutdown();
+         limitedClient.shutdown();
+      }
+   }
+
+   @Test
+   public void testFollowRedirect() throws Exception {
+      Request request = new GetRequestBuilder(server.baseUrl() + "/redirect?to=/ok").create();
+      Response response = client.send(request, RequestOptions.DEFAULT.followRedirects());
+      assertEquals(200, response.statusCode);
+      assertEquals("OK", response.getBody().toStringUtf8());
+   }
+
+   @Test
+   public void testNoFollowRedirect() throws Exception {
+      Request request = new GetRequestBuilder(server.baseUrl() + "/redirect?to=/ok").create();
+      Response response = client.completableSend(request, new RequestOptions(false, 1024, 5)).get(5, TimeUnit.SECONDS);
+      assertEquals(302, response.statusCode);
+      assertEquals("/ok", response.getHeaderValue("location"));
+      assertEquals("Redirect", response.getBody().toStringUtf8());
+   }
+
+   @Test
+   public void testRedirectPreservesMethod() throws Exception {
+      byte[] body = "redirected-body".getBytes(StandardCharsets.UTF_8);
+      Request request = new PostRequestBuilder(server.baseUrl() + "/redirect?status=307&to=/echo", body).create();
+      Response response = client.completableSend(request, RequestOptions.DEFAULT).get(5, TimeUnit.SECONDS);
+      assertEquals(200, response.statusCode);
+      assertEquals("POST", response.getHeaderValue("x-method"));
+      assertEquals("redirected-body", response.getBody().toStringUtf8());
+      assertEquals(body.length, response.stats.requestBodySize);
+
+      response = client.send(request);
+      assertEquals(body.length, response.stats.requestBodySize);
+   }
+
+   @Test
+   public void testRedirectAuthorization() throws Exception {
+      TestHttpServer otherServer = new TestHttpServer();
+      otherServer.start();
+      try {
+         Request request = new GetRequestBuilder(server.baseUrl() + "/redirect?to=http://LOCALHOST:" + server.getPort() + "/headers")
+                 .addHeader("Authorization", "Bearer secret").create();
+         Response response = client.send(request);
+         assertEquals(200, response.statusCode);
+         assertEquals("Bearer secret", response.getHeaderValue("X-Echo-Authorization"));
+
+         request = new GetRequestBuilder(server.baseUrl() + "/redirect?to=" + otherServer.baseUrl() + "/headers")
+                 .addHeader("Authorization", "Bearer secret").create();
+         response = client.send(request);
+         assertEquals(200, response.statusCode);
+         assertNull(response.getHeaderValue("X-Echo-Authorization"));
+      } finally {
+         otherServer.stop();
+      }
+   }
+
+   @Test
+   public void testRedirectSeeOther() throws Exception {
+      byte[] body = "redirected-body".getBytes(StandardCharsets.UTF_8);
+      Request request = new PostRequestBuilder(server.baseUrl() + "/redirect?status=303&to=/echo", body).create();
+      Response response = client.send(request, RequestOptions.DEFAULT);
+      assertEquals(200, response.statusCode);
+      assertEquals("GET", response.getHeaderValue("x-method"));
+      assertEquals("GET", response.getBody().toStringUtf8());
+   }
+
+   @Test
+   public void testMaxRedirects() throws Exception {
+      Request request = new GetRequestBuilder(server.baseUrl() + "/loop").create();
+      try {
+         client.completableSend(request, RequestOptions.DEFAULT).get(5, TimeUnit.SECONDS);
+         fail("Expected maximum redirects exception");
+      } catch(ExecutionException ee) {
+         assertTrue(ee.getCause() instanceof IOException);
+      }
+   }
+
+   @Test
+   public void testPostFile() throws Exception {
+      byte[] body = new byte[100 * 1024];
+      for(int i = 0; i < body.length; i++) {
+         body[i] = (byte)(i % 251);
+      }
+      Path file = Files.createTempFile("request-body", ".bin");
+      try {
+         Files.write(file, body);
+         Request request = new PostRequestBuilder(server.baseUrl() + "/echo", file).create();
+         Response response = client.send(request, RequestOptions.DEFAULT);
+         assertEquals(200, response.statusCode);
+         assertArrayEquals(body, response.getBody().toByteArray());
+      } finally {
+         Files.deleteIfExists(file);
+      }
+   }
+
+   @Test
+   public void testPutStreamedBody() throws Exception {
+      final byte[] body = "streamed-body".getBytes(StandardCharsets.UTF_8);
+      ByteSource source = new ByteSource() { //Size unknown - sent chunked
+         @Override
+         public InputStream openStream() {
+            return new ByteArrayInputStream(body);
+         }
+      };
+      Request request = new PutRequestBuilder(server.baseUrl() + "/echo", source).create();
+      Response response = client.completableSend(request, RequestOptions.DEFAULT).get(5, TimeUnit.SECONDS);
+      assertEquals(200, response.statusCode);
+      assertEquals("PUT", response.getHeaderValue("x-method"));
+      assertEquals("streamed-body", response.getBody().toStringUtf8());
+   }
+
+   @Test
+   public void testPostRopeBody() throws Exception {
+      ByteString body = ByteString.copyFromUtf8("first-").concat(ByteString.copyFromUtf8("second-"))
+              .concat(ByteString.copyFromUtf8("third"));
+      Request request = new PostRequestBuilder(server.baseUrl() + "/echo", body).create();
+      Response response = client.send(request, RequestOptions.DEFAULT);
+      assertEquals(200, response.statusCode);
+      assertEquals("first-second-third", response.getBody().toStringUtf8());
+   }
+
+   @Test
+   public void testMissingBodyFile() throws Exception {
+      Request request = new PostRequestBuilder(server.baseUrl() + "/echo", Paths.get("/does/not/exist")).create();
+      try {
+         client.completableSend(request, RequestOptions.DEFAULT).get(5, TimeUnit.SECONDS);
+         fail("Expected missing file exception");
+      } catch(ExecutionException ee) {
+         assertTrue(ee.getCause() instanceof IOException);
+      }
+   }
+
+   @Test
+   public void testRedirectResendsStreamedBody() throws Exception {
+      Request request = new PostRequestBuilder(server.baseUrl() + "/redirect?status=307&to=/echo",
+              ByteSource.wrap("redirected-body".getBytes(StandardCharsets.UTF_8))).create();
+      Response response = client.send(request, RequestOptions.DEFAULT);
+      assertEquals(200, response.statusCode);
+      assertEquals("redirected-body", response.getBody().toStringUtf8());
+   }
+
+   @Test
+   public void testMetrics() throws Exception {
+      for(int i = 0; i < 4; i++) {
+         assertEquals(200, client.completableSend(new GetRequestBuilder(server.baseUrl() + "/ok").create())
+                 .get(5, TimeUnit.SECONDS).statusCode);
+      }
+      ClientMetrics.Destination destination =
+              client.metrics().getDestination(ClientMetrics.destinationKey("http", "localhost", server.getPort()));
+      assertNotNull(destination);
+      assertEquals(0, destination.activeConnections);
+      assertEquals(-1, destination.idleConnections);
+      assertEquals(-1, destination.queuedRequests);
+      assertEquals(0L, destination.rejectedRequests);
+   }
+
+   @Test
+   public void testIdleDestinationEviction() throws Exception {
+      JdkClient limitedClient = new JdkClient(new ClientOptions.Builder().setMaxConnectionsPerDestination(1).create());
+      ExecutorService callers = Executors.newSingleThreadExecutor();
+      try {
+         final String key = ClientMetrics.destinationKey("http", "localhost", server.getPort());
+         final long expiryNanos = TimeUnit.MILLISECONDS.toNanos(ClientMetrics.DESTINATION_EXPIRY_MILLIS);
+         assertEquals(200, limitedClient.send(new GetRequestBuilder(server.baseUrl() + "/ok").create()).statusCode);
+         assertNotNull(limitedClient.metrics().getDestination(key));
+         limitedClient.evictIdleDestinations(System.nanoTime() + expiryNanos);
+         assertNull(limitedClient.metrics().getDestination(key));
+
+         //Stats held by a request waiting for a response are not evicted.
+         Future<Response> response = callers.submit(() -> limitedClient.send(new GetRequestBuilder(server.baseUrl() + "/delay?ms=300").create()));
+         Thread.sleep(100L);
+         limitedClient.evictIdleDestinations(System.nanoTime() + expiryNanos);
+         ClientMetrics.Destination destination = limitedClient.metrics().getDestination(key);
+         assertNotNull(destination);
+         assertEquals(1, destination.activeConnections);
+         assertEquals(200, response.get(5, TimeUnit.SECONDS).statusCode);
+         limitedClient.evictIdleDestinations(System.nanoTime() + expiryNanos);
+         assertNull(limitedClient.metrics().getDestination(key));
+
+         assertEquals(200, limitedClient.send(new GetRequestBuilder(server.baseUrl() + "/ok").create()).statusCode);
+         assertNotNull(limitedClient.metrics().getDestination(key));
+      } finally {
+         callers.shutdown();
+         limitedClient.shutdown();
+      }
+   }
+
+   @Test
+   public void testStatsLevels() throws Exception {
+      byte[] body = "stats-body".getBytes(StandardCharsets.UTF_8);
+      Request request = new PostRequestBuilder(server.baseUrl() + "/echo", body).create();
+      Response response = client.send(request, RequestOptions.DEFAULT.withStatsLevel(RequestOptions.StatsLevel.OFF));
+      assertEquals(200, response.statusCode);
+      assertNull(response.stats);
+
+      //The request is started and complete when the body publisher is subscribed and completes.
+      //The status and all headers are received together, when the body handler is applied.
+      response = client.send(request, RequestOptions.DEFAULT.withStatsLevel(RequestOptions.StatsLevel.TIMING));
+      assertTrue(response.stats.timeToRequestStart(TimeUnit.NANOSECONDS) > 0L);
+      assertTrue(response.stats.timeToRequestComplete(TimeUnit.NANOSECONDS) >= response.stats.timeToRequestStart(TimeUnit.NANOSECONDS));
+      assertEquals(response.stats.timeToResponseStatus(TimeUnit.NANOSECONDS), response.stats.timeToLastResponseHeader(TimeUnit.NANOSECONDS));
+      assertEquals(0L, response.stats.requestBodySize);
+
+      response = client.send(request, RequestOptions.DEFAULT.withStatsLevel(RequestOptions.StatsLevel.FULL));
+      assertEquals(body.length, response.stats.requestBodySize);
+      assertEquals(body.length, response.stats.responseBodySize.get());
+
+      //Requests without a body report zero time to request start.
+      response = client.send(new GetRequestBuilder(server.baseUrl() + "/ok").create(),
+              RequestOptions.DEFAULT.withStatsLevel(RequestOptions.StatsLevel.TIMING));
+      assertEquals(0L, response.stats.timeToRequestStart(TimeUnit.NANOSECONDS));
+   }
+
+   @Test
+   public void testCachingClient() throws Exception {
+      CachingClient cachingClient = new CachingClient(client, 1024L * 1024L);
+      Request request = new GetRequestBuilder(server.baseUrl() + "/cacheable?maxAge=60&jdk").create();
+      int count = server.cacheableRequestCount();
+      Response response = cachingClient.send(request);
+      assertEquals(200, response.statusCode);
+      assertEquals(CachedResponse.CacheStatus.MISS, response.getAttribute(CachedResponse.CACHE_STATUS_ATTRIBUTE));
+      Response cached = cachingClient.completableSend(request).get(5, TimeUnit.SECONDS);
+      assertEquals(CachedResponse.CacheStatus.HIT, cached.getAttribute(CachedResponse.CACHE_STATUS_ATTRIBUTE));
+      assertEquals(response.getBody(), cached.getBody());
+      assertSame(cached, cachingClient.send(request));
+      assertEquals(count + 1, server.cacheableRequestCount());
+      assertEquals(2L, cachingClient.hits());
+      assertEquals(1L, cachingClient.misses());
+
+      Request noStore = new GetRequestBuilder(server.baseUrl() + "/cacheable?noStore").create();
+      assertEquals(CachedResponse.CacheStatus.MISS,
+              cachingClient.send(noStore).getAttribute(CachedResponse.CACHE_STATUS_ATTRIBUTE));
+      assertEquals(CachedResponse.CacheStatus.MISS,
+              cachingClient.send(noStore).getAttribute(CachedResponse.CACHE_STATUS_ATTRIBUTE));
+      assertEquals(count + 3, server.cacheableRequestCount());
+   }
+
+   @Test
+   public void testCachingClientRevalidation() throws Exception {
+      CachingClient cachingClient = new CachingClient(client, 1024L * 1024L);
+      Request request = new GetRequestBuilder(server.baseUrl() + "/cacheable?maxAge=0&etag=v1").create();
+      Response response = cachingClient.send(request);
+      assertEquals(CachedResponse.CacheStatus.MISS, response.getAttribute(CachedResponse.CACHE_STATUS_ATTRIBUTE));
+      Response revalidated = cachingClient.send(request);
+      assertEquals(200, revalidated.statusCode);
+      assertEquals(CachedResponse.CacheStatus.REVALIDATED, revalidated.getAttribute(CachedResponse.CACHE_STATUS_ATTRIBUTE));
+      assertEquals(response.getBody(), revalidated.getBody());
+      assertEquals("\"v1\"", revalidated.getHeaderValue("ETag"));
+      assertEquals(1L, cachingClient.revalidations());
+
+      Request noCache = new GetRequestBuilder(server.baseUrl() + "/cacheable?maxAge=60&etag=v2")
+              .addHeader("Cache-Control", "no-cache").create();
+      cachingClient.send(noCache);
+      assertEquals(CachedResponse.CacheStatus.REVALIDATED,
+              cachingClient.send(noCache).getAttribute(CachedResponse.CACHE_STATUS_ATTRIBUTE));
+      assertEquals(2L, cachingClient.revalidations());
+   }
+
+   @Test
+   public void testCachingClientVaryAndInvalidation() throws Exception {
+      CachingClient cachingClient = new CachingClient(client, 1024L * 1024L);
+      String url = server.baseUrl() + "/cacheable?maxAge=60&vary=Accept-Language";
+      Request english = new GetRequestBuilder(url).addHeader("Accept-Language", "en").create();
+      Request french = new GetRequestBuilder(url).addHeader("Accept-Language", "fr").create();
+      cachingClient.send(english);
+      assertEquals(CachedResponse.CacheStatus.HIT,
+              cachingClient.send(english).getAttribute(CachedResponse.CACHE_STATUS_ATTRIBUTE));
+      assertEquals(CachedResponse.CacheStatus.MISS,
+              cachingClient.send(french).getAttribute(CachedResponse.CACHE_STATUS_ATTRIBUTE));
+      assertEquals(CachedResponse.CacheStatus.HIT,
+              cachingClient.send(french).getAttribute(CachedResponse.CACHE_STATUS_ATTRIBUTE));
+
+      cachingClient.send(new PostRequestBuilder(url, "update".getBytes(StandardCharsets.UTF_8)).create());
+      assertEquals(CachedResponse.CacheStatus.MISS,
+              cachingClient.send(french).getAttribute(CachedResponse.CACHE_STATUS_ATTRIBUTE));
+   }
+
+   @Test
+   public void testCachingClientRequestDirectives() throws Exception {
+      CachingClient cachingClient = new CachingClient(client, 1024L * 1024L);
+      String url = server.baseUrl() + "/cacheable?maxAge=60&directives";
+      Request onlyIfCached = new GetRequestBuilder(url).addHeader("Cache-Control", "only-if-cached").create();
+      int count = server.cacheableRequestCount();
+      Response response = cachingClient.send(onlyIfCached);
+      assertEquals(504, response.statusCode);
+      assertEquals(CachedResponse.CacheStatus.MISS, response.getAttribute(CachedResponse.CACHE_STATUS_ATTRIBUTE));
+      assertEquals(count, server.cacheableRequestCount());
+
+      cachingClient.send(new GetRequestBuilder(url).create());
+      assertEquals(CachedResponse.CacheStatus.HIT,
+              cachingClient.send(onlyIfCached).getAttribute(CachedResponse.CACHE_STATUS_ATTRIBUTE));
+      assertEquals(count + 1, server.cacheableRequestCount());
+
+      Request maxAge = new GetRequestBuilder(url).addHeader("Cache-Control", "max-age=0").create();
+      Thread.sleep(5L);
+      assertEquals(CachedResponse.CacheStatus.MISS,
+              cachingClient.send(maxAge).getAttribute(CachedResponse.CACHE_STATUS_ATTRIBUTE));
+      assertEquals(count + 2, server.cacheableRequestCount());
+
+      Request minFresh = new GetRequestBuilder(url).addHeader("Cache-Control", "min-fresh=120").create();
+      assertEquals(CachedResponse.CacheStatus.MISS,
+              cachingClient.send(minFresh).getAttribute(CachedResponse.CACHE_STATUS_ATTRIBUTE));
+      assertEquals(count + 3, server.cacheableRequestCount());
+
+      String staleUrl = server.baseUrl() + "/cacheable?maxAge=0&directives";
+      cachingClient.send(new GetRequestBuilder(staleUrl).create());
+      Request staleOnlyIfCached = new GetRequestBuilder(staleUrl).addHeader("Cache-Control", "only-if-cached").create();
+      assertEquals(504, cachingClient.send(staleOnlyIfCached).statusCode);
+      Request maxStale = new GetRequestBuilder(staleUrl).addHeader("Cache-Control", "max-stale").create();
+      assertEquals(CachedResponse.CacheStatus.HIT,
+              cachingClient.send(maxStale).getAttribute(CachedResponse.CACHE_STATUS_ATTRIBUTE));
+      assertEquals(count + 4, server.cacheableRequestCount());
+   }
+
+   @Test
+   public void testCoalescingClient() throws Exception {
+      CoalescingClient coalescingClient = new CoalescingClient(client);
+      Request request = new GetRequestBuilder(server.baseUrl() + "/delay?ms=500&jdk").create();
+      int count = server.delayRequestCount();
+      List<CompletableFuture<Response>> futures = Lists.newArrayList();
+      for(int i = 0; i < 16; i++) {
+         futures.add(coalescingClient.completableSend(request));
+      }
+      assertEquals(1, coalescingClient.inFlight());
+      Response first = futures.get(0).get(5, TimeUnit.SECONDS);
+      for(CompletableFuture<Response> future : futures) {
+         assertSame(first, future.get(5, TimeUnit.SECONDS));
+      }
+      assertEquals(count + 1, server.delayRequestCount());
+      assertEquals(1L, coalescingClient.sent());
+      assertEquals(15L, coalescingClient.coalesced());
+      assertEquals(0, coalescingClient.inFlight());
+
+      coalescingClient.send(request);
+      assertEquals(count + 2, server.delayRequestCount());
+   }
+
+   @Test
+   public void testCoalescingClientCredentials() throws Exception {
+      CoalescingClient coalescingClient = new CoalescingClient(client);
+      String url = server.baseUrl() + "/delay?ms=500&jdk-credentials";
+      int count = server.delayRequestCount();
+      List<CompletableFuture<Response>> futures = Lists.newArrayList();
+      for(int i = 0; i < 4; i++) {
+         futures.add(coalescingClient.completableSend(new GetRequestBuilder(url).create()));
+         futures.add(coalescingClient.completableSend(new GetRequestBuilder(url).addHeader("Authorization", "Bearer a").create()));
+         futures.add(coalescingClient.completableSend(new GetRequestBuilder(url).addHeader("Authorization", "Bearer b").create()));
+         futures.add(coalescingClient.completableSend(new GetRequestBuilder(url).addHeader("Cookie", "session=a").create()));
+      }
+      for(CompletableFuture<Response> future : futures) {
+         assertEquals(200, future.get(5, TimeUnit.SECONDS).statusCode);
+      }
+      assertEquals(count + 4, server.delayRequestCount());
+      assertEquals(4L, coalescingClient.sent());
+      assertEquals(12L, coalescingClient.coalesced());
+   }
+
+   @Test
+   public void testRetryingClient() throws Exception {
+      RetryingClient retryingClient = RetryingClient.builder(client).setBaseDelayMillis(10L).build();
+      Response response = retryingClient.send(new GetRequestBuilder(server.baseUrl() + "/flaky?id=jdk-get&failures=2").create());
+      assertEquals(200, response.statusCode);
+      assertEquals("FLAKY 3", response.getBody().toStringUtf8());
+      assertEquals(2L, retryingClient.retries());
+
+      response = retryingClient.send(new GetRequestBuilder(server.baseUrl() + "/flaky?id=jdk-exhausted&failures=5").create());
+      assertEquals(503, response.statusCode);
+      assertEquals(3, server.flakyRequestCount("jdk-exhausted"));
+
+      response = retryingClient.send(new PostRequestBuilder(server.baseUrl() + "/flaky?id=jdk-post&failures=1",
+              "body".getBytes(StandardCharsets.UTF_8)).create());
+      assertEquals(503, response.statusCode);
+      assertEquals(1, server.flakyRequestCount("jdk-post"));
+
+      response = retryingClient.send(new GetRequestBuilder(server.baseUrl() + "/flaky?id=jdk-500&failures=1&status=500").create());
+      assertEquals(500, response.statusCode);
+      assertEquals(1, server.flakyRequestCount("jdk-500"));
+
+      int closedPort;
+      try(ServerSocket socket = new ServerSocket(0)) {
+         closedPort = socket.getLocalPort();
+      }
+      long retries = retryingClient.retries();
+      try {
+         retryingClient.completableSend(new PostRequestBuilder("http://localhost:" + closedPort + "/ok",
+                 "body".getBytes(StandardCharsets.UTF_8)).create()).get(5, TimeUnit.SECONDS);
+         fail("Expected connect exception");
+      } catch(ExecutionException ee) {
+         assertTrue(Throwables.getCausalChain(ee).stream().anyMatch(t -> t instanceof ConnectException));
+      }
+      assertEquals(retries + 2L, retryingClient.retries());
+   }
+
+   @Test
+   public void testRetryingClientCancelDuringBackoff() throws Exception {
+      RetryingClient retryingClient = RetryingClient.builder(client).setBaseDelayMillis(500L).setMaxDelayMillis(500L).build();
+      CompletableFuture<Response> future = retryingClient.completableSend(
+              new GetRequestBuilder(server.baseUrl() + "/flaky?id=jdk-cancel&failures=5").create());
+      long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5L);
+      while(retryingClient.retries() == 0L && System.nanoTime() < deadline) {
+         Thread.sleep(5L);
+      }
+      assertEquals(1L, retryingClient.retries());
+      assertTrue(future.cancel(true));
+      Thread.sleep(1000L);
+      assertEquals(1, server.flakyRequestCount("jdk-cancel"));
+      assertEquals(1L, retryingClient.retries());
+   }
+
+   @Test
+   public void testHedgingClient() throws Exception {
+      HedgingClient hedgingClient = HedgingClient.builder(client)
+              .setPercentile(50.0)
+              .setMinSamples(5)
+              .setHedgeBudget(new RetryBudget(1.0, 0, 10))
+              .build();
+      for(int i = 0; i < 5; i++) {
+         Request request = new GetRequestBuilder(server.baseUrl() + "/delay?ms=10").addAttribute(Request.STATS_TAG, "jdk-hedge").create();
+         assertEquals(200, hedgingClient.send(request).statusCode);
+      }
+      assertEquals(0L, hedgingClient.hedges());
+
+      long start = System.nanoTime();
+      Response response = hedgingClient.send(new GetRequestBuilder(server.baseUrl() + "/delay?ms=10&id=jdk-hedge&firstMs=3000")
+              .addAttribute(Request.STATS_TAG, "jdk-hedge").create());
+      assertEquals(200, response.statusCode);
+      assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(2000L));
+      assertEquals(1L, hedgingClient.hedges());
+      assertEquals(1L, hedgingClient.hedgeWins());
+
+      start = System.nanoTime();
+      response = hedgingClient.send(new PostRequestBuilder(server.baseUrl() + "/delay?ms=10&id=jdk-hedge-post&firstMs=300",
+              "body".getBytes(StandardCharsets.UTF_8)).addAttribute(Request.STATS_TAG, "jdk-hedge").create());
+      assertEquals(200, response.statusCode);
+      assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(300L));
+      assertEquals(1L, hedgingClient.hedges());
+   }
 }
@@ -16,30 +16,62 @@
 package org.attribyte.api.http.impl.jetty;
 
 import com.google.common.base.Charsets;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
 import com.google.common.hash.Hashing;
+import com.google.common.io.ByteSource;
 import com.google.common.io.ByteStreams;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.protobuf.ByteString;
+import org.attribyte.api.http.AsyncClient;
+import org.attribyte.api.http.CachedResponse;
+import org.attribyte.api.http.CachingClient;
+import org.attribyte.api.http.ClientMetrics;
+import org.attribyte.api.http.CoalescingClient;
 import org.attribyte.api.http.ClientOptions;
 import org.attribyte.api.http.DeleteRequestBuilder;
 import org.attribyte.api.http.FormPostRequestBuilder;
+import org.attribyte.api.http.ForwardingAsyncClient;
 import org.attribyte.api.http.GetRequestBuilder;
 import org.attribyte.api.http.HeadRequestBuilder;
+import org.attribyte.api.http.HedgingClient;
+import org.attribyte.api.http.MemoryResponseCache;
 import org.attribyte.api.http.OptionsRequestBuilder;
 import org.attribyte.api.http.PatchRequestBuilder;
+import org.attribyte.api.http.PooledBodyResponse;
 import org.attribyte.api.http.PostRequestBuilder;
 import org.attribyte.api.http.PutRequestBuilder;
 import org.attribyte.api.http.Request;
 import org.attribyte.api.http.RequestOptions;
 import org.attribyte.api.http.Response;
+import org.attribyte.api.http.RetryBudget;
+import org.attribyte.api.http.RetryingClient;
 import org.attribyte.api.http.StreamedResponse;
+import org.attribyte.api.http.TimingAggregator;
 import org.attribyte.api.http.impl.TestHttpServer;
+import org.eclipse.jetty.client.HttpClient;
+import org.eclipse.jetty.client.Result;
 import org.junit.AfterClass;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.net.ServerSocket;
+import java.net.URI;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.Assert.*;
 
@@ -261,5 +293,543 @@ public class JettyClientTest {
       Response response = client.send(request, RequestOptions.DEFAULT);
       assertEquals(200, response.statusCode);
       assertArrayEquals(body, response.getBody().toByteArray());
+      assertEquals(0, response.stats.responseBufferReallocations); // Sized from Content-Length
+   }
+
+   @Test
+   public void testChunkedLargeBody() throws Exception {
+      byte[] body = new byte[64 * 1024 + 17];
+      for(int i = 0; i < body.length; i++) {
+         body[i] = (byte)(i % 251);
+      }
+      Request request = new PostRequestBuilder(server.baseUrl() + "/chunked", body)
+              .addHeader("Content-Type", "application/octet-stream")
+              .create();
+      Response response = client.send(request, RequestOptions.DEFAULT);
+      assertEquals(200, response.statusCode);
+      assertNull(response.getHeaderValue("content-length"));
+      assertArrayEquals(body, response.getBody().toByteArray());
+      assertTrue(response.stats.responseBufferReallocations > 0);
+   }
+
+   @Test
+   public void testPooledResponseBuffers() throws Exception {
+      Properties props = new Properties();
+      props.setProperty("pooledResponseBuffers", "true");
+      props.setProperty("directResponseBuffers", "true");
+      props.setProperty("pooledResponseSegmentSize", "4096");
+      JettyClient pooledClient = new JettyClient(new ClientOptions("", props));
+      try {
+         byte[] body = new byte[64 * 1024 + 17];
+         for(int i = 0; i < body.length; i++) {
+            body[i] = (byte)(i % 251);
+         }
+         Request request = new PostRequestBuilder(server.baseUrl() + "/echo", body)
+                 .addHeader("Content-Type", "application/octet-stream")
+                 .create();
+         Response response = pooledClient.send(request, RequestOptions.DEFAULT);
+         assertTrue(response instanceof PooledBodyResponse);
+         try(PooledBodyResponse pooledResponse = (PooledBodyResponse)response) {
+            assertEquals(200, pooledResponse.statusCode);
+            assertArrayEquals(body, pooledResponse.getBody().toByteArray());
+         }
+         assertTrue(((PooledBodyResponse)response).isClosed());
+      } finally {
+         pooledClient.shutdown();
+      }
+   }
+
+   @Test
+   public void testCachingClientPooledResponseBuffers() throws Exception {
+      Properties props = new Properties();
+      props.setProperty("pooledResponseBuffers", "true");
+      props.setProperty("pooledResponseSegmentSize", "4096");
+      JettyClient pooledClient = new JettyClient(new ClientOptions("", props));
+      List<Response> delegateResponses = new CopyOnWriteArrayList<>();
+      AsyncClient recordingClient = new ForwardingAsyncClient(pooledClient) {
+         @Override
+         public CompletableFuture<Response> completableSend(final Request request, final RequestOptions options) {
+            return super.completableSend(request, options).thenApply(response -> {
+               delegateResponses.add(response);
+               return response;
+            });
+         }
+      };
+      try {
+         MemoryResponseCache cache = new MemoryResponseCache(1024L * 1024L);
+         CachingClient cachingClient = new CachingClient(recordingClient, cache);
+         Response response = cachingClient.send(new GetRequestBuilder(server.baseUrl() + "/cacheable?maxAge=60&pooled").create());
+         assertEquals(CachedResponse.CacheStatus.MISS, response.getAttribute(CachedResponse.CACHE_STATUS_ATTRIBUTE));
+         assertTrue(response instanceof PooledBodyResponse);
+         assertEquals(0, cache.size());
+         assertFalse(((PooledBodyResponse)delegateResponses.get(0)).isClosed());
+         ((PooledBodyResponse)response).close();
+         assertTrue(((PooledBodyResponse)delegateResponses.get(0)).isClosed());
+
+         //Stored from a heap response, then revalidated with a pooled 304 response that is discarded.
+         Request stale = new GetRequestBuilder(server.baseUrl() + "/cacheable?maxAge=0&etag=pooled").create();
+         new CachingClient(client, cache).send(stale);
+         Response revalidated = cachingClient.send(stale);
+         assertEquals(CachedResponse.CacheStatus.REVALIDATED, revalidated.getAttribute(CachedResponse.CACHE_STATUS_ATTRIBUTE));
+         assertFalse(revalidated instanceof PooledBodyResponse);
+         assertEquals(304, delegateResponses.get(1).statusCode);
+         assertTrue(((PooledBodyResponse)delegateResponses.get(1)).isClosed());
+      } finally {
+         pooledClient.shutdown();
+      }
+   }
+
+   @Test
+   public void testDynamicTransport() throws Exception {
+      Properties props = new Properties();
+      props.setProperty("protocol", "h2");
+      props.setProperty("maxConcurrentStreams", "16");
+      ClientOptions options = new ClientOptions("", props);
+      assertEquals(ClientOptions.Protocol.HTTP_2, options.protocol);
+      JettyClient dynamicClient = new JettyClient(options);
+      try {
+         // Clear-text requests use HTTP/1.1 with the HTTP_2 protocol
+         List<CompletableFuture<Response>> futures = Lists.newArrayList();
+         for(int i = 0; i < 8; i++) {
+            futures.add(dynamicClient.completableSend(new GetRequestBuilder(server.baseUrl() + "/ok").create(), RequestOptions.DEFAULT));
+         }
+         for(CompletableFuture<Response> future : futures) {
+            Response response = future.get(5, TimeUnit.SECONDS);
+            assertEquals(200, response.statusCode);
+            assertEquals("OK", response.getBody().toStringUtf8());
+         }
+      } finally {
+         dynamicClient.shutdown();
+      }
+   }
+
+   @Test
+   public void testPostFile() throws Exception {
+      byte[] body = new byte[100 * 1024];
+      for(int i = 0; i < body.length; i++) {
+         body[i] = (byte)(i % 251);
+      }
+      Path file = Files.createTempFile("request-body", ".bin");
+      try {
+         Files.write(file, body);
+         Request request = new PostRequestBuilder(server.baseUrl() + "/echo", file).create();
+         Response response = client.send(request, RequestOptions.DEFAULT);
+         assertEquals(200, response.statusCode);
+         assertArrayEquals(body, response.getBody().toByteArray());
+      } finally {
+         Files.deleteIfExists(file);
+      }
+   }
+
+   @Test
+   public void testPutStreamedBody() throws Exception {
+      final byte[] body = "streamed-body".getBytes(StandardCharsets.UTF_8);
+      ByteSource source = new ByteSource() { //Size unknown - sent chunked
+         @Override
+         public InputStream openStream() {
+            return new ByteArrayInputStream(body);
+         }
+      };
+      Request request = new PutRequestBuilder(server.baseUrl() + "/echo", source).create();
+      Response response = client.completableSend(request, RequestOptions.DEFAULT).get(5, TimeUnit.SECONDS);
+      assertEquals(200, response.statusCode);
+      assertEquals("PUT", response.getHeaderValue("x-method"));
+      assertEquals("streamed-body", response.getBody().toStringUtf8());
+   }
+
+   @Test
+   public void testStreamedBodyOpenedWhenSent() throws Exception {
+      final AtomicInteger opened = new AtomicInteger();
+      ByteSource source = new ByteSource() {
+         @Override
+         public InputStream openStream() {
+            opened.incrementAndGet();
+            return new ByteArrayInputStream("streamed-body".getBytes(StandardCharsets.UTF_8));
+         }
+      };
+
+      int closedPort;
+      try(ServerSocket socket = new ServerSocket(0)) {
+         closedPort = socket.getLocalPort();
+      }
+      try {
+         client.send(new PutRequestBuilder("http://localhost:" + closedPort + "/echo", source).create());
+         fail("Expected connect exception");
+      } catch(IOException ioe) {
+         assertEquals(0, opened.get());
+      }
+
+      Response response = client.send(new PutRequestBuilder(server.baseUrl() + "/echo", source).create());
+      assertEquals("streamed-body", response.getBody().toStringUtf8());
+      assertEquals(1, opened.get());
+   }
+
+   @Test
+   public void testPostRopeBody() throws Exception {
+      ByteString body = ByteString.copyFromUtf8("first-").concat(ByteString.copyFromUtf8("second-"))
+              .concat(ByteString.copyFromUtf8("third"));
+      Request request = new PostRequestBuilder(server.baseUrl() + "/echo", body).create();
+      Response response = client.send(request, RequestOptions.DEFAULT);
+      assertEquals(200, response.statusCode);
+      assertEquals("first-second-third", response.getBody().toStringUtf8());
+   }
+
+   @Test
+   public void testMissingBodyFile() throws Exception {
+      Request request = new PostRequestBuilder(server.baseUrl() + "/echo", Paths.get("/does/not/exist")).create();
+      try {
+         client.completableSend(request, RequestOptions.DEFAULT).get(5, TimeUnit.SECONDS);
+         fail("Expected missing file exception");
+      } catch(ExecutionException ee) {
+         assertTrue(ee.getCause() instanceof IOException);
+      }
+   }
+
+   @Test
+   public void testMetrics() throws Exception {
+      for(int i = 0; i < 4; i++) {
+         assertEquals(200, client.send(new GetRequestBuilder(server.baseUrl() + "/ok").create()).statusCode);
+      }
+      ClientMetrics metrics = client.metrics();
+      ClientMetrics.Destination destination = metrics.getDestination(ClientMetrics.destinationKey("http", "localhost", server.getPort()));
+      assertNotNull(destination);
+      assertEquals(0, destination.queuedRequests);
+      assertTrue(destination.idleConnections >= 1);
+      assertTrue(destination.maxConnections > 0);
+      assertTrue(destination.queueWaitTime.count >= 4);
+      assertEquals(0L, destination.rejectedRequests);
+      assertTrue(metrics.toMap().containsKey(destination.key + ".queue-wait-p99"));
+   }
+
+   @Test
+   public void testIdleDestinationEviction() throws Exception {
+      HttpClient httpClient = new HttpClient();
+      MetricsListener listener = new MetricsListener();
+      org.eclipse.jetty.client.Request request = httpClient.newRequest(server.baseUrl() + "/ok");
+      listener.onQueued(request);
+      listener.onBegin(request);
+      String key = ClientMetrics.destinationKey("http", "localhost", server.getPort());
+      ClientMetrics.Destination destination = listener.metrics(httpClient).getDestination(key);
+      assertNotNull(destination);
+      assertEquals(1L, destination.queueWaitTime.count);
+
+      listener.evictIdleDestinations(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(ClientMetrics.DESTINATION_EXPIRY_MILLIS));
+      assertNull(listener.metrics(httpClient).getDestination(key));
+   }
+
+   @Test
+   public void testRejectedRequestMetrics() throws Exception {
+      Properties props = new Properties();
+      props.setProperty("maxConnectionsPerDestination", "1");
+      props.setProperty("maxRequestsQueuedPerDestination", "1");
+      JettyClient limitedClient = new JettyClient(new ClientOptions("", props));
+      try {
+         List<CompletableFuture<Response>> futures = Lists.newArrayList();
+         for(int i = 0; i < 32; i++) {
+            futures.add(limitedClient.completableSend(new GetRequestBuilder(server.baseUrl() + "/ok").create(), RequestOptions.DEFAULT));
+         }
+         int rejected = 0;
+         for(CompletableFuture<Response> future : futures) {
+            try {
+               future.get(5, TimeUnit.SECONDS);
+            } catch(ExecutionException ee) {
+               rejected++;
+            }
+         }
+         assertTrue(rejected > 0);
+         ClientMetrics metrics = limitedClient.metrics();
+         assertEquals(rejected, metrics.rejectedRequests);
+         assertEquals(32 - rejected, metrics.queueWaitTime.count);
+      } finally {
+         limitedClient.shutdown();
+      }
+   }
+
+   @Test
+   public void testTimingAggregation() throws Exception {
+      Properties props = new Properties();
+      props.setProperty("aggregateTiming", "true");
+      props.setProperty("timingWindow", "10m");
+      JettyClient timingClient = new JettyClient(new ClientOptions("", props));
+      try {
+         for(int i = 0; i < 3; i++) {
+            Request request = new GetRequestBuilder(server.baseUrl() + "/ok").addAttribute(Request.STATS_TAG, "tagged").create();
+            assertEquals(200, timingClient.send(request).statusCode);
+         }
+         assertEquals(200, timingClient.send(new GetRequestBuilder(server.baseUrl() + "/ok").create()).statusCode);
+         TimingAggregator.Snapshot tagged = timingClient.timingAggregator().snapshot("localhost", server.getPort(), "tagged");
+         assertNotNull(tagged);
+         assertEquals(3L, tagged.phase(TimingAggregator.Phase.TOTAL).count);
+         assertEquals(3L, tagged.phase(TimingAggregator.Phase.FIRST_BYTE).count);
+         assertTrue(tagged.phase(TimingAggregator.Phase.TOTAL).percentile(99.0) >= tagged.phase(TimingAggregator.Phase.FIRST_BYTE).percentile(50.0));
+         assertEquals(1L, timingClient.timingAggregator().snapshot("localhost", server.getPort(), null).phase(TimingAggregator.Phase.TOTAL).count);
+         assertEquals(2, timingClient.timingAggregator().snapshots().size());
+         assertNull(client.timingAggregator());
+      } finally {
+         timingClient.shutdown();
+      }
+   }
+
+   @Test
+   public void testTimingAggregatorDestinationsAndEviction() throws Exception {
+      TimingAggregator aggregator = new TimingAggregator(1L, TimeUnit.SECONDS);
+      final long tick = System.nanoTime();
+      final long second = TimeUnit.SECONDS.toNanos(1L);
+      aggregator.record("localhost", 8080, null, 1000L, 1000L, 2000L, 3000L, tick);
+      aggregator.record("localhost", 8081, null, 1000L, 1000L, 2000L, 4000L, tick);
+      assertEquals(3000L, aggregator.snapshot("localhost", 8080, null).phase(TimingAggregator.Phase.TOTAL).max);
+      assertEquals(4000L, aggregator.snapshot("localhost", 8081, null).phase(TimingAggregator.Phase.TOTAL).max);
+      assertEquals(8081, aggregator.snapshot(new URI("http://localhost:8081/test"), null).port);
+      assertNull(aggregator.snapshot("localhost", 80, null));
+      assertNull(aggregator.snapshot(new URI("http://localhost/test"), null));
+
+      //Values recorded in the previous window are retained.
+      aggregator.record("localhost", 8080, null, 1000L, 1000L, 2000L, 3000L, tick + second + second / 2);
+      assertNotNull(aggregator.snapshot("localhost", 8081, null));
+
+      //Nothing recorded for 8081 in the current or previous window.
+      aggregator.record("localhost", 8080, null, 1000L, 1000L, 2000L, 3000L, tick + 3 * second);
+      assertNull(aggregator.snapshot("localhost", 8081, null));
+      assertEquals(2L, aggregator.snapshot("localhost", 8080, null).phase(TimingAggregator.Phase.TOTAL).count);
+
+      aggregator.record("example.com", 443, "tagged", 1000L, 1000L, 2000L, 3000L, tick + 10 * second);
+      assertNull(aggregator.snapshot("localhost", 8080, null));
+      List<TimingAggregator.Snapshot> snapshots = aggregator.snapshots();
+      assertEquals(1, snapshots.size());
+      assertEquals("example.com", snapshots.get(0).host);
+      assertEquals(443, snapshots.get(0).port);
+      assertEquals("tagged", snapshots.get(0).tag);
+   }
+
+   @Test
+   public void testStatsLevels() throws Exception {
+      //Jetty reports the status, first and last headers separately, and the request headers.
+      Request request = new GetRequestBuilder(server.baseUrl() + "/ok").create();
+      Response response = client.send(request, RequestOptions.DEFAULT.withStatsLevel(RequestOptions.StatsLevel.TIMING));
+      assertTrue(response.stats.timeToRequestStart(TimeUnit.NANOSECONDS) > 0L);
+      assertTrue(response.stats.timeToFirstResponseHeader(TimeUnit.NANOSECONDS) >= response.stats.timeToResponseStatus(TimeUnit.NANOSECONDS));
+      assertTrue(response.stats.timeToLastResponseHeader(TimeUnit.NANOSECONDS) >= response.stats.timeToFirstResponseHeader(TimeUnit.NANOSECONDS));
+      assertEquals(0, response.stats.requestHeaderCount);
+      assertEquals(0, response.stats.responseChunkCount.get());
+
+      response = client.send(request, RequestOptions.DEFAULT.withStatsLevel(RequestOptions.StatsLevel.FULL));
+      assertTrue(response.stats.requestHeaderCount > 0);
+      assertTrue(response.stats.responseChunkCount.get() > 0);
+   }
+
+   @Test
+   public void testStatsLevelOffWithTimingAggregation() throws Exception {
+      Properties props = new Properties();
+      props.setProperty("aggregateTiming", "true");
+      JettyClient timingClient = new JettyClient(new ClientOptions("", props));
+      try {
+         Request request = new GetRequestBuilder(server.baseUrl() + "/ok").create();
+         for(int i = 0; i < 2; i++) {
+            Response response = timingClient.send(request, RequestOptions.DEFAULT.withStatsLevel(RequestOptions.StatsLevel.OFF));
+            assertEquals(200, response.statusCode);
+            assertNull(response.stats);
+         }
+         TimingAggregator.Snapshot timing = timingClient.timingAggregator().snapshot("localhost", server.getPort(), null);
+         assertNotNull(timing);
+         assertEquals(2L, timing.phase(TimingAggregator.Phase.TOTAL).count);
+         assertEquals(2L, timing.phase(TimingAggregator.Phase.FIRST_BYTE).count);
+      } finally {
+         timingClient.shutdown();
+      }
+   }
+
+   @Test
+   public void testRequestListener() throws Exception {
+      CountingListener listener = new CountingListener();
+      Request request = new GetRequestBuilder(server.baseUrl() + "/ok").create();
+      Response response = client.completableSend(request, RequestOptions.DEFAULT, listener).get(5, TimeUnit.SECONDS);
+      assertEquals(200, response.statusCode);
+      assertNotNull(response.stats);
+      assertEquals(1, listener.requestsBegun.get());
+      assertEquals(1, listener.responsesBegun.get());
+      assertEquals(200, client.asyncSend(request, RequestOptions.DEFAULT, listener).get(5, TimeUnit.SECONDS).statusCode);
+      assertEquals(2, listener.requestsBegun.get());
+   }
+
+   @Test
+   public void testClientListeners() throws Exception {
+      Properties props = new Properties();
+      props.setProperty("listeners", CountingListener.class.getName());
+      JettyClient listenerClient = new JettyClient(new ClientOptions("", props));
+      try {
+         int begun = CountingListener.totalRequestsBegun.get();
+         assertEquals(200, listenerClient.send(new GetRequestBuilder(server.baseUrl() + "/ok").create()).statusCode);
+         assertEquals(200, listenerClient.send(new GetRequestBuilder(server.baseUrl() + "/ok").create()).statusCode);
+         assertEquals(begun + 2, CountingListener.totalRequestsBegun.get());
+      } finally {
+         listenerClient.shutdown();
+      }
+   }
+
+   /**
+    * Counts request and response events.
+    */
+   public static class CountingListener implements Listener {
+
+      @Override
+      public void onBegin(org.eclipse.jetty.client.Request request) {
+         requestsBegun.incrementAndGet();
+         totalRequestsBegun.incrementAndGet();
+      }
+
+      @Override
+      public void onBegin(org.eclipse.jetty.client.Response response) {
+         responsesBegun.incrementAndGet();
+      }
+
+      final AtomicInteger requestsBegun = new AtomicInteger();
+      final AtomicInteger responsesBegun = new AtomicInteger();
+      static final AtomicInteger totalRequestsBegun = new AtomicInteger();
+   }
+
+   @Test
+   public void testCachingClient() throws Exception {
+      CachingClient cachingClient = new CachingClient(client, 1024L * 1024L);
+      Request fresh = new GetRequestBuilder(server.baseUrl() + "/cacheable?maxAge=60&jetty").create();
+      Response response = cachingClient.completableSend(fresh).get(5, TimeUnit.SECONDS);
+      assertEquals(CachedResponse.CacheStatus.MISS, response.getAttribute(CachedResponse.CACHE_STATUS_ATTRIBUTE));
+      Response cached = cachingClient.asyncSend(fresh).get(5, TimeUnit.SECONDS);
+      assertEquals(CachedResponse.CacheStatus.HIT, cached.getAttribute(CachedResponse.CACHE_STATUS_ATTRIBUTE));
+      assertEquals(response.getBody(), cached.getBody());
+
+      Request stale = new GetRequestBuilder(server.baseUrl() + "/cacheable?maxAge=0&etag=jetty").create();
+      response = cachingClient.send(stale);
+      Response revalidated = cachingClient.send(stale);
+      assertEquals(CachedResponse.CacheStatus.REVALIDATED, revalidated.getAttribute(CachedResponse.CACHE_STATUS_ATTRIBUTE));
+      assertEquals(response.getBody(), revalidated.getBody());
+      assertEquals(1L, cachingClient.hits());
+      assertEquals(1L, cachingClient.revalidations());
+   }
+
+   @Test
+   public void testCoalescingClientKeyHeaders() throws Exception {
+      CoalescingClient coalescingClient = new CoalescingClient(client, ImmutableList.of("Accept-Language"));
+      String url = server.baseUrl() + "/delay?ms=500&jetty";
+      int count = server.delayRequestCount();
+      List<CompletableFuture<Response>> futures = Lists.newArrayList();
+      for(int i = 0; i < 8; i++) {
+         futures.add(coalescingClient.completableSend(
+                 new GetRequestBuilder(url).addHeader("Accept-Language", i % 2 == 0 ? "en" : "fr").create()));
+      }
+      futures.get(0).cancel(true);
+      for(CompletableFuture<Response> future : futures.subList(1, futures.size())) {
+         assertEquals(200, future.get(5, TimeUnit.SECONDS).statusCode);
+      }
+      assertEquals(count + 2, server.delayRequestCount());
+      assertEquals(2L, coalescingClient.sent());
+      assertEquals(6L, coalescingClient.coalesced());
+   }
+
+   @Test
+   public void testCoalescingClientPooledResponseBuffers() throws Exception {
+      Properties props = new Properties();
+      props.setProperty("pooledResponseBuffers", "true");
+      props.setProperty("pooledResponseSegmentSize", "4096");
+      JettyClient pooledClient = new JettyClient(new ClientOptions("", props));
+      try {
+         CoalescingClient coalescingClient = new CoalescingClient(pooledClient);
+         Request request = new GetRequestBuilder(server.baseUrl() + "/delay?ms=500&pooled").create();
+         List<CompletableFuture<Response>> futures = Lists.newArrayList();
+         for(int i = 0; i < 4; i++) {
+            futures.add(coalescingClient.completableSend(request));
+         }
+         Response sent = futures.get(0).get(5, TimeUnit.SECONDS);
+         assertTrue(sent instanceof PooledBodyResponse);
+         ByteString body = ByteString.copyFrom(sent.getBody().toByteArray());
+         ((PooledBodyResponse)sent).close();
+         Response shared = futures.get(1).get(5, TimeUnit.SECONDS);
+         assertFalse(shared instanceof PooledBodyResponse);
+         assertEquals(body, shared.getBody());
+         for(CompletableFuture<Response> future : futures.subList(1, futures.size())) {
+            assertSame(shared, future.get(5, TimeUnit.SECONDS));
+         }
+         assertEquals(3L, coalescingClient.coalesced());
+      } finally {
+         pooledClient.shutdown();
+      }
+   }
+
+   @Test
+   public void testRetryingClientRetryAfter() throws Exception {
+      RetryingClient retryingClient = RetryingClient.builder(client).setBaseDelayMillis(10L).build();
+      long start = System.nanoTime();
+      Response response = retryingClient.asyncSend(
+              new GetRequestBuilder(server.baseUrl() + "/flaky?id=jetty-retry-after&failures=1&retryAfter=1").create())
+              .get(5, TimeUnit.SECONDS);
+      assertEquals(200, response.statusCode);
+      assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(900L));
+      assertEquals(1L, retryingClient.retries());
+
+      response = retryingClient.send(
+              new GetRequestBuilder(server.baseUrl() + "/flaky?id=jetty-429&failures=1&status=429&retryAfter=0").create());
+      assertEquals(200, response.statusCode);
+      assertEquals(2, server.flakyRequestCount("jetty-429"));
+
+      response = retryingClient.send(
+              new GetRequestBuilder(server.baseUrl() + "/flaky?id=jetty-too-long&failures=1&retryAfter=60").create());
+      assertEquals(503, response.statusCode);
+      assertEquals(1, server.flakyRequestCount("jetty-too-long"));
+   }
+
+   @Test
+   public void testCancelAbortsRequest() throws Exception {
+      CompletableFuture<Throwable> failure = new CompletableFuture<>();
+      CompletableFuture<Response> response = client.completableSend(new GetRequestBuilder(server.baseUrl() + "/delay?ms=3000").create(),
+              RequestOptions.DEFAULT, new Listener() {
+                 @Override
+                 public void onComplete(final Result result) {
+                    failure.complete(result.getFailure());
+                 }
+              });
+      assertTrue(response.cancel(true));
+      assertTrue(failure.get(1, TimeUnit.SECONDS) instanceof CancellationException);
+   }
+
+   @Test
+   public void testAsyncCancelAbortsRequest() throws Exception {
+      CompletableFuture<Throwable> failure = new CompletableFuture<>();
+      ListenableFuture<Response> response = client.asyncSend(new GetRequestBuilder(server.baseUrl() + "/delay?ms=3000").create(),
+              RequestOptions.DEFAULT, new Listener() {
+                 @Override
+                 public void onComplete(final Result result) {
+                    failure.complete(result.getFailure());
+                 }
+              });
+      assertTrue(response.cancel(true));
+      assertTrue(failure.get(1, TimeUnit.SECONDS) instanceof CancellationException);
+   }
+
+   @Test
+   public void testHedgingClientTimingAggregator() throws Exception {
+      Properties props = new Properties();
+      props.setProperty("aggregateTiming", "true");
+      JettyClient timingClient = new JettyClient(new ClientOptions("", props));
+      try {
+         HedgingClient hedgingClient = HedgingClient.builder(timingClient)
+                 .setPercentile(50.0)
+                 .setMinSamples(5)
+                 .setHedgeBudget(new RetryBudget(1.0, 0, 10))
+                 .setTimingAggregator(timingClient.timingAggregator())
+                 .build();
+         for(int i = 0; i < 5; i++) {
+            assertEquals(200, hedgingClient.send(new GetRequestBuilder(server.baseUrl() + "/delay?ms=10").create()).statusCode);
+         }
+
+         long start = System.nanoTime();
+         Response response = hedgingClient.completableSend(
+                 new GetRequestBuilder(server.baseUrl() + "/delay?ms=10&id=jetty-hedge&firstMs=3000").create())
+                 .get(2, TimeUnit.SECONDS);
+         assertEquals(200, response.statusCode);
+         assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(2000L));
+         assertEquals(1L, hedgingClient.hedges());
+         assertEquals(1L, hedgingClient.hedgeWins());
+      } finally {
+         timingClient.shutdown();
+      }
    }
 }
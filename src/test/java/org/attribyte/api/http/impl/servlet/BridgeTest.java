@@ -0,0 +1,130 @@
+/*
+ * Copyright 2026 Attribyte Labs, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ *
+ */
+
+package org.attribyte.api.http.impl.servlet;
+
+import com.google.protobuf.ByteString;
+import org.attribyte.api.DataLimitException;
+import org.attribyte.api.http.Request;
+import org.attribyte.api.http.impl.TestServletRequest;
+import org.junit.Test;
+
+import javax.servlet.http.HttpServletRequest;
+import java.io.ByteArrayInputStream;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests for reading and draining bodies in the servlet bridge.
+ */
+public class BridgeTest {
+
+   @Test
+   public void testBodyFromInputStreamLimit() throws Exception {
+      byte[] body = body(1024);
+      assertArrayEquals(body, Request.bodyFromInputStream(new ByteArrayInputStream(body), 1024));
+      assertArrayEquals(body, Request.bodyFromInputStream(new ByteArrayInputStream(body), 1025));
+      try {
+         Request.bodyFromInputStream(new ByteArrayInputStream(body), 1023);
+         fail("Expecting DataLimitException");
+      } catch(DataLimitException dle) {
+         //Expected
+      }
+   }
+
+   @Test
+   public void testReadBodyLimit() throws Exception {
+      byte[] body = body(1024);
+      assertArrayEquals(body, Bridge.readBody(request(body, true).create(HttpServletRequest.class), 1024));
+      assertArrayEquals(body, Bridge.readBody(request(body, false).create(HttpServletRequest.class), 1024));
+   }
+
+   @Test
+   public void testReadBodyDeclaredLengthTooLarge() throws Exception {
+      TestServletRequest servletRequest = request(body(1024), true);
+      try {
+         Bridge.readBody(servletRequest.create(HttpServletRequest.class), 1023);
+         fail("Expecting DataLimitException");
+      } catch(DataLimitException dle) {
+         assertEquals(0, servletRequest.calls("getInputStream"));
+      }
+   }
+
+   @Test
+   public void testReadBodyTooLarge() throws Exception {
+      TestServletRequest servletRequest = request(body(1024), false);
+      try {
+         Bridge.readBody(servletRequest.create(HttpServletRequest.class), 1023);
+         fail("Expecting DataLimitException");
+      } catch(DataLimitException dle) {
+         assertEquals(1024, servletRequest.bodyBytesRead()); //No more than one byte past the limit
+      }
+
+      servletRequest = request(body(4096), false);
+      try {
+         Bridge.readBody(servletRequest.create(HttpServletRequest.class), 1023);
+         fail("Expecting DataLimitException");
+      } catch(DataLimitException dle) {
+         assertEquals(1024, servletRequest.bodyBytesRead());
+      }
+   }
+
+   @Test
+   public void testDrainBody() throws Exception {
+      TestServletRequest servletRequest = request(body(1024), true);
+      Bridge.drainBody(servletRequest.create(HttpServletRequest.class));
+      assertEquals(1024, servletRequest.bodyBytesRead());
+
+      servletRequest = request(body((int)Bridge.MAX_DRAIN_BYTES + 1024), true);
+      Bridge.drainBody(servletRequest.create(HttpServletRequest.class));
+      assertEquals(Bridge.MAX_DRAIN_BYTES, servletRequest.bodyBytesRead());
+   }
+
+   @Test
+   public void testFromServletRequestBodyLimit() throws Exception {
+      byte[] body = body(1024);
+      Request request = Bridge.fromServletRequest(request(body, false).create(HttpServletRequest.class), 1024);
+      assertEquals(ByteString.copyFrom(body), request.getBody());
+
+      try {
+         Bridge.fromServletRequest(request(body, false).create(HttpServletRequest.class), 1023);
+         fail("Expecting DataLimitException");
+      } catch(DataLimitException dle) {
+         //Expected
+      }
+
+      TestServletRequest servletRequest = request(body((int)Bridge.MAX_DRAIN_BYTES * 2), false);
+      request = Bridge.fromServletRequest(servletRequest.create(HttpServletRequest.class), 0);
+      assertTrue(request.getBody() == null || request.getBody().isEmpty());
+      assertEquals(Bridge.MAX_DRAIN_BYTES, servletRequest.bodyBytesRead());
+   }
+
+   private static byte[] body(final int size) {
+      byte[] body = new byte[size];
+      new Random(size).nextBytes(body);
+      return body;
+   }
+
+   private static TestServletRequest request(final byte[] body, final boolean declareLength) {
+      TestServletRequest servletRequest = new TestServletRequest("PUT", "http://localhost/test", null)
+              .addHeader("Content-Type", "application/octet-stream")
+              .setBody(body, LazyRequestTest::servletInputStream);
+      return declareLength ? servletRequest : servletRequest.setContentLengthUnknown();
+   }
+}
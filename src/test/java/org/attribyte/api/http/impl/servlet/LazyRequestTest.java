@@ -0,0 +1,213 @@
+/*
+ * Copyright 2026 Attribyte Labs, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ *
+ */
+
+package org.attribyte.api.http.impl.servlet;
+
+import com.google.common.collect.ImmutableList;
+import com.google.protobuf.ByteString;
+import org.attribyte.api.DataLimitException;
+import org.attribyte.api.http.Request;
+import org.attribyte.api.http.impl.TestServletRequest;
+import org.junit.Test;
+
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests for the lazy servlet request view.
+ */
+public class LazyRequestTest {
+
+   @Test
+   public void testHeadersAreLazy() throws Exception {
+      TestServletRequest servletRequest = new TestServletRequest("GET", "http://localhost/test", null)
+              .addHeader("X-Test", "first")
+              .addHeader("X-Test", "second")
+              .addHeader("Accept", "text/plain");
+      LazyRequest request = new LazyRequest(servletRequest.create(HttpServletRequest.class), 1024);
+      assertEquals(0, servletRequest.calls("getHeader", "getHeaders", "getHeaderNames"));
+
+      assertEquals("first", request.getHeaderValue("x-test"));
+      assertEquals(ImmutableList.of("first", "second"), request.getHeaderValueList("X-TEST"));
+      assertEquals(1, servletRequest.calls("getHeader"));
+      assertEquals(1, servletRequest.calls("getHeaders"));
+      assertEquals(0, servletRequest.calls("getHeaderNames"));
+
+      assertEquals(2, request.getHeaders().size());
+      assertEquals(2, request.getHeaders().size());
+      assertEquals(1, servletRequest.calls("getHeaderNames"));
+
+      assertEquals("text/plain", request.getHeaderValue("accept"));
+      assertEquals(ImmutableList.of("first", "second"), request.getHeader("X-test").getValueList());
+      assertEquals(1, servletRequest.calls("getHeader"));
+      assertEquals(3, servletRequest.calls("getHeaders")); //Once for each header, when all are copied
+   }
+
+   @Test
+   public void testQueryParametersAreLazy() throws Exception {
+      TestServletRequest servletRequest = new TestServletRequest("GET", "http://localhost/test", "a=1&a=2&B=3");
+      LazyRequest request = new LazyRequest(servletRequest.create(HttpServletRequest.class), 1024);
+      assertEquals(0, servletRequest.calls("getQueryString"));
+
+      assertEquals("1", request.getParameterValue("a"));
+      assertEquals(ImmutableList.of("1", "2"), request.getParameterValueList("a"));
+      assertEquals("3", request.getParameterValue("B"));
+      assertNull(request.getParameterValue("b"));
+      assertEquals(2, request.getParameters().size());
+      assertEquals(1, servletRequest.calls("getQueryString"));
+      assertEquals(0, servletRequest.calls("getParameter", "getParameterValues", "getParameterMap", "getInputStream"));
+   }
+
+   @Test
+   public void testFormParametersAreLazy() throws Exception {
+      Locale defaultLocale = Locale.getDefault();
+      Locale.setDefault(Locale.forLanguageTag("tr")); //Upper case 'I' lowers to a dotless 'i'
+      try {
+         TestServletRequest servletRequest = new TestServletRequest("POST", "http://localhost/test", null)
+                 .addHeader("Content-Type", "APPLICATION/X-WWW-FORM-URLENCODED")
+                 .addParameter("a", "1")
+                 .addParameter("a", "2")
+                 .addParameter("b", "3");
+         LazyRequest request = new LazyRequest(servletRequest.create(HttpServletRequest.class), 1024);
+
+         assertEquals("1", request.getParameterValue("a"));
+         assertEquals(ImmutableList.of("1", "2"), request.getParameterValueList("a"));
+         assertEquals(1, servletRequest.calls("getParameter"));
+         assertEquals(1, servletRequest.calls("getParameterValues"));
+         assertEquals(0, servletRequest.calls("getParameterMap"));
+
+         assertEquals(2, request.getParameters().size());
+         assertEquals("3", request.getParameterValue("b"));
+         assertEquals(1, servletRequest.calls("getParameterMap"));
+         assertEquals(1, servletRequest.calls("getParameter"));
+
+         assertNull(request.getBody());
+         assertEquals(0, servletRequest.calls("getInputStream"));
+      } finally {
+         Locale.setDefault(defaultLocale);
+      }
+   }
+
+   @Test
+   public void testBodyIsLazy() throws Exception {
+      byte[] body = "{\"test\":true}".getBytes(StandardCharsets.UTF_8);
+      TestServletRequest servletRequest = new TestServletRequest("POST", "http://localhost/test", "a=1")
+              .addHeader("Content-Type", "application/json")
+              .setBody(body, LazyRequestTest::servletInputStream);
+      LazyRequest request = new LazyRequest(servletRequest.create(HttpServletRequest.class), 1024);
+      assertEquals("1", request.getParameterValue("a"));
+      assertEquals(0, servletRequest.calls("getInputStream"));
+
+      ByteString requestBody = request.getBody();
+      assertEquals(ByteString.copyFrom(body), requestBody);
+      assertSame(requestBody, request.getBody());
+      assertEquals(1, servletRequest.calls("getInputStream"));
+   }
+
+   @Test
+   public void testBodyLimit() throws Exception {
+      byte[] body = new byte[16];
+      TestServletRequest servletRequest = new TestServletRequest("PUT", "http://localhost/test", null)
+              .setBody(body, LazyRequestTest::servletInputStream);
+      LazyRequest request = new LazyRequest(servletRequest.create(HttpServletRequest.class), 16);
+      assertEquals(16, request.getBody().size());
+
+      servletRequest = new TestServletRequest("PUT", "http://localhost/test", null)
+              .setBody(body, LazyRequestTest::servletInputStream);
+      request = new LazyRequest(servletRequest.create(HttpServletRequest.class), 15);
+      try {
+         request.getBody();
+         fail("Expecting DataLimitException");
+      } catch(DataLimitException dle) {
+         assertEquals(0, servletRequest.bodyBytesRead());
+      }
+   }
+
+   @Test
+   public void testIgnoredBodyIsDrained() throws Exception {
+      byte[] body = new byte[1024];
+      TestServletRequest servletRequest = new TestServletRequest("POST", "http://localhost/test", null)
+              .addHeader("Content-Type", "application/octet-stream")
+              .setBody(body, LazyRequestTest::servletInputStream);
+      LazyRequest request = new LazyRequest(servletRequest.create(HttpServletRequest.class), 0);
+      assertNull(request.getBody());
+      assertEquals(1024, servletRequest.bodyBytesRead());
+   }
+
+   @Test
+   public void testToRequest() throws Exception {
+      byte[] body = "{\"test\":true}".getBytes(StandardCharsets.UTF_8);
+      TestServletRequest servletRequest = new TestServletRequest("POST", "http://localhost/test", "a=1")
+              .addHeader("Content-Type", "application/json")
+              .addHeader("X-Test", "first")
+              .addHeader("X-Test", "second")
+              .setBody(body, LazyRequestTest::servletInputStream);
+      LazyRequest lazyRequest = new LazyRequest(servletRequest.create(HttpServletRequest.class), 1024);
+      Request request = lazyRequest.toRequest();
+      assertSame(request, lazyRequest.toRequest());
+      assertEquals(Request.Method.POST, request.getMethod());
+      assertEquals("http://localhost/test?a=1", request.getURI().toString());
+      assertEquals(ByteString.copyFrom(body), request.getBody());
+      assertEquals("application/json", request.getContentType());
+      assertEquals(ImmutableList.of("first", "second"), request.getHeaderValueList("x-test"));
+      assertEquals("127.0.0.1", request.getRemoteAddr());
+      assertEquals(1, servletRequest.calls("getInputStream"));
+
+      servletRequest = new TestServletRequest("POST", "http://localhost/test", null)
+              .addHeader("Content-Type", "application/x-www-form-urlencoded")
+              .addParameter("a", "1")
+              .addParameter("a", "2");
+      request = new LazyRequest(servletRequest.create(HttpServletRequest.class), 1024).toRequest();
+      assertTrue(request.isFormEncoded());
+      assertEquals(ImmutableList.of("1", "2"), request.getParameterValueList("a"));
+      assertEquals(0, servletRequest.calls("getInputStream"));
+
+      servletRequest = new TestServletRequest("GET", "http://localhost/test", "a=1&b=2");
+      request = new LazyRequest(servletRequest.create(HttpServletRequest.class), 1024).toRequest();
+      assertEquals(Request.Method.GET, request.getMethod());
+      assertEquals("2", request.getParameterValue("b"));
+      assertNotNull(request.getURI());
+   }
+
+   /**
+    * Wraps a stream as a servlet input stream.
+    * @param is The stream.
+    * @return The servlet input stream.
+    */
+   static ServletInputStream servletInputStream(final InputStream is) {
+      return new ServletInputStream() {
+         @Override
+         public int read() throws IOException {
+            return is.read();
+         }
+
+         @Override
+         public int read(final byte[] b, final int off, final int len) throws IOException {
+            return is.read(b, off, len);
+         }
+      };
+   }
+}